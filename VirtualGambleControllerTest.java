@@ -1,208 +1,516 @@
-import org.junit.Before;
-import org.junit.Test;
-
-import java.io.IOException;
-import java.io.StringReader;
-import java.text.ParseException;
-import java.util.Map;
-
-import stockmarket.controller.VirtualGambleController;
-import stockmarket.controller.VirtualGambleControllerImpl;
-import stockmarket.model.VirtualGamble;
-import stockmarket.view.VirtualGambleView;
-import stockmarket.view.VirtualGambleViewImpl;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
-
-
-public class VirtualGambleControllerTest {
-  private StringBuilder logs;
-  private VirtualGamble virtualGambleMock;
-  private VirtualGambleController controller;
-  private VirtualGambleView view = new VirtualGambleViewImpl();
-  Readable rd;
-  Appendable ap;
-
-  @Before
-  public void setUp() {
-    logs = new StringBuilder();
-    virtualGambleMock = new VirtualGambleMock(logs);
-    rd = new StringReader("q");
-    ap = new StringBuffer();
-    controller = new VirtualGambleControllerImpl(rd, ap);
-  }
-
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown  if readable parameter is null.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void readableNullTest() {
-    controller = new VirtualGambleControllerImpl(null, ap);
-  }
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown if appendable parameter is null.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void appendableNullTest() {
-    controller = new VirtualGambleControllerImpl(rd, null);
-  }
-
-  /**
-   * Test to verify that controller can handle IllegalArgumentException while creating a portfolio.
-   */
-  @Test
-  public void createPortfolioIllegalArgumentExceptionTest() throws IOException, ParseException {
-    rd = new StringReader("1 invalid q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    if (!ap.toString().contains("MockIllegalArgumentException")) {
-      fail();
-    }
-  }
-
-  /**
-   * Test to verify that Portfolio can be created successfully.
-   */
-  @Test
-  public void createPortfolioValidTest() throws IOException, ParseException {
-    rd = new StringReader("1 hello q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    assertEquals("Created Portfolio\n", logs.toString());
-  }
-
-  /**
-   * Test to verify that controller can handle NoSuchElementException while buying shares.
-   */
-  @Test
-  public void buyShareNoSuchElementExceptionTest() throws IOException, ParseException {
-    rd = new StringReader("2 invalid msft 2000 2018-09-09 q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    if (!ap.toString().contains("MockNoSuchElementException")) {
-      fail();
-    }
-  }
-
-  /**
-   * Test to verify that controller can handle IllegalArgumentException while buying shares.
-   */
-  @Test
-  public void buyShareIllegalArgumentExceptionTest() throws IOException, ParseException {
-    rd = new StringReader("2 illegal msft 2000 2018-09-09 q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    if (!ap.toString().contains("MockIllegalArgumentException")) {
-      fail();
-    }
-  }
-
-  /**
-   * Test to verify that shares can be bought successfully into a portfolio.
-   */
-  @Test
-  public void buyShareTest() throws IOException, ParseException {
-    rd = new StringReader("1 hello 2 hello msft 2000 2018-11-13 q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    assertEquals("Created Portfolio\n" +
-            "Bought a share\n", logs.toString());
-  }
-
-  /**
-   * Test to verify that controller can handle IllegalArgumentException while
-   * gettingTotalCostBasis.
-   */
-  @Test
-  public void getTotalCostBasisIllegalArgumentExceptionTest() throws IOException, ParseException {
-    rd = new StringReader("3 invalid 2018-09-09 q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    if (!ap.toString().contains("MockIllegalArgumentException")) {
-      fail();
-    }
-  }
-
-  @Test
-  public void getTotalCostBasisTest() throws IOException, ParseException {
-    rd = new StringReader("3 hello q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    assertEquals("Enter your choice from the menu:\n" +
-            "1) Create a new Portfolio\n" +
-            "2) Buy share\n" +
-            "3) Get Total Cost Basis of a portfolio\n" +
-            "4) Get the total value of a portfolio at a certain date\n" +
-            "5) Get a list of all portfolios\n" +
-            "Enter q/Q to quit this application at any point of time.\n" +
-            "\n" +
-            "Enter portfolio name\n" +
-            "Cost basis of hello is100.0\n" +
-            "\n" +
-            "Enter your choice from the menu:\n" +
-            "1) Create a new Portfolio\n" +
-            "2) Buy share\n" +
-            "3) Get Total Cost Basis of a portfolio\n" +
-            "4) Get the total value of a portfolio at a certain date\n" +
-            "5) Get a list of all portfolios\n" +
-            "Enter q/Q to quit this application at any point of time.\n" +
-            "\n", ap.toString());
-  }
-
-  /**
-   * Test to verify that controller can handle NoSuchElementException while getting total value.
-   */
-  @Test
-  public void getTotalValueIllegalArgumentExceptionTest() throws IOException, ParseException {
-    rd = new StringReader("4 invalid 2018-09-09 q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    if (!ap.toString().contains("MockNoSuchElementException")) {
-      fail();
-    }
-  }
-
-  /**
-   * Test to verify the  total value obtained by controller is same as that returned by model.
-   */
-  @Test
-  public void getTotalValueTest() throws IOException, ParseException {
-    rd = new StringReader("3 hello q");
-    controller = new VirtualGambleControllerImpl(rd, ap);
-    controller.startUp(virtualGambleMock, view);
-    assertEquals("Enter your choice from the menu:\n" +
-            "1) Create a new Portfolio\n" +
-            "2) Buy share\n" +
-            "3) Get Total Cost Basis of a portfolio\n" +
-            "4) Get the total value of a portfolio at a certain date\n" +
-            "5) Get a list of all portfolios\n" +
-            "Enter q/Q to quit this application at any point of time.\n" +
-            "\n" +
-            "Enter portfolio name\n" +
-            "Cost basis of hello is100.0\n" +
-            "\n" +
-            "Enter your choice from the menu:\n" +
-            "1) Create a new Portfolio\n" +
-            "2) Buy share\n" +
-            "3) Get Total Cost Basis of a portfolio\n" +
-            "4) Get the total value of a portfolio at a certain date\n" +
-            "5) Get a list of all portfolios\n" +
-            "Enter q/Q to quit this application at any point of time.\n" +
-            "\n", ap.toString());
-  }
-
-  /**
-   * Test to verify that details of all the stocks can be obtained by controller.
-   */
-  @Test
-  public void getStocksTest() {
-    Map map = virtualGambleMock.getStockDetails();
-    if (!map.containsKey("PortfolioMock")) {
-      fail();
-    }
-  }
-
-}
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import stockmarket.controller.JsonLinesReader;
+import stockmarket.controller.VirtualGambleController;
+import stockmarket.controller.VirtualGambleControllerImpl;
+import stockmarket.controller.VirtualGambleServer;
+import stockmarket.model.VirtualGamble;
+import stockmarket.view.VirtualGambleView;
+import stockmarket.view.VirtualGambleViewImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+
+public class VirtualGambleControllerTest {
+  private StringBuilder logs;
+  private VirtualGamble virtualGambleMock;
+  private VirtualGambleController controller;
+  private VirtualGambleView view = new VirtualGambleViewImpl();
+  Readable rd;
+  Appendable ap;
+
+  @Before
+  public void setUp() {
+    logs = new StringBuilder();
+    virtualGambleMock = new VirtualGambleMock(logs);
+    rd = new StringReader("q");
+    ap = new StringBuffer();
+    controller = new VirtualGambleControllerImpl(rd, ap);
+  }
+
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown  if readable parameter is null.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void readableNullTest() {
+    controller = new VirtualGambleControllerImpl(null, ap);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown if appendable parameter is null.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void appendableNullTest() {
+    controller = new VirtualGambleControllerImpl(rd, null);
+  }
+
+  /**
+   * Test to verify that controller can handle IllegalArgumentException while creating a portfolio.
+   */
+  @Test
+  public void createPortfolioIllegalArgumentExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("1 invalid q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockIllegalArgumentException")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that Portfolio can be created successfully.
+   */
+  @Test
+  public void createPortfolioValidTest() throws IOException, ParseException {
+    rd = new StringReader("1 hello q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\n", logs.toString());
+  }
+
+  /**
+   * Test to verify that controller can handle NoSuchElementException while buying shares.
+   */
+  @Test
+  public void buyShareNoSuchElementExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("2 invalid msft 2000 2018-09-09 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockNoSuchElementException")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that controller can handle IllegalArgumentException while buying shares.
+   */
+  @Test
+  public void buyShareIllegalArgumentExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("2 illegal msft 2000 2018-09-09 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockIllegalArgumentException")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that shares can be bought successfully into a portfolio.
+   */
+  @Test
+  public void buyShareTest() throws IOException, ParseException {
+    rd = new StringReader("1 hello 2 hello msft 2000 2018-11-13 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\n" +
+            "Bought a share\n", logs.toString());
+  }
+
+  /**
+   * Test to verify that controller can handle IllegalArgumentException while
+   * gettingTotalCostBasis.
+   */
+  @Test
+  public void getTotalCostBasisIllegalArgumentExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("3 invalid 2018-09-09 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockIllegalArgumentException")) {
+      fail();
+    }
+  }
+
+  @Test
+  public void getTotalCostBasisTest() throws IOException, ParseException {
+    rd = new StringReader("3 hello q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Enter your choice from the menu:\n" +
+            "1) Create a new Portfolio\n" +
+            "2) Buy share\n" +
+            "3) Get Total Cost Basis of a portfolio\n" +
+            "4) Get the total value of a portfolio at a certain date\n" +
+            "5) Get a list of all portfolios\n" +
+            "Enter q/Q to quit this application at any point of time.\n" +
+            "\n" +
+            "Enter portfolio name\n" +
+            "Cost basis of hello is100.0\n" +
+            "\n" +
+            "Enter your choice from the menu:\n" +
+            "1) Create a new Portfolio\n" +
+            "2) Buy share\n" +
+            "3) Get Total Cost Basis of a portfolio\n" +
+            "4) Get the total value of a portfolio at a certain date\n" +
+            "5) Get a list of all portfolios\n" +
+            "Enter q/Q to quit this application at any point of time.\n" +
+            "\n", ap.toString());
+  }
+
+  /**
+   * Test to verify that controller can handle NoSuchElementException while getting total value.
+   */
+  @Test
+  public void getTotalValueIllegalArgumentExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("4 invalid 2018-09-09 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockNoSuchElementException")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify the  total value obtained by controller is same as that returned by model.
+   */
+  @Test
+  public void getTotalValueTest() throws IOException, ParseException {
+    rd = new StringReader("3 hello q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Enter your choice from the menu:\n" +
+            "1) Create a new Portfolio\n" +
+            "2) Buy share\n" +
+            "3) Get Total Cost Basis of a portfolio\n" +
+            "4) Get the total value of a portfolio at a certain date\n" +
+            "5) Get a list of all portfolios\n" +
+            "Enter q/Q to quit this application at any point of time.\n" +
+            "\n" +
+            "Enter portfolio name\n" +
+            "Cost basis of hello is100.0\n" +
+            "\n" +
+            "Enter your choice from the menu:\n" +
+            "1) Create a new Portfolio\n" +
+            "2) Buy share\n" +
+            "3) Get Total Cost Basis of a portfolio\n" +
+            "4) Get the total value of a portfolio at a certain date\n" +
+            "5) Get a list of all portfolios\n" +
+            "Enter q/Q to quit this application at any point of time.\n" +
+            "\n", ap.toString());
+  }
+
+  /**
+   * Test to verify that the profit and loss of a portfolio can be obtained by controller.
+   */
+  @Test
+  public void profitAndLossTest() throws IOException, ParseException {
+    rd = new StringReader("14 hello q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Got profit and loss\n", logs.toString());
+    if (!ap.toString().contains("Realized Gain:10.0\nUnrealized Gain:20.0")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that controller can handle NoSuchElementException while getting profit and
+   * loss.
+   */
+  @Test
+  public void profitAndLossNoSuchElementExceptionTest() throws IOException, ParseException {
+    rd = new StringReader("14 invalid q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    if (!ap.toString().contains("MockNoSuchElementException")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that controller imports a broker trade history from a file.
+   */
+  @Test
+  public void importTradesTest() throws IOException, ParseException {
+    Path trades = Files.createTempFile("trades", ".csv");
+    try {
+      Files.write(trades, "Date,Symbol,Quantity,Price\n".getBytes(StandardCharsets.UTF_8));
+      rd = new StringReader("15 hello " + trades + " default 15 hello missing.csv default q");
+      controller = new VirtualGambleControllerImpl(rd, ap);
+      controller.startUp(virtualGambleMock, view);
+      assertEquals("Imported trades into hello\n", logs.toString());
+      if (!ap.toString().contains("Read 0 trades in 0 ms: 0 bought, 0 sold, 0 skipped, 0 failed")
+              || !ap.toString().contains("missing.csv")) {
+        fail();
+      }
+    } finally {
+      Files.delete(trades);
+    }
+  }
+
+  /**
+   * Test to verify that controller exports a report of a portfolio to a file.
+   */
+  @Test
+  public void exportReportTest() throws IOException, ParseException {
+    Path report = Files.createTempFile("report", ".json.gz");
+    try {
+      rd = new StringReader("16 hello positions 2018-09-09 " + report + " 16 hello trades q");
+      controller = new VirtualGambleControllerImpl(rd, ap);
+      controller.startUp(virtualGambleMock, view);
+      assertEquals("Exported POSITIONS of hello\n", logs.toString());
+      if (!ap.toString().contains("Exported the positions of hello to " + report)
+              || !ap.toString().contains("Report should be lots, positions or values")) {
+        fail();
+      }
+    } finally {
+      Files.delete(report);
+    }
+  }
+
+  /**
+   * Test to verify that the risk of a portfolio is shown next to its total value.
+   */
+  @Test
+  public void totalValueRiskTest() throws IOException, ParseException {
+    rd = new StringReader("4 hello 2018-09-09 q");
+    controller = new VirtualGambleControllerImpl(rd, ap);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Got risk metrics\n", logs.toString());
+    if (!ap.toString().contains("Risk of hello\nDays:0\n")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that a batch runs without the menu and prompts and reports its timings.
+   */
+  @Test
+  public void batchModeTest() throws IOException, ParseException {
+    rd = new StringReader("1 hello 4 hello 2018-09-09 1 world");
+    controller = new VirtualGambleControllerImpl(rd, ap, true);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\nGot risk metrics\nCreated Portfolio\n", logs.toString());
+    String output = ap.toString();
+    if (output.contains("Enter") || !output.startsWith("Portfolio hello has been")) {
+      fail();
+    }
+    String[] lines = output.split("\n");
+    if (!lines[lines.length - 3].startsWith("Command")
+            || !lines[lines.length - 2].matches("1\\s+2\\s.*")
+            || !lines[lines.length - 1].matches("4\\s+1\\s.*")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that a batch can be read from JSON lines.
+   */
+  @Test
+  public void batchJsonLinesTest() throws IOException, ParseException {
+    rd = new JsonLinesReader(new StringReader("{\"command\": \"1\", \"args\": [\"hello\"]}\n"
+            + "\n{\"command\": 4, \"args\": [\"hello\", \"2018-09-09\"]}\n"
+            + "{\"command\": \"1\", \"args\": [\"two words\"]}\n"));
+    controller = new VirtualGambleControllerImpl(rd, ap, true);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\nGot risk metrics\n", logs.toString());
+    if (!ap.toString().contains("Unable to read the script: Line 4: value \"two words\" is not a "
+            + "single word")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that a batch fails a command with an invalid answer instead of asking again,
+   * and still reports its timings when the script ends in the middle of a command.
+   */
+  @Test
+  public void batchInvalidAnswerTest() throws IOException, ParseException {
+    rd = new StringReader("1 hello\n4 hello 09-09-2018\n1 world\n4 world");
+    controller = new VirtualGambleControllerImpl(rd, ap, true);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\nCreated Portfolio\n", logs.toString());
+    String output = ap.toString();
+    if (!output.contains("Enter a valid date in the form of YYYY-MM-DD\n")
+            || !output.contains("The script ended in the middle of command 4\n")) {
+      fail();
+    }
+    String[] lines = output.split("\n");
+    if (!lines[lines.length - 3].startsWith("Command")
+            || !lines[lines.length - 2].matches("1\\s+2\\s.*")
+            || !lines[lines.length - 1].matches("4\\s+2\\s.*")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that a batch reports a JSON line which cannot be read in the middle of a
+   * command along with its timings.
+   */
+  @Test
+  public void batchJsonLinesErrorTest() throws IOException, ParseException {
+    rd = new JsonLinesReader(new StringReader("{\"command\": \"1\", \"args\": [\"hello\"]}\n"
+            + "{\"command\": \"4\", \"args\": [\"hello\"]}\n{\"command\": \"4\"\n"));
+    controller = new VirtualGambleControllerImpl(rd, ap, true);
+    controller.startUp(virtualGambleMock, view);
+    assertEquals("Created Portfolio\n", logs.toString());
+    String output = ap.toString();
+    if (!output.contains("Unable to read the script: Line 3: ")
+            || !output.contains("\nCommand ")) {
+      fail();
+    }
+  }
+
+  /**
+   * Test to verify that the HTTP server passes requests to the model and maps its errors.
+   */
+  @Test
+  public void serverRoutesTest() throws IOException {
+    VirtualGambleServer server = new VirtualGambleServer(virtualGambleMock, 0);
+    server.start();
+    try {
+      String base = "http://localhost:" + server.getPort() + "/portfolios";
+      assertEquals("201 {\"id\":\"hello\"}", request("POST", base, "{\"id\": \"hello\"}"));
+      assertEquals("200 {\"id\":\"hello\",\"status\":\"ok\"}", request("POST",
+              base + "/hello/buy", "{\"company\": \"MSFT\", \"amount\": 100, "
+                      + "\"date\": \"2018-09-09\", \"commission\": 5}"));
+      assertEquals("200 {\"id\":\"hello\",\"value\":200.0}", request("GET",
+              base + "/hello/value?date=2018-09-09", null));
+      assertEquals("400 {\"error\":\"MockIllegalArgumentException\"}", request("POST", base,
+              "{\"id\": \"invalid\"}"));
+      assertEquals("404 {\"error\":\"MockNoSuchElementException\"}", request("GET",
+              base + "/invalid/value?date=2018-09-09", null));
+      assertEquals("400 {\"error\":\"amount should be a number\"}", request("POST",
+              base + "/hello/buy", "{\"company\": \"MSFT\", \"date\": \"2018-09-09\"}"));
+      assertEquals("405 {\"error\":\"Method not allowed\"}", request("GET",
+              base + "/hello/buy", null));
+    } finally {
+      server.stop(0);
+    }
+    assertEquals("Created Portfolio\nBought a share\n", logs.toString());
+  }
+
+  /**
+   * Test to verify that the HTTP server streams reports and answers invalid report requests with
+   * their error.
+   */
+  @Test
+  public void serverReportTest() throws IOException {
+    VirtualGambleServer server = new VirtualGambleServer(virtualGambleMock, 0);
+    server.start();
+    try {
+      String base = "http://localhost:" + server.getPort() + "/portfolios";
+      assertEquals("200 PurchaseDate,CompanyTicker,CostBasis,NumberOfShares,Commission\n",
+              request("GET", base + "/hello/report", null));
+      assertEquals("200 {\"lots\":[\n]}\n", request("GET",
+              base + "/hello/report?type=values&format=json&end=2018-09-09", null));
+      assertEquals("400 {\"error\":\"type should be lots, positions or values and format "
+              + "should be csv or json\"}", request("GET", base + "/hello/report?format=xml",
+              null));
+      assertEquals("404 {\"error\":\"MockNoSuchElementException\"}", request("GET",
+              base + "/invalid/report", null));
+    } finally {
+      server.stop(0);
+    }
+    assertEquals("Exported LOTS of hello\nExported VALUES of hello\n", logs.toString());
+  }
+
+  /**
+   * Test to verify that the HTTP server answers an unexpected failure with 500, cuts short a report
+   * which fails while streaming and keeps answering afterwards.
+   */
+  @Test
+  public void serverErrorTest() throws IOException {
+    VirtualGambleServer server = new VirtualGambleServer(virtualGambleMock, 0);
+    server.start();
+    try {
+      String base = "http://localhost:" + server.getPort() + "/portfolios";
+      assertEquals("500 {\"error\":\"MockIllegalStateException\"}",
+              request("GET", base + "/crash/value?date=2018-09-09", null));
+      try {
+        request("GET", base + "/broken/report", null);
+        fail();
+      } catch (IOException e) {
+        // the headers of the report were already sent, so only the body is cut short
+      }
+      assertEquals("200 {\"id\":\"hello\",\"value\":200.0}",
+              request("GET", base + "/hello/value?date=2018-09-09", null));
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  /**
+   * Test to verify that the HTTP server answers valuation requests sent at once from many
+   * clients.
+   */
+  @Test
+  public void serverConcurrentTest() throws IOException, InterruptedException,
+          ExecutionException {
+    VirtualGambleServer server = new VirtualGambleServer(virtualGambleMock, 0);
+    server.start();
+    ExecutorService clients = Executors.newFixedThreadPool(20);
+    try {
+      String url = "http://localhost:" + server.getPort() + "/portfolios/hello/value?date="
+              + "2018-09-09";
+      List<Future<String>> responses = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        responses.add(clients.submit(() -> request("GET", url, null)));
+      }
+      for (Future<String> response : responses) {
+        assertEquals("200 {\"id\":\"hello\",\"value\":200.0}", response.get());
+      }
+    } finally {
+      clients.shutdown();
+      server.stop(0);
+    }
+  }
+
+  /**
+   * Helper method to send a request to the HTTP server and get its status and body.
+   */
+  static String request(String method, String url, String body) throws IOException {
+    HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+    connection.setRequestMethod(method);
+    if (body != null) {
+      connection.setDoOutput(true);
+      try (OutputStream out = connection.getOutputStream()) {
+        out.write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }
+    int status = connection.getResponseCode();
+    InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+    try (Scanner scanner = new Scanner(in, "UTF-8")) {
+      scanner.useDelimiter("\\A");
+      String text = scanner.hasNext() ? scanner.next() : "";
+      // the scanner keeps the failure of a body cut short instead of throwing it
+      if (scanner.ioException() != null) {
+        throw scanner.ioException();
+      }
+      return status + " " + text;
+    }
+  }
+
+  /**
+   * Test to verify that details of all the stocks can be obtained by controller.
+   */
+  @Test
+  public void getStocksTest() {
+    Map map = virtualGambleMock.getStockDetails();
+    if (!map.containsKey("PortfolioMock")) {
+      fail();
+    }
+  }
+
+}
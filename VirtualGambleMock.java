@@ -1,151 +1,379 @@
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NoSuchElementException;
-
-import stockmarket.model.Portfolio;
-import stockmarket.model.PortfolioImpl;
-import stockmarket.model.VirtualGamble;
-
-
-/**
- * This is a mock model that implements VirtualGamble interface and maintains a log in order to help
- * testing the VirtualGamble Controller in isolation.
- */
-public class VirtualGambleMock implements VirtualGamble {
-
-  private StringBuilder log;
-
-  /**
-   * Constructor to initialize the log.
-   *
-   * @param log log to be appended according to the called operations
-   */
-  public VirtualGambleMock(StringBuilder log) {
-    this.log = log;
-
-  }
-
-  @Override
-  public void createPortfolio(String portfolioID) throws IllegalArgumentException {
-    //Throwing exception to verify Exception handling capability of controller.
-    if (portfolioID.equals("invalid")) {
-      throw new IllegalArgumentException("MockIllegalArgumentException");
-    }
-    log.append("Created Portfolio\n");
-  }
-
-  @Override
-  public void buyShare(String portfolioID, String company, double amount, String date,
-                       double commission)
-          throws NoSuchElementException, IllegalArgumentException {
-    //Throwing exception to verify Exception handling capability of controller.
-    if (portfolioID.equals("illegal")) {
-      throw new IllegalArgumentException("MockIllegalArgumentException");
-    }
-    if (portfolioID.equals("invalid")) {
-      throw new NoSuchElementException("MockNoSuchElementException");
-    }
-    log.append("Bought a share\n");
-  }
-
-  @Override
-  public double getTotalCostBasis(String portfolioID) throws IllegalArgumentException {
-    //Throwing exception to verify Exception handling capability of controller.
-    if (portfolioID.equals("invalid")) {
-      throw new IllegalArgumentException("MockIllegalArgumentException");
-    }
-    return 100;
-  }
-
-  @Override
-  public double getTotalCostBasis(String portfolioID, String date) throws ParseException {
-    return 0;
-  }
-
-  @Override
-  public double getTotalValue(String portfolioID, String date) throws
-          NoSuchElementException, IllegalArgumentException {
-    //Throwing exception to verify Exception handling capability of controller.
-    if (portfolioID.equals("illegal")) {
-      throw new IllegalArgumentException("MockIllegalArgumentException");
-    }
-    if (portfolioID.equals("invalid")) {
-      throw new NoSuchElementException("MockNoSuchElementException");
-    }
-    return 200;
-  }
-
-  @Override
-  public double getTotalValue(String portfolioID) throws NoSuchElementException,
-          IllegalArgumentException {
-    //Throwing exception to verify Exception handling capability of controller.
-    if (portfolioID.equals("invalid")) {
-      throw new IllegalArgumentException("MockIllegalArgumentException");
-    }
-    return 300;
-  }
-
-  @Override
-  public Map<String, Portfolio> getStockDetails() {
-    Map mock = new HashMap<String, PortfolioImpl>();
-    PortfolioImpl mockPortfolio = new PortfolioImpl();
-    mock.put("PortfolioMock", mockPortfolio);
-    return mock;
-  }
-
-  @Override
-  public void addStockPortfolio(String portfolioID, String company) throws
-          NoSuchElementException {
-    log.append("Added company " + company + " Portfolio ID" + company);
-  }
-
-  @Override
-  public void investFixedAmountEqually(String portfolioID, double amount, String date,
-                                       double commission) {
-    log.append("Invested amount " + amount + " on " + date + " commission " + commission + "Pid"
-            + portfolioID);
-  }
-
-  @Override
-  public void investFixedAmountWeighted(String portfolioID, double amount, String date,
-                                        Map<String, Double> weights, double commission) {
-    log.append("Invested amount " + amount + " on " + date + " commission " + commission + "Pid"
-            + portfolioID);
-  }
-
-  @Override
-  public void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
-                                       double amount, int period, Map<String, Double> weights,
-                                       double commission) throws ParseException, IOException {
-    log.append("Dollar cost amount " + amount + " on " + startDate + "End " + endDate
-            + " commission " + commission + "Pid" + portfolioID);
-  }
-
-
-  @Override
-  public void save(String portfolioID) {
-    log.append("Created Portfolio " + portfolioID);
-  }
-
-  @Override
-  public void retrieve(String portfolioID) {
-    log.append("Created Portfolio " + portfolioID);
-  }
-
-  @Override
-  public void saveStrategy(String portfolioID, String strategyName) {
-    log.append("Saved Strategy " + strategyName + " Portfolio " + portfolioID);
-  }
-
-  @Override
-  public void retrieveStrategy(String strategyName, String portfolioID) {
-    log.append("Retrieved Strategy " + strategyName + " Portfolio " + portfolioID);
-  }
-
-  @Override
-  public void getValuesForGraph(String portfolioID) throws ParseException {
-    log.append("updated values for graph for Portfolio " + portfolioID);
-  }
-}
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import stockmarket.model.BacktestResult;
+import stockmarket.model.DollarCostAverage;
+import stockmarket.model.ImportListener;
+import stockmarket.model.ImportReport;
+import stockmarket.model.IndicatorSeries;
+import stockmarket.model.IndicatorSpec;
+import stockmarket.model.LotRelief;
+import stockmarket.model.OptimizationGoal;
+import stockmarket.model.Order;
+import stockmarket.model.Portfolio;
+import stockmarket.model.PortfolioImpl;
+import stockmarket.model.ProfitAndLoss;
+import stockmarket.model.RebalanceResult;
+import stockmarket.model.RebalanceStrategy;
+import stockmarket.model.ReportExporter;
+import stockmarket.model.ReportType;
+import stockmarket.model.RiskMetrics;
+import stockmarket.model.Sale;
+import stockmarket.model.SignalResult;
+import stockmarket.model.SignalRule;
+import stockmarket.model.SimulationResult;
+import stockmarket.model.TradeColumns;
+import stockmarket.model.VirtualGamble;
+import stockmarket.model.WorkspaceReport;
+
+
+/**
+ * This is a mock model that implements VirtualGamble interface and maintains a log in order to help
+ * testing the VirtualGamble Controller in isolation.
+ */
+public class VirtualGambleMock implements VirtualGamble {
+
+  private StringBuilder log;
+
+  /**
+   * Constructor to initialize the log.
+   *
+   * @param log log to be appended according to the called operations
+   */
+  public VirtualGambleMock(StringBuilder log) {
+    this.log = log;
+
+  }
+
+  @Override
+  public void createPortfolio(String portfolioID) throws IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("invalid")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    log.append("Created Portfolio\n");
+  }
+
+  @Override
+  public void buyShare(String portfolioID, String company, double amount, String date,
+                       double commission)
+          throws NoSuchElementException, IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("illegal")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Bought a share\n");
+  }
+
+  @Override
+  public void buyShares(String portfolioID, List<Order> orders)
+          throws NoSuchElementException, IllegalArgumentException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Bought " + orders.size() + " orders\n");
+  }
+
+  @Override
+  public ImportReport importTrades(String portfolioID, Reader trades, TradeColumns columns,
+                                   ImportListener listener) throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Imported trades into " + portfolioID + "\n");
+    return new ImportReport();
+  }
+
+  @Override
+  public List<Sale> sellShare(String portfolioID, String company, double numberOfShares,
+                              String date, double commission, LotRelief relief)
+          throws NoSuchElementException, IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("illegal")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Sold a share using " + relief + "\n");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public List<Sale> sellLot(String portfolioID, String company, String lotPurchaseDate,
+                            double numberOfShares, String date, double commission)
+          throws NoSuchElementException, IllegalArgumentException {
+    log.append("Sold a lot\n");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public double getTotalCostBasis(String portfolioID) throws IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("invalid")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    return 100;
+  }
+
+  @Override
+  public double getTotalCostBasis(String portfolioID, String date) throws ParseException {
+    return 0;
+  }
+
+  @Override
+  public double getTotalValue(String portfolioID, String date) throws
+          NoSuchElementException, IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("illegal")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    if (portfolioID.equals("crash")) {
+      throw new IllegalStateException("MockIllegalStateException");
+    }
+    return 200;
+  }
+
+  @Override
+  public double getTotalValue(String portfolioID) throws NoSuchElementException,
+          IllegalArgumentException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("invalid")) {
+      throw new IllegalArgumentException("MockIllegalArgumentException");
+    }
+    return 300;
+  }
+
+  @Override
+  public ProfitAndLoss getProfitAndLoss(String portfolioID) throws NoSuchElementException {
+    //Throwing exception to verify Exception handling capability of controller.
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Got profit and loss\n");
+    return new ProfitAndLoss(10, 20, 100, 120, new HashMap<>());
+  }
+
+  @Override
+  public RiskMetrics getRiskMetrics(String portfolioID) throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Got risk metrics\n");
+    return new RiskMetrics();
+  }
+
+  @Override
+  public double getDrift(String portfolioID, Map<String, Double> weights)
+          throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Drift of " + portfolioID + " from " + weights + "\n");
+    return 0;
+  }
+
+  @Override
+  public Map<String, Double> getHolders(String company) {
+    log.append("Got holders of " + company + "\n");
+    return new HashMap<>();
+  }
+
+  @Override
+  public List<Sale> rebalance(String portfolioID, RebalanceStrategy strategy, String date)
+          throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Rebalanced " + portfolioID + " on " + date + "\n");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public RebalanceResult backtestRebalancing(RebalanceStrategy strategy, double amount,
+                                             String startDate, String endDate) {
+    log.append("Backtested rebalancing from " + startDate + " to " + endDate + "\n");
+    return null;
+  }
+
+  @Override
+  public Map<String, Double> optimizeWeights(String portfolioID, OptimizationGoal goal,
+                                             String startDate) throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Optimized " + portfolioID + " for " + goal + " since " + startDate + "\n");
+    return new HashMap<>();
+  }
+
+  @Override
+  public IndicatorSeries getIndicator(String company, IndicatorSpec spec) {
+    log.append("Got " + spec + " of " + company + "\n");
+    return null;
+  }
+
+  @Override
+  public SignalResult backtestSignals(SignalRule rule, List<String> companies, double amount,
+                                      String startDate, String endDate, double commission) {
+    log.append("Backtested rule on " + companies + " from " + startDate + " to " + endDate
+            + "\n");
+    return null;
+  }
+
+  @Override
+  public List<BacktestResult> backtest(List<DollarCostAverage> grid) {
+    log.append("Backtested " + grid.size() + " strategies\n");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength)
+          throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Simulated " + paths + " paths of " + horizon + " days\n");
+    return null;
+  }
+
+  @Override
+  public SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength,
+                                   long seed) throws NoSuchElementException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Simulated " + paths + " paths of " + horizon + " days with seed " + seed + "\n");
+    return null;
+  }
+
+  @Override
+  public SimulationResult simulate(DollarCostAverage plan, int horizon, int paths,
+                                   int blockLength) {
+    log.append("Simulated a plan with " + paths + " paths of " + horizon + " days\n");
+    return null;
+  }
+
+  @Override
+  public SimulationResult simulate(DollarCostAverage plan, int horizon, int paths,
+                                   int blockLength, long seed) {
+    log.append("Simulated a plan with " + paths + " paths of " + horizon + " days with seed "
+            + seed + "\n");
+    return null;
+  }
+
+  @Override
+  public Map<String, Portfolio> getStockDetails() {
+    Map mock = new HashMap<String, PortfolioImpl>();
+    PortfolioImpl mockPortfolio = new PortfolioImpl();
+    mock.put("PortfolioMock", mockPortfolio);
+    return mock;
+  }
+
+  @Override
+  public void addStockPortfolio(String portfolioID, String company) throws
+          NoSuchElementException {
+    log.append("Added company " + company + " Portfolio ID" + company);
+  }
+
+  @Override
+  public List<String> suggestSymbols(String text, int limit) {
+    log.append("Suggested symbols for " + text + "\n");
+    return new ArrayList<>();
+  }
+
+  @Override
+  public void investFixedAmountEqually(String portfolioID, double amount, String date,
+                                       double commission) {
+    log.append("Invested amount " + amount + " on " + date + " commission " + commission + "Pid"
+            + portfolioID);
+  }
+
+  @Override
+  public void investFixedAmountWeighted(String portfolioID, double amount, String date,
+                                        Map<String, Double> weights, double commission) {
+    log.append("Invested amount " + amount + " on " + date + " commission " + commission + "Pid"
+            + portfolioID);
+  }
+
+  @Override
+  public void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
+                                       double amount, int period, Map<String, Double> weights,
+                                       double commission) throws ParseException, IOException {
+    log.append("Dollar cost amount " + amount + " on " + startDate + "End " + endDate
+            + " commission " + commission + "Pid" + portfolioID);
+  }
+
+
+  @Override
+  public void save(String portfolioID) {
+    log.append("Created Portfolio " + portfolioID);
+  }
+
+  @Override
+  public void close() {
+    log.append("Closed model");
+  }
+
+  @Override
+  public void exportPortfolio(String portfolioID) {
+    log.append("Exported Portfolio " + portfolioID);
+  }
+
+  @Override
+  public void exportReport(String portfolioID, ReportType type, String startDate, String endDate,
+                           ReportExporter exporter) throws NoSuchElementException,
+          IOException {
+    if (portfolioID.equals("invalid")) {
+      throw new NoSuchElementException("MockNoSuchElementException");
+    }
+    log.append("Exported " + type + " of " + portfolioID + "\n");
+    exporter.writeLots(new PortfolioImpl());
+    if (portfolioID.equals("broken")) {
+      exporter.flush();
+      throw new IOException("MockIOException");
+    }
+  }
+
+  @Override
+  public void retrieve(String portfolioID) {
+    log.append("Created Portfolio " + portfolioID);
+  }
+
+  @Override
+  public WorkspaceReport loadWorkspace() {
+    log.append("Loaded workspace");
+    return new WorkspaceReport();
+  }
+
+  @Override
+  public void saveStrategy(String portfolioID, String strategyName) {
+    log.append("Saved Strategy " + strategyName + " Portfolio " + portfolioID);
+  }
+
+  @Override
+  public void exportStrategy(String portfolioID, String strategyName) {
+    log.append("Exported Strategy " + strategyName + " Portfolio " + portfolioID);
+  }
+
+  @Override
+  public void retrieveStrategy(String strategyName, String portfolioID) {
+    log.append("Retrieved Strategy " + strategyName + " Portfolio " + portfolioID);
+  }
+
+  @Override
+  public void getValuesForGraph(String portfolioID) throws ParseException {
+    log.append("updated values for graph for Portfolio " + portfolioID);
+  }
+}
@@ -1,604 +1,1890 @@
-import org.junit.Before;
-import org.junit.Test;
-
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.fail;
-
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.text.ParseException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-
-import stockmarket.model.Portfolio;
-import stockmarket.model.Stock;
-import stockmarket.model.VirtualGamble;
-import stockmarket.model.VirtualGambleImpl;
-
-/**
- * A JUnit test class for VirtualGamble interface.
- */
-public class VirtualGambleModelTest {
-  VirtualGamble virtualGamble;
-
-  /**
-   * This method runs before any test to create a VirtualGamble object.
-   */
-  @Before
-  public void setUp() {
-    virtualGamble = new VirtualGambleImpl();
-  }
-
-  /*---------------------Test createPortfolio----------------------*/
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown when trying to add a new Portfolio with
-   * ID that already exists.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void duplicatePortfolioCreationTest() {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.createPortfolio("retirement");
-  }
-
-  /* Test to verify that an empty portfolio with  a valid portfolio ID can be created.
-   */
-  @Test
-  public void validPortfolioCreationTest() {
-    virtualGamble.createPortfolio("retirement");
-    Map<String, Portfolio> stocks = virtualGamble.getStockDetails();
-    assertEquals(true, stocks.containsKey("retirement"));
-  }
-
-
-
-  /*-------------------------Test buyShare----------------------------*/
-
-  /**
-   * Test to verify a single stock into can be bought into a portfolio.
-   */
-  @Test
-  public void buyShareValidSingleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    Map<String, Portfolio> stocks = virtualGamble.getStockDetails();
-    Portfolio abcd = stocks.get("retirement");
-    List<Stock> abc = abcd.getStockList();
-    int count = 0;
-    for (Stock obj : abc) {
-      if (obj.getPurchaseDate().equals("2016-02-29") && obj.getCompanyTicker().equals("GOOG")) {
-        count++;
-
-      }
-      assertEquals(1, count);
-
-    }
-
-
-  }
-
-  /**
-   * Test to verify a multiple stocks of different companies into can be bought into a portfolio.
-   */
-  @Test
-  public void buyShareValidMultipleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
-            10);
-    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
-            10);
-    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
-   * same company a portfolio.
-   */
-  @Test
-  public void getBuyShareValidMultipleStockSameCompanyTest() throws
-          IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06",
-            10);
-    assertEquals(5520.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify NoSuchElementException is thrown if trying to add a stock to portfolio that does
-   * not exist.
-   */
-  @Test(expected = NoSuchElementException.class)
-  public void buyShareWithPortfolioNotExist() throws IOException {
-    virtualGamble.buyShare("invalidPortfolio", "GOOG", 1500,
-            "2016-02-29", 10);
-  }
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown if trying to buyShare with invalid date
-   * format.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void buyShareInvalidDateFormat() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014/05/06",
-            10);
-  }
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown if trying to buyShare with invalid date
-   * like Feb 29 of 2014 which is non leap year.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void buyShareInvalidDate() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-02-29",
-            10);
-  }
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown on trying to buy share on a Holiday.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void buyShareOnHoliday() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2017-06-17",
-            10);
-  }
-
-  /**
-   * Test to verify that IllegalArgumentException is thrown when trying to buy share with negative
-   * amount.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void buyShareNegativeAmount() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", -3000, "2016-02-29",
-            10);
-  }
-
-  /*---------------------Test getTotalCostBasis-------------------------*/
-
-  /**
-   * Test to verify that correct total cost basis can be obtained after adding a single stock into a
-   * portfolio and includes commission.
-   */
-  @Test
-  public void getTotalCostBasisValidSingleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    assertEquals(4010, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
-   * different company into a portfolio and this cost  basis includes commission amount for each
-   * transaction.
-   */
-  @Test
-  public void getTotalCostBasisValidMultipleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
-            10);
-    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
-            10);
-    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
-   * same company a portfolio and this amount includes the cost basis.
-   */
-  @Test
-  public void getTotalCostBasisValidMultipleStockSameCompanyTest() throws
-          IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06",
-            10);
-    assertEquals(5520.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that NoSuchElementException is thrown on trying to get Total Cost basis of a
-   * Portfolio which does not exist.
-   */
-  @Test(expected = NoSuchElementException.class)
-  public void getTotalCostBasisInvalidPortfolioID() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.getTotalCostBasis("invalidID");
-  }
-
-  /**
-   * Test to verify total cost basis is zero if the user has not bought any shares yet in a given
-   * portfolio.
-   */
-  @Test
-  public void getTotalCostBasisEmptyPortfolioTest() {
-    virtualGamble.createPortfolio("retirement");
-    assertEquals(0.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-
-  /**
-   * Test to verify IllegalArgumentException is thrown if available stocks amounts less than stocks
-   * being purchased.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void sharesLessThanRequiredTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", Math.pow(1000, 100),
-            "2016-02-29", 10);
-  }
-
-  /**
-   * Test to verify that total cost basis can be obtained for specified date and it includes the
-   * commission amount.
-   */
-  @Test
-  public void getTotalCostBasisSpecificDate() throws ParseException,
-          IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
-            10);
-    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
-            10);
-    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-    assertEquals(1540.0, virtualGamble.getTotalCostBasis("retirement",
-            "2014-08-07"), 0.01);
-    assertEquals(30.0, virtualGamble.getTotalCostBasis("retirement",
-            "2010-08-07"), 0.01);
-    assertEquals(0.0, virtualGamble.getTotalCostBasis("retirement",
-            "2008-08-07"), 0.01);
-  }
-
-
-  /*---------------------Test getTotalValue----------------------------*/
-
-  /**
-   * Test to verify that correct total value of stocks can be obtained after adding a single stock
-   * into a portfolio for a given date.
-   */
-  @Test
-  public void getTotalValueValidSingleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    assertEquals(6091.39, virtualGamble.getTotalValue("retirement",
-            "2018-11-01"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total value of stocks for a given date can be obtained after adding
-   * multiple stocks into a portfolio.
-   */
-  @Test
-  public void getTotalValueValidMultipleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
-            10);
-    virtualGamble.buyShare("retirement", "GOOO", 56, "2009-02-12",
-            10);
-    assertEquals(10323.24, virtualGamble.getTotalValue("retirement",
-            "2018-10-29"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
-   * same company a portfolio.
-   */
-  @Test
-  public void getTotalValueValidMultipleStockSameCompanyTest() throws
-          IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "MSFT", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
-            10);
-    assertEquals(12885.15, virtualGamble.getTotalValue("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that correct total value of stocks for a today's date can be obtained after
-   * adding multiple stocks into a portfolio when method is called without date parameter.
-   */
-  @Test
-  public void getTotalValueTodayValidMultipleStockTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "MSFT", 1200, "2009-02-12",
-            10);
-    virtualGamble.buyShare("retirement", "MSFT", 1200, "2009-02-12",
-            10);
-    assertEquals(14199.37, virtualGamble.getTotalValue("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that NoSuchElementException is thrown on trying to buy share into a Portfolio
-   * which does not exist.
-   */
-  @Test(expected = NoSuchElementException.class)
-  public void getTotalValueInvalidPortfolioID() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.getTotalValue("invalidID", "2011-04-20");
-  }
-
-  /**
-   * Test to verify total value is zero if the user has not bought any shares yet in a given
-   * portfolio.
-   */
-  @Test
-  public void getTotalValueEmptyPortfolioTest() throws InterruptedException {
-    virtualGamble.createPortfolio("retirement");
-    assertEquals(0.0, virtualGamble.getTotalValue("retirement", "2011-04-20"),
-            0.01);
-  }
-
-  /**
-   * Test to verify that a company can be added to a portfolio without buying a share.
-   */
-  @Test
-  public void addCompanyTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    assertEquals(true, virtualGamble.getStockDetails().get("retirement").getCompanyList().
-            contains("msft"));
-  }
-
-  /**
-   * Test to verify that Illegal argument exception is thrown when adding invalid company to a
-   * portfolio without buying a share.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void addInvalidCompanyTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "maaa");
-  }
-
-  /*--------------------------New functionality test------------------------*/
-
-  /**
-   * Test to invest amount equally to each company.
-   */
-  @Test
-  public void investAmountEquallyTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "gooo");
-    virtualGamble.investFixedAmountEqually("retirement", 60, "2014-08-28",
-            10);
-    assertEquals("[Company Ticker:goog\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 0.03526714865103156\n" +
-            "Cost Basis:30.0, Company Ticker:msft\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 0.4483299708585519\n" +
-            "Cost Basis:30.0, Company Ticker:gooo\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 190.47619047619048\n" +
-            "Cost Basis:30.0]", virtualGamble.getStockDetails().get("retirement")
-            .getStockList().toString());
-  }
-
-  /**
-   * Test to invest with weights to each company.
-   */
-  @Test
-  public void investAmountWeightedTest() throws IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "gooo");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("gooo", 10.0);
-    virtualGamble.investFixedAmountWeighted("retirement", 600,
-            "2014-08-28", map, 5);
-    assertEquals("[Company Ticker:goog\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 0.7406101216716628\n" +
-            "Cost Basis:425.0, Company Ticker:msft\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 2.6899798251513114\n" +
-            "Cost Basis:125.0, Company Ticker:gooo\n" +
-            "Purchase Date:2014-08-28\n" +
-            "Number of Shares: 571.4285714285714\n" +
-            "Cost Basis:65.0]", virtualGamble.getStockDetails().get("retirement")
-            .getStockList().toString());
-  }
-
-  /**
-   * Test to get costbasis for dollar average investment.
-   */
-  @Test
-  public void getCostBasisForDollarAverage() throws ParseException,
-          IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2014-07-12", 400, 30, map, 5);
-    assertEquals(1245.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-
-  /**
-   * Test to get total value for dollar average investment.
-   */
-  @Test
-  public void getValueForDollarAverage() throws ParseException, IOException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2014-07-12", 400, 30, map, 5);
-    assertEquals(2006.25, virtualGamble.getTotalValue("retirement", "2017-07-26"), 0.01);
-  }
-
-  /**
-   * Test to verify that portfolio data can be persisted into a file.
-   */
-  @Test
-  public void testPortfolioDataSave() throws IOException, ParseException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
-            10);
-    virtualGamble.buyShare("retirement", "AAPL", 2000, "2016-02-29",
-            10);
-    virtualGamble.save("retirement");
-    File f = new File("portfolio/retirement.csv");
-    if (!f.exists()) {
-      fail();
-    }
-    String data = "";
-    try {
-      data = new String(Files.readAllBytes(Paths.get("portfolio/retirement.csv")));
-    } catch (IOException e) {
-      fail();
-    }
-    assertEquals("PurchaseDate,CompanyTicker,CostBasis,NumberOfShares,Commission\n" +
-            "2016-02-29,GOOG,4010.0,5.733287467033597,10.0\n" +
-            "2016-02-29,AAPL,2010.0,20.693222969477496,10.0\n", data);
-  }
-
-
-  /**
-   * Test to verify that portfolio data can be retrieved from a file.
-   */
-  @Test
-  public void testPortfolioDataRetrieve() throws IOException, ParseException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2014-05-12", 400, 30, map, 5);
-    virtualGamble.save("retirement");
-    virtualGamble = new VirtualGambleImpl();
-    virtualGamble.retrieve("retirement");
-    assertEquals(415.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-
-  }
-
-  /**
-   * Test to verify that IllegalArgument Exception is thrown when trying to retrieve a portfolio
-   * data that does not exist.
-   */
-  @Test(expected = IllegalArgumentException.class)
-  public void portfolioDataRetrieveInvalid() throws IOException,
-          ParseException {
-    virtualGamble = new VirtualGambleImpl();
-    virtualGamble.retrieve("retiremen");
-
-  }
-
-  /**
-   * Test to verify that Strategy data can be persisted into a file.
-   */
-  @Test
-  public void testStrategyDataSave() throws IOException, ParseException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2014-05-12", 400, 30, map, 5);
-    virtualGamble.saveStrategy("retirement", "str1");
-    File f = new File("strategy/str1.csv");
-    if (!f.exists()) {
-      fail();
-    }
-    String data = "";
-    try {
-      data = new String(Files.readAllBytes(Paths.get("strategy/str1.csv")));
-    } catch (IOException e) {
-      fail();
-    }
-    assertEquals("StartDate,EndDate,PeriodInDays,amount,weights,commission\n" +
-            "2014-04-21,2014-05-12,30,400.0,{goog=70.0; aapl=10.0; msft=20.0},5.0", data);
-  }
-
-  /**
-   * Test to verify that strategy data can be retrieved from a file.
-   */
-  @Test
-  public void testStrategyDataRetrieve() throws IOException, ParseException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2014-05-12", 400, 30, map, 5);
-    virtualGamble.saveStrategy("retirement", "str1");
-    virtualGamble = new VirtualGambleImpl();
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.retrieveStrategy("str1", "retirement");
-    assertEquals(415.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
-  }
-
-  /**
-   * Test to verify that we can obtain values to plot the graph.
-   */
-  /*@Test
-  public void testGetValuesForMap() throws IOException, ParseException {
-    virtualGamble.createPortfolio("retirement");
-    virtualGamble.addStockPortfolio("retirement", "msft");
-    virtualGamble.addStockPortfolio("retirement", "goog");
-    virtualGamble.addStockPortfolio("retirement", "aapl");
-    Map map = new HashMap();
-    map.put("msft", 20.0);
-    map.put("goog", 70.0);
-    map.put("aapl", 10.0);
-    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
-            "2015-05-12", 400, 30, map, 5);
-    Map<String, Double> valueMap = virtualGamble.getValuesForGraph("retirement");
-    for (Map.Entry<String, Double> entry : valueMap.entrySet()) {
-      System.out.println(entry.getKey() + ":" + entry.getValue());
-    }
-  }*/
-
-
-}
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Scanner;
+import java.util.zip.GZIPInputStream;
+
+import stockmarket.model.BacktestResult;
+import stockmarket.model.DollarCostAverage;
+import stockmarket.model.ExportFormat;
+import stockmarket.model.FileRepository;
+import stockmarket.model.ImportReport;
+import stockmarket.model.Indicator;
+import stockmarket.model.IndicatorSeries;
+import stockmarket.model.IndicatorSpec;
+import stockmarket.model.Indicators;
+import stockmarket.model.KeyValueRepository;
+import stockmarket.model.LotRelief;
+import stockmarket.model.Money;
+import stockmarket.model.OptimizationGoal;
+import stockmarket.model.Order;
+import stockmarket.model.Portfolio;
+import stockmarket.model.PriceSeries;
+import stockmarket.model.PriceStore;
+import stockmarket.model.ProfitAndLoss;
+import stockmarket.model.RebalanceResult;
+import stockmarket.model.RebalanceStrategy;
+import stockmarket.model.ReportExporter;
+import stockmarket.model.ReportType;
+import stockmarket.model.RiskMetrics;
+import stockmarket.model.Sale;
+import stockmarket.model.SignalResult;
+import stockmarket.model.SignalRules;
+import stockmarket.model.SimulationResult;
+import stockmarket.model.Stock;
+import stockmarket.model.SymbolDirectory;
+import stockmarket.model.TradeColumns;
+import stockmarket.model.VirtualGamble;
+import stockmarket.model.VirtualGambleImpl;
+import stockmarket.model.WorkspaceReport;
+
+/**
+ * A JUnit test class for VirtualGamble interface.
+ */
+public class VirtualGambleModelTest {
+  VirtualGamble virtualGamble;
+
+  /**
+   * This method runs before any test to create a VirtualGamble object.
+   */
+  @Before
+  public void setUp() {
+    virtualGamble = new VirtualGambleImpl();
+  }
+
+  /*---------------------Test createPortfolio----------------------*/
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown when trying to add a new Portfolio with
+   * ID that already exists.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void duplicatePortfolioCreationTest() {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.createPortfolio("retirement");
+  }
+
+  /* Test to verify that an empty portfolio with  a valid portfolio ID can be created.
+   */
+  @Test
+  public void validPortfolioCreationTest() {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Portfolio> stocks = virtualGamble.getStockDetails();
+    assertEquals(true, stocks.containsKey("retirement"));
+  }
+
+
+
+  /*-------------------------Test buyShare----------------------------*/
+
+  /**
+   * Test to verify a single stock into can be bought into a portfolio.
+   */
+  @Test
+  public void buyShareValidSingleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    Map<String, Portfolio> stocks = virtualGamble.getStockDetails();
+    Portfolio abcd = stocks.get("retirement");
+    List<Stock> abc = abcd.getStockList();
+    int count = 0;
+    for (Stock obj : abc) {
+      if (obj.getPurchaseDate().equals("2016-02-29") && obj.getCompanyTicker().equals("GOOG")) {
+        count++;
+
+      }
+      assertEquals(1, count);
+
+    }
+
+
+  }
+
+  /**
+   * Test to verify a multiple stocks of different companies into can be bought into a portfolio.
+   */
+  @Test
+  public void buyShareValidMultipleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
+            10);
+    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
+            10);
+    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
+   * same company a portfolio.
+   */
+  @Test
+  public void getBuyShareValidMultipleStockSameCompanyTest() throws
+          IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06",
+            10);
+    assertEquals(5520.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify NoSuchElementException is thrown if trying to add a stock to portfolio that does
+   * not exist.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void buyShareWithPortfolioNotExist() throws IOException {
+    virtualGamble.buyShare("invalidPortfolio", "GOOG", 1500,
+            "2016-02-29", 10);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown if trying to buyShare with invalid date
+   * format.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void buyShareInvalidDateFormat() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014/05/06",
+            10);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown if trying to buyShare with invalid date
+   * like Feb 29 of 2014 which is non leap year.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void buyShareInvalidDate() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-02-29",
+            10);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown on trying to buy share on a Holiday.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void buyShareOnHoliday() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2017-06-17",
+            10);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown when trying to buy share with negative
+   * amount.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void buyShareNegativeAmount() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", -3000, "2016-02-29",
+            10);
+  }
+
+  /*-------------------------Test sellShare----------------------------*/
+
+  /**
+   * Test to verify that selling with FIFO relieves the oldest lot first and keeps the remainder of
+   * a partly sold lot.
+   */
+  @Test
+  public void sellShareFifoTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06", 10);
+    Stock oldest = virtualGamble.getStockDetails().get("retirement").getStockList().get(1);
+    List<Sale> sales = virtualGamble.sellShare("retirement", "GOOG",
+            oldest.getNumberOfShares() / 2, "2016-02-29", 0, LotRelief.FIFO);
+    assertEquals(1, sales.size());
+    assertEquals("2014-05-06", sales.get(0).getPurchaseDate());
+    assertEquals(755.0, sales.get(0).getCostBasis(), 0.01);
+    assertEquals(4765.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+    assertEquals(2, virtualGamble.getStockDetails().get("retirement").getStockList().size());
+  }
+
+  /**
+   * Test to verify that selling with LIFO relieves the newest lot eligible on the sale date.
+   */
+  @Test
+  public void sellShareLifoTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06", 10);
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    Stock newest = virtualGamble.getStockDetails().get("retirement").getStockList().get(1);
+    List<Sale> sales = virtualGamble.sellShare("retirement", "GOOG",
+            newest.getNumberOfShares(), "2016-02-29", 0, LotRelief.LIFO);
+    assertEquals("2016-02-29", sales.get(0).getPurchaseDate());
+    assertEquals(1510.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+    assertEquals(1, virtualGamble.getStockDetails().get("retirement").getStockList().size());
+  }
+
+  /**
+   * Test to verify that a specific lot can be sold.
+   */
+  @Test
+  public void sellLotTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06", 10);
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    Stock oldest = virtualGamble.getStockDetails().get("retirement").getStockList().get(0);
+    virtualGamble.sellLot("retirement", "GOOG", "2014-05-06", oldest.getNumberOfShares(),
+            "2016-02-29", 0);
+    assertEquals(4010.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown when selling more shares than were
+   * bought on or before the sale date.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void sellShareMoreThanHeld() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2016-02-29", 10);
+    virtualGamble.sellShare("retirement", "GOOG", 1, "2014-05-06", 0, LotRelief.FIFO);
+  }
+
+  /**
+   * Test to verify that the profit and loss follows buys and sales.
+   */
+  @Test
+  public void profitAndLossTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06", 10);
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    Stock oldest = virtualGamble.getStockDetails().get("retirement").getStockList().get(0);
+    List<Sale> sales = virtualGamble.sellShare("retirement", "GOOG",
+            oldest.getNumberOfShares(), "2016-02-29", 5, LotRelief.FIFO);
+    ProfitAndLoss profitAndLoss = virtualGamble.getProfitAndLoss("retirement");
+    assertEquals(sales.get(0).getProceeds() - 1515.0, profitAndLoss.getRealizedGain(), 0.01);
+    assertEquals(5520.0, profitAndLoss.getInvested(), 0.01);
+    assertEquals(profitAndLoss.getMarketValue() - 4010.0, profitAndLoss.getUnrealizedGain(),
+            0.01);
+  }
+
+  /*-------------------------Test Money----------------------------*/
+
+  /**
+   * Test to verify that amounts are rounded with the requested rounding mode.
+   */
+  @Test
+  public void moneyRoundingTest() {
+    assertEquals(1_234_567L, Money.ofDollars(1.2345674));
+    assertEquals(1_230_000L, Money.round(1_225_000L, 2, RoundingMode.HALF_UP));
+    assertEquals(1_220_000L, Money.round(1_225_000L, 2, RoundingMode.HALF_EVEN));
+    assertEquals(-1_230_000L, Money.round(-1_225_000L, 2, RoundingMode.HALF_UP));
+    assertEquals(-1_220_000L, Money.round(-1_225_000L, 2, RoundingMode.DOWN));
+    assertEquals(333_333L, Money.divide(1_000_000L, 3, RoundingMode.FLOOR));
+    assertEquals(0.3, Money.toDollars(Money.ofDollars(0.1) + Money.ofDollars(0.2)), 0);
+  }
+
+  /**
+   * Test to verify that ArithmeticException is thrown when rounding is needed but not allowed.
+   */
+  @Test(expected = ArithmeticException.class)
+  public void moneyRoundingUnnecessaryTest() {
+    Money.round(1_225_000L, 2, RoundingMode.UNNECESSARY);
+  }
+
+  /*---------------------Test getTotalCostBasis-------------------------*/
+
+  /**
+   * Test to verify that correct total cost basis can be obtained after adding a single stock into a
+   * portfolio and includes commission.
+   */
+  @Test
+  public void getTotalCostBasisValidSingleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    assertEquals(4010, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
+   * different company into a portfolio and this cost  basis includes commission amount for each
+   * transaction.
+   */
+  @Test
+  public void getTotalCostBasisValidMultipleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
+            10);
+    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
+            10);
+    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
+   * same company a portfolio and this amount includes the cost basis.
+   */
+  @Test
+  public void getTotalCostBasisValidMultipleStockSameCompanyTest() throws
+          IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "GOOG", 1500, "2014-05-06",
+            10);
+    assertEquals(5520.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that NoSuchElementException is thrown on trying to get Total Cost basis of a
+   * Portfolio which does not exist.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void getTotalCostBasisInvalidPortfolioID() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.getTotalCostBasis("invalidID");
+  }
+
+  /**
+   * Test to verify total cost basis is zero if the user has not bought any shares yet in a given
+   * portfolio.
+   */
+  @Test
+  public void getTotalCostBasisEmptyPortfolioTest() {
+    virtualGamble.createPortfolio("retirement");
+    assertEquals(0.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+
+  /**
+   * Test to verify IllegalArgumentException is thrown if available stocks amounts less than stocks
+   * being purchased.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void sharesLessThanRequiredTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", Math.pow(1000, 100),
+            "2016-02-29", 10);
+  }
+
+  /**
+   * Test to verify that total cost basis can be obtained for specified date and it includes the
+   * commission amount.
+   */
+  @Test
+  public void getTotalCostBasisSpecificDate() throws ParseException,
+          IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
+            10);
+    virtualGamble.buyShare("retirement", "GOOO", 20, "2009-02-12",
+            10);
+    assertEquals(5550.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+    assertEquals(1540.0, virtualGamble.getTotalCostBasis("retirement",
+            "2014-08-07"), 0.01);
+    assertEquals(30.0, virtualGamble.getTotalCostBasis("retirement",
+            "2010-08-07"), 0.01);
+    assertEquals(0.0, virtualGamble.getTotalCostBasis("retirement",
+            "2008-08-07"), 0.01);
+  }
+
+
+  /*---------------------Test getTotalValue----------------------------*/
+
+  /**
+   * Test to verify that correct total value of stocks can be obtained after adding a single stock
+   * into a portfolio for a given date.
+   */
+  @Test
+  public void getTotalValueValidSingleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    assertEquals(6091.39, virtualGamble.getTotalValue("retirement",
+            "2018-11-01"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total value of stocks for a given date can be obtained after adding
+   * multiple stocks into a portfolio.
+   */
+  @Test
+  public void getTotalValueValidMultipleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
+            10);
+    virtualGamble.buyShare("retirement", "GOOO", 56, "2009-02-12",
+            10);
+    assertEquals(10323.24, virtualGamble.getTotalValue("retirement",
+            "2018-10-29"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total cost basis can be obtained after adding multiple stocks of
+   * same company a portfolio.
+   */
+  @Test
+  public void getTotalValueValidMultipleStockSameCompanyTest() throws
+          IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "MSFT", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1500, "2014-05-06",
+            10);
+    assertEquals(12885.15, virtualGamble.getTotalValue("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that correct total value of stocks for a today's date can be obtained after
+   * adding multiple stocks into a portfolio when method is called without date parameter.
+   */
+  @Test
+  public void getTotalValueTodayValidMultipleStockTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "MSFT", 1200, "2009-02-12",
+            10);
+    virtualGamble.buyShare("retirement", "MSFT", 1200, "2009-02-12",
+            10);
+    assertEquals(14199.37, virtualGamble.getTotalValue("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that NoSuchElementException is thrown on trying to buy share into a Portfolio
+   * which does not exist.
+   */
+  @Test(expected = NoSuchElementException.class)
+  public void getTotalValueInvalidPortfolioID() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.getTotalValue("invalidID", "2011-04-20");
+  }
+
+  /**
+   * Test to verify total value is zero if the user has not bought any shares yet in a given
+   * portfolio.
+   */
+  @Test
+  public void getTotalValueEmptyPortfolioTest() throws InterruptedException {
+    virtualGamble.createPortfolio("retirement");
+    assertEquals(0.0, virtualGamble.getTotalValue("retirement", "2011-04-20"),
+            0.01);
+  }
+
+  /**
+   * Test to verify that a company can be added to a portfolio without buying a share.
+   */
+  @Test
+  public void addCompanyTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    assertEquals(true, virtualGamble.getStockDetails().get("retirement").getCompanyList().
+            contains("msft"));
+  }
+
+  /**
+   * Test to verify that Illegal argument exception is thrown when adding invalid company to a
+   * portfolio without buying a share.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void addInvalidCompanyTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "maaa");
+  }
+
+  /*--------------------------New functionality test------------------------*/
+
+  /**
+   * Test to invest amount equally to each company.
+   */
+  @Test
+  public void investAmountEquallyTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "gooo");
+    virtualGamble.investFixedAmountEqually("retirement", 60, "2014-08-28",
+            10);
+    assertEquals("[Company Ticker:goog\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 0.03526714865103156\n" +
+            "Cost Basis:30.0, Company Ticker:msft\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 0.4483299708585519\n" +
+            "Cost Basis:30.0, Company Ticker:gooo\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 190.47619047619048\n" +
+            "Cost Basis:30.0]", virtualGamble.getStockDetails().get("retirement")
+            .getStockList().toString());
+  }
+
+  /**
+   * Test to invest with weights to each company.
+   */
+  @Test
+  public void investAmountWeightedTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "gooo");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("gooo", 10.0);
+    virtualGamble.investFixedAmountWeighted("retirement", 600,
+            "2014-08-28", map, 5);
+    assertEquals("[Company Ticker:goog\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 0.7406101216716628\n" +
+            "Cost Basis:425.0, Company Ticker:msft\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 2.6899798251513114\n" +
+            "Cost Basis:125.0, Company Ticker:gooo\n" +
+            "Purchase Date:2014-08-28\n" +
+            "Number of Shares: 571.4285714285714\n" +
+            "Cost Basis:65.0]", virtualGamble.getStockDetails().get("retirement")
+            .getStockList().toString());
+  }
+
+  /**
+   * Test to get costbasis for dollar average investment.
+   */
+  @Test
+  public void getCostBasisForDollarAverage() throws ParseException,
+          IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-07-12", 400, 30, map, 5);
+    assertEquals(1245.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+
+  /**
+   * Test to verify that dollar cost averaging buys every company in date order.
+   */
+  @Test
+  public void dollarAveragePurchaseOrderTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 50.0);
+    map.put("goog", 50.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-07-12", 400, 30, map, 5);
+    List<Stock> stocks = virtualGamble.getStockDetails().get("retirement").getStockList();
+    assertEquals(6, stocks.size());
+    for (int i = 1; i < stocks.size(); i++) {
+      if (stocks.get(i - 1).getPurchaseDate().compareTo(stocks.get(i).getPurchaseDate()) > 0) {
+        fail();
+      }
+    }
+  }
+
+  /**
+   * Test to verify that a dollar cost plan is held as a plan and its purchases of a company are
+   * only turned into lots when shares of the company are sold.
+   */
+  @Test
+  public void dollarAverageLazyPlanTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 50.0);
+    map.put("goog", 50.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-07-12", 400, 30, map, 5);
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    assertEquals(1, portfolio.getDollarCostPlans().size());
+    assertEquals(0, portfolio.getStockListWithoutPlans().size());
+    assertEquals(1230.0, portfolio.getTotalCostBasis(), 0.01);
+    virtualGamble.sellShare("retirement", "msft", 1, "2014-07-14", 0, LotRelief.FIFO);
+    assertEquals(3, portfolio.getStockListWithoutPlans().size());
+    assertEquals(1, portfolio.getDollarCostPlans().get(0).getWeights().size());
+    assertEquals(6, portfolio.getStockList().size());
+  }
+
+  /**
+   * Test to verify that a dollar cost plan without an end date buys every purchase due by the
+   * latest price and buys again when a new price arrives.
+   */
+  @Test
+  public void dollarAverageOngoingTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 100.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21", null, 400, 30, map, 5);
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    assertEquals(true, portfolio.getDollarCostPlans().get(0).isOngoing());
+    double costBasis = portfolio.getTotalCostBasis();
+    assertEquals(portfolio.getStockList().size() * 405.0, costBasis, 0.01);
+    PriceSeries series = PriceStore.getDefault().getSeries("msft");
+    String next = PriceSeries.toDate(series.getDay(series.size() - 1) + 30);
+    PriceStore.getDefault().append("msft", next, 100, 100, 100, 100, 1000000);
+    try {
+      assertEquals(costBasis + 405.0, portfolio.getTotalCostBasis(), 0.01);
+    } finally {
+      PriceStore.getDefault().invalidate("msft");
+    }
+  }
+
+  /**
+   * Test to verify that a dollar cost plan without an end date skips a purchase larger than the
+   * volume traded on its day and goes on buying on the next one.
+   */
+  @Test
+  public void dollarAverageLowVolumeTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 100.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21", null, 400, 30, map, 5);
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    double costBasis = portfolio.getTotalCostBasis();
+    int lots = portfolio.getStockList().size();
+    PriceSeries series = PriceStore.getDefault().getSeries("msft");
+    int last = series.getDay(series.size() - 1);
+    PriceStore.getDefault().append("msft", PriceSeries.toDate(last + 30), 100, 100, 100, 100, 1);
+    try {
+      assertEquals(costBasis, portfolio.getTotalCostBasis(), 0.01);
+      PriceStore.getDefault().append("msft", PriceSeries.toDate(last + 60), 100, 100, 100, 100,
+              1000000);
+      assertEquals(costBasis + 405.0, portfolio.getTotalCostBasis(), 0.01);
+      assertEquals(lots + 1, portfolio.getStockList().size());
+      assertEquals(PriceSeries.toDate(last + 60), portfolio.getStockList()
+              .get(lots).getPurchaseDate());
+    } finally {
+      PriceStore.getDefault().invalidate("msft");
+    }
+  }
+
+  /**
+   * Test to verify that the portfolios holding a company are found and are the ones marked to a
+   * new price of it.
+   */
+  @Test
+  public void holdersTest() throws IOException {
+    virtualGamble.createPortfolio("tech");
+    virtualGamble.createPortfolio("search");
+    virtualGamble.buyShare("tech", "msft", 1000, "2014-04-21", 0);
+    virtualGamble.buyShare("search", "goog", 1000, "2014-04-21", 0);
+    double shares = virtualGamble.getStockDetails().get("tech").getNumberOfShares("MSFT");
+    assertEquals("{tech=" + shares + "}", virtualGamble.getHolders("MSFT").toString());
+    double search = virtualGamble.getProfitAndLoss("search").getMarketValue();
+    PriceSeries series = PriceStore.getDefault().getSeries("msft");
+    String next = PriceSeries.toDate(series.getDay(series.size() - 1) + 1);
+    PriceStore.getDefault().append("msft", next, 100, 100, 100, 100, 1000000);
+    try {
+      assertEquals(shares * 100, virtualGamble.getProfitAndLoss("tech").getMarketValue(), 0.01);
+      assertEquals(search, virtualGamble.getProfitAndLoss("search").getMarketValue(), 0);
+      virtualGamble.sellShare("tech", "msft", shares, next, 0, LotRelief.FIFO);
+      assertTrue(virtualGamble.getHolders("msft").isEmpty());
+    } finally {
+      PriceStore.getDefault().invalidate("msft");
+    }
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown for a dollar cost period which is not
+   * positive.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void dollarAverageZeroPeriodTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("goog", 100.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-07-12", 400, 0, map, 5);
+  }
+
+  /**
+   * Test to verify that a grid of dollar cost strategies is ranked by growth rate without
+   * creating any portfolio.
+   */
+  @Test
+  public void backtestGridTest() throws IOException {
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    List<DollarCostAverage> grid = new ArrayList<>();
+    grid.add(new DollarCostAverage("2014-04-21", "2014-07-12", 400, 30, map, 5));
+    grid.add(new DollarCostAverage("2014-04-21", "2016-07-12", 400, 30, map, 5));
+    List<BacktestResult> results = virtualGamble.backtest(grid);
+    assertEquals(2, results.size());
+    if (results.get(0).getCagr() < results.get(1).getCagr()) {
+      fail();
+    }
+    for (BacktestResult result : results) {
+      if (result.getStrategy() == grid.get(0)) {
+        assertEquals(1245.0, result.getCostBasis(), 0.01);
+      }
+    }
+    assertEquals(0, virtualGamble.getStockDetails().size());
+  }
+  /**
+   * Test to verify that a backtest does not depend on the order of the weights, and that it counts
+   * the same purchases as a dollar cost plan applied to a portfolio.
+   */
+  @Test
+  public void backtestWeightOrderTest() throws IOException, ParseException {
+    Map<String, Double> forward = new LinkedHashMap<>();
+    forward.put("msft", 30.0);
+    forward.put("goog", 70.0);
+    Map<String, Double> backward = new LinkedHashMap<>();
+    backward.put("goog", 70.0);
+    backward.put("msft", 30.0);
+    List<DollarCostAverage> grid = new ArrayList<>();
+    grid.add(new DollarCostAverage("2014-04-21", null, 400, 30, forward, 5));
+    grid.add(new DollarCostAverage("2014-04-21", null, 400, 30, backward, 5));
+    List<BacktestResult> results = virtualGamble.backtest(grid);
+    assertEquals(results.get(0).getFinalValue(), results.get(1).getFinalValue(), 0);
+    assertEquals(results.get(0).getCagr(), results.get(1).getCagr(), 0);
+    assertEquals(results.get(0).getCostBasis(), results.get(1).getCostBasis(), 0);
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21", null, 400, 30, forward, 5);
+    assertEquals(virtualGamble.getStockDetails().get("retirement").getTotalCostBasis(),
+            results.get(0).getCostBasis(), 0.01);
+  }
+
+
+  /**
+   * Test to verify that a Monte Carlo simulation of a portfolio gives ordered percentile bands.
+   */
+  @Test
+  public void simulatePortfolioTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    SimulationResult result = virtualGamble.simulate("retirement", 20, 2000, 5);
+    assertEquals(2000, result.getPaths());
+    if (result.getPercentile(5) > result.getPercentile(50)
+            || result.getPercentile(50) > result.getPercentile(95)) {
+      fail();
+    }
+  }
+  /**
+   * Test to verify that a simulation with a given seed can be reproduced.
+   */
+  @Test
+  public void simulateSeedTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    SimulationResult first = virtualGamble.simulate("retirement", 20, 2000, 5, 42);
+    SimulationResult second = virtualGamble.simulate("retirement", 20, 2000, 5, 42);
+    assertEquals(first.getMean(), second.getMean(), 0);
+    assertEquals(first.toString(), second.toString());
+    Map<String, Double> map = new HashMap<>();
+    map.put("goog", 100.0);
+    DollarCostAverage plan = new DollarCostAverage("2014-04-21", null, 400, 30, map, 5);
+    assertEquals(virtualGamble.simulate(plan, 60, 500, 1, 7).toString(),
+            virtualGamble.simulate(plan, 60, 500, 1, 7).toString());
+  }
+
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown when simulating an empty portfolio.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void simulateEmptyPortfolioTest() {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.simulate("retirement", 20, 2000, 1);
+  }
+
+  /**
+   * Test to verify that rebalancing sells the company above its weight, buys the one below it and
+   * keeps the value of the portfolio when no commission is paid.
+   */
+  @Test
+  public void rebalancePortfolioTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "msft", 1000, "2014-04-21", 0);
+    virtualGamble.buyShare("retirement", "goog", 1000, "2014-04-21", 0);
+    double before = virtualGamble.getTotalValue("retirement", "2017-07-26");
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 50.0);
+    weights.put("goog", 50.0);
+    List<Sale> sales = virtualGamble.rebalance("retirement",
+            RebalanceStrategy.calendar(weights, 90, 0), "2017-07-26");
+    assertEquals(1, sales.size());
+    assertEquals(before, virtualGamble.getTotalValue("retirement", "2017-07-26"), 0.02);
+    Map<String, Double> holdings = virtualGamble.getStockDetails().get("retirement")
+            .getHoldings();
+    int day = PriceSeries.toDay("2017-07-26");
+    assertEquals(holdings.get("msft") * PriceStore.getDefault().getSeries("msft").getPrice(day),
+            holdings.get("goog") * PriceStore.getDefault().getSeries("goog").getPrice(day),
+            0.02);
+  }
+
+  /**
+   * Test to verify that a threshold strategy decides whether to trade at the prices of the date
+   * of the rebalance rather than the latest prices.
+   */
+  @Test
+  public void rebalanceThresholdDateTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "msft", 1000, "2014-04-21", 0);
+    virtualGamble.buyShare("retirement", "goog", 1000, "2014-04-21", 0);
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 50.0);
+    weights.put("goog", 50.0);
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    assertTrue(portfolio.getDrift(weights) >= 5);
+    assertTrue(portfolio.getDrift(weights, "2014-04-21") < 5);
+    List<Sale> sales = virtualGamble.rebalance("retirement",
+            RebalanceStrategy.threshold(weights, 5, 0), "2014-04-21");
+    assertTrue(sales.isEmpty());
+  }
+
+  /**
+   * Test to verify that a rebalance with a sale which cannot be made sells and buys nothing, even
+   * when another sale could be made.
+   */
+  @Test
+  public void rebalanceAtomicTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "msft", 1000, "2014-04-21", 0);
+    virtualGamble.buyShare("retirement", "goog", 1000, "2017-07-26", 0);
+    Map<String, Double> before = virtualGamble.getStockDetails().get("retirement").getHoldings();
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("aapl", 100.0);
+    try {
+      virtualGamble.rebalance("retirement", RebalanceStrategy.calendar(weights, 90, 0),
+              "2015-06-01");
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage().startsWith("Portfolio holds only"));
+    }
+    assertEquals(before, virtualGamble.getStockDetails().get("retirement").getHoldings());
+  }
+
+  /**
+   * Test to verify that a calendar strategy whose period is never reached holds its first
+   * purchase, and that a threshold strategy never trades more value than it rebalances.
+   */
+  @Test
+  public void backtestRebalancingTest() throws IOException {
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 60.0);
+    weights.put("goog", 40.0);
+    RebalanceResult hold = virtualGamble.backtestRebalancing(
+            RebalanceStrategy.calendar(weights, 100000, 0), 10000, "2014-04-21", "2017-07-26");
+    assertEquals(0, hold.getRebalances());
+    PriceSeries msft = PriceStore.getDefault().getSeries("msft");
+    PriceSeries goog = PriceStore.getDefault().getSeries("goog");
+    int start = msft.getDay(msft.ceilingIndex(PriceSeries.toDay("2014-04-21")));
+    int end = msft.getDay(msft.floorIndex(PriceSeries.toDay("2017-07-25")));
+    double expected = 6000 / msft.getPrice(start) * msft.getPrice(end)
+            + 4000 / goog.getLow(goog.floorIndex(start)) * goog.getLow(goog.floorIndex(end));
+    assertEquals(expected, hold.getFinalValue(), 0.01);
+
+    RebalanceResult drift = virtualGamble.backtestRebalancing(
+            RebalanceStrategy.threshold(weights, 5, 1), 10000, "2014-04-21", "2017-07-26");
+    assertEquals(10000, drift.getInvested(), 0);
+    assertEquals(2 + 2 * drift.getRebalances(), drift.getCommissions(), 0);
+  }
+
+  /**
+   * Test to verify that IllegalArgumentException is thrown for weights which do not add up to
+   * 100.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void rebalanceInvalidWeightsTest() {
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 60.0);
+    weights.put("goog", 30.0);
+    RebalanceStrategy.threshold(weights, 5, 0);
+  }
+
+  /**
+   * Test to verify that optimized weights are not negative, add up to 100 and can be used for a
+   * dollar cost plan as they are.
+   */
+  @Test
+  public void optimizeWeightsTest() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    for (OptimizationGoal goal : OptimizationGoal.values()) {
+      Map<String, Double> weights = virtualGamble.optimizeWeights("retirement", goal,
+              "2014-01-01");
+      assertEquals(3, weights.size());
+      double sum = 0;
+      for (double weight : weights.values()) {
+        assertEquals(true, weight >= 0);
+        sum += weight;
+      }
+      assertEquals(100, sum, 1e-9);
+    }
+    Map<String, Double> weights = virtualGamble.optimizeWeights("retirement",
+            OptimizationGoal.MIN_VARIANCE, "2014-01-01");
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21", "2014-07-12", 400, 30,
+            weights, 5);
+    assertEquals(weights, virtualGamble.getStockDetails().get("retirement")
+            .getDollarCostAverage().getWeights());
+  }
+
+  /**
+   * Test to verify that the streaming risk metrics match the statistics computed from the whole
+   * series at once.
+   */
+  @Test
+  public void riskMetricsTest() {
+    RiskMetrics metrics = new RiskMetrics();
+    double[] values = {100, 110, 99, 120, 90, 95};
+    for (double value : values) {
+      metrics.add(value, 0);
+    }
+    double[] returns = new double[values.length - 1];
+    double mean = 0;
+    for (int i = 0; i < returns.length; i++) {
+      returns[i] = values[i + 1] / values[i] - 1;
+      mean += returns[i] / returns.length;
+    }
+    double variance = 0;
+    for (double value : returns) {
+      variance += (value - mean) * (value - mean) / (returns.length - 1);
+    }
+    assertEquals(5, metrics.getDays());
+    assertEquals(-0.05, metrics.getTotalReturn(), 1e-9);
+    assertEquals(0.25, metrics.getMaxDrawdown(), 1e-9);
+    assertEquals(Math.sqrt(variance * 252), metrics.getVolatility(), 1e-9);
+    assertEquals(0.25, metrics.getValueAtRisk(0.99), 1e-9);
+    assertEquals(0.25, metrics.getConditionalValueAtRisk(0.99), 1e-9);
+  }
+
+  /**
+   * Test to verify that money added to a portfolio is not counted as a return.
+   */
+  @Test
+  public void riskMetricsFlowTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "msft", 1000, "2014-04-21", 0);
+    RiskMetrics single = virtualGamble.getRiskMetrics("retirement");
+    virtualGamble.buyShare("retirement", "msft", 5000, "2015-04-21", 0);
+    RiskMetrics doubled = virtualGamble.getRiskMetrics("retirement");
+    assertEquals(single.getDays(), doubled.getDays());
+    assertEquals(single.getTotalReturn(), doubled.getTotalReturn(), 1e-9);
+    assertEquals(single.getMaxDrawdown(), doubled.getMaxDrawdown(), 1e-9);
+  }
+
+  /**
+   * Test to verify that the risk metrics of a dollar cost plan without an end date take in the
+   * purchase made on a new price the same as the metrics of a plan started after it.
+   */
+  @Test
+  public void riskMetricsOngoingPlanTest() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.createPortfolio("copy");
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 100.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21", null, 400, 30, weights, 5);
+    RiskMetrics before = virtualGamble.getRiskMetrics("retirement");
+    PriceSeries series = PriceStore.getDefault().getSeries("msft");
+    String next = PriceSeries.toDate(series.getDay(series.size() - 1) + 30);
+    PriceStore.getDefault().append("msft", next, 100, 100, 100, 100, 1000000);
+    try {
+      RiskMetrics after = virtualGamble.getRiskMetrics("retirement");
+      virtualGamble.applyDollarCostAveraging("copy", "2014-04-21", null, 400, 30, weights, 5);
+      RiskMetrics copy = virtualGamble.getRiskMetrics("copy");
+      assertEquals(before.getDays() + 1, after.getDays());
+      assertEquals(copy.getDays(), after.getDays());
+      assertEquals(copy.getTotalReturn(), after.getTotalReturn(), 1e-9);
+      assertEquals(copy.getMaxDrawdown(), after.getMaxDrawdown(), 1e-9);
+      assertEquals(copy.getVolatility(), after.getVolatility(), 1e-9);
+    } finally {
+      PriceStore.getDefault().invalidate("msft");
+    }
+  }
+
+  /**
+   * Test to verify that the batch kernels and the incremental calculators give the same values.
+   */
+  @Test
+  public void indicatorKernelsTest() {
+    double[] high = {11, 12, 13, 12, 14, 15, 14, 16, 17, 16, 18, 19};
+    double[] low = {9, 10, 11, 10, 12, 13, 12, 14, 15, 14, 16, 17};
+    double[] close = {10, 11, 12, 11, 13, 14, 13, 15, 16, 15, 17, 18};
+    IndicatorSpec[] specs = {IndicatorSpec.sma(3), IndicatorSpec.ema(3), IndicatorSpec.rsi(4),
+        IndicatorSpec.macd(2, 4, 3), IndicatorSpec.bollinger(5, 2), IndicatorSpec.atr(3)};
+    for (IndicatorSpec spec : specs) {
+      double[][] batch = Indicators.compute(spec, high, low, close);
+      Indicator incremental = Indicators.create(spec);
+      for (int i = 0; i < close.length; i++) {
+        incremental.update(high[i], low[i], close[i]);
+        for (int output = 0; output < batch.length; output++) {
+          assertEquals(spec + " at " + i, batch[output][i], incremental.getValue(output), 1e-12);
+        }
+      }
+    }
+    double[] average = Indicators.sma(close, 3);
+    assertEquals(Double.NaN, average[1], 0);
+    assertEquals(11, average[2], 1e-12);
+    assertEquals(50.0 / 3, average[11], 1e-12);
+  }
+
+  /**
+   * Test to get an indicator over the history of a company.
+   */
+  @Test
+  public void getIndicatorTest() throws IOException {
+    IndicatorSeries bands = virtualGamble.getIndicator("msft", IndicatorSpec.bollinger(20, 2));
+    assertEquals(3, bands.getOutputs());
+    assertEquals(PriceStore.getDefault().getSeries("msft").size(), bands.size());
+    int last = bands.size() - 1;
+    assertEquals(true, bands.getValue(1, last) >= bands.getValue(0, last));
+    assertEquals(bands.getValue(0, last) - bands.getValue(2, last),
+            bands.getValue(1, last) - bands.getValue(0, last), 1e-9);
+    try {
+      virtualGamble.getIndicator("msft", IndicatorSpec.macd(26, 12, 9));
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Fast period should be shorter than slow period", e.getMessage());
+    }
+  }
+
+  /**
+   * Test to verify that an indicator is extended by a new bar with the value the batch kernels
+   * give, without changing the values returned before, and is computed again when the store
+   * reloads the series.
+   */
+  @Test
+  public void indicatorAppendTest() throws IOException {
+    IndicatorSpec spec = IndicatorSpec.bollinger(20, 2);
+    IndicatorSeries before = virtualGamble.getIndicator("msft", spec);
+    int size = before.size();
+    double[] last = new double[before.getOutputs()];
+    for (int output = 0; output < last.length; output++) {
+      last[output] = before.getValue(output, size - 1);
+    }
+    PriceSeries series = PriceStore.getDefault().getSeries("msft");
+    String next = PriceSeries.toDate(series.getDay(series.size() - 1) + 1);
+    PriceStore.getDefault().append("msft", next, 101, 103, 99, 102, 1000000);
+    try {
+      IndicatorSeries after = virtualGamble.getIndicator("msft", spec);
+      assertEquals(size + 1, after.size());
+      double[] high = new double[size + 1];
+      double[] low = new double[size + 1];
+      double[] close = new double[size + 1];
+      for (int i = 0; i <= size; i++) {
+        high[i] = series.getHigh(i);
+        low[i] = series.getLow(i);
+        close[i] = series.getClose(i);
+      }
+      double[][] batch = Indicators.compute(spec, high, low, close);
+      for (int output = 0; output < last.length; output++) {
+        assertEquals(batch[output][size], after.getValue(output, size), 1e-9);
+        assertEquals(last[output], before.getValue(output, size - 1), 0);
+      }
+      assertEquals(size, before.size());
+      PriceStore.getDefault().invalidate("msft");
+      IndicatorSeries reloaded = virtualGamble.getIndicator("msft", spec);
+      assertEquals(size, reloaded.size());
+      for (int output = 0; output < last.length; output++) {
+        assertEquals(last[output], reloaded.getValue(output, size - 1), 1e-9);
+      }
+    } finally {
+      PriceStore.getDefault().invalidate("msft");
+    }
+  }
+
+  /**
+   * Test to verify that the trades of a signal backtest are held as lots and sales of its
+   * portfolio.
+   */
+  @Test
+  public void backtestSignalsTest() throws IOException {
+    List<String> companies = new ArrayList<>();
+    companies.add("msft");
+    companies.add("goog");
+    SignalResult result = virtualGamble.backtestSignals(SignalRules.crossover(12, 26), companies,
+            10000, "2015-01-02", "2020-01-02", 5);
+    assertEquals(true, result.getTrades() > 0);
+    assertEquals(result.getTrades() * 5, result.getCommissions(), 1e-9);
+    int sales = result.getPortfolio().getSales().size();
+    int open = result.getPortfolio().getStockList().size();
+    assertEquals(result.getTrades(), 2 * sales + open);
+    assertEquals(true, result.getMaxDrawdown() >= 0 && result.getMaxDrawdown() < 1);
+    try {
+      SignalRules.crossover(26, 12);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Fast period should be shorter than slow period", e.getMessage());
+    }
+  }
+
+  /**
+   * Test to verify that orders bought together give the same lots as orders bought one by one.
+   */
+  @Test
+  public void buySharesTest() throws IOException, ParseException {
+    virtualGamble.createPortfolio("single");
+    virtualGamble.createPortfolio("batch");
+    List<Order> orders = new ArrayList<>();
+    orders.add(new Order("msft", 1000, "2014-04-21", 5));
+    orders.add(new Order("goog", 2000, "2014-04-21", 5));
+    orders.add(new Order("msft", 500, "2015-04-21", 0));
+    for (Order order : orders) {
+      virtualGamble.buyShare("single", order.getCompany(), order.getAmount(), order.getDate(),
+              order.getCommission());
+    }
+    virtualGamble.buyShares("batch", orders);
+    Portfolio single = virtualGamble.getStockDetails().get("single");
+    Portfolio batch = virtualGamble.getStockDetails().get("batch");
+    assertEquals(single.getCompanyList(), batch.getCompanyList());
+    assertEquals(single.getStockList().size(), batch.getStockList().size());
+    assertEquals(single.getTotalCostBasisMicros(), batch.getTotalCostBasisMicros());
+    assertEquals(virtualGamble.getTotalValue("single", "2017-07-26"),
+            virtualGamble.getTotalValue("batch", "2017-07-26"), 0);
+  }
+
+  /**
+   * Test to verify that no order is bought when one of them is not valid.
+   */
+  @Test
+  public void buySharesAtomicTest() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    List<Order> orders = new ArrayList<>();
+    orders.add(new Order("msft", 1000, "2014-04-21", 5));
+    orders.add(new Order("goog", 2000, "2014-04-19", 5));
+    try {
+      virtualGamble.buyShares("retirement", orders);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("Stock is not available for date 2014-04-19 for company goog",
+              e.getMessage());
+    }
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    assertEquals(0, portfolio.getStockList().size());
+    assertEquals(0, portfolio.getCompanyList().size());
+  }
+
+  /**
+   * Test to verify that a broker trade history is imported with its own layout and that trades
+   * which are not buys or sells are skipped and bad ones are reported.
+   */
+  @Test
+  public void importTradesTest() throws IOException {
+    virtualGamble.createPortfolio("broker");
+    String trades = "Trade Date,Symbol,Action,Qty,Price,Fees\n"
+            + "04/21/2014,msft,Bought,10,\"$39.50\",5\n"
+            + "04/22/2014,msft,Dividend,,,\n"
+            + "13/45/2014,msft,Buy,1,40,0\n"
+            + "\n"
+            + "05/01/2015,msft,Sold,(4),,1\n";
+    TradeColumns columns = TradeColumns.parse("date=Trade Date;ticker=Symbol;quantity=Qty;"
+            + "commission=Fees;dateFormat=MM/dd/yyyy");
+    List<ImportReport> progress = new ArrayList<>();
+    ImportReport report = virtualGamble.importTrades("broker", new StringReader(trades), columns,
+            progress::add);
+    assertEquals(1, progress.size());
+    assertEquals(4, report.getRows());
+    assertEquals(1, report.getBought());
+    assertEquals(1, report.getSold());
+    assertEquals(1, report.getSkipped());
+    assertEquals(1, report.getFailed());
+    assertEquals(4, report.getFailures().get(0).getLine());
+    assertEquals("Date 13/45/2014 is not in the format MM/dd/yyyy",
+            report.getFailures().get(0).getReason());
+    Portfolio portfolio = virtualGamble.getStockDetails().get("broker");
+    assertEquals(6, portfolio.getStockList().get(0).getNumberOfShares(), 1e-9);
+    assertEquals(Money.ofDollars(240), portfolio.getTotalCostBasisMicros());
+  }
+
+  /**
+   * Test to verify that the lots, positions and values of a portfolio are exported as CSV and
+   * JSON, and that a gzip export holds the same text.
+   */
+  @Test
+  public void exportReportTest() throws IOException, ParseException {
+    virtualGamble.createPortfolio("report");
+    virtualGamble.buyShare("report", "msft", 1000, "2014-04-21", 5);
+    virtualGamble.buyShare("report", "msft", 500, "2015-04-21", 0);
+    StringWriter lots = new StringWriter();
+    virtualGamble.exportReport("report", ReportType.LOTS, null, null,
+            new ReportExporter(lots, ExportFormat.CSV));
+    List<Stock> stocks = virtualGamble.getStockDetails().get("report").getStockList();
+    assertEquals("PurchaseDate,CompanyTicker,CostBasis,NumberOfShares,Commission\n"
+            + "2014-04-21,msft,1005.0," + stocks.get(0).getNumberOfShares() + ",5.0\n"
+            + "2015-04-21,msft,500.0," + stocks.get(1).getNumberOfShares() + ",0.0\n",
+            lots.toString());
+
+    StringWriter positions = new StringWriter();
+    virtualGamble.exportReport("report", ReportType.POSITIONS, null, "2017-07-26",
+            new ReportExporter(positions, ExportFormat.JSON));
+    assertEquals("{\"positions\":[\n{\"companyTicker\":\"msft\",\"numberOfShares\":"
+            + (stocks.get(0).getNumberOfShares() + stocks.get(1).getNumberOfShares())
+            + ",\"costBasis\":1505.0,\"value\":"
+            + virtualGamble.getTotalValue("report", "2017-07-26") + "}\n]}\n",
+            positions.toString());
+
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    try (ReportExporter exporter = ReportExporter.open(compressed, ExportFormat.CSV, true)) {
+      virtualGamble.exportReport("report", ReportType.VALUES, "2017-07-21", "2017-07-26",
+              exporter);
+    }
+    String values;
+    try (Scanner scanner = new Scanner(new GZIPInputStream(
+            new ByteArrayInputStream(compressed.toByteArray())), "UTF-8")) {
+      values = scanner.useDelimiter("\\A").next();
+    }
+    assertEquals("Date,Value\n"
+            + "2017-07-21," + virtualGamble.getTotalValue("report", "2017-07-21") + "\n"
+            + "2017-07-24," + virtualGamble.getTotalValue("report", "2017-07-24") + "\n"
+            + "2017-07-25," + virtualGamble.getTotalValue("report", "2017-07-25") + "\n"
+            + "2017-07-26," + virtualGamble.getTotalValue("report", "2017-07-26") + "\n", values);
+  }
+
+  /**
+   * Test to verify that a price series can be searched while bars are appended to it and its
+   * arrays grow.
+   */
+  @Test
+  public void priceSeriesConcurrentAppendTest() throws IOException, InterruptedException {
+    Path directory = Files.createTempDirectory("prices");
+    Files.write(directory.resolve("race.csv"), ("timestamp,open,high,low,close,volume\n"
+            + "2000-01-03,10,11,9,10,1000\n").getBytes());
+    PriceStore store = new PriceStore(directory.toString());
+    PriceSeries series = store.getSeries("race");
+    int first = PriceSeries.toDay("2000-01-03");
+    List<Throwable> failures = new ArrayList<>();
+    Thread appender = new Thread(() -> {
+      try {
+        for (int day = first + 1; day <= first + 200000; day++) {
+          store.append("race", PriceSeries.toDate(day), 10, 11, 9, 10, 1000);
+        }
+      } catch (RuntimeException e) {
+        failures.add(e);
+      }
+    });
+    appender.start();
+    while (appender.isAlive()) {
+      int size = series.size();
+      int index = series.ceilingIndex(first + size - 1);
+      assertEquals(first + index, series.getDay(index));
+      assertEquals(9, series.getPrice(first + series.floorIndex(first + size)), 0);
+    }
+    appender.join();
+    assertTrue(failures.isEmpty());
+    assertEquals(200001, series.size());
+    Files.delete(directory.resolve("race.csv"));
+    Files.delete(directory);
+  }
+
+  /**
+   * Test to verify that the values of a portfolio are written for the trading days its companies
+   * have prices for, and that a company missing a bar on a trading day is reported before
+   * anything is written.
+   */
+  @Test
+  public void exportValuesMissingDataTest() throws IOException {
+    File full = new File("data/gapa.csv");
+    File gap = new File("data/gapb.csv");
+    Files.write(full.toPath(), ("timestamp,open,high,low,close,volume\n"
+            + "2017-07-25,12,13,11,12,1000000\n2017-07-24,11,12,10,11,1000000\n"
+            + "2017-07-21,10,11,9,10,1000000\n2017-07-20,10,11,9,10,1000000\n").getBytes());
+    Files.write(gap.toPath(), ("timestamp,open,high,low,close,volume\n"
+            + "2017-07-25,22,23,21,22,1000000\n2017-07-21,20,21,19,20,1000000\n"
+            + "2017-07-20,20,21,19,20,1000000\n").getBytes());
+    try {
+      virtualGamble.createPortfolio("full");
+      virtualGamble.buyShare("full", "gapa", 90, "2017-07-20", 0);
+      StringWriter values = new StringWriter();
+      ReportExporter exporter = new ReportExporter(values, ExportFormat.CSV);
+      assertEquals(4, exporter.writeValues(virtualGamble.getStockDetails().get("full"),
+              "2017-07-19", "2017-07-31"));
+      assertEquals("Date,Value\n2017-07-20,90.0\n2017-07-21,90.0\n2017-07-24,100.0\n"
+              + "2017-07-25,110.0\n", values.toString());
+
+      virtualGamble.buyShare("full", "gapb", 190, "2017-07-20", 0);
+      values = new StringWriter();
+      exporter = new ReportExporter(values, ExportFormat.CSV);
+      try {
+        exporter.writeValues(virtualGamble.getStockDetails().get("full"), "2017-07-20",
+                "2017-07-25");
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertEquals("Data for date 2017-07-24 is not available for company gapb",
+                e.getMessage());
+      }
+      assertEquals("", values.toString());
+    } finally {
+      full.delete();
+      gap.delete();
+    }
+  }
+
+  /**
+   * Test to verify that a trade history without the columns of its layout is rejected.
+   */
+  @Test
+  public void importTradesHeaderTest() throws IOException {
+    virtualGamble.createPortfolio("broker");
+    try {
+      virtualGamble.importTrades("broker", new StringReader("When,What\n2014-04-21,msft\n"),
+              TradeColumns.DEFAULT, null);
+      fail();
+    } catch (IllegalArgumentException e) {
+      assertEquals("The header should have the columns Date and Symbol", e.getMessage());
+    }
+  }
+
+  /**
+   * Test to verify that an imported trade of a company missing from the listing of symbols is
+   * reported before its data is downloaded, while the other trades are imported.
+   */
+  @Test
+  public void importUnknownSymbolTest() throws IOException {
+    Path listing = Files.createTempFile("listing", ".csv");
+    Files.write(listing, "symbol,name\nMSFT,Microsoft Corporation\n".getBytes());
+    System.setProperty("virtualgamble.listing", listing.toString());
+    try {
+      virtualGamble = new VirtualGambleImpl();
+      virtualGamble.createPortfolio("broker");
+      ImportReport report = virtualGamble.importTrades("broker", new StringReader(
+              "Date,Symbol,Action,Amount\n2014-04-21,msfy,Buy,1000\n2014-04-21,msft,Buy,1000\n"),
+              TradeColumns.DEFAULT, null);
+      assertEquals(1, report.getBought());
+      assertEquals(1, report.getFailed());
+      assertEquals("Unknown ticker symbol msfy, did you mean MSFT?",
+              report.getFailures().get(0).getReason());
+      assertFalse(new File("data/msfy.csv").exists());
+    } finally {
+      System.clearProperty("virtualgamble.listing");
+      Files.delete(listing);
+    }
+  }
+
+  /**
+   * Test to verify that a symbol directory completes prefixes and finds misspelt symbols.
+   */
+  @Test
+  public void symbolDirectoryTest() throws IOException {
+    SymbolDirectory directory = SymbolDirectory.read(new StringReader(
+            "symbol,name,exchange,assetType,ipoDate,delistingDate,status\n"
+            + "MSFT,Microsoft Corporation,NASDAQ,Stock,1986-03-13,null,Active\n"
+            + "GOOG,Alphabet Inc - Class C,NASDAQ,Stock,2014-03-27,null,Active\n"
+            + "GOOGL,Alphabet Inc - Class A,NASDAQ,Stock,2004-08-19,null,Active\n"
+            + "AAPL,Apple Inc,NASDAQ,Stock,1980-12-12,null,Active\n"
+            + "MSI,Motorola Solutions Inc,NYSE,Stock,1977-01-03,null,Active\n"));
+    assertEquals(5, directory.size());
+    assertTrue(directory.contains("msft"));
+    assertFalse(directory.contains("MSF"));
+    assertEquals("Apple Inc", directory.getName("aapl"));
+    assertEquals("[GOOG, GOOGL]", directory.complete("go", 10).toString());
+    assertEquals("[MSFT, MSI]", directory.complete("ms", 10).toString());
+    assertEquals("[]", directory.complete("x", 10).toString());
+    assertEquals("[MSFT]", directory.suggest("msfy", 1, 10).toString());
+    assertEquals("[GOOG, GOOGL]", directory.suggest("gog", 2, 10).toString());
+  }
+
+  /**
+   * Test to verify that a company missing from the listing of symbols is rejected before its data
+   * is downloaded.
+   */
+  @Test
+  public void unknownSymbolTest() throws IOException {
+    Path listing = Files.createTempFile("listing", ".csv");
+    Files.write(listing, ("symbol,name\nMSFT,Microsoft Corporation\n"
+            + "GOOG,Alphabet Inc\n").getBytes());
+    System.setProperty("virtualgamble.listing", listing.toString());
+    try {
+      virtualGamble = new VirtualGambleImpl();
+      virtualGamble.createPortfolio("typo");
+      assertEquals("[MSFT]", virtualGamble.suggestSymbols("ms", 5).toString());
+      assertEquals("[GOOG]", virtualGamble.suggestSymbols("gooh", 5).toString());
+      try {
+        virtualGamble.addStockPortfolio("typo", "msfy");
+        fail();
+      } catch (IllegalArgumentException e) {
+        assertEquals("Unknown ticker symbol msfy, did you mean MSFT?", e.getMessage());
+      }
+      assertFalse(new File("data/msfy.csv").exists());
+      assertTrue(virtualGamble.getStockDetails().get("typo").getCompanyList().isEmpty());
+    } finally {
+      System.clearProperty("virtualgamble.listing");
+      Files.delete(listing);
+    }
+  }
+
+  /**
+   * Test to verify that a ticker spelt in different cases is one company for sales and drift.
+   */
+  @Test
+  public void tickerCaseTest() throws IOException {
+    virtualGamble.createPortfolio("spelling");
+    virtualGamble.buyShare("spelling", "msft", 1000, "2014-04-21", 0);
+    virtualGamble.buyShare("spelling", "MSFT", 1000, "2014-04-22", 0);
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("Msft", 100.0);
+    assertEquals(0, virtualGamble.getDrift("spelling", weights), 1e-9);
+    List<Stock> lots = virtualGamble.getStockDetails().get("spelling").getStockList();
+    double shares = lots.get(0).getNumberOfShares() + lots.get(1).getNumberOfShares();
+    List<Sale> sold = virtualGamble.sellShare("spelling", "mSfT", shares, "2017-07-26", 0,
+            LotRelief.FIFO);
+    assertEquals(2, sold.size());
+    assertTrue(virtualGamble.getStockDetails().get("spelling").getStockList().isEmpty());
+  }
+
+  /**
+   * Test to get total value for dollar average investment.
+   */
+  @Test
+  public void getValueForDollarAverage() throws ParseException, IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-07-12", 400, 30, map, 5);
+    assertEquals(2006.25, virtualGamble.getTotalValue("retirement", "2017-07-26"), 0.01);
+  }
+
+  /**
+   * Test to verify that portfolio data can be persisted into a binary snapshot.
+   */
+  @Test
+  public void testPortfolioDataSnapshot() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "AAPL", 2000, "2016-02-29",
+            10);
+    virtualGamble.save("retirement");
+    virtualGamble.close();
+    if (!new File("portfolio/retirement.vgp").exists()) {
+      fail();
+    }
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.retrieve("retirement");
+    assertEquals(6020.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+    assertEquals(2, virtualGamble.getStockDetails().get("retirement").getStockList().size());
+  }
+
+  /**
+   * Test to verify that portfolio data can be exported into a CSV file.
+   */
+  @Test
+  public void testPortfolioDataSave() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.buyShare("retirement", "AAPL", 2000, "2016-02-29",
+            10);
+    virtualGamble.exportPortfolio("retirement");
+    File f = new File("portfolio/retirement.csv");
+    if (!f.exists()) {
+      fail();
+    }
+    String data = "";
+    try {
+      data = new String(Files.readAllBytes(Paths.get("portfolio/retirement.csv")));
+    } catch (IOException e) {
+      fail();
+    }
+    assertEquals("PurchaseDate,CompanyTicker,CostBasis,NumberOfShares,Commission\n" +
+            "2016-02-29,GOOG,4010.0,5.733287467033597,10.0\n" +
+            "2016-02-29,AAPL,2010.0,20.693222969477496,10.0\n", data);
+  }
+
+
+  /**
+   * Test to verify that portfolio data can be retrieved from a file.
+   */
+  @Test
+  public void testPortfolioDataRetrieve() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-05-12", 400, 30, map, 5);
+    virtualGamble.save("retirement");
+    virtualGamble.close();
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.retrieve("retirement");
+    assertEquals(415.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+
+  }
+
+  /**
+   * Test to verify that a retrieved portfolio holding a company only through a dollar cost plan is
+   * found among the holders of the company before anything else has resolved the plan.
+   */
+  @Test
+  public void restoredPlanHoldersTest() throws IOException, ParseException {
+    virtualGamble.createPortfolio("plans");
+    Map<String, Double> weights = new HashMap<>();
+    weights.put("msft", 100.0);
+    virtualGamble.applyDollarCostAveraging("plans", "2014-04-21", "2014-05-12", 400, 30,
+            weights, 5);
+    virtualGamble.save("plans");
+    virtualGamble.close();
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.retrieve("plans");
+    assertEquals("[plans]", virtualGamble.getHolders("msft").keySet().toString());
+  }
+
+  /**
+   * Test to verify that a restored portfolio counts the purchases of its dollar cost plans in its
+   * cost basis before anything else has built them.
+   */
+  @Test
+  public void restoredPlanCostBasisTest() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    Map<String, Double> map = new HashMap<>();
+    map.put("msft", 20.0);
+    map.put("goog", 80.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-05-12", 400, 30, map, 5);
+    virtualGamble.save("retirement");
+    virtualGamble.close();
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.retrieve("retirement");
+    Portfolio portfolio = virtualGamble.getStockDetails().get("retirement");
+    assertEquals(410.0, portfolio.getTotalCostBasis(), 0.01);
+  }
+
+  /**
+   * Test to verify that saved portfolios are restored when the workspace is loaded.
+   */
+  @Test
+  public void testLoadWorkspace() throws IOException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29",
+            10);
+    virtualGamble.save("retirement");
+    virtualGamble.close();
+    virtualGamble = new VirtualGambleImpl();
+    WorkspaceReport report = virtualGamble.loadWorkspace();
+    assertEquals(true, virtualGamble.getStockDetails().containsKey("retirement"));
+    assertEquals(4010.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+    for (WorkspaceReport.Entry entry : report.getFailures()) {
+      assertEquals(false, entry.getName().equals("retirement"));
+    }
+  }
+
+  /**
+   * Test to verify that a portfolio whose write failed, for any reason, is written on the next
+   * flush and that save reports the failure.
+   */
+  @Test
+  public void autosaveRetryTest() throws IOException {
+    FlakyRepository repository = new FlakyRepository(1);
+    virtualGamble = new VirtualGambleImpl(repository, repository);
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    try {
+      virtualGamble.save("retirement");
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Disk full", e.getMessage());
+    }
+    virtualGamble.close();
+    assertEquals(2, repository.attempts);
+    assertEquals(4010.0, repository.loadPortfolio("retirement").getTotalCostBasis(), 0.01);
+  }
+
+  /**
+   * Test to verify that the background autosave keeps running after a write fails.
+   */
+  @Test
+  public void autosaveBackgroundRetryTest() throws IOException, InterruptedException {
+    FlakyRepository repository = new FlakyRepository(1);
+    virtualGamble = new VirtualGambleImpl(repository, repository);
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    for (int i = 0; i < 100 && repository.loadPortfolio("retirement") == null; i++) {
+      Thread.sleep(100);
+    }
+    assertEquals(2, repository.attempts);
+    assertEquals(4010.0, repository.loadPortfolio("retirement").getTotalCostBasis(), 0.01);
+    virtualGamble.close();
+  }
+
+  /**
+   * Test to verify that a background autosave which keeps failing is reported when the workspace
+   * is loaded.
+   */
+  @Test
+  public void autosaveFailureReportTest() throws IOException, InterruptedException {
+    FlakyRepository repository = new FlakyRepository(Integer.MAX_VALUE);
+    virtualGamble = new VirtualGambleImpl(repository, repository);
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    List<WorkspaceReport.Entry> failures = virtualGamble.loadWorkspace().getFailures();
+    for (int i = 0; i < 100 && failures.isEmpty(); i++) {
+      Thread.sleep(100);
+      failures = virtualGamble.loadWorkspace().getFailures();
+    }
+    assertEquals(1, failures.size());
+    assertEquals("autosave", failures.get(0).getName());
+    assertEquals("Disk full", failures.get(0).getError());
+    try {
+      virtualGamble.close();
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Disk full", e.getMessage());
+    }
+  }
+
+  /**
+   * Test to verify that closing the model writes the pending changes and that a change made after
+   * it is closed is refused rather than lost.
+   */
+  @Test
+  public void autosaveCloseTest() throws IOException {
+    FlakyRepository repository = new FlakyRepository(0);
+    virtualGamble = new VirtualGambleImpl(repository, repository);
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.buyShare("retirement", "GOOG", 4000, "2016-02-29", 10);
+    virtualGamble.close();
+    assertEquals(4010.0, repository.loadPortfolio("retirement").getTotalCostBasis(), 0.01);
+    try {
+      virtualGamble.buyShare("retirement", "GOOG", 1000, "2016-02-29", 10);
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("Changes cannot be saved after the model is closed", e.getMessage());
+    }
+  }
+
+  /**
+   * Test to verify that a batch whose checksum does not match is discarded when the store is
+   * opened again, along with everything after it.
+   */
+  @Test
+  public void keyValueChecksumTest() throws IOException {
+    Path file = Files.createTempFile("store", ".db");
+    KeyValueRepository repository = new KeyValueRepository(file.toString());
+    repository.savePortfolio("first", tradedPortfolio("first"));
+    long committed = Files.size(file);
+    repository.savePortfolio("second", tradedPortfolio("second"));
+    repository.close();
+    // the last byte of the value written last, just before its commit record
+    try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+      raw.seek(raw.length() - 10);
+      int value = raw.read();
+      raw.seek(raw.length() - 10);
+      raw.write(value ^ 0xFF);
+    }
+    repository = new KeyValueRepository(file.toString());
+    assertEquals("[first]", repository.listPortfolios().toString());
+    assertEquals(null, repository.loadPortfolio("second"));
+    assertEquals(committed, Files.size(file));
+    repository.close();
+  }
+
+  /**
+   * Test to verify that a batch which was only partly written is cut off when the store is opened
+   * again, and that later commits are appended after the last complete one.
+   */
+  @Test
+  public void keyValueTornBatchTest() throws IOException {
+    Path file = Files.createTempFile("store", ".db");
+    KeyValueRepository repository = new KeyValueRepository(file.toString());
+    repository.savePortfolio("first", tradedPortfolio("first"));
+    long committed = Files.size(file);
+    repository.savePortfolio("second", tradedPortfolio("second"));
+    repository.close();
+    try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+      raw.setLength((committed + raw.length()) / 2);
+    }
+    repository = new KeyValueRepository(file.toString());
+    assertEquals("[first]", repository.listPortfolios().toString());
+    assertEquals(committed, Files.size(file));
+    repository.savePortfolio("third", tradedPortfolio("third"));
+    repository.close();
+    repository = new KeyValueRepository(file.toString());
+    assertEquals("[first, third]", repository.listPortfolios().toString());
+    assertEquals(4010.0, repository.loadPortfolio("third").getTotalCostBasis(), 0.01);
+    repository.close();
+  }
+
+  /**
+   * Test to verify that compacting the store drops overwritten values and keeps the latest value
+   * of every key.
+   */
+  @Test
+  public void keyValueCompactionTest() throws IOException {
+    Path file = Files.createTempFile("store", ".db");
+    KeyValueRepository repository = new KeyValueRepository(file.toString());
+    repository.savePortfolio("kept", tradedPortfolio("kept"));
+    virtualGamble.createPortfolio("large");
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      orders.add(new Order("GOOG", 10, "2016-02-29", 0));
+    }
+    virtualGamble.buyShares("large", orders);
+    Portfolio large = virtualGamble.getStockDetails().get("large");
+    for (int i = 0; i < 100; i++) {
+      repository.savePortfolio("large", large);
+    }
+    repository.close();
+    assertTrue(Files.size(file) < 1 << 20);
+    repository = new KeyValueRepository(file.toString());
+    assertEquals("[kept, large]", repository.listPortfolios().toString());
+    assertEquals(4010.0, repository.loadPortfolio("kept").getTotalCostBasis(), 0.01);
+    assertEquals(10000.0, repository.loadPortfolio("large").getTotalCostBasis(), 0.01);
+    repository.close();
+  }
+
+  /**
+   * Helper method to create a portfolio holding one purchase.
+   */
+  private Portfolio tradedPortfolio(String portfolioID) throws IOException {
+    virtualGamble.createPortfolio(portfolioID);
+    virtualGamble.buyShare(portfolioID, "GOOG", 4000, "2016-02-29", 10);
+    return virtualGamble.getStockDetails().get(portfolioID);
+  }
+
+  /**
+   * Test to verify that IllegalArgument Exception is thrown when trying to retrieve a portfolio
+   * data that does not exist.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void portfolioDataRetrieveInvalid() throws IOException,
+          ParseException {
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.retrieve("retiremen");
+
+  }
+
+  /**
+   * Test to verify that Strategy data can be exported into a CSV file.
+   */
+  @Test
+  public void testStrategyDataSave() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-05-12", 400, 30, map, 5);
+    virtualGamble.exportStrategy("retirement", "str1");
+    File f = new File("strategy/str1.csv");
+    if (!f.exists()) {
+      fail();
+    }
+    String data = "";
+    try {
+      data = new String(Files.readAllBytes(Paths.get("strategy/str1.csv")));
+    } catch (IOException e) {
+      fail();
+    }
+    assertEquals("StartDate,EndDate,PeriodInDays,amount,weights,commission\n" +
+            "2014-04-21,2014-05-12,30,400.0,{goog=70.0; aapl=10.0; msft=20.0},5.0", data);
+  }
+
+  /**
+   * Test to verify that strategy data can be retrieved from a file.
+   */
+  @Test
+  public void testStrategyDataRetrieve() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2014-05-12", 400, 30, map, 5);
+    virtualGamble.saveStrategy("retirement", "str1");
+    virtualGamble = new VirtualGambleImpl();
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.retrieveStrategy("str1", "retirement");
+    assertEquals(415.0, virtualGamble.getTotalCostBasis("retirement"), 0.01);
+  }
+
+  /**
+   * Test to verify that we can obtain values to plot the graph.
+   */
+  /*@Test
+  public void testGetValuesForMap() throws IOException, ParseException {
+    virtualGamble.createPortfolio("retirement");
+    virtualGamble.addStockPortfolio("retirement", "msft");
+    virtualGamble.addStockPortfolio("retirement", "goog");
+    virtualGamble.addStockPortfolio("retirement", "aapl");
+    Map map = new HashMap();
+    map.put("msft", 20.0);
+    map.put("goog", 70.0);
+    map.put("aapl", 10.0);
+    virtualGamble.applyDollarCostAveraging("retirement", "2014-04-21",
+            "2015-05-12", 400, 30, map, 5);
+    Map<String, Double> valueMap = virtualGamble.getValuesForGraph("retirement");
+    for (Map.Entry<String, Double> entry : valueMap.entrySet()) {
+      System.out.println(entry.getKey() + ":" + entry.getValue());
+    }
+  }*/
+
+  /**
+   * A repository in a temporary directory whose first few writes of portfolios fail.
+   */
+  private static class FlakyRepository extends FileRepository {
+    private int failures;
+    private volatile int attempts;
+
+    FlakyRepository(int failures) throws IOException {
+      this(Files.createTempDirectory("portfolio").toString(), failures);
+    }
+
+    private FlakyRepository(String directory, int failures) {
+      super(directory, directory);
+      this.failures = failures;
+    }
+
+    @Override
+    public void savePortfolios(Map<String, Portfolio> portfolios) throws IOException {
+      attempts++;
+      if (failures > 0) {
+        failures--;
+        throw new IllegalStateException("Disk full");
+      }
+      super.savePortfolios(portfolios);
+    }
+  }
+}
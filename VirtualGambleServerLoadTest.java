@@ -0,0 +1,96 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import stockmarket.controller.VirtualGambleServer;
+import stockmarket.model.VirtualGambleImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * A JUnit load test for the HTTP server. It sends thousands of requests and takes a while, so it
+ * only runs when the system property virtualgamble.load is set to true.
+ */
+public class VirtualGambleServerLoadTest {
+
+  /**
+   * Test to verify that the HTTP server answers thousands of valuation requests sent at once
+   * while purchases and dollar cost plans are added to the same portfolios.
+   */
+  @Test
+  public void serverLoadTest() throws IOException, InterruptedException, ExecutionException,
+          ParseException {
+    assumeTrue(Boolean.getBoolean("virtualgamble.load"));
+    VirtualGambleImpl model = new VirtualGambleImpl();
+    int portfolios = 20;
+    double[] values = new double[portfolios];
+    double[] costBasis = new double[portfolios];
+    for (int i = 0; i < portfolios; i++) {
+      model.createPortfolio("load" + i);
+      model.buyShare("load" + i, "msft", 1000 + i, "2014-04-21", 0);
+      model.buyShare("load" + i, "goog", 2000, "2014-04-21", 0);
+      values[i] = model.getTotalValue("load" + i, "2014-06-02");
+      costBasis[i] = model.getTotalCostBasis("load" + i, "2016-01-04");
+    }
+    VirtualGambleServer server = new VirtualGambleServer(model, 0);
+    server.start();
+    ExecutorService clients = Executors.newFixedThreadPool(200);
+    try {
+      String base = "http://localhost:" + server.getPort() + "/portfolios/load";
+      List<Future<String>> valuations = new ArrayList<>();
+      List<Future<String>> writes = new ArrayList<>();
+      for (int i = 0; i < 5000; i++) {
+        int portfolio = i % portfolios;
+        valuations.add(clients.submit(() -> VirtualGambleControllerTest.request("GET",
+                base + portfolio + "/value?date=2014-06-02", null)));
+        if (i % 25 == 0) {
+          // every even portfolio gets ten purchases and every odd one ten plans
+          int target = i / 25 % portfolios;
+          writes.add(clients.submit(() -> VirtualGambleControllerTest.request("POST",
+                  base + target + (target % 2 == 0 ? "/buy" : "/dca"), target % 2 == 0
+                          ? "{\"company\": \"msft\", \"amount\": 500, "
+                          + "\"date\": \"2015-04-21\", \"commission\": 0}"
+                          : "{\"startDate\": \"2016-02-01\", \"endDate\": \"2016-06-01\", "
+                          + "\"amount\": 300, \"period\": 30, \"weights\": "
+                          + "{\"msft\": 50, \"goog\": 50}, \"commission\": 0}")));
+        }
+      }
+      for (Future<String> write : writes) {
+        assertEquals(200, Integer.parseInt(write.get().substring(0, 3)));
+      }
+      // a valuation counts the purchases made before it whatever their date, so it lies between
+      // the values before and after the writes
+      double[] lastValues = new double[portfolios];
+      for (int i = 0; i < portfolios; i++) {
+        lastValues[i] = model.getTotalValue("load" + i, "2014-06-02");
+        assertEquals(true, lastValues[i] > values[i]);
+      }
+      for (int i = 0; i < valuations.size(); i++) {
+        int portfolio = i % portfolios;
+        String prefix = "200 {\"id\":\"load" + portfolio + "\",\"value\":";
+        String response = valuations.get(i).get();
+        assertEquals(prefix, response.substring(0, prefix.length()));
+        double value = Double.parseDouble(response.substring(prefix.length(),
+                response.length() - 1));
+        assertEquals(true, value >= values[portfolio] && value <= lastValues[portfolio]);
+      }
+      // the plans start after the date of the cost basis
+      for (int i = 0; i < portfolios; i++) {
+        assertEquals(costBasis[i] + (i % 2 == 0 ? 500 * 10 : 0),
+                model.getTotalCostBasis("load" + i, "2016-01-04"), 0.01);
+      }
+    } finally {
+      clients.shutdown();
+      server.stop(0);
+      model.close();
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package stockmarket.controller;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads and writes the small JSON documents exchanged with scripts and HTTP clients.
+ * Objects are read as maps, arrays as lists and numbers as BigDecimal, which keeps the digits a
+ * number was written with.
+ */
+final class Json {
+  private final String text;
+  private int index;
+
+  /**
+   * This creates a reader over one JSON document.
+   */
+  private Json(String text) {
+    this.text = text;
+  }
+
+  /**
+   * Method to read a document holding one object.
+   *
+   * @param text the JSON document
+   * @return the members of the object in the order they were written
+   * @throws IllegalArgumentException if the document is not a single JSON object
+   */
+  static Map<String, Object> parseObject(String text) throws IllegalArgumentException {
+    Json json = new Json(text);
+    json.skipWhitespace();
+    if (json.peek() != '{') {
+      throw json.error("expected an object");
+    }
+    Map<String, Object> object = json.object();
+    json.skipWhitespace();
+    if (json.index < text.length()) {
+      throw json.error("unexpected text");
+    }
+    return object;
+  }
+
+  /**
+   * Method to write a string as a JSON string.
+   *
+   * @param value the string to be written
+   * @return the string in quotes with its special characters escaped
+   */
+  static String quote(String value) {
+    StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        quoted.append('\\').append(c);
+      } else if (c < ' ') {
+        quoted.append(String.format("\\u%04x", (int) c));
+      } else {
+        quoted.append(c);
+      }
+    }
+    return quoted.append('"').toString();
+  }
+
+  /**
+   * Helper method to read any value.
+   */
+  private Object value() {
+    skipWhitespace();
+    char c = peek();
+    if (c == '{') {
+      return object();
+    }
+    if (c == '[') {
+      return array();
+    }
+    if (c == '"') {
+      return string();
+    }
+    if (text.startsWith("true", index)) {
+      index += 4;
+      return Boolean.TRUE;
+    }
+    if (text.startsWith("false", index)) {
+      index += 5;
+      return Boolean.FALSE;
+    }
+    if (text.startsWith("null", index)) {
+      index += 4;
+      return null;
+    }
+    int start = index;
+    while (index < text.length() && "+-.eE0123456789".indexOf(text.charAt(index)) >= 0) {
+      index++;
+    }
+    try {
+      return new BigDecimal(text.substring(start, index));
+    } catch (NumberFormatException e) {
+      index = start;
+      throw error("expected a value");
+    }
+  }
+
+  /**
+   * Helper method to read an object.
+   */
+  private Map<String, Object> object() {
+    expect('{');
+    Map<String, Object> object = new LinkedHashMap<>();
+    if (accept('}')) {
+      return object;
+    }
+    do {
+      skipWhitespace();
+      if (peek() != '"') {
+        throw error("expected a name");
+      }
+      String name = string();
+      expect(':');
+      object.put(name, value());
+    } while (accept(','));
+    expect('}');
+    return object;
+  }
+
+  /**
+   * Helper method to read an array.
+   */
+  private List<Object> array() {
+    expect('[');
+    List<Object> array = new ArrayList<>();
+    if (accept(']')) {
+      return array;
+    }
+    do {
+      array.add(value());
+    } while (accept(','));
+    expect(']');
+    return array;
+  }
+
+  /**
+   * Helper method to read a string with its escapes.
+   */
+  private String string() {
+    expect('"');
+    StringBuilder value = new StringBuilder();
+    while (index < text.length()) {
+      char c = text.charAt(index++);
+      if (c == '"') {
+        return value.toString();
+      }
+      if (c == '\\') {
+        if (index >= text.length()) {
+          break;
+        }
+        c = text.charAt(index++);
+        switch (c) {
+          case 'n':
+            c = '\n';
+            break;
+          case 't':
+            c = '\t';
+            break;
+          case 'r':
+            c = '\r';
+            break;
+          case 'b':
+            c = '\b';
+            break;
+          case 'f':
+            c = '\f';
+            break;
+          case 'u':
+            c = unicode();
+            break;
+          default:
+            break;
+        }
+      }
+      value.append(c);
+    }
+    throw error("unterminated string");
+  }
+
+  /**
+   * Helper method to read the four hexadecimal digits of a unicode escape.
+   */
+  private char unicode() {
+    try {
+      char c = (char) Integer.parseInt(text.substring(index, index + 4), 16);
+      index += 4;
+      return c;
+    } catch (NumberFormatException | IndexOutOfBoundsException e) {
+      throw error("invalid unicode escape");
+    }
+  }
+
+  /**
+   * Helper method to skip a character if it is the next one after any whitespace.
+   */
+  private boolean accept(char c) {
+    skipWhitespace();
+    if (peek() == c) {
+      index++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Helper method to skip a character which has to come next.
+   */
+  private void expect(char c) {
+    if (!accept(c)) {
+      throw error("expected " + c);
+    }
+  }
+
+  /**
+   * Helper method to get the next character, or 0 at the end of the document.
+   */
+  private char peek() {
+    return index < text.length() ? text.charAt(index) : 0;
+  }
+
+  /**
+   * Helper method to skip whitespace.
+   */
+  private void skipWhitespace() {
+    while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+      index++;
+    }
+  }
+
+  /**
+   * Helper method to create the error of the current position.
+   */
+  private IllegalArgumentException error(String message) {
+    return new IllegalArgumentException(message + " at column " + (index + 1));
+  }
+}
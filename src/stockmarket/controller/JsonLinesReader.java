@@ -0,0 +1,112 @@
+package stockmarket.controller;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads a file of operations in JSON lines format as the words a user would type into
+ * the menu. Every line holds one object with the menu option in "command" and the answers to its
+ * prompts in "args", such as {"command": "2", "args": ["hello", "MSFT", 1000, 0, "2014-04-21"]}.
+ * Lines are converted one at a time as the controller reads them, so a file of any size is
+ * streamed without being loaded.
+ */
+public class JsonLinesReader extends Reader {
+  private final BufferedReader in;
+  private final StringBuilder words;
+  private int position;
+  private int lineNumber;
+
+  /**
+   * This creates a reader over a source of JSON lines.
+   *
+   * @param in The source of the operations.
+   */
+  public JsonLinesReader(Reader in) {
+    this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+    this.words = new StringBuilder();
+  }
+
+  @Override
+  public int read(char[] buffer, int offset, int length) throws IOException {
+    if (length == 0) {
+      return 0;
+    }
+    while (position == words.length()) {
+      String line = in.readLine();
+      if (line == null) {
+        return -1;
+      }
+      lineNumber++;
+      words.setLength(0);
+      position = 0;
+      convert(line.trim());
+    }
+    int count = Math.min(length, words.length() - position);
+    words.getChars(position, position + count, buffer, offset);
+    position += count;
+    return count;
+  }
+
+  /**
+   * Helper method to turn one line into the words of its command and arguments.
+   */
+  private void convert(String line) throws IOException {
+    if (line.isEmpty()) {
+      return;
+    }
+    Map<String, Object> operation;
+    try {
+      operation = Json.parseObject(line);
+    } catch (IllegalArgumentException e) {
+      throw error(e.getMessage());
+    }
+    for (String key : operation.keySet()) {
+      if (!key.equals("command") && !key.equals("args")) {
+        throw error("unknown key " + key);
+      }
+    }
+    if (operation.get("command") == null) {
+      throw error("no command");
+    }
+    words.append(word(operation.get("command")));
+    Object args = operation.get("args");
+    if (args != null && !(args instanceof List)) {
+      throw error("args should be an array");
+    }
+    if (args != null) {
+      for (Object arg : (List<?>) args) {
+        words.append(' ').append(word(arg));
+      }
+    }
+    words.append('\n');
+  }
+
+  /**
+   * Helper method to write a value as one word.
+   */
+  private String word(Object value) throws IOException {
+    String word = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString()
+            : String.valueOf(value);
+    if (value == null || value instanceof Map || value instanceof List || word.isEmpty()
+            || word.matches(".*\\s.*")) {
+      throw error("value " + Json.quote(word) + " is not a single word");
+    }
+    return word;
+  }
+
+  /**
+   * Helper method to create the error of the current line.
+   */
+  private IOException error(String message) {
+    return new IOException("Line " + lineNumber + ": " + message);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -1,714 +1,1042 @@
-package stockmarket.controller;
-
-import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.Objects;
-import java.util.Scanner;
-import java.util.Set;
-import java.util.regex.Pattern;
-
-import stockmarket.model.VirtualGamble;
-import stockmarket.view.VirtualGambleView;
-
-/**
- * This is a Controller Class which implements the VirtualGambleController Interface. It implements
- * all the operations mandated by the VirtualGambleController Interface.
- */
-public class VirtualGambleControllerImpl implements VirtualGambleController {
-
-  private Appendable ap;
-  private String portfolioID;
-  private String companyName;
-  private double amount;
-  private String date;
-  private Scanner scan;
-  private VirtualGambleView view;
-  private int count;
-  private Map<String, Double> weights;
-  private double commission;
-  private double weight;
-  private String strategyName;
-
-  /**
-   * This creates an object of VirtualGambleControllerImpl.
-   *
-   * @param rd The readable object which contains the user input.
-   * @param ap The appendable object to process application output.
-   */
-  public VirtualGambleControllerImpl(Readable rd, Appendable ap) {
-    if (rd == null) {
-      throw new IllegalArgumentException("Readable object cannot be null");
-    }
-
-    if (ap == null) {
-      throw new IllegalArgumentException("Appendable object cannot be null");
-    }
-    this.ap = ap;
-    scan = new Scanner(rd);
-    weights = new HashMap<>();
-  }
-
-  @Override
-  public void startUp(VirtualGamble model, VirtualGambleView view) throws IOException,
-          ParseException {
-
-    Objects.requireNonNull(model);
-    Objects.requireNonNull(view);
-    this.view = view;
-
-
-    while (true) {
-      view.print(ap, "Enter your choice from the menu:\n"
-              + "1) Create a new Portfolio\n2) Buy share\n3) Get Total Cost Basis of a portfolio\n"
-              + "4) Get the total value of a portfolio at a certain date\n5) Get a list of all "
-              + "portfolios\n6) Add companies to an portfolio without buying share\n"
-              + "7) Invest one time with amount distributed among companies\n"
-              + "8)Invest using dollar cost averaging on a portfolio\n"
-              + "9) Save a portfolio\n"
-              + "10) Retrieve a portfolio\n"
-              + "11)Save a strategy\n"
-              + "12) Retrieve a strategy\n"
-              + "Enter q/Q to quit this application at any point of time.\n");
-      switch (scan.next()) {
-        //Create a portfolio.
-        case "1":
-          if (!createPortfolio(model)) {
-            return;
-          }
-          continue;
-          // Buy a share and store in the given portfolio.
-        case "2":
-
-          if (!buyshare(model)) {
-            return;
-          }
-          continue;
-
-          //Obtain the cost basis of a given portfolio.
-        case "3":
-          if (!getCostBasis(model)) {
-            return;
-          }
-          continue;
-
-
-          //Obtain the total value of a portfolio at a certain date.
-        case "4":
-          if (!totalValue(model)) {
-            return;
-          }
-          continue;
-
-          //Get total details of portfolio
-        case "5":
-          Map portfolioList = model.getStockDetails();
-          view.print(ap, portfolioList.keySet().toString() + "\n");
-          continue;
-          //Add company without buying share
-        case "6":
-          if (!addCompany(model)) {
-            return;
-          }
-          continue;
-          //Invest specific amount in portfolio
-        case "7":
-          if (!invest(model)) {
-            return;
-          }
-          continue;
-          //Apply dollar cost averaging on portfolio
-        case "8":
-          if (!applyDollarCost(model)) {
-            return;
-          }
-          continue;
-          //Quit
-        case "9":
-          if (!savePortfolio(model)) {
-            return;
-          }
-          continue;
-        case "10":
-          if (!retrievePortfolio(model)) {
-            return;
-          }
-          continue;
-        case "11":
-          if (!saveStrategy(model)) {
-            return;
-          }
-          continue;
-        case "12":
-          if (!retrieveStrategy(model)) {
-            return;
-          }
-          continue;
-        case "q":
-        case "Q":
-          return;
-
-        default:
-          view.print(ap, "Wrong option. Enter the correct option number from the menu\n\n");
-
-      }
-
-    }
-  }
-
-  private boolean retrieveStrategy(VirtualGamble model) {
-    view.print(ap, "Enter the strategy name to be retreived");
-    if (!setStrategyName()) {
-      return false;
-    }
-    view.print(ap, "Enter the portfolio name to apply this strategy");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    try {
-      model.retrieveStrategy(strategyName, portfolioID);
-    } catch (IllegalArgumentException | NoSuchElementException e) {
-      view.print(ap, e.getMessage());
-    }
-    return true;
-  }
-
-  private boolean saveStrategy(VirtualGamble model) {
-    view.print(ap, "Enter the portfolio name of which Dollar cost strategy is to be saved\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    view.print(ap, "Enter a strategy name\n");
-    if (!setStrategyName()) {
-      return false;
-    }
-    try {
-      model.saveStrategy(portfolioID, strategyName);
-    } catch (IllegalArgumentException | IOException | NoSuchElementException e) {
-      view.print(ap, e.getMessage());
-    }
-    return true;
-  }
-
-  private boolean retrievePortfolio(VirtualGamble model) {
-    view.print(ap, "Enter the portfolio name to be retrieved");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    try {
-      model.retrieve(portfolioID);
-    } catch (IllegalArgumentException e) {
-      view.print(ap, e.getMessage());
-    }
-    return true;
-  }
-
-  private boolean savePortfolio(VirtualGamble model) {
-    view.print(ap, "Enter the portfolio name to be saved");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    try {
-      model.save(portfolioID);
-    } catch (IOException | IllegalArgumentException | NoSuchElementException e) {
-      view.print(ap, e.getMessage());
-    }
-    return true;
-  }
-
-  /**
-   * Helper methopd to apply dollar cost averaging on a portfolio.
-   */
-  private boolean applyDollarCost(VirtualGamble model) throws ParseException, IOException {
-    view.print(ap, "Enter portfolio name to apply dollar cost averaging on\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-
-    view.print(ap, "Enter Amount\n");
-    if (!setAmount()) {
-      return false;
-    }
-
-    view.print(ap, "Enter commission");
-
-    if (!setCommissionFee()) {
-      return false;
-    }
-
-    view.print(ap, "Press 1 for equal weights\n Press 2 to specify weights");
-    Set<String> companies = model.getStockDetails().get(portfolioID).getCompanyList();
-    if (scan.next().equals("1")) {
-      weight = (1.0 / companies.size()) * 100.0;
-      for (String tickr : companies) {
-        weights.put(tickr, weight);
-      }
-    } else {
-
-      view.print(ap, "Enter weights corresponding to companies\n");
-      while (true) {
-        double sumOfWeights = 0;
-        for (String tickr : companies) {
-          view.print(ap, "Enter weight for" + tickr);
-          if (!setWeight()) {
-            return false;
-          }
-          weights.put(tickr, weight);
-        }
-        for (double weight : weights.values()) {
-          sumOfWeights += weight;
-        }
-        if (sumOfWeights == 100) {
-          break;
-        } else {
-          view.print(ap, "Sum of weights of all companies must be 100 \n");
-        }
-      }
-    }
-
-    view.print(ap, "Enter time period to repeat transaction");
-    if (!setCount()) {
-      return false;
-    }
-    int period = count;
-
-
-    view.print(ap, "Specify a start date\n");
-    String startDate = "";
-    if (!setDate()) {
-      return false;
-    }
-    startDate = date;
-
-    view.print(ap, "Press 1 to specify an end date or 2 for ongoing policy");
-
-    if (scan.next().equals("2")) {
-      model.applyDollarCostAveraging(portfolioID, startDate,
-              new SimpleDateFormat("yyyy-MM-dd").format(new Date()), amount, period,
-              weights, commission);
-    } else {
-      if (!setDate()) {
-        return false;
-      }
-      String endDate = date;
-
-
-      try {
-        model.investFixedAmountWeighted(portfolioID, amount, date, weights, commission);
-      } catch (IOException | IllegalArgumentException e) {
-        view.print(ap, e.getMessage());
-      }
-      try {
-        model.applyDollarCostAveraging(portfolioID, startDate, endDate, amount, period, weights,
-                commission);
-      } catch (IllegalArgumentException | NoSuchElementException e) {
-        view.print(ap, e.getMessage() + "\n");
-      }
-
-    }
-    return true;
-  }
-
-
-  /**
-   * Helper method to find out the total value of the portfolio.
-   */
-  private boolean totalValue(VirtualGamble model) {
-    view.print(ap, "Enter portfolio name\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    view.print(ap, "Enter date in the format YYYY-MM-DD\n");
-    if (!setDate()) {
-      return false;
-    }
-    try {
-      double totalValue = model.getTotalValue(portfolioID, date);
-      view.print(ap, "Total Value of " + portfolioID + " is" + totalValue + "\n\n");
-    } catch (IllegalArgumentException | NoSuchElementException e) {
-      view.print(ap, e.getMessage() + "\n");
-    }
-    return true;
-  }
-
-  /**
-   * Helper method to find out the cost basis of the portfolio.
-   */
-  private boolean getCostBasis(VirtualGamble model) {
-    view.print(ap, "Enter portfolio name\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    view.print(ap, "Enter the date up to which cost basis is required.");
-    if (!setDate()) {
-      return false;
-    }
-    try {
-      double costBasis = model.getTotalCostBasis(portfolioID, date);
-      view.print(ap, "Cost basis of " + portfolioID + " is" + costBasis + "\n\n");
-    } catch (IllegalArgumentException | NoSuchElementException | ParseException e) {
-      view.print(ap, e.getMessage() + "\n");
-    }
-    return true;
-  }
-
-  /**
-   * Helper method to buy a share in the portfolio.
-   */
-  private boolean buyshare(VirtualGamble model) {
-    view.print(ap, "Enter portfolio name\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    view.print(ap, "Enter Company Ticker Name id\n");
-    if (!setCompany()) {
-      return false;
-    }
-    view.print(ap, "Enter Amount\n");
-    if (!setAmount()) {
-      return false;
-    }
-
-    view.print(ap, "Enter commission");
-
-    if (!setCommissionFee()) {
-      return false;
-    }
-    view.print(ap, "Enter date in the format YYYY-MM-DD\n");
-
-    if (!setDate()) {
-      return false;
-    }
-    try {
-      model.buyShare(portfolioID, companyName, amount, date, commission);
-      view.print(ap, "Successfully brought share\n\n");
-    } catch (IllegalArgumentException | NoSuchElementException | IOException e) {
-      view.print(ap, e.getMessage() + "\n");
-    }
-    return true;
-  }
-
-  /**
-   * This is a private helper method to validate and store the commission fee.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setCommissionFee() {
-    String temp = scan.next();
-    if (quit(temp)) {
-      return false;
-    }
-
-
-    String regex = "\\d+\\.?\\d*";
-    if (!temp.matches(regex)) {
-      view.print(ap, "Enter a valid amount\n");
-      setCommissionFee();
-    } else {
-      commission = Double.parseDouble(temp);
-    }
-    return true;
-  }
-
-
-  /**
-   * This is a private helper method to validate and set the company ticker name.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setCompany() {
-
-    companyName = scan.next().toUpperCase();
-    if (quit(companyName)) {
-      return false;
-    }
-
-    Pattern p = Pattern.compile("[^a-zA-Z]");
-    boolean hasSpecialChar = p.matcher(companyName).find();
-    if (hasSpecialChar) {
-      view.print(ap, "Company ticker name do not contain special characters or numbers."
-              + " ReEnter the name\n");
-      setCompany();
-    }
-    if (companyName.length() != 4) {
-      view.print(ap, "Company ticker name can only be of 4 letters. "
-              + "ReEnter the company name\n");
-      setCompany();
-    }
-    return true;
-
-  }
-
-  /**
-   * This is a private helper method to validate and set the amount of which shares has to be
-   * bought.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setAmount() {
-
-    String temp = scan.next();
-    if (quit(temp)) {
-      return false;
-    }
-
-
-    String regex = "\\d+\\.?\\d*";
-    if (!temp.matches(regex)) {
-      view.print(ap, "Enter a valid amount\n");
-      setAmount();
-    } else {
-      amount = Double.parseDouble(temp);
-    }
-    return true;
-  }
-
-  /**
-   * This is a private helper method to validate the number of companies to invest in.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setCount() {
-
-    String temp = scan.next();
-    if (quit(temp)) {
-      return false;
-    }
-
-
-    String regex = "\\d+";
-    if (!temp.matches(regex)) {
-      view.print(ap, "Enter a valid number\n");
-      setCount();
-    } else {
-      count = Integer.parseInt(temp);
-    }
-    return true;
-  }
-
-
-  /**
-   * This is a private helper method to validate the weights in an investment.
-   */
-  private boolean setWeight() {
-
-    String temp = scan.next();
-    if (quit(temp)) {
-      return false;
-    }
-
-
-    String regex = "\\d+\\.?\\d*";
-    if (!temp.matches(regex)) {
-      view.print(ap, "Enter a valid weight\n");
-      setWeight();
-    } else {
-      weight = Double.parseDouble(temp);
-    }
-    return true;
-  }
-
-
-  /**
-   * This is a private helper method to validate and set the Date.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setDate() {
-    date = scan.next();
-    if (quit(date)) {
-      return false;
-    }
-    String dateFormat = "\\d{4}-\\d{2}-\\d{2}";
-    if (!date.matches(dateFormat)) {
-      view.print(ap, "Enter a valid date in the form of YYYY-MM-DD\n");
-      setDate();
-    }
-    return true;
-  }
-
-  /**
-   * This is a private helper method to validate and set the Portfolio name.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setPortfolioID() {
-    portfolioID = scan.next();
-    if (quit(portfolioID)) {
-      return false;
-    }
-
-    Pattern p = Pattern.compile("[^a-zA-Z0-9]");
-    boolean hasSpecialChar = p.matcher(portfolioID).find();
-    if (hasSpecialChar) {
-      view.print(ap, "Portfolio name cannot contain special characters. ReEnter the name\n");
-      setPortfolioID();
-    }
-    return true;
-  }
-
-  /**
-   * This is a private helper method to set the strategy name to be saved.
-   *
-   * @return false if user wants to quit / true otherwise.
-   */
-  private boolean setStrategyName() {
-    strategyName = scan.next();
-    if (quit(strategyName)) {
-      return false;
-    }
-
-    Pattern p = Pattern.compile("[^a-zA-Z0-9]");
-    boolean hasSpecialChar = p.matcher(strategyName).find();
-    if (hasSpecialChar) {
-      view.print(ap, "Strategy name cannot contain special characters. ReEnter the name\n");
-      setStrategyName();
-    }
-    return true;
-  }
-
-
-  /**
-   * This is a private helper method to check if the user wants to quit the application at any point
-   * of time.
-   *
-   * @return true if user wants to quit/false otherwise.
-   */
-  private boolean quit(String param) {
-    if (param.equalsIgnoreCase("Q")) {
-      view.print(ap, "Thanks for using the Virtual Gamble Application\n");
-      return true;
-    } else {
-      return false;
-    }
-  }
-
-  /**
-   * Helper method to add company to portfolio without buying share.
-   */
-  private boolean addCompany(VirtualGamble model) {
-    view.print(ap, "Enter portfolio name\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    view.print(ap, "Enter the number pf companies to be added");
-    if (!setCount()) {
-      return false;
-    }
-    view.print(ap, "Enter company names\n");
-    for (int i = 0; i < count; i++) {
-      if (!setCompany()) {
-        return false;
-      }
-      try {
-        model.addStockPortfolio(portfolioID, companyName);
-      } catch (IllegalArgumentException | NoSuchElementException | IOException e) {
-        view.print(ap, e.getMessage() + "\n ");
-        view.print(ap, "Re-enter company name");
-        count++;
-      }
-    }
-    return true;
-  }
-
-  /**
-   * Helper method to invest a ceratin amount using weights in a portfolio.
-   */
-  private boolean invest(VirtualGamble model) {
-
-    view.print(ap, "Enter portfolio name\n");
-    if (!setPortfolioID()) {
-      return false;
-    }
-    return (investAmount(model));
-  }
-
-  /**
-   * This private helper method allows us to invest a certain amount in the portfolio.
-   */
-  private boolean investAmount(VirtualGamble model) {
-    view.print(ap, "Enter the amount you want to invest in this portfolio");
-    if (!setAmount()) {
-      return false;
-    }
-
-    view.print(ap, "Enter commission");
-
-    if (!setCommissionFee()) {
-      return false;
-    }
-
-    view.print(ap, "Enter date in the format YYYY-MM-DD\n");
-    if (!setDate()) {
-      return false;
-    }
-    return (setWeights(model));
-  }
-
-  private boolean setWeights(VirtualGamble model) {
-    view.print(ap, "Press 1 for equal weights\n Press 2 to specify weights");
-
-    if (scan.next().equals("1")) {
-      try {
-        model.investFixedAmountEqually(portfolioID, amount, date, commission);
-      } catch (IOException e) {
-        view.print(ap, e.getMessage());
-      }
-    } else {
-      Set<String> companies = model.getStockDetails().get(portfolioID).getCompanyList();
-      view.print(ap, "Enter weights corresponding to companies\n");
-      while (true) {
-        double sumOfWeights = 0;
-        for (String tickr : companies) {
-          view.print(ap, "Enter weight for" + tickr);
-          if (!setWeight()) {
-            return false;
-          }
-          weights.put(tickr, weight);
-        }
-        for (double weight : weights.values()) {
-          sumOfWeights += weight;
-        }
-        if (sumOfWeights == 100) {
-          break;
-        } else {
-          view.print(ap, "Sum of weights of all companies must be 100 \n");
-        }
-      }
-
-      try {
-        model.investFixedAmountWeighted(portfolioID, amount, date, weights, commission);
-      } catch (IOException | IllegalArgumentException e) {
-        view.print(ap, e.getMessage());
-      }
-    }
-
-
-    return true;
-  }
-
-
-  /**
-   * Helper method to create a portfolio.
-   */
-  private boolean createPortfolio(VirtualGamble model) {
-    view.print(ap, "Enter the name of the portfolio to be created\n"
-            + "Portfolio name can can be a combination of numbers and letters. Special"
-            + "characters are not permitted\nEnter q/Q to quit.\n\n");
-
-    if (!setPortfolioID()) {
-      return false;
-    }
-    try {
-      model.createPortfolio(portfolioID);
-      view.print(ap, "Portfolio " + portfolioID + " has been successfully created\n\n");
-    } catch (IllegalArgumentException | NoSuchElementException e) {
-      view.print(ap, e.getMessage() + "\n ");
-    }
-    return true;
-  }
-}
+package stockmarket.controller;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import stockmarket.model.ExportFormat;
+import stockmarket.model.ImportReport;
+import stockmarket.model.LotRelief;
+import stockmarket.model.ReportExporter;
+import stockmarket.model.ReportType;
+import stockmarket.model.Sale;
+import stockmarket.model.TradeColumns;
+import stockmarket.model.VirtualGamble;
+import stockmarket.view.VirtualGambleView;
+
+/**
+ * This is a Controller Class which implements the VirtualGambleController Interface. It implements
+ * all the operations mandated by the VirtualGambleController Interface.
+ */
+public class VirtualGambleControllerImpl implements VirtualGambleController {
+
+  private Appendable ap;
+  private String portfolioID;
+  private String companyName;
+  private double amount;
+  private String date;
+  private Scanner scan;
+  private VirtualGambleView view;
+  private int count;
+  private Map<String, Double> weights;
+  private double commission;
+  private double weight;
+  private String strategyName;
+  private final boolean batch;
+  private final Map<String, long[]> timings;
+  private boolean ended;
+
+  /**
+   * This creates an object of VirtualGambleControllerImpl.
+   *
+   * @param rd The readable object which contains the user input.
+   * @param ap The appendable object to process application output.
+   */
+  public VirtualGambleControllerImpl(Readable rd, Appendable ap) {
+    this(rd, ap, false);
+  }
+
+  /**
+   * This creates an object of VirtualGambleControllerImpl which runs either interactively or as a
+   * batch. In batch mode the menu and the prompts are not printed, the commands are read until
+   * the input ends, and the time taken by every command is reported at the end. A command given
+   * an invalid answer fails instead of asking again, and the rest of its line is skipped.
+   *
+   * @param rd    The readable object which contains the user input or the command script.
+   * @param ap    The appendable object to process application output.
+   * @param batch true to run the input as a batch.
+   */
+  public VirtualGambleControllerImpl(Readable rd, Appendable ap, boolean batch) {
+    if (rd == null) {
+      throw new IllegalArgumentException("Readable object cannot be null");
+    }
+
+    if (ap == null) {
+      throw new IllegalArgumentException("Appendable object cannot be null");
+    }
+    this.ap = ap;
+    scan = new Scanner(rd);
+    weights = new HashMap<>();
+    this.batch = batch;
+    this.timings = new LinkedHashMap<>();
+  }
+
+  @Override
+  public void startUp(VirtualGamble model, VirtualGambleView view) throws IOException,
+          ParseException {
+
+    Objects.requireNonNull(model);
+    Objects.requireNonNull(view);
+    this.view = view;
+
+
+    while (true) {
+      prompt("Enter your choice from the menu:\n"
+              + "1) Create a new Portfolio\n2) Buy share\n3) Get Total Cost Basis of a portfolio\n"
+              + "4) Get the total value of a portfolio at a certain date\n5) Get a list of all "
+              + "portfolios\n6) Add companies to an portfolio without buying share\n"
+              + "7) Invest one time with amount distributed among companies\n"
+              + "8)Invest using dollar cost averaging on a portfolio\n"
+              + "9) Save a portfolio\n"
+              + "10) Retrieve a portfolio\n"
+              + "11)Save a strategy\n"
+              + "12) Retrieve a strategy\n"
+              + "13) Sell share\n"
+              + "14) Get profit and loss of a portfolio\n"
+              + "15) Import trades from a broker CSV file\n"
+              + "16) Export a report of a portfolio to a file\n"
+              + "Enter q/Q to quit this application at any point of time.\n");
+      if (batch && !scan.hasNext()) {
+        if (scan.ioException() != null) {
+          view.print(ap, "Unable to read the script: " + scan.ioException().getMessage() + "\n");
+        }
+        printTimings();
+        return;
+      }
+      String choice = scan.next();
+      long start = System.nanoTime();
+      boolean proceed = batch ? runBatchCommand(choice, model) : runCommand(choice, model);
+      if (batch) {
+        long elapsed = System.nanoTime() - start;
+        long[] timing = timings.computeIfAbsent(choice, k -> new long[3]);
+        timing[0]++;
+        timing[1] += elapsed;
+        timing[2] = Math.max(timing[2], elapsed);
+      }
+      if (!proceed) {
+        printTimings();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Helper method to run one command of the menu.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean runCommand(String choice, VirtualGamble model) throws IOException,
+          ParseException {
+    switch (choice) {
+      //Create a portfolio.
+      case "1":
+        if (!createPortfolio(model)) {
+          return false;
+        }
+        return true;
+        // Buy a share and store in the given portfolio.
+      case "2":
+
+        if (!buyshare(model)) {
+          return false;
+        }
+        return true;
+
+        //Obtain the cost basis of a given portfolio.
+      case "3":
+        if (!getCostBasis(model)) {
+          return false;
+        }
+        return true;
+
+
+        //Obtain the total value of a portfolio at a certain date.
+      case "4":
+        if (!totalValue(model)) {
+          return false;
+        }
+        return true;
+
+        //Get total details of portfolio
+      case "5":
+        Map portfolioList = model.getStockDetails();
+        view.print(ap, portfolioList.keySet().toString() + "\n");
+        return true;
+        //Add company without buying share
+      case "6":
+        if (!addCompany(model)) {
+          return false;
+        }
+        return true;
+        //Invest specific amount in portfolio
+      case "7":
+        if (!invest(model)) {
+          return false;
+        }
+        return true;
+        //Apply dollar cost averaging on portfolio
+      case "8":
+        if (!applyDollarCost(model)) {
+          return false;
+        }
+        return true;
+        //Quit
+      case "9":
+        if (!savePortfolio(model)) {
+          return false;
+        }
+        return true;
+      case "10":
+        if (!retrievePortfolio(model)) {
+          return false;
+        }
+        return true;
+      case "11":
+        if (!saveStrategy(model)) {
+          return false;
+        }
+        return true;
+      case "12":
+        if (!retrieveStrategy(model)) {
+          return false;
+        }
+        return true;
+        // Sell a share from the given portfolio.
+      case "13":
+        if (!sellShare(model)) {
+          return false;
+        }
+        return true;
+        //Obtain the realized and unrealized gain of a portfolio.
+      case "14":
+        if (!profitAndLoss(model)) {
+          return false;
+        }
+        return true;
+        //Import the trade history exported by a broker into a portfolio.
+      case "15":
+        if (!importTrades(model)) {
+          return false;
+        }
+        return true;
+        //Export the lots, positions or values of a portfolio to a file.
+      case "16":
+        if (!exportReport(model)) {
+          return false;
+        }
+        return true;
+      case "q":
+      case "Q":
+        return false;
+
+      default:
+        view.print(ap, "Wrong option. Enter the correct option number from the menu\n\n");
+        return true;
+    }
+  }
+
+  /**
+   * Helper method to run one command of a batch. A failed command is reported and the rest of its
+   * line is skipped, so that its other answers are not taken as commands. A script which ends or
+   * cannot be read in the middle of a command stops the batch.
+   *
+   * @return false if the batch should stop / true otherwise.
+   */
+  private boolean runBatchCommand(String choice, VirtualGamble model) throws IOException,
+          ParseException {
+    try {
+      return runCommand(choice, model);
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      if (ended) {
+        view.print(ap, scan.ioException() != null
+                ? "Unable to read the script: " + scan.ioException().getMessage() + "\n"
+                : "The script ended in the middle of command " + choice + "\n");
+        return false;
+      }
+      String message = String.valueOf(e.getMessage());
+      view.print(ap, message.endsWith("\n") ? message : message + "\n");
+      if (scan.hasNextLine()) {
+        scan.nextLine();
+      }
+      return true;
+    }
+  }
+
+  /**
+   * Helper method to read the next answer of a command.
+   *
+   * @throws NoSuchElementException if the input has ended
+   */
+  private String next() throws NoSuchElementException {
+    if (!scan.hasNext()) {
+      ended = true;
+    }
+    return scan.next();
+  }
+
+  /**
+   * Helper method to tell the user that an answer is invalid so that it is asked again. In batch
+   * mode there is no one to ask, so the command fails instead.
+   *
+   * @throws IllegalArgumentException in batch mode
+   */
+  private void reject(String message) throws IllegalArgumentException {
+    if (batch) {
+      throw new IllegalArgumentException(message);
+    }
+    view.print(ap, message);
+  }
+
+  /**
+   * Helper method to print the count, total, mean and longest time of every command run in batch
+   * mode.
+   */
+  private void printTimings() {
+    if (!batch || timings.isEmpty()) {
+      return;
+    }
+    StringBuilder report = new StringBuilder(String.format("%-8s%8s%12s%10s%10s%n", "Command",
+            "Count", "Total ms", "Mean ms", "Max ms"));
+    for (Map.Entry<String, long[]> entry : timings.entrySet()) {
+      long[] timing = entry.getValue();
+      report.append(String.format("%-8s%8d%12.3f%10.3f%10.3f%n", entry.getKey(), timing[0],
+              timing[1] / 1e6, timing[1] / 1e6 / timing[0], timing[2] / 1e6));
+    }
+    view.print(ap, report.toString());
+  }
+
+  /**
+   * Helper method to ask the user for the next input, which is skipped in batch mode.
+   */
+  private void prompt(String message) {
+    if (!batch) {
+      view.print(ap, message);
+    }
+  }
+
+  private boolean retrieveStrategy(VirtualGamble model) {
+    prompt("Enter the strategy name to be retreived");
+    if (!setStrategyName()) {
+      return false;
+    }
+    prompt("Enter the portfolio name to apply this strategy");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    try {
+      model.retrieveStrategy(strategyName, portfolioID);
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage());
+    }
+    return true;
+  }
+
+  private boolean saveStrategy(VirtualGamble model) {
+    prompt("Enter the portfolio name of which Dollar cost strategy is to be saved\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter a strategy name\n");
+    if (!setStrategyName()) {
+      return false;
+    }
+    try {
+      model.saveStrategy(portfolioID, strategyName);
+    } catch (IllegalArgumentException | IOException | NoSuchElementException e) {
+      view.print(ap, e.getMessage());
+    }
+    return true;
+  }
+
+  private boolean retrievePortfolio(VirtualGamble model) {
+    prompt("Enter the portfolio name to be retrieved");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    try {
+      model.retrieve(portfolioID);
+    } catch (IllegalArgumentException e) {
+      view.print(ap, e.getMessage());
+    }
+    return true;
+  }
+
+  private boolean savePortfolio(VirtualGamble model) {
+    prompt("Enter the portfolio name to be saved");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    try {
+      model.save(portfolioID);
+    } catch (IOException | IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage());
+    }
+    return true;
+  }
+
+  /**
+   * Helper methopd to apply dollar cost averaging on a portfolio.
+   */
+  private boolean applyDollarCost(VirtualGamble model) throws ParseException, IOException {
+    prompt("Enter portfolio name to apply dollar cost averaging on\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+
+    prompt("Enter Amount\n");
+    if (!setAmount()) {
+      return false;
+    }
+
+    prompt("Enter commission");
+
+    if (!setCommissionFee()) {
+      return false;
+    }
+
+    prompt("Press 1 for equal weights\n Press 2 to specify weights");
+    Set<String> companies = model.getStockDetails().get(portfolioID).getCompanyList();
+    if (next().equals("1")) {
+      weight = (1.0 / companies.size()) * 100.0;
+      for (String tickr : companies) {
+        weights.put(tickr, weight);
+      }
+    } else {
+
+      prompt("Enter weights corresponding to companies\n");
+      while (true) {
+        double sumOfWeights = 0;
+        for (String tickr : companies) {
+          prompt("Enter weight for" + tickr);
+          if (!setWeight()) {
+            return false;
+          }
+          weights.put(tickr, weight);
+        }
+        for (double weight : weights.values()) {
+          sumOfWeights += weight;
+        }
+        if (sumOfWeights == 100) {
+          break;
+        } else {
+          reject("Sum of weights of all companies must be 100 \n");
+        }
+      }
+    }
+
+    prompt("Enter time period to repeat transaction");
+    if (!setCount()) {
+      return false;
+    }
+    int period = count;
+
+
+    prompt("Specify a start date\n");
+    String startDate = "";
+    if (!setDate()) {
+      return false;
+    }
+    startDate = date;
+
+    prompt("Press 1 to specify an end date or 2 for ongoing policy");
+
+    if (next().equals("2")) {
+      try {
+        model.applyDollarCostAveraging(portfolioID, startDate, null, amount, period, weights,
+                commission);
+      } catch (IllegalArgumentException | NoSuchElementException e) {
+        view.print(ap, e.getMessage() + "\n");
+      }
+    } else {
+      if (!setDate()) {
+        return false;
+      }
+      String endDate = date;
+
+
+      try {
+        model.investFixedAmountWeighted(portfolioID, amount, date, weights, commission);
+      } catch (IOException | IllegalArgumentException e) {
+        view.print(ap, e.getMessage());
+      }
+      try {
+        model.applyDollarCostAveraging(portfolioID, startDate, endDate, amount, period, weights,
+                commission);
+      } catch (IllegalArgumentException | NoSuchElementException e) {
+        view.print(ap, e.getMessage() + "\n");
+      }
+
+    }
+    return true;
+  }
+
+
+  /**
+   * Helper method to find out the total value of the portfolio.
+   */
+  private boolean totalValue(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter date in the format YYYY-MM-DD\n");
+    if (!setDate()) {
+      return false;
+    }
+    try {
+      double totalValue = model.getTotalValue(portfolioID, date);
+      view.print(ap, "Total Value of " + portfolioID + " is" + totalValue + "\n");
+      view.print(ap, "Risk of " + portfolioID + "\n" + model.getRiskMetrics(portfolioID)
+              + "\n\n");
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to find out the profit and loss of the portfolio.
+   */
+  private boolean profitAndLoss(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    try {
+      view.print(ap, "Profit and loss of " + portfolioID + "\n"
+              + model.getProfitAndLoss(portfolioID) + "\n\n");
+    } catch (NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to import the trade history exported by a broker into the portfolio. The layout
+   * is entered as one word, such as date=TradeDate;ticker=Symbol, or default for the headers
+   * Date, Symbol, Action, Quantity, Price, Amount and Commission.
+   */
+  private boolean importTrades(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter the path of the CSV file\n");
+    String path = next();
+    if (quit(path)) {
+      return false;
+    }
+    prompt("Enter the column layout or default\n");
+    String layout = next();
+    if (quit(layout)) {
+      return false;
+    }
+    try (Reader trades = new BufferedReader(new FileReader(path))) {
+      TradeColumns columns = layout.equalsIgnoreCase("default") ? TradeColumns.DEFAULT
+              : TradeColumns.parse(layout);
+      ImportReport report = model.importTrades(portfolioID, trades, columns,
+              progress -> prompt("Read " + progress.getRows() + " trades\n"));
+      view.print(ap, report + "\n");
+    } catch (IOException | IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to export a report of the portfolio to a file. A file ending in .json is written
+   * as JSON and any other as CSV, and a file ending in .gz is compressed with gzip.
+   */
+  private boolean exportReport(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter the report: lots, positions or values\n");
+    String report = next();
+    if (quit(report)) {
+      return false;
+    }
+    ReportType type;
+    try {
+      type = ReportType.valueOf(report.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      view.print(ap, "Report should be lots, positions or values\n");
+      return true;
+    }
+    date = null;
+    if (type != ReportType.LOTS) {
+      prompt("Enter date in the format YYYY-MM-DD\n");
+      if (!setDate()) {
+        return false;
+      }
+    }
+    prompt("Enter the path of the file\n");
+    String path = next();
+    if (quit(path)) {
+      return false;
+    }
+    boolean gzip = path.endsWith(".gz");
+    String name = gzip ? path.substring(0, path.length() - 3) : path;
+    ExportFormat format = name.endsWith(".json") ? ExportFormat.JSON : ExportFormat.CSV;
+    try (ReportExporter exporter = ReportExporter.open(new FileOutputStream(path), format,
+            gzip)) {
+      model.exportReport(portfolioID, type, null, date, exporter);
+      view.print(ap, "Exported the " + report + " of " + portfolioID + " to " + path + "\n");
+    } catch (IOException | IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to find out the cost basis of the portfolio.
+   */
+  private boolean getCostBasis(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter the date up to which cost basis is required.");
+    if (!setDate()) {
+      return false;
+    }
+    try {
+      double costBasis = model.getTotalCostBasis(portfolioID, date);
+      view.print(ap, "Cost basis of " + portfolioID + " is" + costBasis + "\n\n");
+    } catch (IllegalArgumentException | NoSuchElementException | ParseException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to buy a share in the portfolio.
+   */
+  private boolean buyshare(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter Company Ticker Name id\n");
+    if (!setCompany()) {
+      return false;
+    }
+    prompt("Enter Amount\n");
+    if (!setAmount()) {
+      return false;
+    }
+
+    prompt("Enter commission");
+
+    if (!setCommissionFee()) {
+      return false;
+    }
+    prompt("Enter date in the format YYYY-MM-DD\n");
+
+    if (!setDate()) {
+      return false;
+    }
+    try {
+      model.buyShare(portfolioID, companyName, amount, date, commission);
+      view.print(ap, "Successfully brought share\n\n");
+    } catch (IllegalArgumentException | NoSuchElementException | IOException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to sell a share from the portfolio.
+   */
+  private boolean sellShare(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter Company Ticker Name id\n");
+    if (!setCompany()) {
+      return false;
+    }
+    prompt("Enter number of shares\n");
+    if (!setAmount()) {
+      return false;
+    }
+    double numberOfShares = amount;
+    prompt("Enter commission");
+    if (!setCommissionFee()) {
+      return false;
+    }
+    prompt("Enter date in the format YYYY-MM-DD\n");
+    if (!setDate()) {
+      return false;
+    }
+    String saleDate = date;
+    prompt("Press 1 to sell oldest lots first\n Press 2 to sell newest lots first\n"
+            + " Press 3 to sell highest cost lots first\n Press 4 to sell a specific lot\n");
+    String choice = next();
+    if (quit(choice)) {
+      return false;
+    }
+    try {
+      List<Sale> sales;
+      if (choice.equals("4")) {
+        prompt("Enter purchase date of the lot in the format YYYY-MM-DD\n");
+        if (!setDate()) {
+          return false;
+        }
+        sales = model.sellLot(portfolioID, companyName, date, numberOfShares, saleDate,
+                commission);
+      } else {
+        LotRelief relief = choice.equals("2") ? LotRelief.LIFO
+                : choice.equals("3") ? LotRelief.HIGHEST_COST : LotRelief.FIFO;
+        sales = model.sellShare(portfolioID, companyName, numberOfShares, saleDate, commission,
+                relief);
+      }
+      double realizedGain = 0;
+      for (Sale sale : sales) {
+        realizedGain += sale.getRealizedGain();
+      }
+      view.print(ap, "Successfully sold share from " + sales.size() + " lots. Realized gain is "
+              + realizedGain + "\n\n");
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n");
+    }
+    return true;
+  }
+
+  /**
+   * This is a private helper method to validate and store the commission fee.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setCommissionFee() {
+    String temp = next();
+    if (quit(temp)) {
+      return false;
+    }
+
+
+    String regex = "\\d+\\.?\\d*";
+    if (!temp.matches(regex)) {
+      reject("Enter a valid amount\n");
+      setCommissionFee();
+    } else {
+      commission = Double.parseDouble(temp);
+    }
+    return true;
+  }
+
+
+  /**
+   * This is a private helper method to validate and set the company ticker name.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setCompany() {
+
+    companyName = next().toUpperCase();
+    if (quit(companyName)) {
+      return false;
+    }
+
+    Pattern p = Pattern.compile("[^a-zA-Z]");
+    boolean hasSpecialChar = p.matcher(companyName).find();
+    if (hasSpecialChar) {
+      reject("Company ticker name do not contain special characters or numbers."
+              + " ReEnter the name\n");
+      setCompany();
+    }
+    if (companyName.length() != 4) {
+      reject("Company ticker name can only be of 4 letters. "
+              + "ReEnter the company name\n");
+      setCompany();
+    }
+    return true;
+
+  }
+
+  /**
+   * This is a private helper method to validate and set the amount of which shares has to be
+   * bought.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setAmount() {
+
+    String temp = next();
+    if (quit(temp)) {
+      return false;
+    }
+
+
+    String regex = "\\d+\\.?\\d*";
+    if (!temp.matches(regex)) {
+      reject("Enter a valid amount\n");
+      setAmount();
+    } else {
+      amount = Double.parseDouble(temp);
+    }
+    return true;
+  }
+
+  /**
+   * This is a private helper method to validate the number of companies to invest in.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setCount() {
+
+    String temp = next();
+    if (quit(temp)) {
+      return false;
+    }
+
+
+    String regex = "\\d+";
+    if (!temp.matches(regex)) {
+      reject("Enter a valid number\n");
+      setCount();
+    } else {
+      count = Integer.parseInt(temp);
+    }
+    return true;
+  }
+
+
+  /**
+   * This is a private helper method to validate the weights in an investment.
+   */
+  private boolean setWeight() {
+
+    String temp = next();
+    if (quit(temp)) {
+      return false;
+    }
+
+
+    String regex = "\\d+\\.?\\d*";
+    if (!temp.matches(regex)) {
+      reject("Enter a valid weight\n");
+      setWeight();
+    } else {
+      weight = Double.parseDouble(temp);
+    }
+    return true;
+  }
+
+
+  /**
+   * This is a private helper method to validate and set the Date.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setDate() {
+    date = next();
+    if (quit(date)) {
+      return false;
+    }
+    String dateFormat = "\\d{4}-\\d{2}-\\d{2}";
+    if (!date.matches(dateFormat)) {
+      reject("Enter a valid date in the form of YYYY-MM-DD\n");
+      setDate();
+    }
+    return true;
+  }
+
+  /**
+   * This is a private helper method to validate and set the Portfolio name.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setPortfolioID() {
+    portfolioID = next();
+    if (quit(portfolioID)) {
+      return false;
+    }
+
+    Pattern p = Pattern.compile("[^a-zA-Z0-9]");
+    boolean hasSpecialChar = p.matcher(portfolioID).find();
+    if (hasSpecialChar) {
+      reject("Portfolio name cannot contain special characters. ReEnter the name\n");
+      setPortfolioID();
+    }
+    return true;
+  }
+
+  /**
+   * This is a private helper method to set the strategy name to be saved.
+   *
+   * @return false if user wants to quit / true otherwise.
+   */
+  private boolean setStrategyName() {
+    strategyName = next();
+    if (quit(strategyName)) {
+      return false;
+    }
+
+    Pattern p = Pattern.compile("[^a-zA-Z0-9]");
+    boolean hasSpecialChar = p.matcher(strategyName).find();
+    if (hasSpecialChar) {
+      reject("Strategy name cannot contain special characters. ReEnter the name\n");
+      setStrategyName();
+    }
+    return true;
+  }
+
+
+  /**
+   * This is a private helper method to check if the user wants to quit the application at any point
+   * of time.
+   *
+   * @return true if user wants to quit/false otherwise.
+   */
+  private boolean quit(String param) {
+    if (param.equalsIgnoreCase("Q")) {
+      view.print(ap, "Thanks for using the Virtual Gamble Application\n");
+      return true;
+    } else {
+      return false;
+    }
+  }
+
+  /**
+   * Helper method to add company to portfolio without buying share.
+   */
+  private boolean addCompany(VirtualGamble model) {
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    prompt("Enter the number pf companies to be added");
+    if (!setCount()) {
+      return false;
+    }
+    prompt("Enter company names\n");
+    for (int i = 0; i < count; i++) {
+      if (!setCompany()) {
+        return false;
+      }
+      try {
+        model.addStockPortfolio(portfolioID, companyName);
+      } catch (IllegalArgumentException | NoSuchElementException | IOException e) {
+        if (batch) {
+          throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        view.print(ap, e.getMessage() + "\n ");
+        prompt("Re-enter company name");
+        count++;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Helper method to invest a ceratin amount using weights in a portfolio.
+   */
+  private boolean invest(VirtualGamble model) {
+
+    prompt("Enter portfolio name\n");
+    if (!setPortfolioID()) {
+      return false;
+    }
+    return (investAmount(model));
+  }
+
+  /**
+   * This private helper method allows us to invest a certain amount in the portfolio.
+   */
+  private boolean investAmount(VirtualGamble model) {
+    prompt("Enter the amount you want to invest in this portfolio");
+    if (!setAmount()) {
+      return false;
+    }
+
+    prompt("Enter commission");
+
+    if (!setCommissionFee()) {
+      return false;
+    }
+
+    prompt("Enter date in the format YYYY-MM-DD\n");
+    if (!setDate()) {
+      return false;
+    }
+    return (setWeights(model));
+  }
+
+  private boolean setWeights(VirtualGamble model) {
+    prompt("Press 1 for equal weights\n Press 2 to specify weights");
+
+    if (next().equals("1")) {
+      try {
+        model.investFixedAmountEqually(portfolioID, amount, date, commission);
+      } catch (IOException e) {
+        view.print(ap, e.getMessage());
+      }
+    } else {
+      Set<String> companies = model.getStockDetails().get(portfolioID).getCompanyList();
+      prompt("Enter weights corresponding to companies\n");
+      while (true) {
+        double sumOfWeights = 0;
+        for (String tickr : companies) {
+          prompt("Enter weight for" + tickr);
+          if (!setWeight()) {
+            return false;
+          }
+          weights.put(tickr, weight);
+        }
+        for (double weight : weights.values()) {
+          sumOfWeights += weight;
+        }
+        if (sumOfWeights == 100) {
+          break;
+        } else {
+          reject("Sum of weights of all companies must be 100 \n");
+        }
+      }
+
+      try {
+        model.investFixedAmountWeighted(portfolioID, amount, date, weights, commission);
+      } catch (IOException | IllegalArgumentException e) {
+        view.print(ap, e.getMessage());
+      }
+    }
+
+
+    return true;
+  }
+
+
+  /**
+   * Helper method to create a portfolio.
+   */
+  private boolean createPortfolio(VirtualGamble model) {
+    prompt("Enter the name of the portfolio to be created\n"
+            + "Portfolio name can can be a combination of numbers and letters. Special"
+            + "characters are not permitted\nEnter q/Q to quit.\n\n");
+
+    if (!setPortfolioID()) {
+      return false;
+    }
+    try {
+      model.createPortfolio(portfolioID);
+      view.print(ap, "Portfolio " + portfolioID + " has been successfully created\n\n");
+    } catch (IllegalArgumentException | NoSuchElementException e) {
+      view.print(ap, e.getMessage() + "\n ");
+    }
+    return true;
+  }
+}
@@ -0,0 +1,417 @@
+package stockmarket.controller;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import stockmarket.model.ExportFormat;
+import stockmarket.model.ReportExporter;
+import stockmarket.model.ReportType;
+import stockmarket.model.VirtualGamble;
+
+/**
+ * This is a controller which serves the model over HTTP with JSON requests and responses. Every
+ * request is handled on its own virtual thread when the Java runtime has them, and on a thread of
+ * a cached pool otherwise, so a request waiting on a download does not hold up the others. The
+ * model synchronizes its own state, so requests for different portfolios run side by side.
+ *
+ * <p>The endpoints are:
+ * <ul>
+ * <li>GET /portfolios lists the portfolio IDs.</li>
+ * <li>POST /portfolios with {"id"} creates a portfolio.</li>
+ * <li>GET /portfolios/{id}/value with an optional date parameter values a portfolio.</li>
+ * <li>GET /portfolios/{id}/report with the parameters type (lots, positions or values), format
+ * (csv or json), start and end streams a report, compressed if the client accepts gzip.</li>
+ * <li>POST /portfolios/{id}/buy with {"company", "amount", "date", "commission"} buys shares.</li>
+ * <li>POST /portfolios/{id}/dca with {"startDate", "endDate", "amount", "period", "weights",
+ * "commission"} applies dollar cost averaging, where the end date may be left out.</li>
+ * <li>POST /portfolios/{id}/save saves a portfolio and POST /portfolios/{id}/retrieve
+ * retrieves one.</li>
+ * </ul>
+ * Invalid input is answered with 400, an unknown portfolio or path with 404 and a failed download
+ * or file operation or any other failure with 500, each with the message in {"error"}. A report
+ * which fails after it started streaming is cut short instead.
+ */
+public class VirtualGambleServer {
+  private static final int BACKLOG = 1024;
+
+  private final VirtualGamble model;
+  private final HttpServer server;
+  private final ExecutorService executor;
+
+  /**
+   * This creates a server over a model listening on a port.
+   *
+   * @param model The model to be served.
+   * @param port  The port to listen on, or 0 for any free port.
+   * @throws IOException if the port could not be bound.
+   */
+  public VirtualGambleServer(VirtualGamble model, int port) throws IOException {
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null");
+    }
+    this.model = model;
+    this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+    this.executor = newExecutor();
+    server.setExecutor(executor);
+    server.createContext("/portfolios", this::handle);
+  }
+
+  /**
+   * Helper method to create an executor starting a virtual thread for every request. Virtual
+   * threads are looked up at run time so that the server also runs on Java versions without them.
+   */
+  static ExecutorService newExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+              .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(task -> {
+        Thread thread = new Thread(task, "virtualgamble-http");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Method to start answering requests.
+   */
+  public void start() {
+    server.start();
+  }
+
+  /**
+   * Method to get the port the server listens on.
+   *
+   * @return the bound port
+   */
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Method to stop the server, giving the requests being handled some time to finish.
+   *
+   * @param delaySeconds The longest time to wait for requests being handled.
+   */
+  public void stop(int delaySeconds) {
+    server.stop(delaySeconds);
+    executor.shutdown();
+    try {
+      executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Helper method to answer one request and close its exchange. A report which fails while it is
+   * streamed is left to the server, which drops the connection, so that the client sees its body
+   * cut short rather than a complete response.
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    boolean answered = false;
+    try {
+      respond(exchange);
+      answered = true;
+    } finally {
+      if (answered || exchange.getResponseCode() < 0) {
+        exchange.close();
+      }
+    }
+  }
+
+  /**
+   * Helper method to answer one request with its result or its error.
+   */
+  private void respond(HttpExchange exchange) throws IOException {
+    int status;
+    String body;
+    try {
+      String[] path = exchange.getRequestURI().getPath().split("/");
+      String method = exchange.getRequestMethod();
+      // the path starts with a slash, so its first part is empty and the second is "portfolios"
+      if (path.length == 2 && method.equals("GET")) {
+        List<String> ids = new ArrayList<>(model.getStockDetails().keySet());
+        StringBuilder list = new StringBuilder("{\"portfolios\":[");
+        for (int i = 0; i < ids.size(); i++) {
+          list.append(i > 0 ? "," : "").append(Json.quote(ids.get(i)));
+        }
+        status = 200;
+        body = list.append("]}").toString();
+      } else if (path.length == 2 && method.equals("POST")) {
+        String id = text(read(exchange), "id");
+        model.createPortfolio(id);
+        status = 201;
+        body = "{\"id\":" + Json.quote(id) + "}";
+      } else if (path.length == 4 && path[3].equals("value") && method.equals("GET")) {
+        String date = query(exchange, "date");
+        double value = date == null ? model.getTotalValue(path[2])
+                : model.getTotalValue(path[2], date);
+        status = 200;
+        body = "{\"id\":" + Json.quote(path[2]) + ",\"value\":" + value + "}";
+      } else if (path.length == 4 && path[3].equals("report") && method.equals("GET")) {
+        report(path[2], exchange);
+        return;
+      } else if (path.length == 4 && method.equals("POST")) {
+        status = 200;
+        body = act(path[2], path[3], exchange);
+      } else {
+        status = path.length == 4 && (path[3].equals("value") || path[3].equals("report")
+                || action(path[3])) ? 405 : 404;
+        body = error(status == 405 ? "Method not allowed" : "Not found");
+      }
+    } catch (IllegalArgumentException | ParseException e) {
+      status = 400;
+      body = error(e.getMessage());
+    } catch (NoSuchElementException e) {
+      status = 404;
+      body = error(e.getMessage());
+    } catch (IOException | RuntimeException e) {
+      status = 500;
+      body = error(e.getMessage());
+    }
+    // a report which failed after its headers were sent can only be cut short
+    if (exchange.getResponseCode() >= 0) {
+      throw new IOException("Response failed after it was started: " + body);
+    }
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().set("Content-Type", "application/json");
+    exchange.sendResponseHeaders(status, bytes.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(bytes);
+    }
+  }
+
+  /**
+   * Helper method to stream a report of a portfolio. The type, format, start and end of the report
+   * are taken from the query, and the report is compressed when the client accepts gzip. The
+   * response is only started when the first byte of the report is written, so an invalid request
+   * is still answered with its error.
+   */
+  private void report(String id, HttpExchange exchange) throws IOException {
+    String type = query(exchange, "type");
+    String format = query(exchange, "format");
+    ReportType reportType;
+    ExportFormat exportFormat;
+    try {
+      reportType = ReportType.valueOf(type == null ? "LOTS" : type.toUpperCase());
+      exportFormat = ExportFormat.valueOf(format == null ? "CSV" : format.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("type should be lots, positions or values and format "
+              + "should be csv or json");
+    }
+    String encoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+    boolean gzip = encoding != null && encoding.contains("gzip");
+    ResponseStream response = new ResponseStream(exchange, exportFormat == ExportFormat.CSV
+            ? "text/csv" : "application/json", gzip);
+    ReportExporter exporter = ReportExporter.open(new BufferedOutputStream(response),
+            exportFormat, gzip);
+    model.exportReport(id, reportType, query(exchange, "start"), query(exchange, "end"),
+            exporter);
+    exporter.close();
+  }
+
+  /**
+   * This is a stream over the body of a response which sends the headers of a successful response
+   * before its first byte.
+   */
+  private static final class ResponseStream extends OutputStream {
+    private final HttpExchange exchange;
+    private final String contentType;
+    private final boolean gzip;
+    private OutputStream body;
+
+    private ResponseStream(HttpExchange exchange, String contentType, boolean gzip) {
+      this.exchange = exchange;
+      this.contentType = contentType;
+      this.gzip = gzip;
+    }
+
+    /**
+     * Helper method to start the response the first time it is written.
+     */
+    private OutputStream body() throws IOException {
+      if (body == null) {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (gzip) {
+          exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        // a length of 0 sends the body in chunks as it is written
+        exchange.sendResponseHeaders(200, 0);
+        body = exchange.getResponseBody();
+      }
+      return body;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      body().write(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      body().write(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (body != null) {
+        body.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      body().close();
+    }
+  }
+
+  /**
+   * Helper method to check whether a path names an action on a portfolio.
+   */
+  private static boolean action(String name) {
+    return name.equals("buy") || name.equals("dca") || name.equals("save")
+            || name.equals("retrieve");
+  }
+
+  /**
+   * Helper method to run an action on a portfolio.
+   */
+  private String act(String id, String action, HttpExchange exchange) throws IOException,
+          ParseException {
+    switch (action) {
+      case "buy": {
+        Map<String, Object> order = read(exchange);
+        model.buyShare(id, text(order, "company"), number(order, "amount"), text(order, "date"),
+                optionalNumber(order, "commission"));
+        break;
+      }
+      case "dca": {
+        Map<String, Object> plan = read(exchange);
+        Object endDate = plan.get("endDate");
+        model.applyDollarCostAveraging(id, text(plan, "startDate"),
+                endDate == null ? null : text(plan, "endDate"), number(plan, "amount"),
+                (int) number(plan, "period"), weights(plan), optionalNumber(plan, "commission"));
+        break;
+      }
+      case "save":
+        model.save(id);
+        break;
+      case "retrieve":
+        model.retrieve(id);
+        break;
+      default:
+        throw new NoSuchElementException("Not found");
+    }
+    return "{\"id\":" + Json.quote(id) + ",\"status\":\"ok\"}";
+  }
+
+  /**
+   * Helper method to read the JSON object of a request.
+   */
+  private static Map<String, Object> read(HttpExchange exchange) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    try (InputStream in = exchange.getRequestBody()) {
+      int count;
+      while ((count = in.read(buffer)) > 0) {
+        bytes.write(buffer, 0, count);
+      }
+    }
+    String text = new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    return text.trim().isEmpty() ? new LinkedHashMap<>() : Json.parseObject(text);
+  }
+
+  /**
+   * Helper method to get a parameter of the query of a request.
+   */
+  private static String query(HttpExchange exchange, String name)
+          throws UnsupportedEncodingException {
+    String query = exchange.getRequestURI().getRawQuery();
+    if (query == null) {
+      return null;
+    }
+    for (String parameter : query.split("&")) {
+      int equals = parameter.indexOf('=');
+      if (equals > 0 && parameter.substring(0, equals).equals(name)) {
+        return URLDecoder.decode(parameter.substring(equals + 1), "UTF-8");
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Helper method to get a member of a request which has to be a string.
+   */
+  private static String text(Map<String, Object> request, String name) {
+    Object value = request.get(name);
+    if (!(value instanceof String)) {
+      throw new IllegalArgumentException(name + " should be a string");
+    }
+    return (String) value;
+  }
+
+  /**
+   * Helper method to get a member of a request which has to be a number.
+   */
+  private static double number(Map<String, Object> request, String name) {
+    Object value = request.get(name);
+    if (!(value instanceof BigDecimal)) {
+      throw new IllegalArgumentException(name + " should be a number");
+    }
+    return ((BigDecimal) value).doubleValue();
+  }
+
+  /**
+   * Helper method to get a member of a request which is a number or left out for zero.
+   */
+  private static double optionalNumber(Map<String, Object> request, String name) {
+    return request.get(name) == null ? 0 : number(request, name);
+  }
+
+  /**
+   * Helper method to get the weights of a dollar cost plan.
+   */
+  private static Map<String, Double> weights(Map<String, Object> plan) {
+    Object value = plan.get("weights");
+    if (!(value instanceof Map)) {
+      throw new IllegalArgumentException("weights should be an object");
+    }
+    Map<String, Double> weights = new LinkedHashMap<>();
+    for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+      if (!(entry.getValue() instanceof BigDecimal)) {
+        throw new IllegalArgumentException("weight of " + entry.getKey() + " should be a number");
+      }
+      weights.put((String) entry.getKey(), ((BigDecimal) entry.getValue()).doubleValue());
+    }
+    return weights;
+  }
+
+  /**
+   * Helper method to write the body of an error.
+   */
+  private static String error(String message) {
+    return "{\"error\":" + Json.quote(message == null ? "" : message) + "}";
+  }
+}
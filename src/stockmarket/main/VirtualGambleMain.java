@@ -1,29 +1,125 @@
-package stockmarket.main;
-
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.text.ParseException;
-
-import stockmarket.controller.VirtualGambleControllerImpl;
-import stockmarket.view.VirtualGambleViewImpl;
-import stockmarket.model.VirtualGamble;
-import stockmarket.model.VirtualGambleImpl;
-import stockmarket.view.VirtualGambleView;
-
-/**
- * This class contains the main method which is used to start up the application.
- */
-public class VirtualGambleMain {
-
-  /**
-   * The main method initializes the MVC objects and passes the model and view to controller , and
-   * then calls the method of controller which starts up the application.
-   */
-  public static void main(String[] args) throws IOException, ParseException, InterruptedException {
-    VirtualGamble model = new VirtualGambleImpl();
-    VirtualGambleView view = new VirtualGambleViewImpl();
-    VirtualGambleControllerImpl controller = new VirtualGambleControllerImpl(
-            new InputStreamReader(System.in), System.out);
-    controller.startUp(model, view);
-  }
-}
+package stockmarket.main;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+import stockmarket.controller.JsonLinesReader;
+import stockmarket.controller.VirtualGambleControllerImpl;
+import stockmarket.controller.VirtualGambleServer;
+import stockmarket.view.VirtualGambleViewImpl;
+import stockmarket.model.KeyValueRepository;
+import stockmarket.model.VirtualGamble;
+import stockmarket.model.VirtualGambleImpl;
+import stockmarket.view.VirtualGambleView;
+
+/**
+ * This class contains the main method which is used to start up the application.
+ */
+public class VirtualGambleMain {
+
+  /**
+   * The main method initializes the MVC objects and passes the model and view to controller , and
+   * then calls the method of controller which starts up the application. With the arguments
+   * --batch and a file, the commands of the file are run without the menu instead. A file ending
+   * in .jsonl holds one JSON operation per line, and any other file holds the words a user would
+   * type. With the arguments --serve and a port, the model is served over HTTP until the
+   * application is terminated.
+   */
+  public static void main(String[] args) throws IOException, ParseException, InterruptedException {
+    if (args.length == 2 && args[0].equals("--batch")) {
+      runBatch(args[1]);
+      return;
+    }
+    if (args.length == 2 && args[0].equals("--serve")) {
+      serve(Integer.parseInt(args[1]));
+      return;
+    }
+    VirtualGamble model = createModel();
+    System.out.print(model.loadWorkspace());
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> closeModel(model)));
+    VirtualGambleView view = new VirtualGambleViewImpl();
+    VirtualGambleControllerImpl controller = new VirtualGambleControllerImpl(
+            new InputStreamReader(System.in), System.out);
+    controller.startUp(model, view);
+    model.close();
+  }
+
+  /**
+   * Helper method to run a command script with buffered output, printing the time taken by every
+   * command at the end.
+   *
+   * @param script path of the script
+   * @throws IOException    if the script could not be read
+   * @throws ParseException if a date of the script could not be parsed
+   */
+  static void runBatch(String script) throws IOException, ParseException {
+    VirtualGamble model = createModel();
+    Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
+    Reader in = Files.newBufferedReader(Paths.get(script));
+    if (script.endsWith(".jsonl")) {
+      in = new JsonLinesReader(in);
+    }
+    try {
+      out.append(model.loadWorkspace().toString());
+      new VirtualGambleControllerImpl(in, out, true).startUp(model, new VirtualGambleViewImpl());
+    } finally {
+      in.close();
+      out.flush();
+      model.close();
+    }
+  }
+
+  /**
+   * Helper method to serve the model over HTTP. The server and the model are closed when the
+   * application is terminated.
+   *
+   * @param port port to listen on
+   * @throws IOException if the port could not be bound
+   */
+  static void serve(int port) throws IOException {
+    VirtualGamble model = createModel();
+    System.out.print(model.loadWorkspace());
+    VirtualGambleServer server = new VirtualGambleServer(model, port);
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      server.stop(1);
+      closeModel(model);
+    }));
+    server.start();
+    System.out.println("Listening on port " + server.getPort());
+  }
+
+  /**
+   * Helper method to create the model. Portfolios and strategies are saved as files unless the
+   * system property virtualgamble.store names a key value store file to keep them in.
+   *
+   * @return the model of the application
+   * @throws IOException if the key value store could not be opened
+   */
+  static VirtualGamble createModel() throws IOException {
+    String store = System.getProperty("virtualgamble.store");
+    if (store == null || store.isEmpty()) {
+      return new VirtualGambleImpl();
+    }
+    return new VirtualGambleImpl(new KeyValueRepository(store));
+  }
+
+  /**
+   * Helper method to write pending changes of the model when the application is terminated.
+   *
+   * @param model model to be closed
+   */
+  static void closeModel(VirtualGamble model) {
+    try {
+      model.close();
+    } catch (IOException e) {
+      System.err.println("Unable to save portfolios: " + e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package stockmarket.model;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class tracks which portfolios have changed since they were last written and writes them from
+ * a background thread. Any number of changes to a portfolio within one interval are coalesced into
+ * a single write. A portfolio whose write fails for any reason stays dirty and is written again on
+ * the next flush. The failure is kept until a later write succeeds, and the first failure of a run
+ * of failed background writes is printed to the standard error stream.
+ */
+class Autosaver {
+
+  /**
+   * This interface represents the operation that writes a group of portfolios to disk.
+   */
+  interface Writer {
+    /**
+     * Method to write the current state of several portfolios together.
+     *
+     * @param portfolioIDs unique IDs of the portfolios to be written
+     * @throws IOException if the write fails
+     */
+    void write(Collection<String> portfolioIDs) throws IOException;
+  }
+
+  private final Writer writer;
+  private final long intervalMillis;
+  private final Set<String> dirty;
+  private volatile ScheduledExecutorService scheduler;
+  private volatile boolean closed;
+  private volatile Exception lastFailure;
+
+  /**
+   * Constructor to initialize an autosaver which is started on the first change.
+   *
+   * @param writer         operation used to write a portfolio
+   * @param intervalMillis time between two background flushes in milliseconds
+   */
+  Autosaver(Writer writer, long intervalMillis) {
+    this.writer = writer;
+    this.intervalMillis = intervalMillis;
+    this.dirty = ConcurrentHashMap.newKeySet();
+  }
+
+  /**
+   * Method to record that a portfolio has changed and has to be written.
+   *
+   * @param portfolioID unique ID of the changed portfolio
+   * @throws IllegalStateException if the autosaver is closed, so the change would not be written
+   */
+  void markDirty(String portfolioID) throws IllegalStateException {
+    if (closed) {
+      throw new IllegalStateException("Changes cannot be saved after the model is closed");
+    }
+    dirty.add(portfolioID);
+    if (scheduler == null) {
+      start();
+    }
+  }
+
+  /**
+   * Helper method to start the background thread unless it is already running.
+   */
+  private synchronized void start() {
+    if (scheduler != null || closed) {
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread thread = new Thread(r, "virtual-gamble-autosave");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(() -> {
+      try {
+        flush();
+      } catch (IOException | RuntimeException e) {
+        // the failed portfolios stay dirty and are retried on the next interval; the task must
+        // not throw, as that would cancel every later run
+        if (lastFailure == null) {
+          System.err.println("Unable to autosave portfolios: " + e.getMessage());
+        }
+        lastFailure = e;
+      }
+    }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Method to write every portfolio changed since the last flush in a single write. If the write
+   * fails the portfolios stay dirty so that they are retried.
+   *
+   * @throws IOException if the portfolios could not be written
+   */
+  synchronized void flush() throws IOException {
+    List<String> pending = new ArrayList<>(dirty);
+    if (pending.isEmpty()) {
+      return;
+    }
+    // removed before the write so that a change made during it marks the portfolio again
+    dirty.removeAll(pending);
+    boolean written = false;
+    try {
+      writer.write(pending);
+      written = true;
+      lastFailure = null;
+    } finally {
+      if (!written) {
+        dirty.addAll(pending);
+      }
+    }
+  }
+
+  /**
+   * Method to get the reason the last background write failed, if no write succeeded since.
+   *
+   * @return the failure or null if the last write succeeded
+   */
+  Exception getLastFailure() {
+    return lastFailure;
+  }
+
+  /**
+   * Method to stop the background thread and write everything that is still pending.
+   *
+   * @throws IOException if one or more portfolios could not be written
+   */
+  void close() throws IOException {
+    synchronized (this) {
+      closed = true;
+      if (scheduler != null) {
+        scheduler.shutdown();
+      }
+    }
+    flush();
+  }
+}
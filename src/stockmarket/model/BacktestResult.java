@@ -0,0 +1,91 @@
+package stockmarket.model;
+
+/**
+ * This class represents the outcome of running one dollar cost strategy over the price history:
+ * the value of its shares at the end, the amount invested in them and the growth and worst fall of
+ * the strategy along the way.
+ */
+public final class BacktestResult {
+  private final DollarCostAverage strategy;
+  private final double finalValue;
+  private final double costBasis;
+  private final double cagr;
+  private final double maxDrawdown;
+
+  /**
+   * Constructor to initialize the result of one strategy.
+   *
+   * @param strategy    parameters of the strategy
+   * @param finalValue  value of all shares bought on the last day of the test
+   * @param costBasis   amount invested including commission
+   * @param cagr        compound annual growth rate of the time weighted return
+   * @param maxDrawdown largest fall of the time weighted return from an earlier peak, as a
+   *                    fraction of the peak
+   */
+  public BacktestResult(DollarCostAverage strategy, double finalValue, double costBasis,
+                        double cagr, double maxDrawdown) {
+    this.strategy = strategy;
+    this.finalValue = finalValue;
+    this.costBasis = costBasis;
+    this.cagr = cagr;
+    this.maxDrawdown = maxDrawdown;
+  }
+
+  /**
+   * Method to get the parameters of the strategy.
+   *
+   * @return the dollar cost parameters
+   */
+  public DollarCostAverage getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Method to get the value of all shares bought on the last day of the test.
+   *
+   * @return final value in dollars
+   */
+  public double getFinalValue() {
+    return finalValue;
+  }
+
+  /**
+   * Method to get the amount invested including commission.
+   *
+   * @return cost basis in dollars
+   */
+  public double getCostBasis() {
+    return costBasis;
+  }
+
+  /**
+   * Method to get the compound annual growth rate of the time weighted return. Money added by
+   * each purchase is taken out of the return, so the rate does not grow with the contributions.
+   *
+   * @return growth rate per year as a fraction
+   */
+  public double getCagr() {
+    return cagr;
+  }
+
+  /**
+   * Method to get the largest fall of the time weighted return from an earlier peak.
+   *
+   * @return drawdown as a fraction of the peak
+   */
+  public double getMaxDrawdown() {
+    return maxDrawdown;
+  }
+
+  @Override
+  public String toString() {
+    return "Start Date:" + strategy.getStartDate() + "\n"
+            + "End Date:" + (strategy.isOngoing() ? "ongoing" : strategy.getEndDate()) + "\n"
+            + "Period:" + strategy.getPeriodInDays() + "\n"
+            + "Weights:" + strategy.getWeights() + "\n"
+            + "Final Value:" + String.format("%.2f", finalValue) + "\n"
+            + "Cost Basis:" + String.format("%.2f", costBasis) + "\n"
+            + "CAGR:" + String.format("%.2f", cagr * 100) + "%\n"
+            + "Max Drawdown:" + String.format("%.2f", maxDrawdown * 100) + "%";
+  }
+}
@@ -0,0 +1,230 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class computes the mean and covariance of the daily returns of a set of companies. The
+ * returns are taken from the days on which every company has a bar, so all companies are aligned
+ * on the same days, and the returns of each company are kept demeaned in one contiguous run of a
+ * flat primitive array.
+ *
+ * <p>The covariance matrix is symmetric, so only its upper triangle is computed. The triangle is
+ * cut into square tiles of companies, and the tiles are computed on the fork/join pool. Within a
+ * tile the days are walked in chunks small enough for the returns of both groups of companies to
+ * stay in cache, and two pairs of companies are accumulated at a time so every return read from
+ * memory is used twice.
+ */
+public final class CovarianceEngine {
+  private static final int TILE = 32;
+  private static final int CHUNK = 2048;
+
+  private final int companies;
+  private final int days;
+  private final double[] returns;
+  private final double[] means;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor to initialize the engine from the price history of the given companies since a
+   * date, using the common fork/join pool.
+   *
+   * @param prices    price store holding the history of the companies
+   * @param tickers   ticker symbols of the companies
+   * @param startDate first date of the history used, in yyyy-MM-dd format
+   * @throws IllegalArgumentException if the data of a company is missing or the companies share
+   *                                  fewer than three days of history
+   */
+  public CovarianceEngine(PriceStore prices, List<String> tickers, String startDate)
+          throws IllegalArgumentException {
+    this(prices, tickers, startDate, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructor to initialize the engine using the given pool.
+   *
+   * @param prices    price store holding the history of the companies
+   * @param tickers   ticker symbols of the companies
+   * @param startDate first date of the history used, in yyyy-MM-dd format
+   * @param pool      pool in which the covariance is computed
+   * @throws IllegalArgumentException if the data of a company is missing or the companies share
+   *                                  fewer than three days of history
+   */
+  public CovarianceEngine(PriceStore prices, List<String> tickers, String startDate,
+                          ForkJoinPool pool) throws IllegalArgumentException {
+    if (tickers.isEmpty()) {
+      throw new IllegalArgumentException("At least one company is needed");
+    }
+    this.companies = tickers.size();
+    this.pool = pool;
+    PriceSeries[] series = new PriceSeries[companies];
+    for (int i = 0; i < companies; i++) {
+      series[i] = prices.getSeries(tickers.get(i));
+    }
+    // find the bars of the shared days first, so the returns can be laid out company by company
+    PriceSeries calendar = series[0];
+    int from = calendar.ceilingIndex(PriceSeries.toDay(startDate));
+    int[][] bars = new int[companies][Math.max(0, calendar.size() - from)];
+    int shared = 0;
+    for (int bar = from; bar < calendar.size(); bar++) {
+      int day = calendar.getDay(bar);
+      boolean all = true;
+      for (int i = 0; i < companies && all; i++) {
+        bars[i][shared] = series[i].indexOf(day);
+        all = bars[i][shared] >= 0;
+      }
+      if (all) {
+        shared++;
+      }
+    }
+    this.days = shared - 1;
+    if (days < 2) {
+      throw new IllegalArgumentException("Not enough price history to compute the covariance");
+    }
+    this.returns = new double[companies * days];
+    this.means = new double[companies];
+    for (int i = 0; i < companies; i++) {
+      int offset = i * days;
+      double sum = 0;
+      for (int d = 0; d < days; d++) {
+        double value = series[i].getLow(bars[i][d + 1]) / series[i].getLow(bars[i][d]) - 1;
+        returns[offset + d] = value;
+        sum += value;
+      }
+      double mean = sum / days;
+      for (int d = 0; d < days; d++) {
+        returns[offset + d] -= mean;
+      }
+      means[i] = mean;
+    }
+  }
+
+  /**
+   * Method to get the number of companies.
+   *
+   * @return number of companies
+   */
+  public int getCompanies() {
+    return companies;
+  }
+
+  /**
+   * Method to get the number of daily returns shared by all companies.
+   *
+   * @return number of daily returns
+   */
+  public int getDays() {
+    return days;
+  }
+
+  /**
+   * Method to get the mean daily return of every company.
+   *
+   * @return mean returns in the order of the tickers
+   */
+  public double[] getMeans() {
+    return means.clone();
+  }
+
+  /**
+   * Method to compute the sample covariance matrix of the daily returns.
+   *
+   * @return the matrix in row-major order, one row per company
+   */
+  public double[] getCovariance() {
+    double[] covariance = new double[companies * companies];
+    int tiles = (companies + TILE - 1) / TILE;
+    List<int[]> pairs = new ArrayList<>();
+    for (int a = 0; a < tiles; a++) {
+      for (int b = a; b < tiles; b++) {
+        pairs.add(new int[]{a * TILE, b * TILE});
+      }
+    }
+    pool.invoke(new Tiles(pairs, covariance, 0, pairs.size()));
+    for (int i = 0; i < companies; i++) {
+      for (int j = i + 1; j < companies; j++) {
+        covariance[j * companies + i] = covariance[i * companies + j];
+      }
+    }
+    return covariance;
+  }
+
+  /**
+   * Helper method to compute the upper triangle of one tile of the covariance matrix.
+   */
+  private void computeTile(int rowStart, int columnStart, double[] covariance) {
+    int rowEnd = Math.min(companies, rowStart + TILE);
+    int columnEnd = Math.min(companies, columnStart + TILE);
+    double[] sums = new double[TILE * TILE];
+    for (int start = 0; start < days; start += CHUNK) {
+      int end = Math.min(days, start + CHUNK);
+      for (int i = rowStart; i < rowEnd; i += 2) {
+        int x = i * days;
+        int y = i + 1 < rowEnd ? x + days : x;
+        int first = Math.max(columnStart, i);
+        for (int j = first; j < columnEnd; j += 2) {
+          int u = j * days;
+          int v = j + 1 < columnEnd ? u + days : u;
+          double xu = 0;
+          double xv = 0;
+          double yu = 0;
+          double yv = 0;
+          for (int d = start; d < end; d++) {
+            double ru = returns[u + d];
+            double rv = returns[v + d];
+            double rx = returns[x + d];
+            double ry = returns[y + d];
+            xu += rx * ru;
+            xv += rx * rv;
+            yu += ry * ru;
+            yv += ry * rv;
+          }
+          int row = (i - rowStart) * TILE + j - columnStart;
+          sums[row] += xu;
+          sums[row + 1] += xv;
+          sums[row + TILE] += yu;
+          sums[row + TILE + 1] += yv;
+        }
+      }
+    }
+    for (int i = rowStart; i < rowEnd; i++) {
+      for (int j = Math.max(columnStart, i); j < columnEnd; j++) {
+        covariance[i * companies + j] = sums[(i - rowStart) * TILE + j - columnStart]
+                / (days - 1);
+      }
+    }
+  }
+
+  /**
+   * Task which computes a range of tiles, splitting it in half until a single tile is left.
+   */
+  private final class Tiles extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final List<int[]> pairs;
+    private final double[] covariance;
+    private final int from;
+    private final int to;
+
+    Tiles(List<int[]> pairs, double[] covariance, int from, int to) {
+      this.pairs = pairs;
+      this.covariance = covariance;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        int[] pair = pairs.get(from);
+        computeTile(pair[0], pair[1], covariance);
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Tiles(pairs, covariance, from, middle),
+              new Tiles(pairs, covariance, middle, to));
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class runs a grid of dollar cost strategies over the price history and ranks them. The
+ * strategies are split across the fork/join pool, which keeps every core busy, and each strategy
+ * is run straight over the price series and the shared purchase schedules without creating any
+ * portfolio or lot. The price store is only read, so the strategies need no locking between them.
+ *
+ * <p>A strategy is valued on every day on which all the companies it buys have a bar, so the
+ * result does not depend on the order of its weights. The money added by a purchase is taken out
+ * of that day's return, so the growth rate and drawdown describe the strategy and not the size of
+ * its contributions. Purchases due after the last such day are not made.
+ */
+public final class DollarCostBacktester {
+  private static final int GRID_THRESHOLD = 1;
+  private static final double DAYS_PER_YEAR = 365.25;
+
+  private final PriceStore prices;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor to initialize a backtester over a price store using the common fork/join pool.
+   *
+   * @param prices price store holding the history of every company in the grid
+   */
+  public DollarCostBacktester(PriceStore prices) {
+    this(prices, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructor to initialize a backtester over a price store using the given pool.
+   *
+   * @param prices price store holding the history of every company in the grid
+   * @param pool   pool in which the strategies are run
+   */
+  public DollarCostBacktester(PriceStore prices, ForkJoinPool pool) {
+    this.prices = prices;
+    this.pool = pool;
+  }
+
+  /**
+   * Method to run every strategy of a grid and rank them by compound annual growth rate, and then
+   * by final value.
+   *
+   * @param grid strategies to be run
+   * @return one result per strategy, best first
+   * @throws IllegalArgumentException if a strategy is not valid or the data of a company is
+   *                                  missing
+   */
+  public List<BacktestResult> run(List<DollarCostAverage> grid) throws IllegalArgumentException {
+    DollarCostAverage[] strategies = grid.toArray(new DollarCostAverage[0]);
+    for (DollarCostAverage strategy : strategies) {
+      validate(strategy);
+    }
+    BacktestResult[] results = new BacktestResult[strategies.length];
+    pool.invoke(new Sweep(strategies, results, 0, strategies.length));
+    List<BacktestResult> ranked = new ArrayList<>(Arrays.asList(results));
+    ranked.sort(Comparator.comparingDouble(BacktestResult::getCagr)
+            .thenComparingDouble(BacktestResult::getFinalValue).reversed());
+    return ranked;
+  }
+
+  /**
+   * Helper method to check the parameters of a strategy before any of them is run.
+   */
+  private static void validate(DollarCostAverage strategy) throws IllegalArgumentException {
+    if (strategy.getAmount() <= 0) {
+      throw new IllegalArgumentException("amount cannot be negative");
+    }
+    if (strategy.getPeriodInDays() <= 0) {
+      throw new IllegalArgumentException("period should be a positive number of days");
+    }
+    for (double weight : strategy.getWeights().values()) {
+      if (weight < 0) {
+        throw new IllegalArgumentException("weights cannot be negative");
+      }
+    }
+    if (!strategy.isOngoing() && PriceSeries.toDay(strategy.getStartDate())
+            > PriceSeries.toDay(strategy.getEndDate())) {
+      throw new IllegalArgumentException("start date cannot be after end date");
+    }
+  }
+
+  /**
+   * Method to run a single strategy.
+   *
+   * @param strategy strategy to be run
+   * @return the result of the strategy
+   * @throws IllegalArgumentException if the data of a company is missing
+   */
+  BacktestResult evaluate(DollarCostAverage strategy) throws IllegalArgumentException {
+    int startDay = PriceSeries.toDay(strategy.getStartDate());
+    int endDay = strategy.isOngoing() ? Integer.MAX_VALUE
+            : PriceSeries.toDay(strategy.getEndDate());
+    int count = strategy.getWeights().size();
+    PriceSeries[] series = new PriceSeries[count];
+    PurchaseSchedule[] schedules = new PurchaseSchedule[count];
+    double[] amounts = new double[count];
+    int[] due = new int[count];
+    int legs = 0;
+    int firstDay = Integer.MAX_VALUE;
+    // the companies are taken in ticker order so that the sums are added up in the same order
+    for (Map.Entry<String, Double> entry : new TreeMap<>(strategy.getWeights()).entrySet()) {
+      double amount = strategy.getAmount() * (entry.getValue() / 100);
+      if (amount <= 0) {
+        continue;
+      }
+      series[legs] = prices.getSeries(entry.getKey());
+      schedules[legs] = series[legs].getSchedule(startDay, strategy.getPeriodInDays());
+      due[legs] = schedules[legs].countBefore(endDay);
+      if (due[legs] == 0) {
+        continue;
+      }
+      amounts[legs] = amount;
+      firstDay = Math.min(firstDay, schedules[legs].getDay(0));
+      legs++;
+    }
+    if (legs == 0) {
+      return new BacktestResult(strategy, 0, 0, 0, 0);
+    }
+    // every company trades on a shared day, so the days of any one of them hold all shared days
+    PriceSeries calendar = series[0];
+    int[] made = new int[legs];
+    int[] bars = new int[legs];
+    Arrays.fill(bars, -1);
+    double[] shares = new double[legs];
+    double value = 0;
+    double index = 1;
+    double peak = 1;
+    double maxDrawdown = 0;
+    int lastDay = firstDay;
+    for (int bar = calendar.ceilingIndex(firstDay); bar < calendar.size()
+            && calendar.getDay(bar) < endDay; bar++) {
+      int day = calendar.getDay(bar);
+      boolean shared = true;
+      for (int i = 0; i < legs; i++) {
+        while (bars[i] + 1 < series[i].size() && series[i].getDay(bars[i] + 1) <= day) {
+          bars[i]++;
+        }
+        shared &= bars[i] >= 0 && series[i].getDay(bars[i]) == day;
+      }
+      if (!shared) {
+        continue;
+      }
+      double flow = 0;
+      double nextValue = 0;
+      for (int i = 0; i < legs; i++) {
+        PurchaseSchedule schedule = schedules[i];
+        int before = made[i];
+        while (made[i] < due[i] && schedule.getDay(made[i]) <= day) {
+          made[i]++;
+        }
+        if (made[i] > before) {
+          shares[i] = amounts[i] * schedule.getSharesPerDollar(made[i]);
+          flow += (made[i] - before) * (amounts[i] + strategy.getCommission());
+        }
+        nextValue += shares[i] * series[i].getLow(bars[i]);
+      }
+      if (value > 0) {
+        index *= (nextValue - flow) / value;
+        peak = Math.max(peak, index);
+        maxDrawdown = Math.max(maxDrawdown, 1 - index / peak);
+      }
+      value = nextValue;
+      lastDay = day;
+    }
+    long costBasis = 0;
+    long commission = Money.ofDollars(strategy.getCommission());
+    for (int i = 0; i < legs; i++) {
+      costBasis += (Money.ofDollars(amounts[i]) + commission) * made[i];
+    }
+    double years = (lastDay - firstDay) / DAYS_PER_YEAR;
+    double cagr = years > 0 && index > 0 ? Math.pow(index, 1 / years) - 1 : 0;
+    return new BacktestResult(strategy, value, Money.toDollars(costBasis), cagr, maxDrawdown);
+  }
+
+  /**
+   * Task which runs a range of the grid, splitting it in half until a single strategy is left.
+   */
+  private final class Sweep extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final DollarCostAverage[] strategies;
+    private final BacktestResult[] results;
+    private final int from;
+    private final int to;
+
+    Sweep(DollarCostAverage[] strategies, BacktestResult[] results, int from, int to) {
+      this.strategies = strategies;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= GRID_THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          results[i] = evaluate(strategies[i]);
+        }
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Sweep(strategies, results, from, middle),
+              new Sweep(strategies, results, middle, to));
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * This class builds the lots of the purchases of a dollar cost plan for all of its companies in a
+ * single pass. The next purchase of every company is kept in a small heap ordered by date, so the
+ * lots come out merged in date order while each company only walks its own purchase schedule.
+ *
+ * <p>A company is bought on the first trading day on or after the start date, and then on the
+ * first trading day on or after each purchase date plus the period, until the end date, which is
+ * excluded, or until the latest bar for a plan which goes on.
+ */
+final class DollarCostEngine {
+
+  private DollarCostEngine() {
+  }
+
+  /**
+   * Method to build the lots of the purchases made so far by the legs of a plan. Purchases the
+   * plan skipped have no lot.
+   *
+   * @param legs       legs of the plan
+   * @param commission commission paid for every purchase of a company
+   * @return the purchased stocks in date order
+   */
+  static List<Stock> purchases(Collection<DollarCostPlan.Leg> legs, double commission) {
+    int estimate = 0;
+    for (DollarCostPlan.Leg leg : legs) {
+      estimate += leg.getPurchases();
+    }
+    List<Stock> stocks = new ArrayList<>(estimate);
+    forEachPurchase(legs, commission, stocks::add);
+    return stocks;
+  }
+
+  /**
+   * Method to build the lots of the purchases made so far by the legs of a plan one at a time,
+   * so that no more than one lot is held however many purchases the plan has made.
+   *
+   * @param legs       legs of the plan
+   * @param commission commission paid for every purchase of a company
+   * @param action     action given every lot in date order
+   */
+  static void forEachPurchase(Collection<DollarCostPlan.Leg> legs, double commission,
+                              Consumer<Stock> action) {
+    int count = legs.size();
+    DollarCostPlan.Leg[] companies = legs.toArray(new DollarCostPlan.Leg[count]);
+    int[] next = new int[count];
+    int[] heap = new int[count];
+    int heapSize = 0;
+    for (int i = 0; i < count; i++) {
+      if (companies[i].getPurchases() > 0) {
+        heap[heapSize++] = i;
+      }
+    }
+    for (int position = heapSize / 2 - 1; position >= 0; position--) {
+      siftDown(heap, heapSize, position, companies, next);
+    }
+    while (heapSize > 0) {
+      int company = heap[0];
+      DollarCostPlan.Leg leg = companies[company];
+      PriceSeries series = leg.getSeries();
+      if (!leg.isSkipped(next[company])) {
+        action.accept(new StockImpl(leg.getCompany(), leg.getAmount(), series,
+                series.indexOf(leg.getPurchaseDay(next[company])), commission));
+      }
+      if (++next[company] == leg.getPurchases()) {
+        heap[0] = heap[--heapSize];
+      }
+      siftDown(heap, heapSize, 0, companies, next);
+    }
+  }
+
+  /**
+   * Helper method to restore the heap order below a position. Companies are ordered by the day of
+   * their next purchase and then by their position in the plan.
+   */
+  private static void siftDown(int[] heap, int size, int position,
+                               DollarCostPlan.Leg[] companies, int[] next) {
+    int company = heap[position];
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && before(heap[child + 1], heap[child], companies, next)) {
+        child++;
+      }
+      if (!before(heap[child], company, companies, next)) {
+        break;
+      }
+      heap[position] = heap[child];
+      position = child;
+    }
+    heap[position] = company;
+  }
+
+  /**
+   * Helper method to check whether the next purchase of one company comes before that of another.
+   */
+  private static boolean before(int a, int b, DollarCostPlan.Leg[] companies, int[] next) {
+    int dayA = companies[a].getPurchaseDay(next[a]);
+    int dayB = companies[b].getPurchaseDay(next[b]);
+    return dayA < dayB || (dayA == dayB && a < b);
+  }
+}
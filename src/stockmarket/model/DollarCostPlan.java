@@ -0,0 +1,321 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * This class is a dollar cost plan held by a portfolio without creating a lot for each purchase.
+ * It keeps one leg per company with the amount invested in it and the shared purchase schedule of
+ * its price series, so it takes memory in proportion to the number of companies and not to the
+ * number of purchases. Shares, cost basis and value as of a date are read from the cumulative
+ * tables of the schedules, and lots are only built when a caller needs them one by one.
+ *
+ * <p>Every leg keeps a watermark of the purchases made so far. A plan with no end date, or whose
+ * end date has not been reached by the prices yet, is advanced to the purchases that became due
+ * when new bars arrive, which only looks at the new bars. A purchase that became due this way and
+ * is larger than the volume traded on its day is skipped, and the leg goes on with the next one.
+ *
+ * <p>A plan is resolved against the price store the first time it is used, so a plan restored
+ * from a snapshot does not need the prices of its companies until they have been downloaded.
+ */
+final class DollarCostPlan {
+  private DollarCostAverage parameters;
+  private final int startDay;
+  private final int endDay;
+  // legs keyed by the ID of the ticker symbol in the symbol table
+  private IntMap<Leg> legs;
+
+  /**
+   * Constructor to initialize a plan from its parameters.
+   *
+   * @param parameters parameters of the dollar cost strategy
+   */
+  DollarCostPlan(DollarCostAverage parameters) {
+    this.parameters = parameters;
+    this.startDay = PriceSeries.toDay(parameters.getStartDate());
+    this.endDay = parameters.isOngoing() ? Integer.MAX_VALUE
+            : PriceSeries.toDay(parameters.getEndDate());
+  }
+
+  /**
+   * Method to get the parameters of this plan. Companies taken out of the plan are not part of
+   * its weights.
+   *
+   * @return the dollar cost parameters
+   */
+  DollarCostAverage getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Method to check whether this plan has been resolved against the price store.
+   *
+   * @return true if the legs of the plan are known
+   */
+  boolean isResolved() {
+    return legs != null;
+  }
+
+  /**
+   * Method to find the purchases of every company of the plan which are due by the latest bar.
+   * Companies with no weight are left out.
+   *
+   * @param prices    price store holding the history of the companies
+   * @param skipLarge true to skip a purchase larger than the volume traded that day, as for a
+   *                  plan which was already running, and false to refuse the plan
+   * @throws IllegalArgumentException if the data of a company is missing or, unless skipLarge is
+   *                                  set, a purchase is larger than the volume traded that day
+   */
+  void resolve(PriceStore prices, boolean skipLarge) throws IllegalArgumentException {
+    IntMap<Leg> resolved = new IntMap<>(parameters.getWeights().size());
+    for (Map.Entry<String, Double> entry : parameters.getWeights().entrySet()) {
+      double amount = parameters.getAmount() * (entry.getValue() / 100);
+      if (amount <= 0) {
+        continue;
+      }
+      Leg leg = new Leg(entry.getKey(), amount, prices.getSeries(entry.getKey()),
+              Money.ofDollars(amount) + Money.ofDollars(parameters.getCommission()));
+      if (!leg.advance(skipLarge)) {
+        throw new IllegalArgumentException("The number of shares is less than required");
+      }
+      resolved.put(leg.series.getSymbol(), leg);
+    }
+    this.legs = resolved;
+  }
+
+  /**
+   * Method to check whether this plan has no company left.
+   *
+   * @return true if no company is bought by the plan
+   */
+  boolean isEmpty() {
+    return legs.isEmpty();
+  }
+
+  /**
+   * Method to get the legs of this plan.
+   *
+   * @return the legs in the order of the weights
+   */
+  Iterable<Leg> getLegs() {
+    return Collections.unmodifiableCollection(legs.values());
+  }
+
+  /**
+   * Method to get the leg of a company.
+   *
+   * @param company ticker symbol of the company
+   * @return the leg or null if the plan does not buy the company
+   */
+  Leg getLeg(String company) {
+    return legs.get(SymbolTable.id(company));
+  }
+
+  /**
+   * Method to get the cost basis of all purchases of the plan.
+   *
+   * @return cost basis in micro-dollars
+   */
+  long getCostBasisMicros() {
+    long total = 0;
+    for (Leg leg : legs.values()) {
+      total += leg.getCostBasisMicros();
+    }
+    return total;
+  }
+
+  /**
+   * Method to get the cost basis of the purchases made on or before a day.
+   *
+   * @param day epoch day
+   * @return cost basis in micro-dollars
+   */
+  long getCostBasisMicros(int day) {
+    long total = 0;
+    for (Leg leg : legs.values()) {
+      total += leg.lotCost * leg.countOnOrBefore(day);
+    }
+    return total;
+  }
+
+  /**
+   * Method to get the value of all shares of the plan on a day.
+   *
+   * @param day epoch day
+   * @return value in micro-dollars
+   * @throws IllegalArgumentException if a company has no price on the day
+   */
+  long getValueMicros(int day) throws IllegalArgumentException {
+    long total = 0;
+    for (Leg leg : legs.values()) {
+      if (leg.purchases > 0) {
+        total += Money.ofDollars(leg.getNumberOfShares() * leg.series.getPrice(day));
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Method to build one lot per purchase of the plan.
+   *
+   * @return the lots of every company in date order
+   */
+  List<Stock> getLots() {
+    return DollarCostEngine.purchases(legs.values(), parameters.getCommission());
+  }
+
+  /**
+   * Method to give every purchase of the plan to an action as a lot, building one lot at a time.
+   *
+   * @param action action given the lots of every company in date order
+   */
+  void forEachLot(Consumer<Stock> action) {
+    DollarCostEngine.forEachPurchase(legs.values(), parameters.getCommission(), action);
+  }
+
+  /**
+   * Method to get the plan which continues buying a company after the purchases made so far,
+   * which is the plan the company is left with once those purchases are held as lots.
+   *
+   * @param company ticker symbol of the company
+   * @return parameters of the continuing plan or null if no purchase is left to be made
+   */
+  DollarCostAverage getContinuation(String company) {
+    Leg leg = getLeg(company);
+    if (leg == null || leg.purchases == 0) {
+      return null;
+    }
+    // the next purchase is due on the first trading day on or after this one
+    int nextDay = leg.schedule.getDay(leg.purchases - 1) + parameters.getPeriodInDays();
+    if (nextDay >= endDay) {
+      return null;
+    }
+    return new DollarCostAverage(PriceSeries.toDate(nextDay), parameters.getEndDate(),
+            parameters.getAmount(), parameters.getPeriodInDays(),
+            Collections.singletonMap(leg.company, parameters.getWeights().get(leg.company)),
+            parameters.getCommission());
+  }
+
+  /**
+   * Method to take a company out of the plan, building the lots of the purchases made so far so
+   * that they can be held and sold like any other lot. Nothing is taken out if no purchase of the
+   * company has been made yet.
+   *
+   * @param company ticker symbol of the company
+   * @return the lots of the company in date order
+   */
+  List<Stock> detach(String company) {
+    Leg leg = getLeg(company);
+    if (leg == null || leg.purchases == 0) {
+      return Collections.emptyList();
+    }
+    legs.remove(leg.series.getSymbol());
+    Map<String, Double> weights = new LinkedHashMap<>(parameters.getWeights());
+    weights.remove(leg.company);
+    parameters = new DollarCostAverage(parameters.getStartDate(), parameters.getEndDate(),
+            parameters.getAmount(), parameters.getPeriodInDays(), weights,
+            parameters.getCommission());
+    return DollarCostEngine.purchases(Collections.singletonList(leg),
+            parameters.getCommission());
+  }
+
+  /**
+   * Purchases of one company under the plan, up to the watermark of the purchases made so far.
+   */
+  final class Leg {
+    private final String company;
+    private final double amount;
+    private final PriceSeries series;
+    private final long lotCost;
+    private PurchaseSchedule schedule;
+    private int purchases;
+    // purchases below the watermark which were not made, in ascending order
+    private int[] skipped;
+    private double skippedSharesPerDollar;
+
+    Leg(String company, double amount, PriceSeries series, long lotCost) {
+      this.company = company;
+      this.amount = amount;
+      this.series = series;
+      this.lotCost = lotCost;
+      this.skipped = new int[0];
+    }
+
+    String getCompany() {
+      return company;
+    }
+
+    double getAmount() {
+      return amount;
+    }
+
+    PriceSeries getSeries() {
+      return series;
+    }
+
+    int getPurchases() {
+      return purchases;
+    }
+
+    int getPurchaseDay(int purchase) {
+      return schedule.getDay(purchase);
+    }
+
+    boolean isSkipped(int purchase) {
+      return Arrays.binarySearch(skipped, purchase) >= 0;
+    }
+
+    double getNumberOfShares() {
+      return amount * (schedule.getSharesPerDollar(purchases) - skippedSharesPerDollar);
+    }
+
+    long getCostBasisMicros() {
+      return lotCost * (purchases - skipped.length);
+    }
+
+    int countOnOrBefore(int day) {
+      int count = Math.min(purchases, schedule.countBefore(day + 1));
+      int index = Arrays.binarySearch(skipped, count);
+      return count - (index >= 0 ? index : -index - 1);
+    }
+
+    /**
+     * Method to move the watermark to the purchases due by the latest bar. A new purchase larger
+     * than the volume traded on its day is skipped if skipLarge is set, and otherwise keeps the
+     * watermark where it is.
+     *
+     * @param skipLarge true to skip a purchase larger than the traded volume
+     * @return false if the watermark could not be moved because of the traded volume
+     */
+    boolean advance(boolean skipLarge) {
+      PurchaseSchedule latest = series.getSchedule(startDay, parameters.getPeriodInDays());
+      int due = latest.countBefore(endDay);
+      int[] large = skipped;
+      double largeSharesPerDollar = skippedSharesPerDollar;
+      // the capacity is the smallest over all purchases, skipped ones included, so only a low
+      // capacity needs a look at the new purchases one by one
+      if (due > purchases && amount >= latest.getCapacity(due)) {
+        for (int purchase = purchases; purchase < due; purchase++) {
+          int index = series.indexOf(latest.getDay(purchase));
+          if (amount >= series.getLow(index) * series.getVolume(index)) {
+            if (!skipLarge) {
+              return false;
+            }
+            large = Arrays.copyOf(large, large.length + 1);
+            large[large.length - 1] = purchase;
+            largeSharesPerDollar += 1 / series.getLow(index);
+          }
+        }
+      }
+      schedule = latest;
+      purchases = due;
+      skipped = large;
+      skippedSharesPerDollar = largeSharesPerDollar;
+      return true;
+    }
+  }
+}
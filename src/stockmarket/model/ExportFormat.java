@@ -0,0 +1,15 @@
+package stockmarket.model;
+
+/**
+ * This enum represents the formats in which reports of a portfolio are exported.
+ */
+public enum ExportFormat {
+  /**
+   * Comma separated values with a header line.
+   */
+  CSV,
+  /**
+   * A JSON object holding an array with one object per row.
+   */
+  JSON
+}
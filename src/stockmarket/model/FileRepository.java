@@ -0,0 +1,186 @@
+package stockmarket.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * This class persists every portfolio and strategy in a file of its own. Portfolios are written as
+ * binary snapshots to the portfolio directory and strategies to the strategy directory. Files in
+ * the older CSV format are still read when no snapshot exists.
+ */
+public class FileRepository implements PortfolioRepository, StrategyRepository {
+  private final Path portfolioDirectory;
+  private final Path strategyDirectory;
+
+  /**
+   * Constructor to initialize the repository with the default portfolio and strategy directories
+   * relative to the working directory.
+   */
+  public FileRepository() {
+    this("portfolio", "strategy");
+  }
+
+  /**
+   * Constructor to initialize the repository with the given directories.
+   *
+   * @param portfolioDirectory directory in which portfolios are saved
+   * @param strategyDirectory  directory in which strategies are saved
+   */
+  public FileRepository(String portfolioDirectory, String strategyDirectory) {
+    this.portfolioDirectory = Paths.get(portfolioDirectory);
+    this.strategyDirectory = Paths.get(strategyDirectory);
+  }
+
+  @Override
+  public void savePortfolio(String portfolioID, Portfolio portfolio) throws IOException {
+    SnapshotCodec.write(portfolioDirectory.resolve(portfolioID.toLowerCase() + ".vgp"),
+            SnapshotCodec.encodePortfolio(portfolio));
+  }
+
+  @Override
+  public void savePortfolios(Map<String, Portfolio> portfolios) throws IOException {
+    for (Map.Entry<String, Portfolio> entry : portfolios.entrySet()) {
+      savePortfolio(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public Portfolio loadPortfolio(String portfolioID) throws IOException {
+    Path snapshot = portfolioDirectory.resolve(portfolioID.toLowerCase() + ".vgp");
+    if (Files.exists(snapshot)) {
+      return SnapshotCodec.decodePortfolio(SnapshotCodec.read(snapshot));
+    }
+    Path csv = portfolioDirectory.resolve(portfolioID.toLowerCase() + ".csv");
+    if (Files.exists(csv)) {
+      return readPortfolioCsv(csv);
+    }
+    return null;
+  }
+
+  /**
+   * Helper method to read a portfolio from the CSV export format.
+   *
+   * @param csv file holding the exported portfolio
+   * @return the restored portfolio
+   * @throws IOException if the file read fails
+   */
+  private static Portfolio readPortfolioCsv(Path csv) throws IOException {
+    String[] stockData = new String(Files.readAllBytes(csv)).split("\\n");
+    PortfolioImpl portfolio = new PortfolioImpl();
+    List<Stock> stocks = new ArrayList<>(stockData.length);
+    try {
+      for (int i = 1; i < stockData.length; i++) {
+        String[] splittedData = stockData[i].trim().split(",");
+        String company = splittedData[1];
+        if (!portfolio.getCompanyList().contains(company)) {
+          portfolio.addStockData(company);
+        }
+        stocks.add(new StockImpl(company, splittedData[0], Double.parseDouble(splittedData[2]),
+                Double.parseDouble(splittedData[3]), Double.parseDouble(splittedData[4])));
+      }
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("The saved portfolio file is corrupt");
+    }
+    portfolio.addStocks(stocks);
+    return portfolio;
+  }
+
+  @Override
+  public Set<String> listPortfolios() {
+    return listSaved(portfolioDirectory, ".vgp", ".csv");
+  }
+
+  @Override
+  public void saveStrategy(String strategyName, DollarCostAverage strategy) throws IOException {
+    SnapshotCodec.write(strategyDirectory.resolve(strategyName.toLowerCase() + ".vgs"),
+            SnapshotCodec.encodeStrategy(strategy));
+  }
+
+  @Override
+  public DollarCostAverage loadStrategy(String strategyName) throws IOException {
+    Path snapshot = strategyDirectory.resolve(strategyName.toLowerCase() + ".vgs");
+    if (Files.exists(snapshot)) {
+      return SnapshotCodec.decodeStrategy(SnapshotCodec.read(snapshot));
+    }
+    Path csv = strategyDirectory.resolve(strategyName.toLowerCase() + ".csv");
+    if (Files.exists(csv)) {
+      return readStrategyCsv(csv);
+    }
+    return null;
+  }
+
+  /**
+   * Helper method to read a strategy from the CSV export format.
+   *
+   * @param csv file holding the exported strategy
+   * @return the parameters of the saved strategy
+   * @throws IOException if the file read fails
+   */
+  private static DollarCostAverage readStrategyCsv(Path csv) throws IOException {
+    String data = new String(Files.readAllBytes(csv));
+    try {
+      String[] splittedData = data.split("\n")[1].split(",");
+      String companyData = splittedData[4].replaceAll("[{}]", "");
+      String[] companiesDetails = companyData.split("; ");
+      Map<String, Double> map = new HashMap<>();
+      for (String company : companiesDetails) {
+        String name = company.split("=")[0];
+        double weight = Double.parseDouble(company.split("=")[1]);
+        map.put(name, weight);
+      }
+      int periodInDays = Integer.parseInt(splittedData[2]);
+      double amount = Double.parseDouble(splittedData[3]);
+      String startDate = splittedData[0];
+      // an ongoing strategy is exported without an end date
+      String endDate = splittedData[1].equals("null") ? null : splittedData[1];
+      double commission = Double.parseDouble(splittedData[5].trim());
+      return new DollarCostAverage(startDate, endDate, amount, periodInDays, map, commission);
+    } catch (ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("The saved strategy file is corrupt");
+    }
+  }
+
+  @Override
+  public Set<String> listStrategies() {
+    return listSaved(strategyDirectory, ".vgs", ".csv");
+  }
+
+  /**
+   * Helper method to list the names saved in a directory. A name saved both as a snapshot and as
+   * a CSV export is listed once.
+   *
+   * @param directory  directory to be scanned
+   * @param extensions file extensions which hold saved data
+   * @return the saved names in the directory
+   */
+  private static Set<String> listSaved(Path directory, String... extensions) {
+    Set<String> names = new TreeSet<>();
+    File[] files = directory.toFile().listFiles();
+    if (files == null) {
+      return names;
+    }
+    for (File file : files) {
+      for (String extension : extensions) {
+        if (file.isFile() && file.getName().endsWith(extension)) {
+          String fileName = file.getName();
+          names.add(fileName.substring(0, fileName.length() - extension.length()));
+        }
+      }
+    }
+    return names;
+  }
+
+  @Override
+  public void close() {
+    // every save is written to its own file immediately so there is nothing to release
+  }
+}
@@ -0,0 +1,75 @@
+package stockmarket.model;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class indexes the portfolios by the companies they hold, so that a new price of a company
+ * is passed on to the portfolios holding it without looking at any other portfolio. A portfolio
+ * is listed under a company from its first purchase of it and stays listed after it sells its
+ * shares, as its sales are still valued at the prices of the company. The portfolios of a company
+ * are kept at the index of its symbol ID.
+ */
+final class HoldingIndex {
+  private volatile AtomicReferenceArray<Map<String, Portfolio>> holders;
+
+  /**
+   * Constructor to initialize an empty index.
+   */
+  HoldingIndex() {
+    this.holders = new AtomicReferenceArray<>(256);
+  }
+
+  /**
+   * Method to list a portfolio under a company. Listing it again has no effect.
+   *
+   * @param symbol      ID of the ticker symbol of the company
+   * @param portfolioID unique ID of the portfolio
+   * @param portfolio   the portfolio
+   */
+  void add(int symbol, String portfolioID, Portfolio portfolio) {
+    AtomicReferenceArray<Map<String, Portfolio>> table = holders;
+    Map<String, Portfolio> portfolios = symbol < table.length() ? table.get(symbol) : null;
+    if (portfolios == null) {
+      portfolios = create(symbol);
+    }
+    portfolios.putIfAbsent(portfolioID, portfolio);
+  }
+
+  /**
+   * Method to get the portfolios listed under a company.
+   *
+   * @param symbol ID of the ticker symbol of the company
+   * @return map from unique ID of portfolio to portfolio, which changes with the index
+   */
+  Map<String, Portfolio> get(int symbol) {
+    AtomicReferenceArray<Map<String, Portfolio>> table = holders;
+    Map<String, Portfolio> portfolios = symbol < table.length() ? table.get(symbol) : null;
+    return portfolios == null ? Collections.<String, Portfolio>emptyMap()
+            : Collections.unmodifiableMap(portfolios);
+  }
+
+  /**
+   * Helper method to make the map of portfolios of a company, growing the table if needed.
+   */
+  private synchronized Map<String, Portfolio> create(int symbol) {
+    AtomicReferenceArray<Map<String, Portfolio>> table = holders;
+    if (symbol >= table.length()) {
+      AtomicReferenceArray<Map<String, Portfolio>> grown = new AtomicReferenceArray<>(
+              Math.max(symbol + 1, table.length() * 2));
+      for (int i = 0; i < table.length(); i++) {
+        grown.set(i, table.get(i));
+      }
+      table = grown;
+      holders = grown;
+    }
+    Map<String, Portfolio> portfolios = table.get(symbol);
+    if (portfolios == null) {
+      portfolios = new ConcurrentHashMap<>();
+      table.set(symbol, portfolios);
+    }
+    return portfolios;
+  }
+}
@@ -0,0 +1,15 @@
+package stockmarket.model;
+
+/**
+ * This interface represents a listener which is told how far an import of trades has got. It is
+ * called on the importing thread after every block of trades has been added to the portfolio.
+ */
+public interface ImportListener {
+
+  /**
+   * Method called after a block of trades has been added to the portfolio.
+   *
+   * @param report counts of the trades read, bought, sold, skipped and failed so far
+   */
+  void onProgress(ImportReport report);
+}
@@ -0,0 +1,195 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents the progress and outcome of importing a trade history into a portfolio. It
+ * counts the trades read, bought, sold, skipped and failed, and keeps the line and reason of the
+ * first failures so that a file with many bad lines does not fill the memory.
+ */
+public class ImportReport {
+  static final int MAX_FAILURES = 1000;
+
+  private final List<Failure> failures;
+  private long rows;
+  private long bought;
+  private long sold;
+  private long skipped;
+  private long failed;
+  private long elapsedMillis;
+
+  /**
+   * Constructor to initialize an empty report.
+   */
+  public ImportReport() {
+    this.failures = new ArrayList<>();
+  }
+
+  /**
+   * Method to record that a trade was read.
+   */
+  void addRow() {
+    rows++;
+  }
+
+  /**
+   * Method to record that lots were bought.
+   *
+   * @param lots number of lots added to the portfolio
+   */
+  void addBought(int lots) {
+    bought += lots;
+  }
+
+  /**
+   * Method to record that a sale was made.
+   */
+  void addSold() {
+    sold++;
+  }
+
+  /**
+   * Method to record that a line was not a buy or a sell, such as a dividend.
+   */
+  void addSkipped() {
+    skipped++;
+  }
+
+  /**
+   * Method to record a trade which could not be imported.
+   *
+   * @param line   line of the file holding the trade
+   * @param reason reason the trade was not imported
+   */
+  void addFailure(long line, String reason) {
+    failed++;
+    if (failures.size() < MAX_FAILURES) {
+      failures.add(new Failure(line, reason));
+    }
+  }
+
+  /**
+   * Method to set the wall clock time taken by the whole import.
+   *
+   * @param elapsedMillis total time in milliseconds
+   */
+  void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  /**
+   * Method to get the number of trades read.
+   *
+   * @return number of lines after the header which were not empty
+   */
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Method to get the number of lots bought.
+   *
+   * @return number of buys imported
+   */
+  public long getBought() {
+    return bought;
+  }
+
+  /**
+   * Method to get the number of sales made.
+   *
+   * @return number of sells imported
+   */
+  public long getSold() {
+    return sold;
+  }
+
+  /**
+   * Method to get the number of lines which were neither a buy nor a sell.
+   *
+   * @return number of skipped lines
+   */
+  public long getSkipped() {
+    return skipped;
+  }
+
+  /**
+   * Method to get the number of trades which could not be imported.
+   *
+   * @return number of failed trades, including those past the kept failures
+   */
+  public long getFailed() {
+    return failed;
+  }
+
+  /**
+   * Method to get the line and reason of the first trades which could not be imported.
+   *
+   * @return list of at most 1000 failures in the order of the file
+   */
+  public List<Failure> getFailures() {
+    return Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * Method to get the wall clock time taken by the whole import.
+   *
+   * @return total time in milliseconds
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder report = new StringBuilder();
+    report.append("Read ").append(rows).append(" trades in ").append(elapsedMillis)
+            .append(" ms: ").append(bought).append(" bought, ").append(sold).append(" sold, ")
+            .append(skipped).append(" skipped, ").append(failed).append(" failed\n");
+    for (Failure failure : failures) {
+      report.append(failure).append("\n");
+    }
+    if (failed > failures.size()) {
+      report.append("... and ").append(failed - failures.size()).append(" more failures\n");
+    }
+    return report.toString();
+  }
+
+  /**
+   * This class represents a trade which could not be imported.
+   */
+  public static class Failure {
+    private final long line;
+    private final String reason;
+
+    private Failure(long line, String reason) {
+      this.line = line;
+      this.reason = reason;
+    }
+
+    /**
+     * Method to get the line of the file holding the trade.
+     *
+     * @return line number counted from 1
+     */
+    public long getLine() {
+      return line;
+    }
+
+    /**
+     * Method to get the reason the trade was not imported.
+     *
+     * @return reason of the failure
+     */
+    public String getReason() {
+      return reason;
+    }
+
+    @Override
+    public String toString() {
+      return "Line " + line + ": " + reason;
+    }
+  }
+}
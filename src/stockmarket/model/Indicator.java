@@ -0,0 +1,33 @@
+package stockmarket.model;
+
+/**
+ * This interface represents a technical indicator which is updated one bar at a time. Every update
+ * takes constant time and memory whatever the number of bars seen before, and gives the same
+ * values as the batch kernels of Indicators.
+ */
+public interface Indicator {
+
+  /**
+   * Method to add the next bar.
+   *
+   * @param high  highest price of the bar
+   * @param low   lowest price of the bar
+   * @param close closing price of the bar
+   */
+  void update(double high, double low, double close);
+
+  /**
+   * Method to check whether enough bars were added for the indicator to have a value.
+   *
+   * @return true if the indicator has a value
+   */
+  boolean isReady();
+
+  /**
+   * Method to get a value of the indicator after the last bar added.
+   *
+   * @param output index of the value, as listed by the type of the indicator
+   * @return the value, or NaN if the indicator is not ready
+   */
+  double getValue(int output);
+}
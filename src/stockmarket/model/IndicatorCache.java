@@ -0,0 +1,104 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class keeps the computed indicators of every company and parameter set. An indicator is
+ * computed with the batch kernels the first time it is asked for. When bars have been appended to
+ * the series since then, only the new bars are run through the incremental calculator, and when
+ * the store has replaced the series, the indicator is computed again from the start.
+ */
+public final class IndicatorCache {
+  private final PriceStore store;
+  private final Map<String, Map<IndicatorSpec, Entry>> entries;
+
+  /**
+   * Constructor to initialize an empty cache over a price store.
+   *
+   * @param store price store holding the history of the companies
+   */
+  public IndicatorCache(PriceStore store) {
+    this.store = store;
+    this.entries = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * Method to get the values of an indicator for every bar of a company.
+   *
+   * @param ticker ticker symbol of the company
+   * @param spec   indicator and its parameters
+   * @return the values of the indicator
+   * @throws IllegalArgumentException if no data is available for the company
+   */
+  public IndicatorSeries get(String ticker, IndicatorSpec spec) throws IllegalArgumentException {
+    PriceSeries series = store.getSeries(ticker);
+    Map<IndicatorSpec, Entry> company = entries.computeIfAbsent(ticker.toLowerCase(),
+            k -> new ConcurrentHashMap<>());
+    Entry entry = company.get(spec);
+    if (entry == null || entry.source != series) {
+      entry = new Entry(spec, series);
+      company.put(spec, entry);
+    }
+    return entry.extend();
+  }
+
+  /**
+   * Computed values of one indicator over one price series.
+   */
+  private static final class Entry {
+    private final IndicatorSpec spec;
+    private final PriceSeries source;
+    private Indicator calculator;
+    private double[][] values;
+    private int size;
+
+    Entry(IndicatorSpec spec, PriceSeries source) {
+      this.spec = spec;
+      this.source = source;
+      int bars = source.size();
+      double[] high = new double[bars];
+      double[] low = new double[bars];
+      double[] close = new double[bars];
+      for (int i = 0; i < bars; i++) {
+        high[i] = source.getHigh(i);
+        low[i] = source.getLow(i);
+        close[i] = source.getClose(i);
+      }
+      this.values = Indicators.compute(spec, high, low, close);
+      this.size = bars;
+    }
+
+    /**
+     * Method to compute the bars appended since the last call and get the values so far. The
+     * calculator is only built the first time the series grows, by running it over the bars the
+     * batch kernels already computed.
+     */
+    synchronized IndicatorSeries extend() {
+      int bars = source.size();
+      if (bars > size) {
+        if (calculator == null) {
+          calculator = Indicators.create(spec);
+          for (int i = 0; i < size; i++) {
+            calculator.update(source.getHigh(i), source.getLow(i), source.getClose(i));
+          }
+        }
+        if (bars > values[0].length) {
+          int capacity = Math.max(bars, values[0].length + (values[0].length >> 1) + 1);
+          for (int output = 0; output < values.length; output++) {
+            values[output] = Arrays.copyOf(values[output], capacity);
+          }
+        }
+        for (int i = size; i < bars; i++) {
+          calculator.update(source.getHigh(i), source.getLow(i), source.getClose(i));
+          for (int output = 0; output < values.length; output++) {
+            values[output][i] = calculator.getValue(output);
+          }
+        }
+        size = bars;
+      }
+      return new IndicatorSeries(spec, source, size, values.clone());
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the values of a technical indicator for the bars of a price series, as they
+ * were when it was computed. Later bars of the series do not change it.
+ */
+public final class IndicatorSeries {
+  private final IndicatorSpec spec;
+  private final PriceSeries source;
+  private final int size;
+  private final double[][] values;
+
+  /**
+   * Constructor to initialize the values of an indicator. The arrays may be longer than the number
+   * of bars, and only their first entries are read.
+   *
+   * @param spec   indicator and its parameters
+   * @param source price series the indicator was computed over
+   * @param size   number of bars computed
+   * @param values one array per output of the indicator
+   */
+  IndicatorSeries(IndicatorSpec spec, PriceSeries source, int size, double[][] values) {
+    this.spec = spec;
+    this.source = source;
+    this.size = size;
+    this.values = values;
+  }
+
+  /**
+   * Method to get the indicator and its parameters.
+   *
+   * @return the spec of the indicator
+   */
+  public IndicatorSpec getSpec() {
+    return spec;
+  }
+
+  /**
+   * Method to get the price series the indicator was computed over.
+   *
+   * @return the price series
+   */
+  public PriceSeries getSource() {
+    return source;
+  }
+
+  /**
+   * Method to get the number of bars computed.
+   *
+   * @return number of bars
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Method to get the number of values the indicator gives for every bar.
+   *
+   * @return number of outputs
+   */
+  public int getOutputs() {
+    return values.length;
+  }
+
+  /**
+   * Method to get one value of the indicator.
+   *
+   * @param output output of the indicator, such as 1 for the upper Bollinger band
+   * @param index  index of the bar in the price series
+   * @return the value, or NaN before the indicator has one
+   * @throws IllegalArgumentException if the output or the bar does not exist
+   */
+  public double getValue(int output, int index) throws IllegalArgumentException {
+    if (output < 0 || output >= values.length || index < 0 || index >= size) {
+      throw new IllegalArgumentException("No value for output " + output + " at bar " + index);
+    }
+    return values[output][index];
+  }
+
+  /**
+   * Method to get every value of one output of the indicator.
+   *
+   * @param output output of the indicator
+   * @return a copy of the values, one per bar
+   * @throws IllegalArgumentException if the output does not exist
+   */
+  public double[] getValues(int output) throws IllegalArgumentException {
+    if (output < 0 || output >= values.length) {
+      throw new IllegalArgumentException(spec + " has no output " + output);
+    }
+    return Arrays.copyOf(values[output], size);
+  }
+}
@@ -0,0 +1,160 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a technical indicator together with its parameters. Two specs with the
+ * same type and parameters are equal, so a spec can be used to look up computed values.
+ */
+public final class IndicatorSpec {
+  private final IndicatorType type;
+  private final double[] parameters;
+
+  /**
+   * Constructor to initialize a spec after checking its parameters.
+   *
+   * @param type       type of the indicator
+   * @param parameters parameters of the indicator in the order of its factory method
+   * @throws IllegalArgumentException if the number of parameters does not match the type, a period
+   *                                  is not a positive whole number or a band width is not
+   *                                  positive
+   */
+  public IndicatorSpec(IndicatorType type, double... parameters) throws IllegalArgumentException {
+    if (parameters.length != type.getParameters()) {
+      throw new IllegalArgumentException(type + " takes " + type.getParameters()
+              + " parameters");
+    }
+    for (int i = 0; i < parameters.length; i++) {
+      boolean width = type == IndicatorType.BOLLINGER && i == 1;
+      if (parameters[i] <= 0 || !width && parameters[i] != Math.rint(parameters[i])) {
+        throw new IllegalArgumentException(width ? "Band width should be positive"
+                : "period should be a positive number of days");
+      }
+    }
+    if (type == IndicatorType.MACD && parameters[0] >= parameters[1]) {
+      throw new IllegalArgumentException("Fast period should be shorter than slow period");
+    }
+    this.type = type;
+    this.parameters = parameters.clone();
+  }
+
+  /**
+   * Method to create the spec of a simple moving average.
+   *
+   * @param period number of bars averaged
+   * @return the spec
+   */
+  public static IndicatorSpec sma(int period) {
+    return new IndicatorSpec(IndicatorType.SMA, period);
+  }
+
+  /**
+   * Method to create the spec of an exponential moving average.
+   *
+   * @param period number of bars of the smoothing
+   * @return the spec
+   */
+  public static IndicatorSpec ema(int period) {
+    return new IndicatorSpec(IndicatorType.EMA, period);
+  }
+
+  /**
+   * Method to create the spec of a relative strength index.
+   *
+   * @param period number of bars of the smoothing
+   * @return the spec
+   */
+  public static IndicatorSpec rsi(int period) {
+    return new IndicatorSpec(IndicatorType.RSI, period);
+  }
+
+  /**
+   * Method to create the spec of a moving average convergence divergence.
+   *
+   * @param fast   period of the fast average
+   * @param slow   period of the slow average
+   * @param signal period of the signal average
+   * @return the spec
+   */
+  public static IndicatorSpec macd(int fast, int slow, int signal) {
+    return new IndicatorSpec(IndicatorType.MACD, fast, slow, signal);
+  }
+
+  /**
+   * Method to create the spec of Bollinger bands.
+   *
+   * @param period number of bars averaged
+   * @param width  number of standard deviations between the average and each band
+   * @return the spec
+   */
+  public static IndicatorSpec bollinger(int period, double width) {
+    return new IndicatorSpec(IndicatorType.BOLLINGER, period, width);
+  }
+
+  /**
+   * Method to create the spec of an average true range.
+   *
+   * @param period number of bars of the smoothing
+   * @return the spec
+   */
+  public static IndicatorSpec atr(int period) {
+    return new IndicatorSpec(IndicatorType.ATR, period);
+  }
+
+  /**
+   * Method to get the type of the indicator.
+   *
+   * @return the indicator type
+   */
+  public IndicatorType getType() {
+    return type;
+  }
+
+  /**
+   * Method to get a parameter of the indicator.
+   *
+   * @param index index of the parameter
+   * @return value of the parameter
+   */
+  public double getParameter(int index) {
+    return parameters[index];
+  }
+
+  /**
+   * Helper method to get a parameter which is a period.
+   */
+  int period(int index) {
+    return (int) parameters[index];
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IndicatorSpec)) {
+      return false;
+    }
+    IndicatorSpec other = (IndicatorSpec) o;
+    return type == other.type && Arrays.equals(parameters, other.parameters);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * type.hashCode() + Arrays.hashCode(parameters);
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder(type.toString()).append("(");
+    for (int i = 0; i < parameters.length; i++) {
+      if (i > 0) {
+        result.append(",");
+      }
+      double parameter = parameters[i];
+      result.append(parameter == Math.rint(parameter) ? String.valueOf((long) parameter)
+              : String.valueOf(parameter));
+    }
+    return result.append(")").toString();
+  }
+}
@@ -0,0 +1,60 @@
+package stockmarket.model;
+
+/**
+ * This enum represents the technical indicators which can be computed over a price series, with
+ * the number of parameters each one takes and the number of values it gives for every bar.
+ */
+public enum IndicatorType {
+  /**
+   * Simple moving average of the closing price over a period.
+   */
+  SMA(1, 1),
+  /**
+   * Exponential moving average of the closing price over a period, seeded with the simple
+   * average of the first period.
+   */
+  EMA(1, 1),
+  /**
+   * Relative strength index over a period, using Wilder's smoothing.
+   */
+  RSI(1, 1),
+  /**
+   * Difference of a fast and a slow exponential average, its signal average and the histogram of
+   * the two.
+   */
+  MACD(3, 3),
+  /**
+   * Simple moving average with an upper and a lower band a number of standard deviations away.
+   */
+  BOLLINGER(2, 3),
+  /**
+   * Average true range over a period, using Wilder's smoothing.
+   */
+  ATR(1, 1);
+
+  private final int parameters;
+  private final int outputs;
+
+  IndicatorType(int parameters, int outputs) {
+    this.parameters = parameters;
+    this.outputs = outputs;
+  }
+
+  /**
+   * Method to get the number of parameters the indicator takes.
+   *
+   * @return number of parameters
+   */
+  public int getParameters() {
+    return parameters;
+  }
+
+  /**
+   * Method to get the number of values the indicator gives for every bar.
+   *
+   * @return number of outputs
+   */
+  public int getOutputs() {
+    return outputs;
+  }
+}
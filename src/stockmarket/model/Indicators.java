@@ -0,0 +1,468 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the kernels of the technical indicators. The batch kernels take whole primitive
+ * arrays of prices and fill an array of the same length in one pass, with NaN for the bars before
+ * the indicator has a value. The incremental calculators apply the same arithmetic one bar at a
+ * time, so a series extended bar by bar ends with exactly the values of the batch kernels.
+ */
+public final class Indicators {
+
+  /**
+   * Constructor which is private as this class only has static methods.
+   */
+  private Indicators() {
+  }
+
+  /**
+   * Method to compute an indicator over whole arrays of prices.
+   *
+   * @param spec  indicator and its parameters
+   * @param high  highest price of every bar
+   * @param low   lowest price of every bar
+   * @param close closing price of every bar
+   * @return one array per output of the indicator, each as long as the prices
+   */
+  public static double[][] compute(IndicatorSpec spec, double[] high, double[] low,
+                                   double[] close) {
+    switch (spec.getType()) {
+      case SMA:
+        return new double[][]{sma(close, spec.period(0))};
+      case EMA:
+        return new double[][]{ema(close, spec.period(0))};
+      case RSI:
+        return new double[][]{rsi(close, spec.period(0))};
+      case MACD:
+        return macd(close, spec.period(0), spec.period(1), spec.period(2));
+      case BOLLINGER:
+        return bollinger(close, spec.period(0), spec.getParameter(1));
+      case ATR:
+        return new double[][]{atr(high, low, close, spec.period(0))};
+      default:
+        throw new IllegalArgumentException("Unknown indicator " + spec.getType());
+    }
+  }
+
+  /**
+   * Method to create the incremental calculator of an indicator.
+   *
+   * @param spec indicator and its parameters
+   * @return a calculator which has seen no bar
+   */
+  public static Indicator create(IndicatorSpec spec) {
+    switch (spec.getType()) {
+      case SMA:
+        return new Average(spec.period(0), 0);
+      case EMA:
+        return new Exponential(spec.period(0));
+      case RSI:
+        return new StrengthIndex(spec.period(0));
+      case MACD:
+        return new Convergence(spec.period(0), spec.period(1), spec.period(2));
+      case BOLLINGER:
+        return new Average(spec.period(0), spec.getParameter(1));
+      case ATR:
+        return new TrueRange(spec.period(0));
+      default:
+        throw new IllegalArgumentException("Unknown indicator " + spec.getType());
+    }
+  }
+
+  /**
+   * Method to compute the simple moving average of a series.
+   *
+   * @param values values to be averaged
+   * @param period number of values averaged
+   * @return the average ending at every value
+   */
+  public static double[] sma(double[] values, int period) {
+    return bollinger(values, period, 0)[0];
+  }
+
+  /**
+   * Method to compute the exponential moving average of a series, seeded with the simple average
+   * of the first period.
+   *
+   * @param values values to be averaged
+   * @param period number of values of the smoothing
+   * @return the average at every value
+   */
+  public static double[] ema(double[] values, int period) {
+    double[] result = nans(values.length);
+    double alpha = 2.0 / (period + 1);
+    double sum = 0;
+    double average = 0;
+    for (int i = 0; i < values.length; i++) {
+      if (i < period) {
+        sum += values[i];
+        if (i == period - 1) {
+          average = sum / period;
+          result[i] = average;
+        }
+      } else {
+        average += alpha * (values[i] - average);
+        result[i] = average;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Method to compute the relative strength index of a series of closing prices.
+   *
+   * @param close  closing prices
+   * @param period number of changes of the smoothing
+   * @return the index between 0 and 100 at every price
+   */
+  public static double[] rsi(double[] close, int period) {
+    double[] result = nans(close.length);
+    double gain = 0;
+    double loss = 0;
+    for (int i = 1; i < close.length; i++) {
+      double change = close[i] - close[i - 1];
+      double up = Math.max(change, 0);
+      double down = Math.max(-change, 0);
+      if (i <= period) {
+        gain += up / period;
+        loss += down / period;
+      } else {
+        gain = (gain * (period - 1) + up) / period;
+        loss = (loss * (period - 1) + down) / period;
+      }
+      if (i >= period) {
+        result[i] = strength(gain, loss);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Method to compute the moving average convergence divergence of a series of closing prices.
+   *
+   * @param close  closing prices
+   * @param fast   period of the fast average
+   * @param slow   period of the slow average
+   * @param signal period of the signal average of the difference
+   * @return the difference of the averages, its signal average and the histogram of the two
+   */
+  public static double[][] macd(double[] close, int fast, int slow, int signal) {
+    double[] fastAverage = ema(close, fast);
+    double[] slowAverage = ema(close, slow);
+    double[] line = nans(close.length);
+    for (int i = slow - 1; i < close.length; i++) {
+      line[i] = fastAverage[i] - slowAverage[i];
+    }
+    double[] signalLine = nans(close.length);
+    double[] histogram = nans(close.length);
+    if (close.length >= slow) {
+      double[] smoothed = ema(Arrays.copyOfRange(line, slow - 1, close.length), signal);
+      for (int i = slow - 1; i < close.length; i++) {
+        signalLine[i] = smoothed[i - slow + 1];
+        histogram[i] = line[i] - signalLine[i];
+      }
+    }
+    return new double[][]{line, signalLine, histogram};
+  }
+
+  /**
+   * Method to compute the Bollinger bands of a series of closing prices. The standard deviation is
+   * that of the whole window, and the window is moved by replacing its oldest value, which keeps
+   * the deviation accurate over any number of bars.
+   *
+   * @param close  closing prices
+   * @param period number of prices averaged
+   * @param width  number of standard deviations between the average and each band
+   * @return the average, the upper band and the lower band at every price
+   */
+  public static double[][] bollinger(double[] close, int period, double width) {
+    double[] middle = nans(close.length);
+    double[] upper = nans(close.length);
+    double[] lower = nans(close.length);
+    double mean = 0;
+    double squares = 0;
+    for (int i = 0; i < close.length; i++) {
+      if (i < period) {
+        double delta = close[i] - mean;
+        mean += delta / (i + 1);
+        squares += delta * (close[i] - mean);
+      } else {
+        double old = close[i - period];
+        double previous = mean;
+        mean += (close[i] - old) / period;
+        squares += (close[i] - old) * (close[i] - mean + old - previous);
+      }
+      if (i >= period - 1) {
+        double band = width * Math.sqrt(Math.max(0, squares) / period);
+        middle[i] = mean;
+        upper[i] = mean + band;
+        lower[i] = mean - band;
+      }
+    }
+    return new double[][]{middle, upper, lower};
+  }
+
+  /**
+   * Method to compute the average true range of a series of bars.
+   *
+   * @param high   highest price of every bar
+   * @param low    lowest price of every bar
+   * @param close  closing price of every bar
+   * @param period number of bars of the smoothing
+   * @return the average true range at every bar
+   */
+  public static double[] atr(double[] high, double[] low, double[] close, int period) {
+    double[] result = nans(close.length);
+    double average = 0;
+    for (int i = 0; i < close.length; i++) {
+      double range = trueRange(high[i], low[i], i == 0 ? Double.NaN : close[i - 1]);
+      if (i < period) {
+        average += range / period;
+      } else {
+        average = (average * (period - 1) + range) / period;
+      }
+      if (i >= period - 1) {
+        result[i] = average;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Helper method to get an array filled with NaN.
+   */
+  private static double[] nans(int length) {
+    double[] result = new double[length];
+    Arrays.fill(result, Double.NaN);
+    return result;
+  }
+
+  /**
+   * Helper method to get the relative strength from the average gain and loss.
+   */
+  private static double strength(double gain, double loss) {
+    return loss == 0 ? 100 : 100 - 100 / (1 + gain / loss);
+  }
+
+  /**
+   * Helper method to get the true range of a bar, which also covers a gap from the previous
+   * close.
+   */
+  private static double trueRange(double high, double low, double previousClose) {
+    double range = high - low;
+    if (Double.isNaN(previousClose)) {
+      return range;
+    }
+    return Math.max(range, Math.max(Math.abs(high - previousClose),
+            Math.abs(low - previousClose)));
+  }
+
+  /**
+   * Incremental simple moving average, with Bollinger bands when a width is given.
+   */
+  private static final class Average implements Indicator {
+    private final double[] window;
+    private final double width;
+    private int count;
+    private double mean;
+    private double squares;
+
+    Average(int period, double width) {
+      this.window = new double[period];
+      this.width = width;
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+      int period = window.length;
+      int slot = count % period;
+      if (count < period) {
+        double delta = close - mean;
+        mean += delta / (count + 1);
+        squares += delta * (close - mean);
+      } else {
+        double old = window[slot];
+        double previous = mean;
+        mean += (close - old) / period;
+        squares += (close - old) * (close - mean + old - previous);
+      }
+      window[slot] = close;
+      count++;
+    }
+
+    @Override
+    public boolean isReady() {
+      return count >= window.length;
+    }
+
+    @Override
+    public double getValue(int output) {
+      if (!isReady()) {
+        return Double.NaN;
+      }
+      double band = width * Math.sqrt(Math.max(0, squares) / window.length);
+      return output == 0 ? mean : output == 1 ? mean + band : mean - band;
+    }
+  }
+
+  /**
+   * Incremental exponential moving average.
+   */
+  private static final class Exponential implements Indicator {
+    private final int period;
+    private final double alpha;
+    private int count;
+    private double sum;
+    private double average;
+
+    Exponential(int period) {
+      this.period = period;
+      this.alpha = 2.0 / (period + 1);
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+      if (count < period) {
+        sum += close;
+        if (count == period - 1) {
+          average = sum / period;
+        }
+      } else {
+        average += alpha * (close - average);
+      }
+      count++;
+    }
+
+    @Override
+    public boolean isReady() {
+      return count >= period;
+    }
+
+    @Override
+    public double getValue(int output) {
+      return isReady() ? average : Double.NaN;
+    }
+  }
+
+  /**
+   * Incremental relative strength index.
+   */
+  private static final class StrengthIndex implements Indicator {
+    private final int period;
+    private int count;
+    private double previous;
+    private double gain;
+    private double loss;
+
+    StrengthIndex(int period) {
+      this.period = period;
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+      if (count > 0) {
+        double change = close - previous;
+        double up = Math.max(change, 0);
+        double down = Math.max(-change, 0);
+        if (count <= period) {
+          gain += up / period;
+          loss += down / period;
+        } else {
+          gain = (gain * (period - 1) + up) / period;
+          loss = (loss * (period - 1) + down) / period;
+        }
+      }
+      previous = close;
+      count++;
+    }
+
+    @Override
+    public boolean isReady() {
+      return count > period;
+    }
+
+    @Override
+    public double getValue(int output) {
+      return isReady() ? strength(gain, loss) : Double.NaN;
+    }
+  }
+
+  /**
+   * Incremental moving average convergence divergence.
+   */
+  private static final class Convergence implements Indicator {
+    private final Exponential fast;
+    private final Exponential slow;
+    private final Exponential signal;
+
+    Convergence(int fast, int slow, int signal) {
+      this.fast = new Exponential(fast);
+      this.slow = new Exponential(slow);
+      this.signal = new Exponential(signal);
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+      fast.update(high, low, close);
+      slow.update(high, low, close);
+      if (slow.isReady()) {
+        signal.update(0, 0, fast.average - slow.average);
+      }
+    }
+
+    @Override
+    public boolean isReady() {
+      return slow.isReady();
+    }
+
+    @Override
+    public double getValue(int output) {
+      if (!isReady()) {
+        return Double.NaN;
+      }
+      double line = fast.average - slow.average;
+      if (output == 0) {
+        return line;
+      }
+      double smoothed = signal.getValue(0);
+      return output == 1 ? smoothed : line - smoothed;
+    }
+  }
+
+  /**
+   * Incremental average true range.
+   */
+  private static final class TrueRange implements Indicator {
+    private final int period;
+    private int count;
+    private double previousClose = Double.NaN;
+    private double average;
+
+    TrueRange(int period) {
+      this.period = period;
+    }
+
+    @Override
+    public void update(double high, double low, double close) {
+      double range = trueRange(high, low, previousClose);
+      if (count < period) {
+        average += range / period;
+      } else {
+        average = (average * (period - 1) + range) / period;
+      }
+      previousClose = close;
+      count++;
+    }
+
+    @Override
+    public boolean isReady() {
+      return count >= period;
+    }
+
+    @Override
+    public double getValue(int output) {
+      return isReady() ? average : Double.NaN;
+    }
+  }
+}
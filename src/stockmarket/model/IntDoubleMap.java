@@ -0,0 +1,91 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class maps non-negative int keys to doubles in insertion order, such as the weight or the
+ * number of shares of every company of a portfolio keyed by symbol ID, without boxing either.
+ */
+final class IntDoubleMap extends IntKeyTable {
+  private double[] values;
+
+  /**
+   * Constructor to initialize an empty map.
+   */
+  IntDoubleMap() {
+    this(8);
+  }
+
+  /**
+   * Constructor to initialize an empty map with room for a number of keys.
+   *
+   * @param capacity number of keys held before the map grows
+   */
+  IntDoubleMap(int capacity) {
+    super(capacity);
+    this.values = new double[Math.max(capacity, 2)];
+  }
+
+  /**
+   * Method to get the value of a key.
+   *
+   * @param key          key to be looked up
+   * @param defaultValue value returned if the key is not in the map
+   * @return the value of the key
+   */
+  double get(int key, double defaultValue) {
+    int entry = find(key);
+    return entry < 0 ? defaultValue : values[entry];
+  }
+
+  /**
+   * Method to set the value of a key.
+   *
+   * @param key   key to be set
+   * @param value new value of the key
+   */
+  void put(int key, double value) {
+    int entry = find(key);
+    // insert may grow the values, so the array is read after it
+    if (entry < 0) {
+      entry = insert(key);
+    }
+    values[entry] = value;
+  }
+
+  /**
+   * Method to add to the value of a key, which starts at 0 if the key is not in the map.
+   *
+   * @param key    key to be added to
+   * @param amount amount added
+   */
+  void add(int key, double amount) {
+    int entry = find(key);
+    if (entry >= 0) {
+      values[entry] += amount;
+    } else {
+      int added = insert(key);
+      values[added] = amount;
+    }
+  }
+
+  /**
+   * Method to get the value of an entry.
+   *
+   * @param entry position of the entry
+   * @return value of the entry
+   */
+  double valueAt(int entry) {
+    return values[entry];
+  }
+
+  @Override
+  void resize(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override
+  void move(int from, int to) {
+    values[to] = values[from];
+  }
+}
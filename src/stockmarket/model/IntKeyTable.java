@@ -0,0 +1,221 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class is the part shared by the maps keyed by a non-negative int, such as a symbol ID from
+ * the symbol table. Keys are kept in insertion order in a dense array of entries and found through
+ * an open addressing table of entry positions, so a lookup hashes an int and reads two arrays
+ * instead of boxing the key and following a chain of nodes. A removed entry leaves a gap which is
+ * closed the next time the entries run out of room.
+ */
+abstract class IntKeyTable {
+  // key of a removed entry, which no lookup can match since keys are non-negative
+  private static final int REMOVED = -1;
+
+  private int[] keys;
+  // position of an entry plus one in every used slot, 0 in a free slot
+  private int[] slots;
+  private int count;
+  private int size;
+
+  /**
+   * Constructor to initialize an empty table.
+   *
+   * @param capacity number of entries held before the table grows
+   */
+  IntKeyTable(int capacity) {
+    this.keys = new int[Math.max(capacity, 2)];
+    this.slots = new int[slotsFor(keys.length)];
+  }
+
+  /**
+   * Method to get the number of keys in the map.
+   *
+   * @return number of keys
+   */
+  final int size() {
+    return size;
+  }
+
+  /**
+   * Method to check whether the map holds no key.
+   *
+   * @return true if the map is empty
+   */
+  final boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Method to check whether the map holds a key.
+   *
+   * @param key key to be looked up
+   * @return true if the key is in the map
+   */
+  final boolean containsKey(int key) {
+    return find(key) >= 0;
+  }
+
+  /**
+   * Method to get the first entry in insertion order. Entries are walked with
+   * {@code for (int i = map.first(); i >= 0; i = map.next(i))}.
+   *
+   * @return position of the first entry, or -1 if the map is empty
+   */
+  final int first() {
+    return next(-1);
+  }
+
+  /**
+   * Method to get the entry after another in insertion order.
+   *
+   * @param entry position of an entry
+   * @return position of the next entry, or -1 if there is none
+   */
+  final int next(int entry) {
+    for (int i = entry + 1; i < count; i++) {
+      if (keys[i] != REMOVED) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Method to get the key of an entry.
+   *
+   * @param entry position of the entry
+   * @return key of the entry
+   */
+  final int keyAt(int entry) {
+    return keys[entry];
+  }
+
+  /**
+   * Helper method to find the entry of a key.
+   *
+   * @return position of the entry, or -1 if the key is not in the map
+   */
+  final int find(int key) {
+    int mask = slots.length - 1;
+    for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+      int entry = slots[slot] - 1;
+      if (entry < 0) {
+        return -1;
+      }
+      if (keys[entry] == key) {
+        return entry;
+      }
+    }
+  }
+
+  /**
+   * Helper method to add an entry for a key which is not in the map.
+   *
+   * @return position of the new entry
+   * @throws IllegalArgumentException if the key is negative
+   */
+  final int insert(int key) throws IllegalArgumentException {
+    if (key < 0) {
+      throw new IllegalArgumentException("Key cannot be negative");
+    }
+    if (count == keys.length) {
+      rebuild();
+    }
+    int entry = count++;
+    keys[entry] = key;
+    place(entry);
+    size++;
+    return entry;
+  }
+
+  /**
+   * Helper method to remove the entry of a key. The value of the entry is left for the subclass
+   * to clear.
+   *
+   * @return position of the removed entry, or -1 if the key is not in the map
+   */
+  final int delete(int key) {
+    int entry = find(key);
+    if (entry >= 0) {
+      // the slot keeps pointing at the entry so that probes for other keys go on past it
+      keys[entry] = REMOVED;
+      size--;
+    }
+    return entry;
+  }
+
+  /**
+   * Helper method to make room for another entry, closing the gaps of removed entries if they are
+   * at least half of the entries and doubling the room otherwise.
+   */
+  private void rebuild() {
+    if (size >= count / 2) {
+      keys = Arrays.copyOf(keys, keys.length * 2);
+      resize(keys.length);
+    }
+    int live = 0;
+    for (int i = 0; i < count; i++) {
+      if (keys[i] != REMOVED) {
+        if (i != live) {
+          keys[live] = keys[i];
+          move(i, live);
+        }
+        live++;
+      }
+    }
+    count = live;
+    slots = new int[slotsFor(keys.length)];
+    for (int i = 0; i < count; i++) {
+      place(i);
+    }
+  }
+
+  /**
+   * Helper method to put an entry in the first free slot of its probe sequence.
+   */
+  private void place(int entry) {
+    int mask = slots.length - 1;
+    int slot = hash(keys[entry]) & mask;
+    while (slots[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    slots[slot] = entry + 1;
+  }
+
+  /**
+   * Helper method to get the number of slots for a number of entries, which keeps the table at
+   * most half full.
+   */
+  private static int slotsFor(int capacity) {
+    int slots = 4;
+    while (slots < capacity * 2) {
+      slots <<= 1;
+    }
+    return slots;
+  }
+
+  /**
+   * Helper method to spread consecutive keys over the table.
+   */
+  private static int hash(int key) {
+    int h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  /**
+   * Method to grow the values to the new number of entries.
+   *
+   * @param capacity new number of entries
+   */
+  abstract void resize(int capacity);
+
+  /**
+   * Method to move a value to a new position when the gaps of removed entries are closed.
+   *
+   * @param from old position of the entry
+   * @param to   new position of the entry
+   */
+  abstract void move(int from, int to);
+}
@@ -0,0 +1,158 @@
+package stockmarket.model;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * This class maps non-negative int keys to objects, keeping the keys in insertion order like a
+ * LinkedHashMap but without boxing a key or allocating a node per entry.
+ *
+ * @param <V> type of the values
+ */
+final class IntMap<V> extends IntKeyTable {
+  private Object[] values;
+
+  /**
+   * Constructor to initialize an empty map.
+   */
+  IntMap() {
+    this(8);
+  }
+
+  /**
+   * Constructor to initialize an empty map with room for a number of keys.
+   *
+   * @param capacity number of keys held before the map grows
+   */
+  IntMap(int capacity) {
+    super(capacity);
+    this.values = new Object[Math.max(capacity, 2)];
+  }
+
+  /**
+   * Method to get the value of a key.
+   *
+   * @param key key to be looked up
+   * @return the value, or null if the key is not in the map
+   */
+  V get(int key) {
+    int entry = find(key);
+    return entry < 0 ? null : valueAt(entry);
+  }
+
+  /**
+   * Method to set the value of a key.
+   *
+   * @param key   key to be set
+   * @param value new value of the key
+   * @return the previous value, or null if the key was not in the map
+   */
+  V put(int key, V value) {
+    int entry = find(key);
+    if (entry >= 0) {
+      V previous = valueAt(entry);
+      values[entry] = value;
+      return previous;
+    }
+    // insert may grow the values, so the array is read after it
+    int added = insert(key);
+    values[added] = value;
+    return null;
+  }
+
+  /**
+   * Method to get the value of a key, adding one made by a factory if the key is not in the map.
+   *
+   * @param key     key to be looked up
+   * @param factory function making the value of a new key
+   * @return the value of the key
+   */
+  V computeIfAbsent(int key, IntFunction<? extends V> factory) {
+    int entry = find(key);
+    if (entry >= 0) {
+      return valueAt(entry);
+    }
+    V value = factory.apply(key);
+    int added = insert(key);
+    values[added] = value;
+    return value;
+  }
+
+  /**
+   * Method to remove a key.
+   *
+   * @param key key to be removed
+   * @return the value of the key, or null if it was not in the map
+   */
+  V remove(int key) {
+    int entry = delete(key);
+    if (entry < 0) {
+      return null;
+    }
+    V previous = valueAt(entry);
+    values[entry] = null;
+    return previous;
+  }
+
+  /**
+   * Method to get the value of an entry.
+   *
+   * @param entry position of the entry
+   * @return value of the entry
+   */
+  @SuppressWarnings("unchecked")
+  V valueAt(int entry) {
+    return (V) values[entry];
+  }
+
+  /**
+   * Method to get a view of the values in insertion order.
+   *
+   * @return the values, which change with the map
+   */
+  Collection<V> values() {
+    return new AbstractCollection<V>() {
+      @Override
+      public Iterator<V> iterator() {
+        return new Iterator<V>() {
+          private int entry = first();
+
+          @Override
+          public boolean hasNext() {
+            return entry >= 0;
+          }
+
+          @Override
+          public V next() {
+            if (entry < 0) {
+              throw new NoSuchElementException();
+            }
+            V value = valueAt(entry);
+            entry = IntMap.this.next(entry);
+            return value;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return IntMap.this.size();
+      }
+    };
+  }
+
+  @Override
+  void resize(int capacity) {
+    values = Arrays.copyOf(values, capacity);
+  }
+
+  @Override
+  void move(int from, int to) {
+    values[to] = values[from];
+    values[from] = null;
+  }
+}
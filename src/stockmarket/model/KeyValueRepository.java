@@ -0,0 +1,135 @@
+package stockmarket.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * This class persists all portfolios and strategies in a single embedded key value store file.
+ * Each portfolio and strategy is stored as a binary snapshot under a key made of its kind and its
+ * name, so listing them is an index range scan instead of a directory scan and several portfolios
+ * can be saved in one atomic commit.
+ */
+public class KeyValueRepository implements PortfolioRepository, StrategyRepository {
+  private static final String PORTFOLIO_PREFIX = "portfolio/";
+  private static final String STRATEGY_PREFIX = "strategy/";
+  // '0' is the character right after '/', so it ends a range scan over one prefix
+  private static final char PREFIX_END = '0';
+
+  private final KeyValueStore store;
+
+  /**
+   * Constructor to open the repository in the given file, creating it if it does not exist.
+   *
+   * @param file path of the file holding the repository
+   * @throws IOException if the file could not be opened
+   */
+  public KeyValueRepository(String file) throws IOException {
+    this.store = new KeyValueStore(Paths.get(file));
+  }
+
+  @Override
+  public void savePortfolio(String portfolioID, Portfolio portfolio) throws IOException {
+    savePortfolios(Collections.singletonMap(portfolioID, portfolio));
+  }
+
+  @Override
+  public void savePortfolios(Map<String, Portfolio> portfolios) throws IOException {
+    Map<String, ByteBuffer> batch = new LinkedHashMap<>();
+    for (Map.Entry<String, Portfolio> entry : portfolios.entrySet()) {
+      batch.put(portfolioKey(entry.getKey()), SnapshotCodec.encodePortfolio(entry.getValue()));
+    }
+    store.commit(batch, Collections.emptyList());
+  }
+
+  @Override
+  public Portfolio loadPortfolio(String portfolioID) throws IOException {
+    ByteBuffer snapshot = store.get(portfolioKey(portfolioID));
+    return snapshot == null ? null : SnapshotCodec.decodePortfolio(snapshot);
+  }
+
+  /**
+   * Method to load every portfolio whose ID lies in a range.
+   *
+   * @param fromID lowest portfolio ID to be included
+   * @param toID   portfolio ID at which the range ends, excluded
+   * @return map from portfolio ID to portfolio in sorted order
+   * @throws IOException if the portfolios could not be read
+   */
+  public SortedMap<String, Portfolio> loadPortfolios(String fromID, String toID)
+          throws IOException {
+    SortedMap<String, Portfolio> result = new TreeMap<>();
+    for (Map.Entry<String, ByteBuffer> entry : store.scan(portfolioKey(fromID),
+            portfolioKey(toID)).entrySet()) {
+      result.put(entry.getKey().substring(PORTFOLIO_PREFIX.length()),
+              SnapshotCodec.decodePortfolio(entry.getValue()));
+    }
+    return result;
+  }
+
+  @Override
+  public Set<String> listPortfolios() {
+    return list(PORTFOLIO_PREFIX);
+  }
+
+  /**
+   * Method to remove a saved portfolio.
+   *
+   * @param portfolioID unique ID of the portfolio to be removed
+   * @throws IOException if the store could not be written
+   */
+  public void deletePortfolio(String portfolioID) throws IOException {
+    store.commit(Collections.emptyMap(), Collections.singleton(portfolioKey(portfolioID)));
+  }
+
+  @Override
+  public void saveStrategy(String strategyName, DollarCostAverage strategy) throws IOException {
+    store.put(STRATEGY_PREFIX + strategyName.toLowerCase(),
+            SnapshotCodec.encodeStrategy(strategy));
+  }
+
+  @Override
+  public DollarCostAverage loadStrategy(String strategyName) throws IOException {
+    ByteBuffer snapshot = store.get(STRATEGY_PREFIX + strategyName.toLowerCase());
+    return snapshot == null ? null : SnapshotCodec.decodeStrategy(snapshot);
+  }
+
+  @Override
+  public Set<String> listStrategies() {
+    return list(STRATEGY_PREFIX);
+  }
+
+  /**
+   * Helper method to list the names stored under a prefix.
+   *
+   * @param prefix prefix of the keys to be listed
+   * @return the names without the prefix in sorted order
+   */
+  private Set<String> list(String prefix) {
+    Set<String> names = new TreeSet<>();
+    String end = prefix.substring(0, prefix.length() - 1) + PREFIX_END;
+    for (String key : store.keys(prefix, end)) {
+      names.add(key.substring(prefix.length()));
+    }
+    return names;
+  }
+
+  /**
+   * Helper method to get the key of a portfolio.
+   */
+  private static String portfolioKey(String portfolioID) {
+    return PORTFOLIO_PREFIX + portfolioID.toLowerCase();
+  }
+
+  @Override
+  public void close() throws IOException {
+    store.close();
+  }
+}
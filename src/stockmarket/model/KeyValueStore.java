@@ -0,0 +1,345 @@
+package stockmarket.model;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * This class is a small embedded key value store kept in a single append-only file. Every commit
+ * appends its puts and deletes followed by a commit record holding a checksum of the batch, so a
+ * batch becomes visible either completely or not at all. A sorted in-memory index maps each key to
+ * the position of its latest value, which gives indexed lookups and range scans without reading
+ * the file. The file is compacted when most of it is taken by overwritten or deleted records.
+ *
+ * <p>Records are laid out as a type byte, a four byte key length, the UTF-8 key, a four byte value
+ * length and the value. A commit record is a type byte, the number of records in the batch and
+ * the CRC32 of the batch.
+ */
+final class KeyValueStore implements Closeable {
+  private static final int MAGIC = 0x56474B56; // "VGKV"
+  private static final int HEADER_SIZE = 5;
+  private static final byte VERSION = 1;
+  private static final byte PUT = 1;
+  private static final byte DELETE = 2;
+  private static final byte COMMIT = 3;
+  private static final long MIN_COMPACTION_SIZE = 1 << 20;
+  private static final int COMPACTION_BATCH = 1024;
+
+  private final Path path;
+  // offset and length of the latest value of a key, and the length of its whole record
+  private final NavigableMap<String, long[]> index;
+  private FileChannel channel;
+  private long size;
+  // bytes a compacted file would take up for the records of the live keys
+  private long liveBytes;
+
+  /**
+   * Constructor to open the store in the given file, creating it if it does not exist. A batch
+   * that was only partly written when the application stopped is discarded.
+   *
+   * @param path file holding the store
+   * @throws IOException if the file could not be opened or read
+   */
+  KeyValueStore(Path path) throws IOException {
+    this.path = path;
+    this.index = new TreeMap<>();
+    open();
+  }
+
+  /**
+   * Helper method to open the file and rebuild the index from the committed batches.
+   *
+   * @throws IOException if the file could not be opened or read
+   */
+  private void open() throws IOException {
+    channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    index.clear();
+    liveBytes = 0;
+    if (channel.size() == 0) {
+      ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+      header.putInt(MAGIC).put(VERSION).flip();
+      writeFully(header, 0);
+      channel.force(false);
+      size = HEADER_SIZE;
+      return;
+    }
+    size = recover();
+    if (size < channel.size()) {
+      channel.truncate(size);
+    }
+  }
+
+  /**
+   * Helper method to replay the committed batches of the file into the index.
+   *
+   * @return position just after the last complete batch
+   * @throws IOException if the file could not be read
+   */
+  private long recover() throws IOException {
+    channel.position(0);
+    DataInputStream in = new DataInputStream(new BufferedInputStream(
+            Channels.newInputStream(channel), 1 << 16));
+    if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+      throw new IOException("The file " + path + " is not a Virtual Gamble store");
+    }
+    long fileSize = channel.size();
+    long position = HEADER_SIZE;
+    long committed = position;
+    List<Object[]> pending = new ArrayList<>();
+    CRC32 crc = new CRC32();
+    ByteBuffer lengths = ByteBuffer.allocate(4);
+    try {
+      while (true) {
+        byte type = in.readByte();
+        if (type == COMMIT) {
+          int count = in.readInt();
+          long checksum = in.readInt() & 0xFFFFFFFFL;
+          position += 9;
+          if (count != pending.size() || checksum != crc.getValue()) {
+            break;
+          }
+          for (Object[] record : pending) {
+            apply((String) record[0], (long[]) record[1]);
+          }
+          pending.clear();
+          crc.reset();
+          committed = position;
+          continue;
+        }
+        if (type != PUT && type != DELETE) {
+          break;
+        }
+        int keyLength = in.readInt();
+        if (keyLength < 0 || position + 9 + keyLength > fileSize) {
+          break;
+        }
+        byte[] key = new byte[keyLength];
+        in.readFully(key);
+        int valueLength = in.readInt();
+        long valueOffset = position + 9 + keyLength;
+        if (valueLength < 0 || valueOffset + valueLength > fileSize) {
+          break;
+        }
+        byte[] value = new byte[valueLength];
+        in.readFully(value);
+        crc.update(type);
+        crc.update(lengths.putInt(0, keyLength).array());
+        crc.update(key);
+        crc.update(lengths.putInt(0, valueLength).array());
+        crc.update(value);
+        position = valueOffset + valueLength;
+        pending.add(new Object[]{new String(key, StandardCharsets.UTF_8),
+            type == PUT ? new long[]{valueOffset, valueLength, 9 + keyLength + valueLength}
+                : null});
+      }
+    } catch (EOFException e) {
+      // the last batch was not completely written and is discarded
+    }
+    return committed;
+  }
+
+  /**
+   * Helper method to apply a committed put or delete to the index.
+   *
+   * @param key      key of the record
+   * @param location offset and length of the value and length of the record, or null for a
+   *                 delete
+   */
+  private void apply(String key, long[] location) {
+    long[] previous = location == null ? index.remove(key) : index.put(key, location);
+    if (previous != null) {
+      liveBytes -= previous[2];
+    }
+    if (location != null) {
+      liveBytes += location[2];
+    }
+  }
+
+  /**
+   * Method to get the latest value of a key.
+   *
+   * @param key key to be looked up
+   * @return the value or null if the key is not present
+   * @throws IOException if the value could not be read
+   */
+  synchronized ByteBuffer get(String key) throws IOException {
+    long[] location = index.get(key);
+    if (location == null) {
+      return null;
+    }
+    ByteBuffer value = ByteBuffer.allocate((int) location[1]);
+    long position = location[0];
+    while (value.hasRemaining()) {
+      int read = channel.read(value, position + value.position());
+      if (read < 0) {
+        throw new EOFException("The store " + path + " is truncated");
+      }
+    }
+    value.flip();
+    return value;
+  }
+
+  /**
+   * Method to get the keys in a range.
+   *
+   * @param fromKey lowest key to be included
+   * @param toKey   key at which the range ends, excluded
+   * @return the keys in the range in sorted order
+   */
+  synchronized List<String> keys(String fromKey, String toKey) {
+    return new ArrayList<>(index.subMap(fromKey, true, toKey, false).keySet());
+  }
+
+  /**
+   * Method to get the keys and values in a range.
+   *
+   * @param fromKey lowest key to be included
+   * @param toKey   key at which the range ends, excluded
+   * @return map from key to value for the keys in the range in sorted order
+   * @throws IOException if a value could not be read
+   */
+  synchronized SortedMap<String, ByteBuffer> scan(String fromKey, String toKey)
+          throws IOException {
+    SortedMap<String, ByteBuffer> result = new TreeMap<>();
+    for (String key : keys(fromKey, toKey)) {
+      result.put(key, get(key));
+    }
+    return result;
+  }
+
+  /**
+   * Method to write a value for a single key.
+   *
+   * @param key   key to be written
+   * @param value value of the key
+   * @throws IOException if the value could not be written
+   */
+  void put(String key, ByteBuffer value) throws IOException {
+    commit(Collections.singletonMap(key, value), Collections.emptyList());
+  }
+
+  /**
+   * Method to atomically write several keys and delete others. After a crash either all the
+   * changes of the commit are visible or none of them are.
+   *
+   * @param puts    map from key to the value to be written
+   * @param deletes keys to be removed
+   * @throws IOException if the batch could not be written
+   */
+  synchronized void commit(Map<String, ByteBuffer> puts, Collection<String> deletes)
+          throws IOException {
+    int length = 9;
+    for (Map.Entry<String, ByteBuffer> entry : puts.entrySet()) {
+      length += 9 + entry.getKey().getBytes(StandardCharsets.UTF_8).length
+              + entry.getValue().remaining();
+    }
+    for (String key : deletes) {
+      length += 9 + key.getBytes(StandardCharsets.UTF_8).length;
+    }
+    ByteBuffer batch = ByteBuffer.allocate(length);
+    List<Object[]> records = new ArrayList<>();
+    for (Map.Entry<String, ByteBuffer> entry : puts.entrySet()) {
+      long start = batch.position();
+      long valueLength = entry.getValue().remaining();
+      long valueOffset = appendRecord(batch, PUT, entry.getKey(), entry.getValue().duplicate());
+      records.add(new Object[]{entry.getKey(), new long[]{size + valueOffset, valueLength,
+          batch.position() - start}});
+    }
+    for (String key : deletes) {
+      appendRecord(batch, DELETE, key, ByteBuffer.allocate(0));
+      records.add(new Object[]{key, null});
+    }
+    CRC32 crc = new CRC32();
+    crc.update(batch.array(), 0, batch.position());
+    batch.put(COMMIT).putInt(records.size()).putInt((int) crc.getValue());
+    batch.flip();
+    try {
+      writeFully(batch, size);
+      channel.force(false);
+    } catch (IOException e) {
+      channel.truncate(size);
+      throw e;
+    }
+    size += length;
+    for (Object[] record : records) {
+      apply((String) record[0], (long[]) record[1]);
+    }
+    // a compacted file also holds a header and a commit record per batch of keys
+    long compactedSize = HEADER_SIZE + liveBytes + 9L * (index.size() / COMPACTION_BATCH + 1);
+    if (size > MIN_COMPACTION_SIZE && size > 2 * compactedSize) {
+      compact();
+    }
+  }
+
+  /**
+   * Helper method to append a record to a batch.
+   *
+   * @return offset of the value within the batch
+   */
+  private static long appendRecord(ByteBuffer batch, byte type, String key, ByteBuffer value) {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    batch.put(type).putInt(keyBytes.length).put(keyBytes).putInt(value.remaining());
+    long valueOffset = batch.position();
+    batch.put(value);
+    return valueOffset;
+  }
+
+  /**
+   * Method to rewrite the store so that it only holds the latest value of every key. The new file
+   * replaces the old one only once it has been completely written.
+   *
+   * @throws IOException if the store could not be rewritten
+   */
+  synchronized void compact() throws IOException {
+    Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+    Files.deleteIfExists(tmp);
+    try (KeyValueStore compacted = new KeyValueStore(tmp)) {
+      Map<String, ByteBuffer> batch = new TreeMap<>();
+      for (String key : index.keySet()) {
+        batch.put(key, get(key));
+        if (batch.size() == COMPACTION_BATCH) {
+          compacted.commit(batch, Collections.emptyList());
+          batch.clear();
+        }
+      }
+      compacted.commit(batch, Collections.emptyList());
+    }
+    channel.close();
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    open();
+  }
+
+  /**
+   * Helper method to write a buffer completely at the given position.
+   */
+  private void writeFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,171 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * This class indexes the open purchase lots of one company in a portfolio. The lots are kept in
+ * two sorted sets, one ordered by purchase date and one by cost per share, so a sale is matched
+ * against the lots it relieves with a tree lookup instead of scanning every stock of the
+ * portfolio.
+ */
+final class LotBook {
+  // tolerance below which a remaining number of shares is treated as zero
+  static final double EPSILON = 1e-9;
+
+  private final NavigableSet<Lot> byDate;
+  private final NavigableSet<Lot> byCost;
+
+  /**
+   * Constructor to initialize an empty book.
+   */
+  LotBook() {
+    this.byDate = new TreeSet<>(Comparator.<Lot>comparingInt(lot -> lot.day)
+            .thenComparingLong(lot -> lot.id));
+    this.byCost = new TreeSet<>(Comparator.<Lot>comparingDouble(lot -> -lot.costPerShare)
+            .thenComparingLong(lot -> lot.id));
+  }
+
+  /**
+   * Method to add an open lot to the book.
+   *
+   * @param id    unique ID of the lot in the portfolio
+   * @param stock stock bought in the lot
+   */
+  void add(long id, Stock stock) {
+    Lot lot = new Lot(id, PriceSeries.toDay(stock.getPurchaseDate()), stock);
+    byDate.add(lot);
+    byCost.add(lot);
+  }
+
+  /**
+   * Method to remove a lot which has been sold completely.
+   *
+   * @param lot lot to be removed
+   */
+  void remove(Lot lot) {
+    byDate.remove(lot);
+    byCost.remove(lot);
+  }
+
+  /**
+   * Method to replace the stock of a partly sold lot with what is left of it. The cost per share
+   * of the remainder is the same, so the lot keeps its place in both orderings.
+   *
+   * @param lot       lot which was partly sold
+   * @param remainder stock left in the lot
+   */
+  void replace(Lot lot, Stock remainder) {
+    lot.stock = remainder;
+  }
+
+  /**
+   * Method to check whether the book holds no lots.
+   *
+   * @return true if every lot has been sold
+   */
+  boolean isEmpty() {
+    return byDate.isEmpty();
+  }
+
+  /**
+   * Method to get the total cost basis of the lots bought on or before a day.
+   *
+   * @param day epoch day up to which lots are included
+   * @return cost basis in micro-dollars
+   */
+  long getCostBasisMicros(int day) {
+    long total = 0;
+    for (Lot lot : byDate.headSet(new Lot(Long.MAX_VALUE, day, null), true)) {
+      total += lot.stock.getCostBasisMicros();
+    }
+    return total;
+  }
+
+  /**
+   * Method to get the value of all the lots at a price.
+   *
+   * @param price price of one share
+   * @return value in micro-dollars
+   */
+  long getValueMicros(double price) {
+    long total = 0;
+    for (Lot lot : byDate) {
+      total += Money.ofDollars(lot.stock.getNumberOfShares() * price);
+    }
+    return total;
+  }
+
+  /**
+   * Method to get the lots a sale relieves in the order they are to be sold.
+   *
+   * @param relief         method by which lots are matched
+   * @param saleDay        epoch day of the sale, lots bought after it are not eligible
+   * @param lotDay         epoch day of purchase of the lot for a specific lot sale
+   * @param numberOfShares number of shares to be sold
+   * @return the lots to be sold, the last of which may only be sold in part
+   * @throws IllegalArgumentException if the eligible lots do not hold enough shares
+   */
+  List<Lot> match(LotRelief relief, int saleDay, int lotDay, double numberOfShares)
+          throws IllegalArgumentException {
+    Iterator<Lot> candidates;
+    switch (relief) {
+      case FIFO:
+        candidates = byDate.headSet(new Lot(Long.MAX_VALUE, saleDay, null), true).iterator();
+        break;
+      case LIFO:
+        candidates = byDate.headSet(new Lot(Long.MAX_VALUE, saleDay, null), true)
+                .descendingIterator();
+        break;
+      case HIGHEST_COST:
+        candidates = byCost.iterator();
+        break;
+      case SPECIFIC_LOT:
+        if (lotDay > saleDay) {
+          throw new IllegalArgumentException("Lot cannot be sold before it was purchased");
+        }
+        candidates = byDate.subSet(new Lot(Long.MIN_VALUE, lotDay, null), true,
+                new Lot(Long.MAX_VALUE, lotDay, null), true).iterator();
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown lot relief method " + relief);
+    }
+    List<Lot> plan = new ArrayList<>();
+    double remaining = numberOfShares;
+    while (remaining > EPSILON && candidates.hasNext()) {
+      Lot lot = candidates.next();
+      if (lot.day > saleDay) {
+        continue;
+      }
+      plan.add(lot);
+      remaining -= lot.stock.getNumberOfShares();
+    }
+    if (remaining > EPSILON) {
+      throw new IllegalArgumentException("Portfolio holds only " + (numberOfShares - remaining)
+              + " shares eligible for this sale");
+    }
+    return plan;
+  }
+
+  /**
+   * An open lot together with the keys it is sorted by.
+   */
+  static final class Lot {
+    final long id;
+    final int day;
+    final double costPerShare;
+    Stock stock;
+
+    Lot(long id, int day, Stock stock) {
+      this.id = id;
+      this.day = day;
+      this.stock = stock;
+      this.costPerShare = stock == null || stock.getNumberOfShares() == 0 ? 0
+              : stock.getCostBasis() / stock.getNumberOfShares();
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package stockmarket.model;
+
+/**
+ * This enum represents the ways in which the purchase lots of a company are matched against a sale
+ * of its shares.
+ */
+public enum LotRelief {
+  /**
+   * The oldest lots are sold first.
+   */
+  FIFO,
+  /**
+   * The newest lots are sold first.
+   */
+  LIFO,
+  /**
+   * The lots with the highest cost per share are sold first.
+   */
+  HIGHEST_COST,
+  /**
+   * Only the lots bought on a given purchase date are sold.
+   */
+  SPECIFIC_LOT
+}
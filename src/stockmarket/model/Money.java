@@ -0,0 +1,152 @@
+package stockmarket.model;
+
+import java.math.RoundingMode;
+
+/**
+ * This class holds the fixed-point arithmetic used for amounts of money. Amounts are kept as a
+ * whole number of micro-dollars in a long, so sums over any number of lots are exact and need no
+ * objects. Converting from a double, scaling by a fraction and rounding to fewer decimal places
+ * take an explicit rounding mode.
+ */
+public final class Money {
+  /**
+   * Number of micro-dollars in one dollar.
+   */
+  public static final long MICROS_PER_DOLLAR = 1_000_000L;
+
+  private static final int SCALE = 6;
+  private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L,
+    1_000_000L};
+
+  private Money() {
+  }
+
+  /**
+   * Method to convert an amount in dollars to micro-dollars, rounding half to even.
+   *
+   * @param dollars amount in dollars
+   * @return the amount in micro-dollars
+   */
+  public static long ofDollars(double dollars) {
+    return ofDollars(dollars, RoundingMode.HALF_EVEN);
+  }
+
+  /**
+   * Method to convert an amount in dollars to micro-dollars.
+   *
+   * @param dollars amount in dollars
+   * @param mode    rounding applied to fractions of a micro-dollar
+   * @return the amount in micro-dollars
+   * @throws ArithmeticException if the mode is UNNECESSARY and rounding is needed
+   */
+  public static long ofDollars(double dollars, RoundingMode mode) throws ArithmeticException {
+    return round(dollars * MICROS_PER_DOLLAR, mode);
+  }
+
+  /**
+   * Method to convert an amount in micro-dollars to dollars.
+   *
+   * @param micros amount in micro-dollars
+   * @return the amount in dollars
+   */
+  public static double toDollars(long micros) {
+    return (double) micros / MICROS_PER_DOLLAR;
+  }
+
+  /**
+   * Method to scale an amount by a factor such as a fraction of a lot or a number of shares.
+   *
+   * @param micros amount in micro-dollars
+   * @param factor factor by which the amount is multiplied
+   * @param mode   rounding applied to fractions of a micro-dollar
+   * @return the scaled amount in micro-dollars
+   * @throws ArithmeticException if the mode is UNNECESSARY and rounding is needed
+   */
+  public static long multiply(long micros, double factor, RoundingMode mode)
+          throws ArithmeticException {
+    return round(micros * factor, mode);
+  }
+
+  /**
+   * Method to round an amount to a number of decimal places of a dollar, for example 2 for cents.
+   *
+   * @param micros   amount in micro-dollars
+   * @param decimals number of decimal places to keep, from 0 to 6
+   * @param mode     rounding applied to the dropped digits
+   * @return the rounded amount in micro-dollars
+   * @throws IllegalArgumentException if the number of decimal places is out of range
+   * @throws ArithmeticException      if the mode is UNNECESSARY and rounding is needed
+   */
+  public static long round(long micros, int decimals, RoundingMode mode)
+          throws IllegalArgumentException, ArithmeticException {
+    if (decimals < 0 || decimals > SCALE) {
+      throw new IllegalArgumentException("Decimal places should be between 0 and " + SCALE);
+    }
+    long unit = POWERS_OF_TEN[SCALE - decimals];
+    return divide(micros, unit, mode) * unit;
+  }
+
+  /**
+   * Method to divide an amount by a positive whole number.
+   *
+   * @param micros  amount in micro-dollars
+   * @param divisor positive number by which the amount is divided
+   * @param mode    rounding applied to the remainder
+   * @return the quotient in micro-dollars
+   * @throws ArithmeticException if the mode is UNNECESSARY and rounding is needed
+   */
+  public static long divide(long micros, long divisor, RoundingMode mode)
+          throws ArithmeticException {
+    long quotient = Math.floorDiv(micros, divisor);
+    long remainder = micros - quotient * divisor;
+    if (remainder == 0) {
+      return quotient;
+    }
+    int half = Long.compare(remainder, divisor - remainder);
+    return quotient + (roundUp(quotient, micros >= 0, half, mode) ? 1 : 0);
+  }
+
+  /**
+   * Helper method to round a scaled double to a whole number of micro-dollars.
+   */
+  private static long round(double value, RoundingMode mode) throws ArithmeticException {
+    double floor = Math.floor(value);
+    double fraction = value - floor;
+    if (fraction == 0) {
+      return (long) floor;
+    }
+    int half = Double.compare(fraction, 0.5);
+    return (long) floor + (roundUp((long) floor, value >= 0, half, mode) ? 1 : 0);
+  }
+
+  /**
+   * Helper method to decide whether a value lying strictly between floor and floor + 1 is rounded
+   * up to floor + 1.
+   *
+   * @param floor    the value rounded towards negative infinity
+   * @param positive whether the value is positive
+   * @param half     sign of the comparison of the dropped fraction with one half
+   * @param mode     rounding mode to be applied
+   * @return true if the value is rounded up
+   */
+  private static boolean roundUp(long floor, boolean positive, int half, RoundingMode mode) {
+    switch (mode) {
+      case FLOOR:
+        return false;
+      case CEILING:
+        return true;
+      case DOWN:
+        return !positive;
+      case UP:
+        return positive;
+      case HALF_UP:
+        return half > 0 || (half == 0 && positive);
+      case HALF_DOWN:
+        return half > 0 || (half == 0 && !positive);
+      case HALF_EVEN:
+        return half > 0 || (half == 0 && (floor & 1) != 0);
+      default:
+        throw new ArithmeticException("Rounding necessary");
+    }
+  }
+}
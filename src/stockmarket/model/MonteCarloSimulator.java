@@ -0,0 +1,248 @@
+package stockmarket.model;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class simulates future values of a set of holdings by bootstrapping the daily returns of
+ * their companies. The returns are taken from the days on which every company has a bar, and a
+ * simulated day always takes the returns of all companies from the same historical day so that
+ * the companies keep moving together as they did. With a block length above one, runs of
+ * consecutive historical days are drawn at a time, which keeps the short term dependence between
+ * days as well.
+ *
+ * <p>Returns are kept in one flat primitive array, one row of companies per day. Paths are
+ * simulated in fixed chunks on the fork/join pool, and every chunk draws from its own
+ * SplittableRandom split off a single seeded generator, so a seed gives the same result whatever
+ * the number of threads.
+ */
+public final class MonteCarloSimulator {
+  private static final int CHUNK = 1024;
+
+  private final int companies;
+  private final int days;
+  private final double[] returns;
+  private final ForkJoinPool pool;
+
+  /**
+   * Constructor to initialize the simulator from the price history of the given companies since a
+   * date.
+   *
+   * @param prices    price store holding the history of the companies
+   * @param tickers   ticker symbols of the companies in the order of the values to be simulated
+   * @param startDate first date of the history used, in yyyy-MM-dd format
+   * @throws IllegalArgumentException if the data of a company is missing or the companies share
+   *                                  fewer than two days of history
+   */
+  public MonteCarloSimulator(PriceStore prices, List<String> tickers, String startDate)
+          throws IllegalArgumentException {
+    this(prices, tickers, startDate, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructor to initialize the simulator using the given pool.
+   *
+   * @param prices    price store holding the history of the companies
+   * @param tickers   ticker symbols of the companies in the order of the values to be simulated
+   * @param startDate first date of the history used, in yyyy-MM-dd format
+   * @param pool      pool in which the paths are simulated
+   * @throws IllegalArgumentException if the data of a company is missing or the companies share
+   *                                  fewer than two days of history
+   */
+  public MonteCarloSimulator(PriceStore prices, List<String> tickers, String startDate,
+                             ForkJoinPool pool) throws IllegalArgumentException {
+    if (tickers.isEmpty()) {
+      throw new IllegalArgumentException("At least one company is needed to simulate");
+    }
+    this.companies = tickers.size();
+    this.pool = pool;
+    PriceSeries[] series = new PriceSeries[companies];
+    for (int i = 0; i < companies; i++) {
+      series[i] = prices.getSeries(tickers.get(i));
+    }
+    PriceSeries calendar = series[0];
+    int from = calendar.ceilingIndex(PriceSeries.toDay(startDate));
+    double[] rows = new double[Math.max(0, calendar.size() - from) * companies];
+    double[] previous = null;
+    double[] current = new double[companies];
+    int count = 0;
+    for (int bar = from; bar < calendar.size(); bar++) {
+      int day = calendar.getDay(bar);
+      boolean shared = true;
+      for (int i = 0; i < companies && shared; i++) {
+        int index = series[i].indexOf(day);
+        shared = index >= 0;
+        if (shared) {
+          current[i] = series[i].getLow(index);
+        }
+      }
+      if (!shared) {
+        continue;
+      }
+      if (previous != null) {
+        for (int i = 0; i < companies; i++) {
+          rows[count * companies + i] = current[i] / previous[i];
+        }
+        count++;
+      } else {
+        previous = new double[companies];
+      }
+      double[] swap = previous;
+      previous = current;
+      current = swap;
+    }
+    if (count == 0) {
+      throw new IllegalArgumentException("Not enough price history to simulate");
+    }
+    this.days = count;
+    this.returns = rows;
+  }
+
+  /**
+   * Method to get the number of historical days the returns are drawn from.
+   *
+   * @return number of daily returns
+   */
+  public int getHistory() {
+    return days;
+  }
+
+  /**
+   * Method to simulate the paths of a set of holdings.
+   *
+   * @param startValues   value held in every company when the simulation starts
+   * @param contributions amount added to every company on each contribution day
+   * @param commission    commission paid for every contribution to a company
+   * @param interval      number of trading days between contributions, the first one being on
+   *                      the first day
+   * @param horizon       number of trading days to be simulated
+   * @param paths         number of paths to be simulated
+   * @param blockLength   number of consecutive historical days drawn at a time
+   * @param seed          seed of the random generator
+   * @return the terminal values of all paths
+   * @throws IllegalArgumentException if a count is not positive or the arrays do not have one
+   *                                  value per company
+   */
+  public SimulationResult simulate(double[] startValues, double[] contributions,
+                                   double commission, int interval, int horizon, int paths,
+                                   int blockLength, long seed) throws IllegalArgumentException {
+    if (startValues.length != companies || contributions.length != companies) {
+      throw new IllegalArgumentException("A value is needed for every company");
+    }
+    if (horizon <= 0 || paths <= 0 || interval <= 0) {
+      throw new IllegalArgumentException("Horizon, paths and interval should be positive");
+    }
+    if (blockLength <= 0 || blockLength > days) {
+      throw new IllegalArgumentException("Block length should be between 1 and " + days);
+    }
+    double[] terminal = new double[paths];
+    int chunks = (paths + CHUNK - 1) / CHUNK;
+    SplittableRandom root = new SplittableRandom(seed);
+    SplittableRandom[] randoms = new SplittableRandom[chunks];
+    for (int i = 0; i < chunks; i++) {
+      randoms[i] = root.split();
+    }
+    pool.invoke(new Paths(new Run(startValues, contributions, interval, horizon, blockLength),
+            randoms, terminal, 0, chunks));
+    int purchases = (horizon - 1) / interval + 1;
+    double startValue = 0;
+    double invested = 0;
+    for (int i = 0; i < companies; i++) {
+      startValue += startValues[i];
+      if (contributions[i] > 0) {
+        invested += (contributions[i] + commission) * purchases;
+      }
+    }
+    return new SimulationResult(terminal, startValue, invested, horizon);
+  }
+
+  /**
+   * Helper method to simulate the paths of one chunk.
+   */
+  private void simulateChunk(Run run, SplittableRandom random, double[] terminal, int from,
+                             int to) {
+    double[] values = new double[companies];
+    int blocks = days - run.blockLength + 1;
+    for (int path = from; path < to; path++) {
+      System.arraycopy(run.startValues, 0, values, 0, companies);
+      int row = 0;
+      int left = 0;
+      for (int step = 0; step < run.horizon; step++) {
+        if (left == 0) {
+          row = random.nextInt(blocks) * companies;
+          left = run.blockLength;
+        }
+        boolean contribute = step % run.interval == 0;
+        for (int i = 0; i < companies; i++) {
+          double value = values[i];
+          if (contribute) {
+            value += run.contributions[i];
+          }
+          values[i] = value * returns[row + i];
+        }
+        row += companies;
+        left--;
+      }
+      double total = 0;
+      for (int i = 0; i < companies; i++) {
+        total += values[i];
+      }
+      terminal[path] = total;
+    }
+  }
+
+  /**
+   * Parameters shared by every chunk of one simulation.
+   */
+  private static final class Run {
+    private final double[] startValues;
+    private final double[] contributions;
+    private final int interval;
+    private final int horizon;
+    private final int blockLength;
+
+    Run(double[] startValues, double[] contributions, int interval, int horizon,
+        int blockLength) {
+      this.startValues = startValues.clone();
+      this.contributions = contributions.clone();
+      this.interval = interval;
+      this.horizon = horizon;
+      this.blockLength = blockLength;
+    }
+  }
+
+  /**
+   * Task which simulates a range of chunks, splitting it in half until a single chunk is left.
+   */
+  private final class Paths extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private final Run run;
+    private final SplittableRandom[] randoms;
+    private final double[] terminal;
+    private final int from;
+    private final int to;
+
+    Paths(Run run, SplittableRandom[] randoms, double[] terminal, int from, int to) {
+      this.run = run;
+      this.randoms = randoms;
+      this.terminal = terminal;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1) {
+        simulateChunk(run, randoms[from], terminal, from * CHUNK,
+                Math.min(terminal.length, (from + 1) * CHUNK));
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new Paths(run, randoms, terminal, from, middle),
+              new Paths(run, randoms, terminal, middle, to));
+    }
+  }
+}
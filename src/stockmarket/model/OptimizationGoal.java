@@ -0,0 +1,16 @@
+package stockmarket.model;
+
+/**
+ * This enum represents the goals for which the weights of a set of companies can be optimized.
+ * Weights are never negative and always add up to 100.
+ */
+public enum OptimizationGoal {
+  /**
+   * The weights with the lowest variance of daily returns.
+   */
+  MIN_VARIANCE,
+  /**
+   * The weights with the highest mean daily return per unit of standard deviation.
+   */
+  MAX_SHARPE
+}
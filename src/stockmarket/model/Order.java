@@ -0,0 +1,68 @@
+package stockmarket.model;
+
+/**
+ * This class represents an order to buy shares of a company for an amount on a date, which is
+ * bought together with other orders through buyShares.
+ */
+public final class Order {
+  private final String company;
+  private final double amount;
+  private final String date;
+  private final double commission;
+
+  /**
+   * Constructor to initialize an order.
+   *
+   * @param company    ticker symbol of the company
+   * @param amount     amount to be invested in dollars
+   * @param date       date of the purchase in yyyy-MM-dd format
+   * @param commission commission for the purchase
+   */
+  public Order(String company, double amount, String date, double commission) {
+    this.company = company;
+    this.amount = amount;
+    this.date = date;
+    this.commission = commission;
+  }
+
+  /**
+   * Method to get the ticker symbol of the company.
+   *
+   * @return ticker symbol
+   */
+  public String getCompany() {
+    return company;
+  }
+
+  /**
+   * Method to get the amount to be invested.
+   *
+   * @return amount in dollars
+   */
+  public double getAmount() {
+    return amount;
+  }
+
+  /**
+   * Method to get the date of the purchase.
+   *
+   * @return date in yyyy-MM-dd format
+   */
+  public String getDate() {
+    return date;
+  }
+
+  /**
+   * Method to get the commission for the purchase.
+   *
+   * @return commission in dollars
+   */
+  public double getCommission() {
+    return commission;
+  }
+
+  @Override
+  public String toString() {
+    return company + " " + amount + " on " + date;
+  }
+}
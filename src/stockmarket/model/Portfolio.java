@@ -1,82 +1,260 @@
-package stockmarket.model;
-
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.List;
-import java.util.Set;
-
-
-/**
- * This interface represents a Portfolio which is a combination of a number of stocks from various
- * companies.
- */
-public interface Portfolio {
-  DollarCostAverage getDollarCostAverage();
-
-  boolean getDollarCostAveraged();
-
-  /**
-   * Method to add a stock to this Portfolio.
-   *
-   * @param company    company ticker of the stock to be added
-   * @param amount     amount of stock to be added in dollars
-   * @param date       date of purchase of stock in yyyy-MM-dd format
-   * @param commission commission for this investment to be added to cost basis
-   */
-  public void addStock(String company, double amount, String date, double commission)
-          throws IOException;
-
-  /**
-   * Method to get the sum total cost basis of all the stocks in this Portfolio.
-   *
-   * @return sum total cost basis of all the stocks in this Portfolio
-   */
-  public double getTotalCostBasis();
-
-  double getTotalCostBasis(String date) throws ParseException;
-
-  /**
-   * Method to get the total value of all the stocks in this Portfolio.
-   *
-   * @param date date in the format yyyy-MM-dd
-   * @return sum total value of all the stocks in this Portfolio
-   */
-  public double getTotalValue(String date);
-
-  /**
-   * Method to get list of all the stocks in this Portfolio.
-   *
-   * @return list of all the stocks in this Portfolio
-   */
-  List<Stock> getStockList();
-
-  /**
-   * Method to get the list of all companies in this portfolio.
-   *
-   * @return all companies in this portfolio
-   */
-  Set<String> getCompanyList();
-
-  /**
-   * Method to add a company to this portfolio without any investment.
-   *
-   * @param company company to added to this portfolio
-   */
-  void addStockData(String company);
-
-  /**
-   * Method to set DollarCostAveraged to true when Dollar cost strategy is applied to this
-   * portfolio.
-   *
-   * @param b false initially and true when dollar cost average strategy is applied to this
-   *          portfolio
-   */
-  void setDollarCostAveraged(boolean b);
-
-  /**
-   * Method to set the dollar cost average parameters.
-   *
-   * @param data object that represents dollar cost average strategy paremeters
-   */
-  void setDollarCostAverage(DollarCostAverage data);
-}
+package stockmarket.model;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+
+/**
+ * This interface represents a Portfolio which is a combination of a number of stocks from various
+ * companies.
+ */
+public interface Portfolio {
+  DollarCostAverage getDollarCostAverage();
+
+  boolean getDollarCostAveraged();
+
+  /**
+   * Method to add a stock to this Portfolio.
+   *
+   * @param company    company ticker of the stock to be added
+   * @param amount     amount of stock to be added in dollars
+   * @param date       date of purchase of stock in yyyy-MM-dd format
+   * @param commission commission for this investment to be added to cost basis
+   */
+  public void addStock(String company, double amount, String date, double commission)
+          throws IOException;
+
+  /**
+   * Method to add stocks which were already bought to this Portfolio in one step.
+   *
+   * @param bought stocks to be added in the order they were bought
+   */
+  void addStocks(List<Stock> bought);
+
+  /**
+   * Method to add a dollar cost plan to this Portfolio. The purchases of the plan are not held as
+   * lots but are computed from the plan parameters whenever they are needed.
+   *
+   * @param plan parameters of the dollar cost plan
+   * @throws IllegalArgumentException if the data of a company is missing or a purchase is larger
+   *                                  than the volume traded that day
+   */
+  void addDollarCostPlan(DollarCostAverage plan) throws IllegalArgumentException;
+
+  /**
+   * Method to get the parameters of the dollar cost plans whose purchases are not held as lots.
+   * Companies whose shares were sold from a plan are held as lots from then on and are no longer
+   * part of its weights.
+   *
+   * @return parameters of the plans in the order they were added
+   */
+  List<DollarCostAverage> getDollarCostPlans();
+
+  /**
+   * Method to sell shares of a company from this Portfolio. The lots from which the shares are
+   * taken are chosen by the given lot relief method among the lots bought on or before the date
+   * of the sale.
+   *
+   * @param company        company ticker of the shares to be sold
+   * @param numberOfShares number of shares to be sold
+   * @param date           date of the sale in yyyy-MM-dd format
+   * @param commission     commission for this sale
+   * @param relief         method by which the sold shares are matched to purchase lots
+   * @return the shares sold from each lot
+   * @throws IllegalArgumentException if the portfolio does not hold enough eligible shares
+   */
+  List<Sale> sellStock(String company, double numberOfShares, String date, double commission,
+                       LotRelief relief) throws IllegalArgumentException;
+
+  /**
+   * Method to sell shares of a company from the lots bought on a specific date.
+   *
+   * @param company         company ticker of the shares to be sold
+   * @param lotPurchaseDate purchase date of the lots to be sold in yyyy-MM-dd format
+   * @param numberOfShares  number of shares to be sold
+   * @param date            date of the sale in yyyy-MM-dd format
+   * @param commission      commission for this sale
+   * @return the shares sold from each lot
+   * @throws IllegalArgumentException if the lots do not hold enough shares
+   */
+  List<Sale> sellLot(String company, String lotPurchaseDate, double numberOfShares, String date,
+                     double commission) throws IllegalArgumentException;
+
+  /**
+   * Method to get all the sales made from this Portfolio in the order they were made.
+   *
+   * @return list of all sales
+   */
+  List<Sale> getSales();
+
+  /**
+   * Method to get the realized and unrealized gain of this Portfolio. It is kept up to date on
+   * every trade and every new price, so getting it does not revalue the stocks.
+   *
+   * @return the current profit and loss
+   */
+  ProfitAndLoss getProfitAndLoss();
+
+  /**
+   * Method to get the number of shares of every company held in this Portfolio, adding up all its
+   * lots and dollar cost plans.
+   *
+   * @return map from ticker symbol to number of shares held
+   */
+  Map<String, Double> getHoldings();
+
+  /**
+   * Method to get the number of shares of a company held in this Portfolio, adding up all its
+   * lots and dollar cost plans.
+   *
+   * @param company ticker symbol of the company in any case
+   * @return number of shares held, 0 if the company is not held
+   */
+  double getNumberOfShares(String company);
+
+  /**
+   * Method to get how far the holdings of this Portfolio have drifted from target weights, using
+   * the latest price of every company.
+   *
+   * @param weights map from company ticker to target percentage
+   * @return the largest distance of any company from its target in percentage points
+   */
+  double getDrift(Map<String, Double> weights);
+
+  /**
+   * Method to get how far the holdings of this Portfolio have drifted from target weights, using
+   * the price of every company on a date.
+   *
+   * @param weights map from company ticker to target percentage
+   * @param date    date of the prices in yyyy-MM-dd format
+   * @return the largest distance of any company from its target in percentage points
+   * @throws IllegalArgumentException if a company held has no price on the date
+   */
+  double getDrift(Map<String, Double> weights, String date) throws IllegalArgumentException;
+
+  /**
+   * Method to bring the holdings of this Portfolio back to target weights on a date. Companies
+   * above their weight are sold first, and the proceeds less commission are used to buy the
+   * companies below their weight.
+   *
+   * @param weights    map from company ticker to target percentage, companies held but not in
+   *                   the map being sold entirely
+   * @param date       date of the trades in yyyy-MM-dd format
+   * @param commission commission for every trade
+   * @return the shares sold from each lot
+   * @throws IllegalArgumentException if the portfolio holds no shares, a company has no price
+   *                                  on the date or a trade cannot be made, in which case no
+   *                                  trade is made
+   */
+  List<Sale> rebalance(Map<String, Double> weights, String date, double commission)
+          throws IllegalArgumentException;
+
+  /**
+   * Method to mark the shares of a company held in this Portfolio to a new price. Purchases of
+   * the company by dollar cost plans which became due with the new price are made first.
+   *
+   * @param company company ticker of the price
+   * @param date    date of the price in yyyy-MM-dd format
+   * @param price   price at which the shares are valued
+   */
+  void updatePrice(String company, String date, double price);
+
+  /**
+   * Method to get the sum total cost basis of all the stocks in this Portfolio.
+   *
+   * @return sum total cost basis of all the stocks in this Portfolio
+   */
+  public double getTotalCostBasis();
+
+  /**
+   * Method to get the sum total cost basis of all the stocks in this Portfolio in micro-dollars.
+   *
+   * @return sum total cost basis in micro-dollars
+   */
+  long getTotalCostBasisMicros();
+
+  double getTotalCostBasis(String date) throws ParseException;
+
+  /**
+   * Method to get the total cost basis of the stocks bought on or before a date in micro-dollars.
+   *
+   * @param date date in the format yyyy-MM-dd
+   * @return total cost basis on the date in micro-dollars
+   */
+  long getTotalCostBasisMicros(String date);
+
+  /**
+   * Method to get the total value of all the stocks in this Portfolio.
+   *
+   * @param date date in the format yyyy-MM-dd
+   * @return sum total value of all the stocks in this Portfolio
+   */
+  public double getTotalValue(String date);
+
+  /**
+   * Method to get the total value of all the stocks in this Portfolio in micro-dollars.
+   *
+   * @param date date in the format yyyy-MM-dd
+   * @return sum total value in micro-dollars
+   */
+  long getTotalValueMicros(String date);
+
+  /**
+   * Method to get list of all the stocks held in this Portfolio. Lots which were sold completely
+   * are not included and partly sold lots hold only their remaining shares. The purchases of
+   * dollar cost plans are built as lots for this list and are not kept.
+   *
+   * @return list of all the stocks in this Portfolio
+   */
+  List<Stock> getStockList();
+
+  /**
+   * Method to get the lots held in this Portfolio without the purchases of its dollar cost plans.
+   *
+   * @return list of the lots held outright
+   */
+  List<Stock> getStockListWithoutPlans();
+
+  /**
+   * Method to give every lot of this Portfolio, including the purchases of its dollar cost plans,
+   * to an action without building a list of them. The portfolio cannot be changed until the
+   * action has been given the last lot.
+   *
+   * @param action action given every lot, the lots held outright first
+   */
+  void forEachLot(Consumer<Stock> action);
+
+  /**
+   * Method to get the list of all companies in this portfolio.
+   *
+   * @return all companies in this portfolio
+   */
+  Set<String> getCompanyList();
+
+  /**
+   * Method to add a company to this portfolio without any investment.
+   *
+   * @param company company to added to this portfolio
+   */
+  void addStockData(String company);
+
+  /**
+   * Method to set DollarCostAveraged to true when Dollar cost strategy is applied to this
+   * portfolio.
+   *
+   * @param b false initially and true when dollar cost average strategy is applied to this
+   *          portfolio
+   */
+  void setDollarCostAveraged(boolean b);
+
+  /**
+   * Method to set the dollar cost average parameters.
+   *
+   * @param data object that represents dollar cost average strategy paremeters
+   */
+  void setDollarCostAverage(DollarCostAverage data);
+}
@@ -1,114 +1,617 @@
-package stockmarket.model;
-
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
-/**
- * This class is an implementation of Portfolio interface and defines all the methods mandated by
- * this interface.
- */
-public class PortfolioImpl implements Portfolio {
-  private final List<Stock> stocks;
-  private Set<String> companies;
-  private boolean dollarCostAveraged;
-
-  @Override
-  public DollarCostAverage getDollarCostAverage() {
-    return dollarCostAverage;
-  }
-
-  @Override
-  public boolean getDollarCostAveraged() {
-    return dollarCostAveraged;
-  }
-
-  private DollarCostAverage dollarCostAverage;
-
-  /**
-   * Constructor to initialize stocks to an empty ArrayList.
-   */
-  public PortfolioImpl() {
-    this.stocks = new ArrayList<>();
-    this.companies = new HashSet<>();
-    this.dollarCostAveraged = false;
-  }
-
-  @Override
-  public void addStock(String company, double amount, String date, double commission)
-          throws IOException {
-    this.stocks.add(new StockImpl(company, amount, date, commission));
-  }
-
-  @Override
-  public double getTotalCostBasis() {
-    double totalCost = 0;
-    for (Stock stock : stocks) {
-      totalCost += stock.getCostBasis();
-    }
-    return totalCost;
-  }
-
-  @Override
-  public double getTotalCostBasis(String date) throws ParseException {
-    double totalCost = 0;
-    for (Stock stock : stocks) {
-      totalCost += stock.getCostBasis(date);
-    }
-    return totalCost;
-  }
-
-  @Override
-  public double getTotalValue(String date) {
-    double totalValue = 0;
-    for (Stock stock : stocks) {
-      totalValue += stock.getValueOnDate(date);
-    }
-    return totalValue;
-  }
-
-  @Override
-  public List<Stock> getStockList() {
-    List<Stock> newStockImpl = new ArrayList<>(stocks.size());
-    newStockImpl.addAll(stocks);
-    return newStockImpl;
-  }
-
-  @Override
-  public Set<String> getCompanyList() {
-
-    Set<String> returnCompanyList = new HashSet<>();
-    returnCompanyList.addAll(this.companies);
-    return returnCompanyList;
-  }
-
-  @Override
-  public void addStockData(String company) {
-    if (!companies.add(company)) {
-      throw new IllegalArgumentException("Company already exists in portfolio\n");
-    }
-  }
-
-  @Override
-  public void setDollarCostAveraged(boolean b) {
-    this.dollarCostAveraged = b;
-  }
-
-  @Override
-  public void setDollarCostAverage(DollarCostAverage data) {
-    this.dollarCostAverage = data;
-  }
-
-
-  @Override
-  public String toString() {
-    String stockString = "";
-    for (Stock stock : stocks) {
-      stockString = stockString + stock;
-    }
-    return stocks.toString();
-  }
+package stockmarket.model;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * This class is an implementation of Portfolio interface and defines all the methods mandated by
+ * this interface. All the methods synchronize on the portfolio so that it can be written by the
+ * background autosave while it is being modified. Open lots are kept in purchase order and are
+ * also indexed per company so that a sale finds the lots it relieves without a linear scan. Amounts
+ * are added up as whole micro-dollars so totals over many lots are exact. Dollar cost plans are
+ * kept as plans and not as lots, and the purchases of a company are only turned into lots when
+ * shares of it are sold.
+ */
+public class PortfolioImpl implements Portfolio {
+  private static final double MIN_TRADE = 0.01;
+
+  private final Map<Long, Stock> stocks;
+  // lot books keyed by the ID of the ticker symbol in the symbol table
+  private final IntMap<LotBook> lotBooks;
+  private final List<Sale> sales;
+  private final List<DollarCostPlan> plans;
+  private final ProfitAndLossLedger profitAndLoss;
+  private long nextLotID;
+  private long totalCostBasis;
+  private Set<String> companies;
+  private boolean dollarCostAveraged;
+
+  @Override
+  public synchronized DollarCostAverage getDollarCostAverage() {
+    return dollarCostAverage;
+  }
+
+  @Override
+  public synchronized boolean getDollarCostAveraged() {
+    return dollarCostAveraged;
+  }
+
+  private DollarCostAverage dollarCostAverage;
+
+  /**
+   * Constructor to initialize stocks to an empty ArrayList.
+   */
+  public PortfolioImpl() {
+    this.stocks = new LinkedHashMap<>();
+    this.lotBooks = new IntMap<>();
+    this.sales = new ArrayList<>();
+    this.plans = new ArrayList<>();
+    this.profitAndLoss = new ProfitAndLossLedger();
+    this.companies = new HashSet<>();
+    this.dollarCostAveraged = false;
+  }
+
+  @Override
+  public synchronized void addStock(String company, double amount, String date,
+                                    double commission) throws IOException {
+    addLot(new StockImpl(company, amount, date, commission));
+  }
+
+  @Override
+  public synchronized void addStocks(List<Stock> bought) {
+    for (Stock stock : bought) {
+      addLot(stock);
+    }
+  }
+
+  @Override
+  public synchronized void addDollarCostPlan(DollarCostAverage plan)
+          throws IllegalArgumentException {
+    DollarCostPlan added = new DollarCostPlan(plan);
+    added.resolve(PriceStore.getDefault(), false);
+    plans.add(added);
+    addPlan(added);
+  }
+
+  /**
+   * Method to add a previously persisted dollar cost plan to this portfolio. The plan is resolved
+   * against the price store when it is first used, since the prices of its companies may not have
+   * been downloaded yet.
+   *
+   * @param plan parameters of the dollar cost plan
+   */
+  synchronized void restoreDollarCostPlan(DollarCostAverage plan) {
+    plans.add(new DollarCostPlan(plan));
+  }
+
+  /**
+   * Helper method to resolve the plans restored from a snapshot.
+   */
+  private void resolvePlans() {
+    for (DollarCostPlan plan : plans) {
+      if (!plan.isResolved()) {
+        plan.resolve(PriceStore.getDefault(), true);
+        addPlan(plan);
+      }
+    }
+  }
+
+  /**
+   * Helper method to add the purchases of a resolved plan to the totals.
+   */
+  private void addPlan(DollarCostPlan plan) {
+    for (DollarCostPlan.Leg leg : plan.getLegs()) {
+      profitAndLoss.onBuy(leg.getCompany(), leg.getNumberOfShares(), leg.getCostBasisMicros());
+    }
+    totalCostBasis += plan.getCostBasisMicros();
+  }
+
+  /**
+   * Helper method to turn the plan purchases of a company made so far into lots. Their cost basis
+   * and shares are already part of the totals. A plan which still has purchases of the company
+   * to make leaves them to a new plan starting after the last purchase.
+   */
+  private void detachPlans(String company) {
+    List<DollarCostPlan> continuations = new ArrayList<>();
+    for (Iterator<DollarCostPlan> it = plans.iterator(); it.hasNext(); ) {
+      DollarCostPlan plan = it.next();
+      DollarCostAverage continuation = plan.getContinuation(company);
+      for (Stock stock : plan.detach(company)) {
+        indexLot(stock);
+      }
+      if (continuation != null) {
+        continuations.add(new DollarCostPlan(continuation));
+      }
+      if (plan.isEmpty()) {
+        it.remove();
+      }
+    }
+    for (DollarCostPlan plan : continuations) {
+      plan.resolve(PriceStore.getDefault(), true);
+      plans.add(plan);
+      addPlan(plan);
+    }
+  }
+
+  /**
+   * Helper method to make the plan purchases of a company which became due with a new bar. A
+   * purchase larger than the volume traded on its day is skipped without stopping the plan.
+   */
+  private void advancePlans(String company) {
+    for (DollarCostPlan plan : plans) {
+      DollarCostPlan.Leg leg = plan.getLeg(company);
+      if (leg == null) {
+        continue;
+      }
+      double shares = leg.getNumberOfShares();
+      long costBasis = leg.getCostBasisMicros();
+      leg.advance(true);
+      if (leg.getCostBasisMicros() != costBasis) {
+        profitAndLoss.onBuy(leg.getCompany(), leg.getNumberOfShares() - shares,
+                leg.getCostBasisMicros() - costBasis);
+        totalCostBasis += leg.getCostBasisMicros() - costBasis;
+      }
+    }
+  }
+
+  @Override
+  public synchronized List<DollarCostAverage> getDollarCostPlans() {
+    List<DollarCostAverage> parameters = new ArrayList<>(plans.size());
+    for (DollarCostPlan plan : plans) {
+      parameters.add(plan.getParameters());
+    }
+    return parameters;
+  }
+
+  /**
+   * Method to add previously persisted sales to this portfolio.
+   *
+   * @param restored sales to be added
+   */
+  synchronized void restoreSales(List<Sale> restored) {
+    this.sales.addAll(restored);
+    for (Sale sale : restored) {
+      profitAndLoss.onRestoredSale(sale);
+    }
+  }
+
+  /**
+   * Helper method to add an open lot and index it under its company.
+   */
+  private void addLot(Stock stock) {
+    indexLot(stock);
+    totalCostBasis += stock.getCostBasisMicros();
+    profitAndLoss.onBuy(stock);
+  }
+
+  /**
+   * Helper method to index an open lot under its company without adding it to the totals.
+   */
+  private void indexLot(Stock stock) {
+    long id = nextLotID++;
+    stocks.put(id, stock);
+    lotBooks.computeIfAbsent(SymbolTable.id(stock), k -> new LotBook()).add(id, stock);
+  }
+
+  @Override
+  public synchronized List<Sale> sellStock(String company, double numberOfShares, String date,
+                                           double commission, LotRelief relief)
+          throws IllegalArgumentException {
+    if (relief == LotRelief.SPECIFIC_LOT) {
+      throw new IllegalArgumentException("Purchase date of the lot to be sold is required");
+    }
+    return sell(company, numberOfShares, date, commission, relief, 0);
+  }
+
+  @Override
+  public synchronized List<Sale> sellLot(String company, String lotPurchaseDate,
+                                         double numberOfShares, String date, double commission)
+          throws IllegalArgumentException {
+    return sell(company, numberOfShares, date, commission, LotRelief.SPECIFIC_LOT,
+            PriceSeries.toDay(lotPurchaseDate));
+  }
+
+  /**
+   * Helper method to sell shares from the lots matched by the lot book of the company. A lot
+   * which is sold in part is replaced by a lot holding the remaining shares and the matching
+   * share of its cost basis and commission.
+   */
+  private List<Sale> sell(String company, double numberOfShares, String date, double commission,
+                          LotRelief relief, int lotDay) throws IllegalArgumentException {
+    if (numberOfShares <= 0) {
+      throw new IllegalArgumentException("Number of shares to be sold should be positive");
+    }
+    if (commission < 0) {
+      throw new IllegalArgumentException("Commission cannot be negative");
+    }
+    resolvePlans();
+    detachPlans(company);
+    int symbol = SymbolTable.id(company);
+    LotBook book = lotBooks.get(symbol);
+    if (book == null) {
+      throw new IllegalArgumentException("Portfolio holds no shares of company " + company);
+    }
+    int saleDay = PriceSeries.toDay(date);
+    double price = PriceStore.getDefault().getSeries(symbol).getPrice(saleDay);
+    List<LotBook.Lot> plan = book.match(relief, saleDay, lotDay, numberOfShares);
+    List<Sale> sold = new ArrayList<>(plan.size());
+    double remaining = numberOfShares;
+    long saleCommissionTotal = Money.ofDollars(commission);
+    long commissionLeft = saleCommissionTotal;
+    for (int i = 0; i < plan.size(); i++) {
+      LotBook.Lot lot = plan.get(i);
+      Stock stock = lot.stock;
+      double lotShares = stock.getNumberOfShares();
+      double shares = Math.min(remaining, lotShares);
+      remaining -= shares;
+      long cost = stock.getCostBasisMicros();
+      long lotCommission = stock.getCommissionMicros();
+      if (lotShares - shares <= LotBook.EPSILON) {
+        book.remove(lot);
+        stocks.remove(lot.id);
+        shares = lotShares;
+      } else {
+        double fraction = shares / lotShares;
+        // the remainder keeps whatever rounding leaves, so no micro-dollar is lost
+        long remainderCost = cost - Money.multiply(cost, fraction, RoundingMode.HALF_EVEN);
+        long remainderCommission = lotCommission
+                - Money.multiply(lotCommission, fraction, RoundingMode.HALF_EVEN);
+        Stock remainder = new StockImpl(stock.getCompanyTicker(), stock.getPurchaseDate(),
+                remainderCost, lotShares - shares, remainderCommission);
+        book.replace(lot, remainder);
+        stocks.put(lot.id, remainder);
+        cost -= remainderCost;
+      }
+      long saleCommission = i == plan.size() - 1 ? commissionLeft
+              : Money.multiply(saleCommissionTotal, shares / numberOfShares,
+              RoundingMode.HALF_EVEN);
+      commissionLeft -= saleCommission;
+      totalCostBasis -= cost;
+      Sale sale = new Sale(stock.getCompanyTicker(), date, stock.getPurchaseDate(), shares, cost,
+              Money.ofDollars(shares * price), saleCommission);
+      profitAndLoss.onSale(sale);
+      sold.add(sale);
+    }
+    if (book.isEmpty()) {
+      lotBooks.remove(symbol);
+    }
+    sales.addAll(sold);
+    return sold;
+  }
+
+  @Override
+  public synchronized List<Sale> getSales() {
+    return Collections.unmodifiableList(new ArrayList<>(sales));
+  }
+
+  @Override
+  public synchronized ProfitAndLoss getProfitAndLoss() {
+    resolvePlans();
+    return profitAndLoss.snapshot();
+  }
+
+  @Override
+  public synchronized Map<String, Double> getHoldings() {
+    resolvePlans();
+    return profitAndLoss.holdings();
+  }
+
+  @Override
+  public synchronized double getNumberOfShares(String company) {
+    resolvePlans();
+    return profitAndLoss.getShares(SymbolTable.id(company));
+  }
+
+  /**
+   * Method to be told about every company this portfolio comes to hold, starting with the ones it
+   * already holds. The companies of restored plans which are not resolved yet are passed on as
+   * well, as their purchases only reach the ledger once the plans are resolved. The listener is
+   * called while the portfolio is locked, so it must not wait for the lock of another portfolio.
+   *
+   * @param listener listener given the symbol ID of each company
+   */
+  synchronized void watchHoldings(IntConsumer listener) {
+    profitAndLoss.watch(listener);
+    for (DollarCostPlan plan : plans) {
+      if (!plan.isResolved()) {
+        for (String company : plan.getParameters().getWeights().keySet()) {
+          listener.accept(SymbolTable.id(company));
+        }
+      }
+    }
+  }
+
+  @Override
+  public synchronized double getDrift(Map<String, Double> weights) {
+    resolvePlans();
+    return profitAndLoss.drift(weights);
+  }
+
+  @Override
+  public synchronized double getDrift(Map<String, Double> weights, String date)
+          throws IllegalArgumentException {
+    int day = PriceSeries.toDay(date);
+    IntDoubleMap values = new IntDoubleMap();
+    double total = 0;
+    for (Map.Entry<String, Double> entry : getHoldings().entrySet()) {
+      int symbol = SymbolTable.id(entry.getKey());
+      double value = entry.getValue()
+              * PriceStore.getDefault().getSeries(symbol).getPrice(day);
+      values.put(symbol, value);
+      total += value;
+    }
+    if (total <= 0) {
+      return 0;
+    }
+    IntDoubleMap targets = new IntDoubleMap(weights.size());
+    for (Map.Entry<String, Double> entry : weights.entrySet()) {
+      targets.add(SymbolTable.id(entry.getKey()), entry.getValue());
+    }
+    double drift = 0;
+    for (int i = values.first(); i >= 0; i = values.next(i)) {
+      double weight = values.valueAt(i) / total * 100;
+      drift = Math.max(drift, Math.abs(weight - targets.get(values.keyAt(i), 0)));
+    }
+    // companies with a target but no shares are entirely below their weight
+    for (int i = targets.first(); i >= 0; i = targets.next(i)) {
+      if (!values.containsKey(targets.keyAt(i))) {
+        drift = Math.max(drift, targets.valueAt(i));
+      }
+    }
+    return drift;
+  }
+
+  @Override
+  public synchronized List<Sale> rebalance(Map<String, Double> weights, String date,
+                                           double commission)
+          throws IllegalArgumentException {
+    if (commission < 0) {
+      throw new IllegalArgumentException("Commission cannot be negative");
+    }
+    // every table is keyed by symbol ID and lists the companies in the order of the weights
+    IntMap<String> tickers = new IntMap<>();
+    IntDoubleMap targets = new IntDoubleMap();
+    for (Map.Entry<String, Double> entry : weights.entrySet()) {
+      int symbol = SymbolTable.id(entry.getKey());
+      if (!tickers.containsKey(symbol)) {
+        tickers.put(symbol, entry.getKey());
+      }
+      targets.add(symbol, entry.getValue());
+    }
+    IntDoubleMap shares = new IntDoubleMap();
+    for (Map.Entry<String, Double> entry : getHoldings().entrySet()) {
+      int symbol = SymbolTable.id(entry.getKey());
+      tickers.put(symbol, entry.getKey());
+      shares.put(symbol, entry.getValue());
+    }
+    int day = PriceSeries.toDay(date);
+    IntDoubleMap prices = new IntDoubleMap(tickers.size());
+    double total = 0;
+    for (int i = tickers.first(); i >= 0; i = tickers.next(i)) {
+      int symbol = tickers.keyAt(i);
+      double price = PriceStore.getDefault().getSeries(symbol).getPrice(day);
+      prices.put(symbol, price);
+      total += shares.get(symbol, 0) * price;
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("Portfolio holds no shares to rebalance");
+    }
+    // everything above its target is sold first, so the buys are paid from the proceeds
+    IntDoubleMap sales = new IntDoubleMap();
+    IntDoubleMap deficits = new IntDoubleMap();
+    double proceeds = 0;
+    double deficit = 0;
+    for (int i = tickers.first(); i >= 0; i = tickers.next(i)) {
+      int symbol = tickers.keyAt(i);
+      double price = prices.get(symbol, 0);
+      double held = shares.get(symbol, 0);
+      double target = total * targets.get(symbol, 0) / 100;
+      double excess = held * price - target;
+      if (excess >= MIN_TRADE) {
+        double numberOfShares = target > 0 ? Math.min(held, excess / price) : held;
+        sales.put(symbol, numberOfShares);
+        proceeds += numberOfShares * price - commission;
+      } else if (excess <= -MIN_TRADE) {
+        deficits.put(symbol, -excess);
+        deficit -= excess;
+      }
+    }
+    // every trade is checked before any is made, so a trade which cannot be made leaves the
+    // portfolio as it was
+    for (int i = sales.first(); i >= 0; i = sales.next(i)) {
+      int symbol = sales.keyAt(i);
+      detachPlans(tickers.get(symbol));
+      LotBook book = lotBooks.get(symbol);
+      if (book == null) {
+        throw new IllegalArgumentException("Portfolio holds no shares of company "
+                + tickers.get(symbol));
+      }
+      book.match(LotRelief.FIFO, day, 0, sales.valueAt(i));
+    }
+    List<Stock> bought = new ArrayList<>();
+    double available = proceeds - deficits.size() * commission;
+    if (available >= MIN_TRADE) {
+      double scale = Math.min(1, available / deficit);
+      for (int i = deficits.first(); i >= 0; i = deficits.next(i)) {
+        bought.add(new StockImpl(tickers.get(deficits.keyAt(i)), deficits.valueAt(i) * scale,
+                date, commission));
+      }
+    }
+    List<Sale> sold = new ArrayList<>();
+    for (int i = sales.first(); i >= 0; i = sales.next(i)) {
+      sold.addAll(sell(tickers.get(sales.keyAt(i)), sales.valueAt(i), date, commission,
+              LotRelief.FIFO, 0));
+    }
+    for (Stock stock : bought) {
+      addLot(stock);
+    }
+    return sold;
+  }
+
+  @Override
+  public synchronized void updatePrice(String company, String date, double price) {
+    resolvePlans();
+    advancePlans(company);
+    profitAndLoss.onPrice(company, PriceSeries.toDay(date), price);
+  }
+
+  @Override
+  public synchronized double getTotalCostBasis() {
+    return Money.toDollars(getTotalCostBasisMicros());
+  }
+
+  @Override
+  public synchronized long getTotalCostBasisMicros() {
+    resolvePlans();
+    return totalCostBasis;
+  }
+
+  /**
+   * Method to get the cost basis of the lots of this portfolio, leaving out the purchases of its
+   * dollar cost plans, which change as the plans go on without any trade.
+   *
+   * @return cost basis in micro-dollars
+   */
+  synchronized long getLotCostBasisMicros() {
+    resolvePlans();
+    long total = totalCostBasis;
+    for (DollarCostPlan plan : plans) {
+      total -= plan.getCostBasisMicros();
+    }
+    return total;
+  }
+
+  /**
+   * Method to get the dollar cost plans of this portfolio, resolving the restored ones. The legs
+   * of the plans keep changing as they buy, so they are only read with the portfolio locked.
+   *
+   * @return the plans in the order they were added
+   */
+  synchronized List<DollarCostPlan> getPlans() {
+    resolvePlans();
+    return new ArrayList<>(plans);
+  }
+
+  @Override
+  public synchronized double getTotalCostBasis(String date) throws ParseException {
+    return Money.toDollars(getTotalCostBasisMicros(date));
+  }
+
+  @Override
+  public synchronized long getTotalCostBasisMicros(String date) {
+    int day = PriceSeries.toDay(date);
+    resolvePlans();
+    long totalCost = 0;
+    for (DollarCostPlan plan : plans) {
+      totalCost += plan.getCostBasisMicros(day);
+    }
+    for (int i = lotBooks.first(); i >= 0; i = lotBooks.next(i)) {
+      totalCost += lotBooks.valueAt(i).getCostBasisMicros(day);
+    }
+    // shares sold after the date were still held on it
+    for (Sale sale : sales) {
+      if (PriceSeries.toDay(sale.getPurchaseDate()) <= day
+              && PriceSeries.toDay(sale.getSaleDate()) > day) {
+        totalCost += sale.getCostBasisMicros();
+      }
+    }
+    return totalCost;
+  }
+
+  @Override
+  public synchronized double getTotalValue(String date) {
+    return Money.toDollars(getTotalValueMicros(date));
+  }
+
+  @Override
+  public synchronized long getTotalValueMicros(String date) {
+    int day = PriceSeries.toDay(date);
+    PriceStore prices = PriceStore.getDefault();
+    resolvePlans();
+    long totalValue = 0;
+    for (DollarCostPlan plan : plans) {
+      totalValue += plan.getValueMicros(day);
+    }
+    for (int i = lotBooks.first(); i >= 0; i = lotBooks.next(i)) {
+      double price = prices.getSeries(lotBooks.keyAt(i)).getPrice(day);
+      totalValue += lotBooks.valueAt(i).getValueMicros(price);
+    }
+    for (Sale sale : sales) {
+      if (PriceSeries.toDay(sale.getSaleDate()) > day) {
+        totalValue += Money.ofDollars(sale.getNumberOfShares()
+                * prices.getSeries(sale.getCompanyTicker()).getPrice(day));
+      }
+    }
+    return totalValue;
+  }
+
+  @Override
+  public synchronized List<Stock> getStockList() {
+    resolvePlans();
+    List<Stock> newStockImpl = getStockListWithoutPlans();
+    for (DollarCostPlan plan : plans) {
+      newStockImpl.addAll(plan.getLots());
+    }
+    return newStockImpl;
+  }
+
+  @Override
+  public synchronized void forEachLot(Consumer<Stock> action) {
+    resolvePlans();
+    for (Stock stock : stocks.values()) {
+      action.accept(stock);
+    }
+    for (DollarCostPlan plan : plans) {
+      plan.forEachLot(action);
+    }
+  }
+
+  @Override
+  public synchronized List<Stock> getStockListWithoutPlans() {
+    List<Stock> newStockImpl = new ArrayList<>(stocks.size());
+    newStockImpl.addAll(stocks.values());
+    return newStockImpl;
+  }
+
+  @Override
+  public synchronized Set<String> getCompanyList() {
+
+    Set<String> returnCompanyList = new HashSet<>();
+    returnCompanyList.addAll(this.companies);
+    return returnCompanyList;
+  }
+
+  @Override
+  public synchronized void addStockData(String company) {
+    if (!companies.add(company)) {
+      throw new IllegalArgumentException("Company already exists in portfolio\n");
+    }
+  }
+
+  @Override
+  public synchronized void setDollarCostAveraged(boolean b) {
+    this.dollarCostAveraged = b;
+  }
+
+  @Override
+  public synchronized void setDollarCostAverage(DollarCostAverage data) {
+    this.dollarCostAverage = data;
+  }
+
+
+  @Override
+  public synchronized String toString() {
+    return getStockList().toString();
+  }
 }
\ No newline at end of file
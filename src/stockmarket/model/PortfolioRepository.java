@@ -0,0 +1,49 @@
+package stockmarket.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * This interface represents a store in which portfolios are persisted between runs of the
+ * application. Portfolio IDs are stored in lower case.
+ */
+public interface PortfolioRepository extends Closeable {
+
+  /**
+   * Method to persist the state of a portfolio, replacing any previously saved state.
+   *
+   * @param portfolioID unique ID of the portfolio
+   * @param portfolio   portfolio to be persisted
+   * @throws IOException if the portfolio could not be written
+   */
+  void savePortfolio(String portfolioID, Portfolio portfolio) throws IOException;
+
+  /**
+   * Method to persist several portfolios together. Implementations that support transactions
+   * write either all of them or none of them.
+   *
+   * @param portfolios map from unique portfolio ID to the portfolio to be persisted
+   * @throws IOException if the portfolios could not be written
+   */
+  void savePortfolios(Map<String, Portfolio> portfolios) throws IOException;
+
+  /**
+   * Method to load a previously persisted portfolio.
+   *
+   * @param portfolioID unique ID of the portfolio
+   * @return the restored portfolio or null if no portfolio is saved with this ID
+   * @throws IOException              if the portfolio could not be read
+   * @throws IllegalArgumentException if the saved data is corrupt
+   */
+  Portfolio loadPortfolio(String portfolioID) throws IOException, IllegalArgumentException;
+
+  /**
+   * Method to get the IDs of all persisted portfolios.
+   *
+   * @return IDs of all persisted portfolios in sorted order
+   * @throws IOException if the store could not be read
+   */
+  Set<String> listPortfolios() throws IOException;
+}
@@ -0,0 +1,16 @@
+package stockmarket.model;
+
+/**
+ * This interface represents a listener which is told about every new daily bar added to a price
+ * series of the price store.
+ */
+public interface PriceListener {
+
+  /**
+   * Method called after a new daily bar has been appended to a price series.
+   *
+   * @param series series to which the bar was appended
+   * @param index  index of the new bar in the series
+   */
+  void onBar(PriceSeries series, int index);
+}
@@ -0,0 +1,335 @@
+package stockmarket.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents the daily price history of one company held in primitive arrays sorted by
+ * date. Dates are kept as epoch days so that a date can be found with a binary search instead of
+ * searching the text of the cached CSV file. New bars are only ever appended after the last day,
+ * and the arrays are published together with the number of bars in one volatile holder, after the
+ * bar itself, so readers never see a partial bar or arrays shorter than the number of bars.
+ */
+public final class PriceSeries {
+  private final String ticker;
+  private final int symbol;
+  private volatile Bars bars;
+  private final Map<Long, PurchaseSchedule> schedules = new ConcurrentHashMap<>();
+
+  /**
+   * Constructor to initialize an empty price series.
+   *
+   * @param ticker   ticker symbol of the company
+   * @param capacity number of daily bars expected
+   */
+  PriceSeries(String ticker, int capacity) {
+    this.ticker = ticker;
+    this.symbol = SymbolTable.id(ticker);
+    int length = Math.max(capacity, 16);
+    this.bars = new Bars(new int[length], new double[length], new double[length],
+            new double[length], new double[length], new long[length], 0);
+  }
+
+  /**
+   * The arrays of a series and the number of bars in them. A holder is never changed once
+   * published, apart from the slots past its number of bars, which only a later holder shows.
+   */
+  private static final class Bars {
+    private final int[] days;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int size;
+
+    Bars(int[] days, double[] open, double[] high, double[] low, double[] close, long[] volume,
+         int size) {
+      this.days = days;
+      this.open = open;
+      this.high = high;
+      this.low = low;
+      this.close = close;
+      this.volume = volume;
+      this.size = size;
+    }
+  }
+
+  /**
+   * Method to parse the data downloaded from AlphaVantage, which lists the newest day first.
+   *
+   * @param ticker ticker symbol of the company
+   * @param csv    contents of the cached CSV file
+   * @return the price series sorted by date
+   * @throws IllegalArgumentException if the data is not in the expected format
+   */
+  static PriceSeries parse(String ticker, String csv) throws IllegalArgumentException {
+    String[] lines = csv.split("\n");
+    PriceSeries series = new PriceSeries(ticker, lines.length);
+    for (int i = lines.length - 1; i >= 1; i--) {
+      String line = lines[i].trim();
+      if (line.isEmpty()) {
+        continue;
+      }
+      String[] fields = line.split(",");
+      try {
+        series.append(toDay(fields[0]), Double.parseDouble(fields[1]),
+                Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+                Double.parseDouble(fields[4]), Long.parseLong(fields[5]));
+      } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+        throw new IllegalArgumentException("Invalid price data for company " + ticker);
+      }
+    }
+    return series;
+  }
+
+  /**
+   * Method to add the bar of a day after the last day of this series.
+   *
+   * @return true if the bar was added or false if its day is not after the last day
+   */
+  synchronized boolean append(int day, double openPrice, double highPrice, double lowPrice,
+                              double closePrice, long tradedVolume) {
+    Bars current = bars;
+    int size = current.size;
+    if (size > 0 && day <= current.days[size - 1]) {
+      return false;
+    }
+    int[] days = current.days;
+    double[] open = current.open;
+    double[] high = current.high;
+    double[] low = current.low;
+    double[] close = current.close;
+    long[] volume = current.volume;
+    if (size == days.length) {
+      int length = size * 2;
+      days = Arrays.copyOf(days, length);
+      open = Arrays.copyOf(open, length);
+      high = Arrays.copyOf(high, length);
+      low = Arrays.copyOf(low, length);
+      close = Arrays.copyOf(close, length);
+      volume = Arrays.copyOf(volume, length);
+    }
+    days[size] = day;
+    open[size] = openPrice;
+    high[size] = highPrice;
+    low[size] = lowPrice;
+    close[size] = closePrice;
+    volume[size] = tradedVolume;
+    bars = new Bars(days, open, high, low, close, volume, size + 1);
+    return true;
+  }
+
+  /**
+   * Method to get the ticker symbol of this series.
+   *
+   * @return ticker symbol of the company
+   */
+  public String getTicker() {
+    return ticker;
+  }
+
+  /**
+   * Method to get the ID of the ticker symbol of this series in the symbol table.
+   *
+   * @return ID of the symbol
+   */
+  int getSymbol() {
+    return symbol;
+  }
+
+  /**
+   * Method to get the number of days in this series.
+   *
+   * @return number of daily bars
+   */
+  public int size() {
+    return bars.size;
+  }
+
+  /**
+   * Method to get the index of a day.
+   *
+   * @param day epoch day to be found
+   * @return index of the day or -1 if there is no bar on that day
+   */
+  public int indexOf(int day) {
+    Bars current = bars;
+    int index = Arrays.binarySearch(current.days, 0, current.size, day);
+    return index >= 0 ? index : -1;
+  }
+
+  /**
+   * Method to get the index of the first bar on or after a day.
+   *
+   * @param day epoch day
+   * @return index of the bar or size() if there is none
+   */
+  public int ceilingIndex(int day) {
+    Bars current = bars;
+    int index = Arrays.binarySearch(current.days, 0, current.size, day);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Method to get the index of the last bar on or before a day.
+   *
+   * @param day epoch day
+   * @return index of the bar or -1 if there is none
+   */
+  public int floorIndex(int day) {
+    Bars current = bars;
+    int index = Arrays.binarySearch(current.days, 0, current.size, day);
+    return index >= 0 ? index : -index - 2;
+  }
+
+  /**
+   * Method to get the epoch day of a bar.
+   *
+   * @param index index of the bar
+   * @return epoch day of the bar
+   */
+  public int getDay(int index) {
+    return bars.days[index];
+  }
+
+  /**
+   * Method to get the opening price of a bar.
+   *
+   * @param index index of the bar
+   * @return opening price
+   */
+  public double getOpen(int index) {
+    return bars.open[index];
+  }
+
+  /**
+   * Method to get the highest price of a bar.
+   *
+   * @param index index of the bar
+   * @return highest price
+   */
+  public double getHigh(int index) {
+    return bars.high[index];
+  }
+
+  /**
+   * Method to get the lowest price of a bar. Shares are bought and valued at this price.
+   *
+   * @param index index of the bar
+   * @return lowest price
+   */
+  public double getLow(int index) {
+    return bars.low[index];
+  }
+
+  /**
+   * Method to get the closing price of a bar.
+   *
+   * @param index index of the bar
+   * @return closing price
+   */
+  public double getClose(int index) {
+    return bars.close[index];
+  }
+
+  /**
+   * Method to get the traded volume of a bar.
+   *
+   * @param index index of the bar
+   * @return number of shares traded
+   */
+  public long getVolume(int index) {
+    return bars.volume[index];
+  }
+
+  /**
+   * Method to get the purchase schedule of a dollar cost plan over this series. Schedules are
+   * cached per start day and period and are extended when bars were appended since they were
+   * built.
+   *
+   * @param startDay epoch day of the first purchase
+   * @param period   number of days between purchases
+   * @return the schedule over all bars of this series
+   */
+  PurchaseSchedule getSchedule(int startDay, int period) {
+    long key = ((long) startDay << 32) | period;
+    PurchaseSchedule schedule = schedules.get(key);
+    if (schedule == null || schedule.getBars() < bars.size) {
+      synchronized (this) {
+        schedule = schedules.get(key);
+        if (schedule == null || schedule.getBars() < bars.size) {
+          schedule = PurchaseSchedule.build(this, startDay, period, schedule);
+          schedules.put(key, schedule);
+        }
+      }
+    }
+    return schedule;
+  }
+
+  /**
+   * Method to get the price at which shares are bought and valued on a day.
+   *
+   * @param day epoch day
+   * @return lowest price of the day
+   * @throws IllegalArgumentException if there is no bar on that day
+   */
+  public double getPrice(int day) throws IllegalArgumentException {
+    int index = indexOf(day);
+    if (index < 0) {
+      throw new IllegalArgumentException("Data for given date" + toDate(day)
+              + " is not available for company " + ticker);
+    }
+    return bars.low[index];
+  }
+
+  /**
+   * Method to convert a date in yyyy-MM-dd format to an epoch day without creating any objects.
+   *
+   * @param date date in yyyy-MM-dd format
+   * @return number of days since 1970-01-01
+   * @throws IllegalArgumentException if the date is not in yyyy-MM-dd format
+   */
+  public static int toDay(String date) throws IllegalArgumentException {
+    if (date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+      throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
+    }
+    int year = digits(date, 0, 4);
+    int month = digits(date, 5, 7);
+    int day = digits(date, 8, 10);
+    // days from civil algorithm, valid for the proleptic Gregorian calendar
+    int y = month <= 2 ? year - 1 : year;
+    int era = (y >= 0 ? y : y - 399) / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+  /**
+   * Method to convert an epoch day to a date in yyyy-MM-dd format.
+   *
+   * @param day number of days since 1970-01-01
+   * @return the date in yyyy-MM-dd format
+   */
+  public static String toDate(int day) {
+    return LocalDate.ofEpochDay(day).toString();
+  }
+
+  /**
+   * Helper method to parse the decimal digits of a part of a string.
+   */
+  private static int digits(String text, int from, int to) {
+    int value = 0;
+    for (int i = from; i < to; i++) {
+      char c = text.charAt(i);
+      if (c < '0' || c > '9') {
+        throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
+      }
+      value = value * 10 + (c - '0');
+    }
+    return value;
+  }
+}
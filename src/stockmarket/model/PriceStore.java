@@ -0,0 +1,189 @@
+package stockmarket.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class holds the price history of every company in memory. The cached CSV file of a company
+ * is parsed once, the first time its prices are needed, and every later lookup is a binary search
+ * over the parsed series. Loaded series are also kept in an array indexed by symbol ID, so a
+ * lookup by ticker costs one probe of the symbol table and never lower cases the ticker. Listeners
+ * are told about every bar appended after a series was loaded.
+ */
+public class PriceStore {
+  private static final PriceStore DEFAULT = new PriceStore("data");
+
+  private final Path directory;
+  private final Map<String, PriceSeries> series;
+  // every series of the map at the index of its symbol ID, replaced by a larger copy as IDs grow
+  private volatile AtomicReferenceArray<PriceSeries> byID;
+  private final List<PriceListener> listeners;
+
+  /**
+   * Constructor to initialize a price store reading the cached data files of a directory.
+   *
+   * @param directory directory holding one CSV file per company
+   */
+  public PriceStore(String directory) {
+    this.directory = Paths.get(directory);
+    this.series = new ConcurrentHashMap<>();
+    this.byID = new AtomicReferenceArray<>(256);
+    this.listeners = new CopyOnWriteArrayList<>();
+  }
+
+  /**
+   * Method to get the price store shared by the whole application, which reads the data
+   * directory.
+   *
+   * @return the shared price store
+   */
+  public static PriceStore getDefault() {
+    return DEFAULT;
+  }
+
+  /**
+   * Method to get the price history of a company.
+   *
+   * @param ticker ticker symbol of the company
+   * @return the price series of the company
+   * @throws IllegalArgumentException if no data is available for the company
+   */
+  public PriceSeries getSeries(String ticker) throws IllegalArgumentException {
+    return getSeries(SymbolTable.id(ticker));
+  }
+
+  /**
+   * Method to get the price history of a company by the ID of its symbol.
+   *
+   * @param symbol ID of the ticker symbol of the company in the symbol table
+   * @return the price series of the company
+   * @throws IllegalArgumentException if no data is available for the company
+   */
+  PriceSeries getSeries(int symbol) throws IllegalArgumentException {
+    AtomicReferenceArray<PriceSeries> table = byID;
+    if (symbol < table.length()) {
+      PriceSeries cached = table.get(symbol);
+      if (cached != null) {
+        return cached;
+      }
+    }
+    // companies are parsed side by side, but each only once
+    String key = SymbolTable.key(symbol);
+    PriceSeries loaded = series.computeIfAbsent(key, k -> load(SymbolTable.name(symbol), k));
+    publish(symbol, key, loaded);
+    return loaded;
+  }
+
+  /**
+   * Method to check whether the prices of a company have been read, which means its data file
+   * was there when they were.
+   *
+   * @param ticker ticker symbol of the company
+   * @return true if the price series is in memory
+   */
+  boolean isLoaded(String ticker) {
+    int symbol = SymbolTable.id(ticker);
+    AtomicReferenceArray<PriceSeries> table = byID;
+    return symbol < table.length() && table.get(symbol) != null;
+  }
+
+  /**
+   * Helper method to put a loaded series in the array, unless it was dropped in the meantime.
+   */
+  private synchronized void publish(int symbol, String key, PriceSeries loaded) {
+    if (series.get(key) != loaded) {
+      return;
+    }
+    AtomicReferenceArray<PriceSeries> table = byID;
+    if (symbol >= table.length()) {
+      AtomicReferenceArray<PriceSeries> grown = new AtomicReferenceArray<>(
+              Math.max(symbol + 1, table.length() * 2));
+      for (int i = 0; i < table.length(); i++) {
+        grown.set(i, table.get(i));
+      }
+      table = grown;
+      byID = grown;
+    }
+    table.set(symbol, loaded);
+  }
+
+  /**
+   * Helper method to parse the cached data file of a company.
+   */
+  private PriceSeries load(String ticker, String key) {
+    try {
+      return PriceSeries.parse(ticker, new String(Files.readAllBytes(directory.resolve(key
+              + ".csv"))));
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Stock data not available for company");
+    }
+  }
+
+  /**
+   * Method to add the bar of a new day to the price history of a company and tell the listeners
+   * about it.
+   *
+   * @param ticker ticker symbol of the company
+   * @param date   date of the bar in yyyy-MM-dd format
+   * @param open   opening price
+   * @param high   highest price
+   * @param low    lowest price
+   * @param close  closing price
+   * @param volume number of shares traded
+   * @return true if the bar was added or false if the series already holds that day or a later one
+   * @throws IllegalArgumentException if no data is available for the company
+   */
+  public boolean append(String ticker, String date, double open, double high, double low,
+                        double close, long volume) throws IllegalArgumentException {
+    PriceSeries prices = getSeries(ticker);
+    int index;
+    synchronized (prices) {
+      if (!prices.append(PriceSeries.toDay(date), open, high, low, close, volume)) {
+        return false;
+      }
+      index = prices.size() - 1;
+    }
+    for (PriceListener listener : listeners) {
+      listener.onBar(prices, index);
+    }
+    return true;
+  }
+
+  /**
+   * Method to register a listener for new bars.
+   *
+   * @param listener listener to be added
+   */
+  public void addListener(PriceListener listener) {
+    listeners.add(listener);
+  }
+
+  /**
+   * Method to remove a listener added earlier.
+   *
+   * @param listener listener to be removed
+   */
+  public void removeListener(PriceListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Method to drop the parsed prices of a company so that its data file is read again.
+   *
+   * @param ticker ticker symbol of the company
+   */
+  public synchronized void invalidate(String ticker) {
+    int symbol = SymbolTable.id(ticker);
+    series.remove(SymbolTable.key(symbol));
+    if (symbol < byID.length()) {
+      byID.set(symbol, null);
+    }
+  }
+}
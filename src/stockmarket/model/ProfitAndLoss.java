@@ -0,0 +1,99 @@
+package stockmarket.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents the profit and loss of a portfolio at one point in time: the gain realized
+ * by sales, the unrealized gain of the shares still held at their latest price and the total
+ * return on everything that was invested.
+ */
+public final class ProfitAndLoss {
+  private final double realizedGain;
+  private final double unrealizedGain;
+  private final double invested;
+  private final double marketValue;
+  private final Map<String, Double> unrealizedGainByCompany;
+
+  /**
+   * Constructor to initialize the profit and loss.
+   *
+   * @param realizedGain            gain realized by all sales after commission
+   * @param unrealizedGain          gain of the shares still held at their latest price
+   * @param invested                total cost basis of every lot ever bought
+   * @param marketValue             value of the shares still held at their latest price
+   * @param unrealizedGainByCompany map from ticker symbol to the unrealized gain of the company
+   */
+  public ProfitAndLoss(double realizedGain, double unrealizedGain, double invested,
+                       double marketValue, Map<String, Double> unrealizedGainByCompany) {
+    this.realizedGain = realizedGain;
+    this.unrealizedGain = unrealizedGain;
+    this.invested = invested;
+    this.marketValue = marketValue;
+    this.unrealizedGainByCompany = Collections.unmodifiableMap(
+            new LinkedHashMap<>(unrealizedGainByCompany));
+  }
+
+  /**
+   * Method to get the gain realized by all sales.
+   *
+   * @return realized gain, negative for a loss
+   */
+  public double getRealizedGain() {
+    return realizedGain;
+  }
+
+  /**
+   * Method to get the gain of the shares still held.
+   *
+   * @return unrealized gain, negative for a loss
+   */
+  public double getUnrealizedGain() {
+    return unrealizedGain;
+  }
+
+  /**
+   * Method to get the unrealized gain of each company.
+   *
+   * @return map from ticker symbol to unrealized gain
+   */
+  public Map<String, Double> getUnrealizedGainByCompany() {
+    return unrealizedGainByCompany;
+  }
+
+  /**
+   * Method to get the total cost basis of every lot ever bought.
+   *
+   * @return amount invested including commission
+   */
+  public double getInvested() {
+    return invested;
+  }
+
+  /**
+   * Method to get the value of the shares still held at their latest price.
+   *
+   * @return market value of the open positions
+   */
+  public double getMarketValue() {
+    return marketValue;
+  }
+
+  /**
+   * Method to get the realized and unrealized gain as a fraction of the amount invested.
+   *
+   * @return total return, 0 if nothing was invested
+   */
+  public double getTotalReturn() {
+    return invested == 0 ? 0 : (realizedGain + unrealizedGain) / invested;
+  }
+
+  @Override
+  public String toString() {
+    return "Realized Gain:" + realizedGain
+            + "\nUnrealized Gain:" + unrealizedGain
+            + "\nUnrealized Gain by Company:" + unrealizedGainByCompany
+            + "\nTotal Return:" + getTotalReturn() * 100 + "%";
+  }
+}
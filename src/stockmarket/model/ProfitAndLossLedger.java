@@ -0,0 +1,269 @@
+package stockmarket.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+
+/**
+ * This class keeps the running profit and loss of one portfolio. Every buy, sale and new price
+ * only adjusts the position of its company and the portfolio totals by the difference it makes,
+ * so the profit and loss can be read at any time without revaluing every lot. A position is
+ * marked at the lowest price of the latest bar, which is the price the rest of the model values
+ * shares at. All amounts are whole micro-dollars, so taking a position out of the totals and
+ * adding it back never leaves rounding error behind. Positions are keyed by the ID of their
+ * ticker symbol, so marking one to a new price does not lower case the ticker.
+ */
+final class ProfitAndLossLedger {
+  private final IntMap<Position> positions;
+  private long realizedGain;
+  private long unrealizedGain;
+  private long marketValue;
+  private long invested;
+  private IntConsumer watcher;
+
+  /**
+   * Constructor to initialize an empty ledger.
+   */
+  ProfitAndLossLedger() {
+    this.positions = new IntMap<>();
+  }
+
+  /**
+   * Method to record the purchase of a lot.
+   *
+   * @param stock stock bought
+   */
+  void onBuy(Stock stock) {
+    onBuy(SymbolTable.id(stock), stock.getCompanyTicker(), stock.getNumberOfShares(),
+            stock.getCostBasisMicros());
+  }
+
+  /**
+   * Method to record the purchase of shares of a company in one or more lots.
+   *
+   * @param company        ticker symbol of the company
+   * @param numberOfShares number of shares bought
+   * @param costBasis      cost basis of the shares in micro-dollars
+   */
+  void onBuy(String company, double numberOfShares, long costBasis) {
+    onBuy(SymbolTable.id(company), company, numberOfShares, costBasis);
+  }
+
+  /**
+   * Helper method to record a purchase once the symbol of the company is known.
+   */
+  private void onBuy(int symbol, String company, double numberOfShares, long costBasis) {
+    Position position = position(symbol, company);
+    remove(position);
+    position.shares += numberOfShares;
+    position.costBasis += costBasis;
+    add(position);
+    invested += costBasis;
+  }
+
+  /**
+   * Method to record the shares of a lot which were sold.
+   *
+   * @param sale shares sold from one lot
+   */
+  void onSale(Sale sale) {
+    Position position = position(SymbolTable.id(sale.getCompanyTicker()),
+            sale.getCompanyTicker());
+    remove(position);
+    position.shares -= sale.getNumberOfShares();
+    position.costBasis -= sale.getCostBasisMicros();
+    if (position.shares <= LotBook.EPSILON) {
+      position.shares = 0;
+      position.costBasis = 0;
+    }
+    add(position);
+    realizedGain += sale.getRealizedGainMicros();
+  }
+
+  /**
+   * Method to record a sale that was made before the portfolio was restored. Its shares are not
+   * part of any open position any more.
+   *
+   * @param sale shares sold from one lot
+   */
+  void onRestoredSale(Sale sale) {
+    realizedGain += sale.getRealizedGainMicros();
+    invested += sale.getCostBasisMicros();
+  }
+
+  /**
+   * Method to mark the position of a company to a new price. Prices older than the current mark
+   * are ignored.
+   *
+   * @param company ticker symbol of the company
+   * @param day     epoch day of the price
+   * @param price   lowest price of the day
+   */
+  void onPrice(String company, int day, double price) {
+    Position position = positions.get(SymbolTable.id(company));
+    if (position == null || day < position.markDay) {
+      return;
+    }
+    remove(position);
+    position.mark = price;
+    position.markDay = day;
+    add(position);
+  }
+
+  /**
+   * Method to get a snapshot of the profit and loss.
+   *
+   * @return the current profit and loss
+   */
+  ProfitAndLoss snapshot() {
+    Map<String, Double> byCompany = new LinkedHashMap<>();
+    for (Position position : positions.values()) {
+      byCompany.put(position.company, Money.toDollars(position.unrealizedGain()));
+    }
+    return new ProfitAndLoss(Money.toDollars(realizedGain), Money.toDollars(unrealizedGain),
+            Money.toDollars(invested), Money.toDollars(marketValue), byCompany);
+  }
+
+  /**
+   * Method to get the number of shares held of every company with an open position.
+   *
+   * @return map from ticker symbol to number of shares
+   */
+  Map<String, Double> holdings() {
+    Map<String, Double> shares = new LinkedHashMap<>();
+    for (Position position : positions.values()) {
+      if (position.shares > LotBook.EPSILON) {
+        shares.put(position.company, position.shares);
+      }
+    }
+    return shares;
+  }
+
+  /**
+   * Method to get the number of shares held of a company.
+   *
+   * @param symbol ID of the ticker symbol of the company
+   * @return number of shares, 0 if there is no open position
+   */
+  double getShares(int symbol) {
+    Position position = positions.get(symbol);
+    return position == null || position.shares <= LotBook.EPSILON ? 0 : position.shares;
+  }
+
+  /**
+   * Method to set the listener told about every company the ledger opens a position in, starting
+   * with the positions it already has.
+   *
+   * @param listener listener given the symbol ID of each company
+   */
+  void watch(IntConsumer listener) {
+    this.watcher = listener;
+    for (int i = positions.first(); i >= 0; i = positions.next(i)) {
+      listener.accept(positions.keyAt(i));
+    }
+  }
+
+  /**
+   * Method to get the largest distance of any open position from its target weight. The market
+   * value of every position is already kept at its latest price, so no lot is revalued.
+   *
+   * @param weights map from ticker symbol to target percentage, companies not in the map having
+   *                a target of 0
+   * @return the largest drift in percentage points, or 0 if no shares are held
+   */
+  double drift(Map<String, Double> weights) {
+    if (marketValue <= 0) {
+      return 0;
+    }
+    IntDoubleMap targets = new IntDoubleMap(weights.size());
+    for (Map.Entry<String, Double> entry : weights.entrySet()) {
+      targets.add(SymbolTable.id(entry.getKey()), entry.getValue());
+    }
+    double drift = 0;
+    for (int i = positions.first(); i >= 0; i = positions.next(i)) {
+      double weight = (double) positions.valueAt(i).marketValue() / marketValue * 100;
+      drift = Math.max(drift, Math.abs(weight - targets.get(positions.keyAt(i), 0)));
+    }
+    // companies with a target but no position are entirely below their weight
+    for (int i = targets.first(); i >= 0; i = targets.next(i)) {
+      if (!positions.containsKey(targets.keyAt(i))) {
+        drift = Math.max(drift, targets.valueAt(i));
+      }
+    }
+    return drift;
+  }
+
+  /**
+   * Helper method to get the position of a company, creating it and marking it at the latest
+   * price if needed.
+   */
+  private Position position(int symbol, String company) {
+    Position position = positions.get(symbol);
+    if (position == null) {
+      position = new Position(symbol, company);
+      markLatest(position);
+      positions.put(symbol, position);
+      if (watcher != null) {
+        watcher.accept(symbol);
+      }
+    }
+    return position;
+  }
+
+  /**
+   * Helper method to mark a new position at the latest bar available for its company.
+   */
+  private static void markLatest(Position position) {
+    try {
+      PriceSeries series = PriceStore.getDefault().getSeries(position.symbol);
+      int last = series.size() - 1;
+      if (last >= 0) {
+        position.mark = series.getLow(last);
+        position.markDay = series.getDay(last);
+      }
+    } catch (IllegalArgumentException e) {
+      // no prices yet, the position stays at its cost until a price arrives
+    }
+  }
+
+  /**
+   * Helper method to take the contribution of a position out of the totals.
+   */
+  private void remove(Position position) {
+    unrealizedGain -= position.unrealizedGain();
+    marketValue -= position.marketValue();
+  }
+
+  /**
+   * Helper method to add the contribution of a position to the totals.
+   */
+  private void add(Position position) {
+    unrealizedGain += position.unrealizedGain();
+    marketValue += position.marketValue();
+  }
+
+  /**
+   * Open shares, cost basis and latest price of one company.
+   */
+  private static final class Position {
+    private final int symbol;
+    private final String company;
+    private double shares;
+    private long costBasis;
+    private double mark = Double.NaN;
+    private int markDay = Integer.MIN_VALUE;
+
+    Position(int symbol, String company) {
+      this.symbol = symbol;
+      this.company = company;
+    }
+
+    long marketValue() {
+      return Double.isNaN(mark) ? costBasis : Money.ofDollars(shares * mark);
+    }
+
+    long unrealizedGain() {
+      return marketValue() - costBasis;
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the purchase days of one company under a dollar cost plan with a given start
+ * day and period, together with cumulative tables over those purchases. The number of shares a
+ * plan holds after its first n purchases is its amount times the n-th cumulative shares per dollar,
+ * so shares, cost basis and value as of any date take a binary search and a table lookup instead
+ * of one lot per purchase. A schedule only depends on the price series, the start day and the
+ * period, so it is shared by every plan using them and is extended when new bars arrive.
+ */
+final class PurchaseSchedule {
+  private final int[] days;
+  private final double[] sharesPerDollar;
+  private final double[] capacity;
+  private final int count;
+  private final int bars;
+
+  /**
+   * Constructor to initialize a schedule from its tables.
+   */
+  private PurchaseSchedule(int[] days, double[] sharesPerDollar, double[] capacity, int count,
+                           int bars) {
+    this.days = days;
+    this.sharesPerDollar = sharesPerDollar;
+    this.capacity = capacity;
+    this.count = count;
+    this.bars = bars;
+  }
+
+  /**
+   * Method to build the schedule of a price series, continuing an earlier schedule of the same
+   * series if one is given. The tables of the earlier schedule are reused while they have room, so
+   * continuing a schedule costs time in proportion to the new bars only. This is safe because a
+   * schedule never reads past its own purchases and the earlier schedule is not continued twice.
+   *
+   * @param series   price history of the company
+   * @param startDay epoch day of the first purchase
+   * @param period   number of days between purchases
+   * @param previous schedule built over fewer bars of the same series or null
+   * @return the schedule over all bars of the series
+   */
+  static PurchaseSchedule build(PriceSeries series, int startDay, int period,
+                                PurchaseSchedule previous) {
+    int size = series.size();
+    int n = 0;
+    int[] days;
+    double[] shares;
+    double[] capacity;
+    if (previous == null) {
+      int length = Math.max(16, size / Math.max(1, period / 2));
+      days = new int[length];
+      shares = new double[length + 1];
+      capacity = new double[length + 1];
+      capacity[0] = Double.POSITIVE_INFINITY;
+    } else {
+      n = previous.count;
+      days = previous.days;
+      shares = previous.sharesPerDollar;
+      capacity = previous.capacity;
+    }
+    int index = n == 0 ? series.ceilingIndex(startDay) : series.ceilingIndex(days[n - 1] + period);
+    while (index < size) {
+      if (n == days.length) {
+        days = Arrays.copyOf(days, n * 2);
+        shares = Arrays.copyOf(shares, n * 2 + 1);
+        capacity = Arrays.copyOf(capacity, n * 2 + 1);
+      }
+      double low = series.getLow(index);
+      days[n] = series.getDay(index);
+      shares[n + 1] = shares[n] + 1 / low;
+      capacity[n + 1] = Math.min(capacity[n], low * series.getVolume(index));
+      n++;
+      index = series.ceilingIndex(days[n - 1] + period);
+    }
+    return new PurchaseSchedule(days, shares, capacity, n, size);
+  }
+
+  /**
+   * Method to get the number of bars of the series this schedule was built over.
+   *
+   * @return number of bars covered
+   */
+  int getBars() {
+    return bars;
+  }
+
+  /**
+   * Method to get the number of purchases in this schedule.
+   *
+   * @return number of purchases
+   */
+  int size() {
+    return count;
+  }
+
+  /**
+   * Method to get the day of a purchase.
+   *
+   * @param purchase index of the purchase
+   * @return epoch day of the purchase
+   */
+  int getDay(int purchase) {
+    return days[purchase];
+  }
+
+  /**
+   * Method to count the purchases made before a day.
+   *
+   * @param day epoch day, excluded
+   * @return number of purchases before the day
+   */
+  int countBefore(int day) {
+    int index = Arrays.binarySearch(days, 0, count, day);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Method to get the shares bought for every dollar invested on each of the first purchases.
+   *
+   * @param purchases number of purchases
+   * @return sum of one over the price of each purchase
+   */
+  double getSharesPerDollar(int purchases) {
+    return sharesPerDollar[purchases];
+  }
+
+  /**
+   * Method to get the largest amount which can be invested on each of the first purchases without
+   * buying more shares than were traded on the day.
+   *
+   * @param purchases number of purchases
+   * @return the smallest traded value among the purchases
+   */
+  double getCapacity(int purchases) {
+    return capacity[purchases];
+  }
+}
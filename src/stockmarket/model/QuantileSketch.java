@@ -0,0 +1,185 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class estimates quantiles of a stream of values in bounded memory, in the way of a merging
+ * t-digest. Values are collected in a buffer, and a full buffer is sorted and merged into a list
+ * of centroids. A centroid may only hold as many values as its rank allows, so the centroids are
+ * small near both tails and the extreme quantiles, which value at risk is read from, stay accurate.
+ */
+final class QuantileSketch {
+  private static final int COMPRESSION = 100;
+  private static final int BUFFER = 5 * COMPRESSION;
+
+  private double[] means;
+  private double[] weights;
+  private int centroids;
+  private final double[] buffer;
+  private int buffered;
+  private long count;
+  private double min;
+  private double max;
+
+  /**
+   * Constructor to initialize an empty sketch.
+   */
+  QuantileSketch() {
+    this.means = new double[2 * COMPRESSION];
+    this.weights = new double[2 * COMPRESSION];
+    this.buffer = new double[BUFFER];
+    this.min = Double.POSITIVE_INFINITY;
+    this.max = Double.NEGATIVE_INFINITY;
+  }
+
+  /**
+   * Constructor to initialize a copy of a sketch.
+   *
+   * @param other sketch to be copied
+   */
+  QuantileSketch(QuantileSketch other) {
+    this.means = other.means.clone();
+    this.weights = other.weights.clone();
+    this.centroids = other.centroids;
+    this.buffer = other.buffer.clone();
+    this.buffered = other.buffered;
+    this.count = other.count;
+    this.min = other.min;
+    this.max = other.max;
+  }
+
+  /**
+   * Method to add a value to the sketch.
+   *
+   * @param value value to be added
+   */
+  void add(double value) {
+    if (buffered == BUFFER) {
+      flush();
+    }
+    buffer[buffered++] = value;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Method to get the number of values added.
+   *
+   * @return number of values
+   */
+  long size() {
+    return count;
+  }
+
+  /**
+   * Method to estimate the value at a quantile.
+   *
+   * @param q quantile between 0 and 1
+   * @return the estimated value, or NaN if the sketch is empty
+   */
+  double quantile(double q) {
+    flush();
+    if (centroids == 0) {
+      return Double.NaN;
+    }
+    double rank = q * count;
+    double cumulative = 0;
+    double previousCenter = 0;
+    double previousMean = min;
+    for (int i = 0; i < centroids; i++) {
+      double center = cumulative + weights[i] / 2;
+      if (rank < center) {
+        double span = center - previousCenter;
+        double fraction = span <= 0 ? 1 : (rank - previousCenter) / span;
+        return previousMean + fraction * (means[i] - previousMean);
+      }
+      cumulative += weights[i];
+      previousCenter = center;
+      previousMean = means[i];
+    }
+    double span = count - previousCenter;
+    double fraction = span <= 0 ? 1 : (rank - previousCenter) / span;
+    return previousMean + fraction * (max - previousMean);
+  }
+
+  /**
+   * Method to estimate the mean of the values below a quantile.
+   *
+   * @param q quantile between 0 and 1
+   * @return the estimated mean of the lower tail, or NaN if the sketch is empty
+   */
+  double tailMean(double q) {
+    flush();
+    if (centroids == 0) {
+      return Double.NaN;
+    }
+    double rank = Math.max(1, q * count);
+    double taken = 0;
+    double sum = 0;
+    for (int i = 0; i < centroids && taken < rank; i++) {
+      double weight = Math.min(weights[i], rank - taken);
+      sum += weight * means[i];
+      taken += weight;
+    }
+    return sum / taken;
+  }
+
+  /**
+   * Helper method to merge the buffered values into the centroids.
+   */
+  private void flush() {
+    if (buffered == 0) {
+      return;
+    }
+    Arrays.sort(buffer, 0, buffered);
+    int total = centroids + buffered;
+    double[] mergedMeans = new double[total];
+    double[] mergedWeights = new double[total];
+    int a = 0;
+    int b = 0;
+    for (int i = 0; i < total; i++) {
+      if (b >= buffered || a < centroids && means[a] <= buffer[b]) {
+        mergedMeans[i] = means[a];
+        mergedWeights[i] = weights[a++];
+      } else {
+        mergedMeans[i] = buffer[b++];
+        mergedWeights[i] = 1;
+      }
+    }
+    buffered = 0;
+    if (means.length < total) {
+      means = new double[total];
+      weights = new double[total];
+    }
+    int size = 0;
+    double before = 0;
+    double mean = mergedMeans[0];
+    double weight = mergedWeights[0];
+    for (int i = 1; i < total; i++) {
+      double proposed = weight + mergedWeights[i];
+      double q0 = before / count;
+      double q2 = (before + proposed) / count;
+      if (proposed <= count * Math.min(limit(q0), limit(q2))) {
+        mean += (mergedMeans[i] - mean) * mergedWeights[i] / proposed;
+        weight = proposed;
+      } else {
+        means[size] = mean;
+        weights[size++] = weight;
+        before += weight;
+        mean = mergedMeans[i];
+        weight = mergedWeights[i];
+      }
+    }
+    means[size] = mean;
+    weights[size++] = weight;
+    centroids = size;
+  }
+
+  /**
+   * Helper method to get the largest share of all values a centroid at a quantile may hold.
+   */
+  private static double limit(double q) {
+    return 4 * q * (1 - q) / COMPRESSION;
+  }
+}
@@ -0,0 +1,98 @@
+package stockmarket.model;
+
+/**
+ * This class represents the outcome of running a rebalancing strategy over the price history.
+ */
+public final class RebalanceResult {
+  private final RebalanceStrategy strategy;
+  private final double finalValue;
+  private final double invested;
+  private final int rebalances;
+  private final double turnover;
+  private final double commissions;
+
+  /**
+   * Constructor to initialize the result of a strategy.
+   *
+   * @param strategy    parameters of the strategy
+   * @param finalValue  value of the holdings on the last day
+   * @param invested    amount invested on the first day
+   * @param rebalances  number of times the holdings were rebalanced
+   * @param turnover    value of all shares bought and sold by the rebalances
+   * @param commissions commission paid for all trades
+   */
+  public RebalanceResult(RebalanceStrategy strategy, double finalValue, double invested,
+                         int rebalances, double turnover, double commissions) {
+    this.strategy = strategy;
+    this.finalValue = finalValue;
+    this.invested = invested;
+    this.rebalances = rebalances;
+    this.turnover = turnover;
+    this.commissions = commissions;
+  }
+
+  /**
+   * Method to get the parameters of the strategy.
+   *
+   * @return the rebalancing strategy
+   */
+  public RebalanceStrategy getStrategy() {
+    return strategy;
+  }
+
+  /**
+   * Method to get the value of the holdings on the last day.
+   *
+   * @return final value in dollars
+   */
+  public double getFinalValue() {
+    return finalValue;
+  }
+
+  /**
+   * Method to get the amount invested on the first day.
+   *
+   * @return amount in dollars
+   */
+  public double getInvested() {
+    return invested;
+  }
+
+  /**
+   * Method to get the number of times the holdings were rebalanced.
+   *
+   * @return number of rebalances
+   */
+  public int getRebalances() {
+    return rebalances;
+  }
+
+  /**
+   * Method to get the value of all shares bought and sold by the rebalances.
+   *
+   * @return turnover in dollars
+   */
+  public double getTurnover() {
+    return turnover;
+  }
+
+  /**
+   * Method to get the commission paid for all trades.
+   *
+   * @return commission in dollars
+   */
+  public double getCommissions() {
+    return commissions;
+  }
+
+  @Override
+  public String toString() {
+    return "Strategy:" + (strategy.isCalendar() ? "every " + strategy.getPeriodInDays() + " days"
+            : "drift of " + strategy.getThreshold() + "%") + "\n"
+            + "Final Value:" + String.format("%.2f", finalValue) + "\n"
+            + "Invested:" + String.format("%.2f", invested) + "\n"
+            + "Rebalances:" + rebalances + "\n"
+            + "Turnover:" + String.format("%.2f", turnover) + "\n"
+            + "Commissions:" + String.format("%.2f", commissions);
+  }
+}
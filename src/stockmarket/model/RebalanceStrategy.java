@@ -0,0 +1,125 @@
+package stockmarket.model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class represents the parameters of a rebalancing strategy, which sells the companies that
+ * grew above their target weight and buys the ones that fell below it. A calendar strategy
+ * rebalances every given number of days, and a threshold strategy rebalances as soon as the weight
+ * of any company drifts from its target by the given number of percentage points.
+ */
+public final class RebalanceStrategy {
+  private static final double WEIGHT_TOLERANCE = 1e-6;
+
+  private final Map<String, Double> weights;
+  private final int periodInDays;
+  private final double threshold;
+  private final double commission;
+
+  /**
+   * Constructor to initialize the strategy after its parameters were checked.
+   */
+  private RebalanceStrategy(Map<String, Double> weights, int periodInDays, double threshold,
+                            double commission) throws IllegalArgumentException {
+    double sum = 0;
+    for (double weight : weights.values()) {
+      if (weight < 0) {
+        throw new IllegalArgumentException("weights cannot be negative");
+      }
+      sum += weight;
+    }
+    if (Math.abs(sum - 100) > WEIGHT_TOLERANCE) {
+      throw new IllegalArgumentException("Sum of weights of all companies must be 100");
+    }
+    if (commission < 0) {
+      throw new IllegalArgumentException("Commission cannot be negative");
+    }
+    this.weights = Collections.unmodifiableMap(new LinkedHashMap<>(weights));
+    this.periodInDays = periodInDays;
+    this.threshold = threshold;
+    this.commission = commission;
+  }
+
+  /**
+   * Method to create a strategy which rebalances every given number of days.
+   *
+   * @param weights      map from company ticker to target percentage, adding up to 100
+   * @param periodInDays number of days between rebalances
+   * @param commission   commission paid for every trade
+   * @return the calendar strategy
+   * @throws IllegalArgumentException if the weights do not add up to 100 or the period is not
+   *                                  positive
+   */
+  public static RebalanceStrategy calendar(Map<String, Double> weights, int periodInDays,
+                                           double commission) throws IllegalArgumentException {
+    if (periodInDays <= 0) {
+      throw new IllegalArgumentException("period should be a positive number of days");
+    }
+    return new RebalanceStrategy(weights, periodInDays, 0, commission);
+  }
+
+  /**
+   * Method to create a strategy which rebalances when the weight of a company drifts too far.
+   *
+   * @param weights    map from company ticker to target percentage, adding up to 100
+   * @param threshold  drift in percentage points at which the holdings are rebalanced
+   * @param commission commission paid for every trade
+   * @return the threshold strategy
+   * @throws IllegalArgumentException if the weights do not add up to 100 or the threshold is not
+   *                                  positive
+   */
+  public static RebalanceStrategy threshold(Map<String, Double> weights, double threshold,
+                                            double commission) throws IllegalArgumentException {
+    if (threshold <= 0) {
+      throw new IllegalArgumentException("Threshold should be a positive percentage");
+    }
+    return new RebalanceStrategy(weights, 0, threshold, commission);
+  }
+
+  /**
+   * Method to get the target weights.
+   *
+   * @return map from company ticker to target percentage
+   */
+  public Map<String, Double> getWeights() {
+    return weights;
+  }
+
+  /**
+   * Method to check whether this strategy rebalances on a calendar.
+   *
+   * @return true for a calendar strategy and false for a threshold strategy
+   */
+  public boolean isCalendar() {
+    return periodInDays > 0;
+  }
+
+  /**
+   * Method to get the number of days between rebalances of a calendar strategy.
+   *
+   * @return period in days or 0 for a threshold strategy
+   */
+  public int getPeriodInDays() {
+    return periodInDays;
+  }
+
+  /**
+   * Method to get the drift at which a threshold strategy rebalances.
+   *
+   * @return drift in percentage points or 0 for a calendar strategy
+   */
+  public double getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Method to get the commission paid for every trade.
+   *
+   * @return commission in dollars
+   */
+  public double getCommission() {
+    return commission;
+  }
+}
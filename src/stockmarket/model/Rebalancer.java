@@ -0,0 +1,183 @@
+package stockmarket.model;
+
+import java.util.Map;
+
+/**
+ * This class runs a rebalancing strategy over the price history. The holdings are kept as one
+ * aggregated number of shares per company instead of lots, and the value of each company is only
+ * moved by the difference a new bar makes to its price. Checking the drift of a day is therefore
+ * a single pass over the companies, whatever the number of rebalances made before it.
+ *
+ * <p>A rebalance brings every company back to its target weight of the value held that day, less
+ * the commission of one trade for every company whose holding changes. The strategy is checked on
+ * every trading day of its first company, from the start date up to but not including the end
+ * date, and a company with no bar on a day keeps the price of its previous bar.
+ */
+public final class Rebalancer {
+  private static final double MIN_TRADE = 0.01;
+
+  private final PriceStore prices;
+
+  /**
+   * Constructor to initialize a rebalancer over a price store.
+   *
+   * @param prices price store holding the history of every company of the strategies
+   */
+  public Rebalancer(PriceStore prices) {
+    this.prices = prices;
+  }
+
+  /**
+   * Method to run a strategy which invests an amount at its target weights on the start date and
+   * then rebalances the holdings whenever the strategy calls for it.
+   *
+   * @param strategy  rebalancing strategy to be run
+   * @param amount    amount invested on the start date including commission
+   * @param startDate date of the first investment in yyyy-MM-dd format
+   * @param endDate   date at which the run stops in yyyy-MM-dd format, excluded
+   * @return the value, number of rebalances and trading cost of the strategy
+   * @throws IllegalArgumentException if the amount does not cover the commission, a company has
+   *                                  no price on the start date or there is no trading day
+   *                                  between the dates
+   */
+  public RebalanceResult backtest(RebalanceStrategy strategy, double amount, String startDate,
+                                  String endDate) throws IllegalArgumentException {
+    int startDay = PriceSeries.toDay(startDate);
+    int endDay = PriceSeries.toDay(endDate);
+    int count = 0;
+    for (double weight : strategy.getWeights().values()) {
+      if (weight > 0) {
+        count++;
+      }
+    }
+    PriceSeries[] series = new PriceSeries[count];
+    double[] targets = new double[count];
+    int index = 0;
+    for (Map.Entry<String, Double> entry : strategy.getWeights().entrySet()) {
+      if (entry.getValue() > 0) {
+        series[index] = prices.getSeries(entry.getKey());
+        targets[index] = entry.getValue() / 100;
+        index++;
+      }
+    }
+    PriceSeries calendar = series[0];
+    int bar = calendar.ceilingIndex(startDay);
+    if (bar >= calendar.size() || calendar.getDay(bar) >= endDay) {
+      throw new IllegalArgumentException("No trading day between " + startDate + " and "
+              + endDate);
+    }
+    int firstDay = calendar.getDay(bar);
+    double commission = strategy.getCommission();
+    double invested = amount - count * commission;
+    if (invested <= 0) {
+      throw new IllegalArgumentException("Amount does not cover the commission");
+    }
+    int[] bars = new int[count];
+    double[] price = new double[count];
+    double[] shares = new double[count];
+    double[] values = new double[count];
+    for (int i = 0; i < count; i++) {
+      bars[i] = series[i].floorIndex(firstDay);
+      if (bars[i] < 0) {
+        throw new IllegalArgumentException("Data for given date" + PriceSeries.toDate(firstDay)
+                + " is not available for company " + series[i].getTicker());
+      }
+      price[i] = series[i].getLow(bars[i]);
+      values[i] = invested * targets[i];
+      shares[i] = values[i] / price[i];
+    }
+    double total = invested;
+    double commissions = count * commission;
+    double turnover = 0;
+    int rebalances = 0;
+    int lastRebalance = firstDay;
+    for (bar++; bar < calendar.size() && calendar.getDay(bar) < endDay; bar++) {
+      int day = calendar.getDay(bar);
+      for (int i = 0; i < count; i++) {
+        PriceSeries company = series[i];
+        int next = bars[i];
+        while (next + 1 < company.size() && company.getDay(next + 1) <= day) {
+          next++;
+        }
+        if (next != bars[i]) {
+          bars[i] = next;
+          price[i] = company.getLow(next);
+          double value = shares[i] * price[i];
+          total += value - values[i];
+          values[i] = value;
+        }
+      }
+      boolean due;
+      if (strategy.isCalendar()) {
+        due = day - lastRebalance >= strategy.getPeriodInDays();
+      } else {
+        due = drift(values, targets, total) >= strategy.getThreshold() / 100;
+      }
+      if (!due) {
+        continue;
+      }
+      int trades = 0;
+      for (int i = 0; i < count; i++) {
+        if (Math.abs(targets[i] * total - values[i]) >= MIN_TRADE) {
+          trades++;
+        }
+      }
+      double net = total - trades * commission;
+      if (trades == 0 || net <= 0) {
+        lastRebalance = day;
+        continue;
+      }
+      turnover += reset(targets, net, price, values, shares);
+      total = net;
+      commissions += trades * commission;
+      rebalances++;
+      lastRebalance = day;
+    }
+    return new RebalanceResult(strategy, total, amount, rebalances, turnover, commissions);
+  }
+
+  /**
+   * Helper method to bring the holding of every company back to its target weight of a value.
+   * The loop is kept out of backtest on purpose: written inline there, the C2 compiler of JDK
+   * 17.0.9 crashed the JVM while vectorizing it in the on-stack replacement compile of backtest
+   * (ShouldNotReachHere in TypeVect::xmeet, type.cpp:1159). A threshold backtest of 50 companies
+   * over 20 years of daily bars brings it about, and -XX:-UseSuperWord avoids it as well.
+   *
+   * @param targets target weight of every company as a fraction
+   * @param net     value to be held in all companies after the trades
+   * @param price   price of every company
+   * @param values  value held in every company, updated in place
+   * @param shares  shares held of every company, updated in place
+   * @return the value of all shares bought and sold
+   */
+  private static double reset(double[] targets, double net, double[] price, double[] values,
+                              double[] shares) {
+    double turnover = 0;
+    for (int i = 0; i < targets.length; i++) {
+      double value = targets[i] * net;
+      turnover += Math.abs(value - values[i]);
+      values[i] = value;
+      shares[i] = value / price[i];
+    }
+    return turnover;
+  }
+
+  /**
+   * Helper method to get the largest distance of any company from its target weight.
+   *
+   * @param values  value held in every company
+   * @param targets target weight of every company as a fraction
+   * @param total   value held in all companies
+   * @return the largest drift as a fraction of the total value
+   */
+  static double drift(double[] values, double[] targets, double total) {
+    if (total <= 0) {
+      return 0;
+    }
+    double drift = 0;
+    for (int i = 0; i < values.length; i++) {
+      drift = Math.max(drift, Math.abs(values[i] / total - targets[i]));
+    }
+    return drift;
+  }
+}
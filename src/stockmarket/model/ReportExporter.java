@@ -0,0 +1,362 @@
+package stockmarket.model;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class writes reports of a portfolio as CSV or JSON straight to a writer. Rows are written
+ * as they are produced and lots are visited without being copied into a list, so a report of any
+ * number of lots is written in constant memory. A JSON report is one object holding an array of
+ * rows, such as {"lots":[{"purchaseDate":"2014-04-21", ...}]}.
+ */
+public final class ReportExporter implements Closeable {
+  private static final int BUFFER = 1 << 16;
+
+  private final Writer out;
+  private final ExportFormat format;
+  private String[] fields;
+  private int column;
+  private boolean firstRow;
+
+  /**
+   * Constructor to initialize an exporter writing to a writer.
+   *
+   * @param out    writer receiving the reports, which is closed with this exporter
+   * @param format format of the reports
+   */
+  public ReportExporter(Writer out, ExportFormat format) {
+    this.out = out;
+    this.format = format;
+  }
+
+  /**
+   * Method to create an exporter writing UTF-8 text to a stream, compressed with gzip if asked.
+   *
+   * @param out    stream receiving the reports, which is closed with this exporter
+   * @param format format of the reports
+   * @param gzip   whether the text is compressed with gzip
+   * @return the exporter
+   * @throws IOException if the gzip header could not be written
+   */
+  public static ReportExporter open(OutputStream out, ExportFormat format, boolean gzip)
+          throws IOException {
+    OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER) : out;
+    return new ReportExporter(new BufferedWriter(new OutputStreamWriter(target,
+            StandardCharsets.UTF_8), BUFFER), format);
+  }
+
+  /**
+   * Method to write one row for every lot of a portfolio, including the purchases of its dollar
+   * cost plans. The CSV columns are the same as those of an exported portfolio.
+   *
+   * @param portfolio portfolio whose lots are written
+   * @return number of lots written
+   * @throws IOException if the writer fails
+   */
+  public long writeLots(Portfolio portfolio) throws IOException {
+    long[] count = new long[1];
+    begin("lots", "PurchaseDate", "CompanyTicker", "CostBasis", "NumberOfShares", "Commission");
+    try {
+      portfolio.forEachLot(stock -> {
+        try {
+          startRow();
+          text(stock.getPurchaseDate());
+          text(stock.getCompanyTicker());
+          number(stock.getCostBasis());
+          number(stock.getNumberOfShares());
+          number(stock.getCommission());
+          endRow();
+          count[0]++;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+    end();
+    return count[0];
+  }
+
+  /**
+   * Method to write one row for every company of a portfolio with the shares held, their cost
+   * basis and their value on a date.
+   *
+   * @param portfolio portfolio whose positions are written
+   * @param date      date on which the shares are valued in yyyy-MM-dd format
+   * @throws IllegalArgumentException if a company held has no price on the date
+   * @throws IOException              if the writer fails
+   */
+  public void writePositions(Portfolio portfolio, String date) throws IllegalArgumentException,
+          IOException {
+    int day = PriceSeries.toDay(date);
+    // one entry per company, so memory grows with the companies held and not with the lots
+    IntMap<Position> positions = new IntMap<>();
+    portfolio.forEachLot(stock -> {
+      int symbol = SymbolTable.id(stock);
+      Position position = positions.get(symbol);
+      if (position == null) {
+        position = new Position(stock.getCompanyTicker(),
+                PriceStore.getDefault().getSeries(symbol).getPrice(day));
+        positions.put(symbol, position);
+      }
+      position.shares += stock.getNumberOfShares();
+      position.costBasis += stock.getCostBasisMicros();
+      // every lot is valued on its own, as the portfolio values them
+      position.value += Money.ofDollars(stock.getNumberOfShares() * position.price);
+    });
+    begin("positions", "CompanyTicker", "NumberOfShares", "CostBasis", "Value");
+    for (Position position : positions.values()) {
+      startRow();
+      text(position.ticker);
+      number(position.shares);
+      number(Money.toDollars(position.costBasis));
+      number(Money.toDollars(Money.round(position.value, 2, RoundingMode.HALF_UP)));
+      endRow();
+    }
+    end();
+  }
+
+  /**
+   * Method to write the total value of a portfolio on every trading day of a period. The trading
+   * days are the days with a bar of a company whose price the portfolio needs, and the period is
+   * cut to the days for which every such company has price history. A company held on a trading
+   * day without a bar of its own is reported before anything is written.
+   *
+   * @param portfolio portfolio whose values are written
+   * @param startDate first date of the period in yyyy-MM-dd format
+   * @param endDate   last date of the period in yyyy-MM-dd format
+   * @return number of days written
+   * @throws IllegalArgumentException if a date is not in the format yyyy-MM-dd or a company has
+   *                                  no price on a trading day of the period
+   * @throws IOException              if the writer fails
+   */
+  public int writeValues(Portfolio portfolio, String startDate, String endDate)
+          throws IllegalArgumentException, IOException {
+    int[] days = tradingDays(portfolio, PriceSeries.toDay(startDate), PriceSeries.toDay(endDate));
+    begin("values", "Date", "Value");
+    for (int day : days) {
+      String date = PriceSeries.toDate(day);
+      startRow();
+      text(date);
+      number(Money.toDollars(Money.round(portfolio.getTotalValueMicros(date), 2,
+              RoundingMode.HALF_UP)));
+      endRow();
+    }
+    end();
+    return days.length;
+  }
+
+  /**
+   * Helper method to walk the price series of the companies of a portfolio together and get the
+   * trading days of a period. A company is needed for as long as the portfolio holds a lot of
+   * it, or until its last sale if it was sold entirely.
+   *
+   * @throws IllegalArgumentException if a needed company has no bar on a trading day
+   */
+  private static int[] tradingDays(Portfolio portfolio, int start, int end)
+          throws IllegalArgumentException {
+    // last day on which the price of every company is needed, keyed by symbol ID
+    IntMap<Integer> needed = new IntMap<>();
+    portfolio.forEachLot(stock -> needed.put(SymbolTable.id(stock), Integer.MAX_VALUE));
+    for (Sale sale : portfolio.getSales()) {
+      int symbol = SymbolTable.id(sale.getCompanyTicker());
+      int last = PriceSeries.toDay(sale.getSaleDate()) - 1;
+      Integer until = needed.get(symbol);
+      if (until == null || until < last) {
+        needed.put(symbol, last);
+      }
+    }
+    PriceSeries[] series = new PriceSeries[needed.size()];
+    int[] until = new int[series.length];
+    int companies = 0;
+    for (int i = needed.first(); i >= 0; i = needed.next(i)) {
+      if (needed.valueAt(i) < start) {
+        continue;
+      }
+      PriceSeries company = PriceStore.getDefault().getSeries(needed.keyAt(i));
+      if (company.size() == 0) {
+        throw new IllegalArgumentException("Data is not available for company "
+                + company.getTicker());
+      }
+      series[companies] = company;
+      until[companies] = needed.valueAt(i);
+      start = Math.max(start, company.getDay(0));
+      int last = company.getDay(company.size() - 1);
+      if (until[companies] > last) {
+        end = Math.min(end, last);
+      }
+      companies++;
+    }
+    int[] bars = new int[companies];
+    for (int i = 0; i < companies; i++) {
+      bars[i] = series[i].ceilingIndex(start);
+    }
+    int[] days = new int[16];
+    int count = 0;
+    while (true) {
+      int day = Integer.MAX_VALUE;
+      for (int i = 0; i < companies; i++) {
+        if (bars[i] < series[i].size() && series[i].getDay(bars[i]) <= until[i]) {
+          day = Math.min(day, series[i].getDay(bars[i]));
+        }
+      }
+      if (day > end) {
+        return Arrays.copyOf(days, count);
+      }
+      for (int i = 0; i < companies; i++) {
+        if (bars[i] < series[i].size() && series[i].getDay(bars[i]) == day) {
+          bars[i]++;
+        } else if (day <= until[i]) {
+          throw new IllegalArgumentException("Data for date " + PriceSeries.toDate(day)
+                  + " is not available for company " + series[i].getTicker());
+        }
+      }
+      if (count == days.length) {
+        days = Arrays.copyOf(days, count * 2);
+      }
+      days[count++] = day;
+    }
+  }
+
+  /**
+   * Helper method to start a report with the names of its columns.
+   */
+  private void begin(String name, String... fields) throws IOException {
+    this.fields = fields;
+    this.firstRow = true;
+    if (format == ExportFormat.CSV) {
+      out.write(String.join(",", fields));
+      out.write('\n');
+    } else {
+      out.write("{\"" + name + "\":[");
+    }
+  }
+
+  /**
+   * Helper method to start a row.
+   */
+  private void startRow() throws IOException {
+    column = 0;
+    if (format == ExportFormat.JSON) {
+      out.write(firstRow ? "\n{" : ",\n{");
+    }
+    firstRow = false;
+  }
+
+  /**
+   * Helper method to write the name of the next column of a JSON row.
+   */
+  private void name() throws IOException {
+    if (column > 0) {
+      out.write(',');
+    }
+    if (format == ExportFormat.JSON) {
+      String field = fields[column];
+      // the JSON names are the CSV headers starting with a lower case letter
+      out.write('"');
+      out.write(Character.toLowerCase(field.charAt(0)));
+      out.write(field, 1, field.length() - 1);
+      out.write("\":");
+    }
+    column++;
+  }
+
+  /**
+   * Helper method to write a text column, quoting it where the format needs.
+   */
+  private void text(String value) throws IOException {
+    name();
+    boolean csv = format == ExportFormat.CSV;
+    if (csv && value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+      out.write(value);
+      return;
+    }
+    out.write('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"') {
+        out.write(csv ? "\"\"" : "\\\"");
+      } else if (!csv && c == '\\') {
+        out.write("\\\\");
+      } else if (!csv && c < ' ') {
+        out.write(String.format("\\u%04x", (int) c));
+      } else {
+        out.write(c);
+      }
+    }
+    out.write('"');
+  }
+
+  /**
+   * Helper method to write a number column.
+   */
+  private void number(double value) throws IOException {
+    name();
+    double magnitude = Math.abs(value);
+    if (Double.isNaN(value) || Double.isInfinite(value)) {
+      out.write(format == ExportFormat.CSV ? "" : "null");
+    } else if (magnitude >= 1e7 || magnitude < 1e-3 && value != 0) {
+      // Double.toString writes these in scientific notation
+      out.write(BigDecimal.valueOf(value).toPlainString());
+    } else {
+      out.write(Double.toString(value));
+    }
+  }
+
+  /**
+   * Helper method to end a row.
+   */
+  private void endRow() throws IOException {
+    out.write(format == ExportFormat.CSV ? "\n" : "}");
+  }
+
+  /**
+   * Helper method to end a report.
+   */
+  private void end() throws IOException {
+    if (format == ExportFormat.JSON) {
+      out.write("\n]}\n");
+    }
+  }
+
+  /**
+   * Method to write out any buffered text.
+   *
+   * @throws IOException if the writer fails
+   */
+  public void flush() throws IOException {
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    out.close();
+  }
+
+  /**
+   * This class holds the running totals of the lots of one company.
+   */
+  private static final class Position {
+    private final String ticker;
+    private final double price;
+    private double shares;
+    private long costBasis;
+    private long value;
+
+    private Position(String ticker, double price) {
+      this.ticker = ticker;
+      this.price = price;
+    }
+  }
+}
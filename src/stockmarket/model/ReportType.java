@@ -0,0 +1,19 @@
+package stockmarket.model;
+
+/**
+ * This enum represents the reports of a portfolio which can be exported.
+ */
+public enum ReportType {
+  /**
+   * Every lot held, including the purchases of dollar cost plans.
+   */
+  LOTS,
+  /**
+   * The shares, cost basis and value of every company held.
+   */
+  POSITIONS,
+  /**
+   * The total value of the portfolio on every trading day of a period.
+   */
+  VALUES
+}
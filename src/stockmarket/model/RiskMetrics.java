@@ -0,0 +1,187 @@
+package stockmarket.model;
+
+/**
+ * This class computes the risk of a series of daily values in a single pass, so it can be kept up
+ * to date as new days arrive without going over the earlier ones again. The daily return is the
+ * change in value less the money added or taken out that day, as a fraction of the previous value.
+ * The mean and variance of the returns are kept with Welford's method, the drawdown against a
+ * running peak of the compounded returns, and the quantiles of the returns in a sketch.
+ *
+ * <p>Volatility, Sharpe and Sortino ratios are annualized over 252 trading days and assume a risk
+ * free rate of zero. Value at risk and conditional value at risk are historical, over one day, and
+ * are given as positive fractions of the value.
+ */
+public final class RiskMetrics {
+  private static final double TRADING_DAYS_PER_YEAR = 252;
+
+  private final QuantileSketch sketch;
+  private long days;
+  private double mean;
+  private double squares;
+  private double downside;
+  private double growth;
+  private double peak;
+  private double maxDrawdown;
+  private double lastValue;
+
+  /**
+   * Constructor to initialize the metrics of an empty series.
+   */
+  public RiskMetrics() {
+    this.sketch = new QuantileSketch();
+    this.growth = 1;
+    this.peak = 1;
+    this.lastValue = Double.NaN;
+  }
+
+  /**
+   * Constructor to initialize a copy of the metrics, which does not change with the original.
+   *
+   * @param other metrics to be copied
+   */
+  public RiskMetrics(RiskMetrics other) {
+    this.sketch = new QuantileSketch(other.sketch);
+    this.days = other.days;
+    this.mean = other.mean;
+    this.squares = other.squares;
+    this.downside = other.downside;
+    this.growth = other.growth;
+    this.peak = other.peak;
+    this.maxDrawdown = other.maxDrawdown;
+    this.lastValue = other.lastValue;
+  }
+
+  /**
+   * Method to add the value of the next day. A day whose previous value was zero starts the
+   * returns again from the new value.
+   *
+   * @param value value at the end of the day
+   * @param flow  money added that day, negative for money taken out
+   */
+  public void add(double value, double flow) {
+    if (!Double.isNaN(lastValue) && lastValue > 0) {
+      addReturn((value - flow) / lastValue - 1);
+    }
+    lastValue = value;
+  }
+
+  /**
+   * Helper method to add one daily return to every running statistic.
+   */
+  private void addReturn(double value) {
+    days++;
+    double delta = value - mean;
+    mean += delta / days;
+    squares += delta * (value - mean);
+    if (value < 0) {
+      downside += value * value;
+    }
+    growth *= 1 + value;
+    peak = Math.max(peak, growth);
+    maxDrawdown = Math.max(maxDrawdown, 1 - growth / peak);
+    sketch.add(value);
+  }
+
+  /**
+   * Method to get the number of daily returns.
+   *
+   * @return number of returns
+   */
+  public long getDays() {
+    return days;
+  }
+
+  /**
+   * Method to get the compounded return of the whole series.
+   *
+   * @return total return as a fraction
+   */
+  public double getTotalReturn() {
+    return growth - 1;
+  }
+
+  /**
+   * Method to get the largest fall of the compounded return from an earlier peak.
+   *
+   * @return drawdown as a fraction of the peak
+   */
+  public double getMaxDrawdown() {
+    return maxDrawdown;
+  }
+
+  /**
+   * Method to get the annualized standard deviation of the daily returns.
+   *
+   * @return volatility as a fraction, or 0 with fewer than two returns
+   */
+  public double getVolatility() {
+    return days < 2 ? 0 : Math.sqrt(squares / (days - 1) * TRADING_DAYS_PER_YEAR);
+  }
+
+  /**
+   * Method to get the annualized mean daily return per unit of volatility.
+   *
+   * @return Sharpe ratio, or 0 when the returns do not vary
+   */
+  public double getSharpe() {
+    double volatility = getVolatility();
+    return volatility == 0 ? 0 : mean * TRADING_DAYS_PER_YEAR / volatility;
+  }
+
+  /**
+   * Method to get the annualized mean daily return per unit of downside deviation.
+   *
+   * @return Sortino ratio, or 0 when no return was negative
+   */
+  public double getSortino() {
+    if (days == 0 || downside == 0) {
+      return 0;
+    }
+    return mean * TRADING_DAYS_PER_YEAR / Math.sqrt(downside / days * TRADING_DAYS_PER_YEAR);
+  }
+
+  /**
+   * Method to get the loss of a day which is only exceeded with the given probability.
+   *
+   * @param confidence confidence level between 0 and 1, such as 0.95
+   * @return value at risk as a fraction of the value, or 0 with no returns
+   * @throws IllegalArgumentException if the confidence is not between 0 and 1
+   */
+  public double getValueAtRisk(double confidence) throws IllegalArgumentException {
+    checkConfidence(confidence);
+    return days == 0 ? 0 : Math.max(0, -sketch.quantile(1 - confidence));
+  }
+
+  /**
+   * Method to get the mean loss of the days beyond the value at risk.
+   *
+   * @param confidence confidence level between 0 and 1, such as 0.95
+   * @return conditional value at risk as a fraction of the value, or 0 with no returns
+   * @throws IllegalArgumentException if the confidence is not between 0 and 1
+   */
+  public double getConditionalValueAtRisk(double confidence) throws IllegalArgumentException {
+    checkConfidence(confidence);
+    return days == 0 ? 0 : Math.max(0, -sketch.tailMean(1 - confidence));
+  }
+
+  /**
+   * Helper method to check that a confidence level is a probability.
+   */
+  private static void checkConfidence(double confidence) throws IllegalArgumentException {
+    if (confidence <= 0 || confidence >= 1) {
+      throw new IllegalArgumentException("Confidence should be between 0 and 1");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "Days:" + days + "\n"
+            + "Total Return:" + String.format("%.2f", getTotalReturn() * 100) + "%\n"
+            + "Max Drawdown:" + String.format("%.2f", maxDrawdown * 100) + "%\n"
+            + "Volatility:" + String.format("%.2f", getVolatility() * 100) + "%\n"
+            + "Sharpe:" + String.format("%.2f", getSharpe()) + "\n"
+            + "Sortino:" + String.format("%.2f", getSortino()) + "\n"
+            + "95% VaR:" + String.format("%.2f", getValueAtRisk(0.95) * 100) + "%\n"
+            + "95% CVaR:" + String.format("%.2f", getConditionalValueAtRisk(0.95) * 100) + "%";
+  }
+}
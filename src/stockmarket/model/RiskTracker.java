@@ -0,0 +1,313 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class keeps the risk metrics of one portfolio up to date. The lots held and the lots sold
+ * are turned once into a list of changes to the number of shares held of each company, and the
+ * daily value of the portfolio is then swept from the first purchase onwards with one running
+ * share count and price per company. The sweep stops at the last day for which every company has
+ * a price, and carries on from there when new bars arrive, so no day is valued twice.
+ *
+ * <p>The purchases of dollar cost plans are not copied into the list. The sweep follows every leg
+ * of a plan with a cursor into its purchase schedule instead, so a tracker takes memory in
+ * proportion to the lots and companies and not to the purchases, and the purchases a plan makes
+ * as new bars arrive are taken in by the same sweep.
+ *
+ * <p>A tracker only describes the trades the portfolio had when it was built. Every trade changes
+ * the cost basis of the lots, the number of sales or the plans, which is how a tracker tells that
+ * it is out of date.
+ */
+final class RiskTracker {
+  private final Portfolio portfolio;
+  private final long costBasis;
+  private final int sales;
+  private final List<DollarCostPlan> plans;
+  // position of every company in the arrays, keyed by the ID of its ticker symbol
+  private final IntMap<Integer> index;
+  private final PriceSeries[] series;
+  private final int[] bars;
+  private final double[] shares;
+  private final double[] prices;
+  private final int[] eventDays;
+  private final int[] eventCompanies;
+  private final double[] eventShares;
+  private final DollarCostPlan.Leg[] legs;
+  private final int[] legCompanies;
+  // next purchase of every leg to be taken in by the sweep
+  private final int[] legPurchases;
+  private final RiskMetrics metrics;
+  private int events;
+  private int lastDay;
+
+  /**
+   * Constructor to initialize the tracker of a portfolio from its trades.
+   *
+   * @param portfolio portfolio to be tracked
+   * @param store     price store holding the history of its companies
+   * @throws IllegalArgumentException if the data of a company is missing
+   */
+  RiskTracker(Portfolio portfolio, PriceStore store) throws IllegalArgumentException {
+    this.portfolio = portfolio;
+    List<Stock> lots;
+    List<Sale> sold;
+    synchronized (portfolio) {
+      this.costBasis = lotCostBasis(portfolio);
+      this.plans = plans(portfolio);
+      lots = plans.isEmpty() ? portfolio.getStockList() : portfolio.getStockListWithoutPlans();
+      sold = portfolio.getSales();
+    }
+    this.sales = sold.size();
+    this.index = new IntMap<>();
+    int size = lots.size() + 2 * sold.size();
+    this.eventDays = new int[size];
+    this.eventCompanies = new int[size];
+    this.eventShares = new double[size];
+    for (Stock lot : lots) {
+      addChange(SymbolTable.id(lot), lot.getPurchaseDate(), lot.getNumberOfShares());
+    }
+    for (Sale sale : sold) {
+      int symbol = SymbolTable.id(sale.getCompanyTicker());
+      addChange(symbol, sale.getPurchaseDate(), sale.getNumberOfShares());
+      addChange(symbol, sale.getSaleDate(), -sale.getNumberOfShares());
+    }
+    List<DollarCostPlan.Leg> planLegs = new ArrayList<>();
+    for (DollarCostPlan plan : plans) {
+      for (DollarCostPlan.Leg leg : plan.getLegs()) {
+        planLegs.add(leg);
+      }
+    }
+    this.legs = planLegs.toArray(new DollarCostPlan.Leg[0]);
+    this.legCompanies = new int[legs.length];
+    for (int i = 0; i < legs.length; i++) {
+      legCompanies[i] = position(legs[i].getSeries().getSymbol());
+    }
+    this.legPurchases = new int[legs.length];
+    // sort the changes by day, keeping the position of each in the low half of its key
+    long[] keys = new long[size];
+    for (int i = 0; i < size; i++) {
+      keys[i] = (long) eventDays[i] << 32 | i;
+    }
+    Arrays.sort(keys);
+    int[] days = eventDays.clone();
+    int[] companies = eventCompanies.clone();
+    double[] amounts = eventShares.clone();
+    for (int i = 0; i < size; i++) {
+      int from = (int) keys[i];
+      eventDays[i] = days[from];
+      eventCompanies[i] = companies[from];
+      eventShares[i] = amounts[from];
+    }
+    // from here on events counts the changes already applied by the sweep
+    events = 0;
+    this.series = new PriceSeries[index.size()];
+    for (int i = index.first(); i >= 0; i = index.next(i)) {
+      series[index.valueAt(i)] = store.getSeries(index.keyAt(i));
+    }
+    this.bars = new int[series.length];
+    Arrays.fill(bars, -1);
+    this.shares = new double[series.length];
+    this.prices = new double[series.length];
+    this.metrics = new RiskMetrics();
+    this.lastDay = Integer.MAX_VALUE;
+  }
+
+  /**
+   * Helper method to get the cost basis which only changes with a trade.
+   */
+  private static long lotCostBasis(Portfolio portfolio) {
+    return portfolio instanceof PortfolioImpl
+            ? ((PortfolioImpl) portfolio).getLotCostBasisMicros()
+            : portfolio.getTotalCostBasisMicros();
+  }
+
+  /**
+   * Helper method to get the dollar cost plans of a portfolio whose legs can be followed.
+   */
+  private static List<DollarCostPlan> plans(Portfolio portfolio) {
+    return portfolio instanceof PortfolioImpl ? ((PortfolioImpl) portfolio).getPlans()
+            : Collections.<DollarCostPlan>emptyList();
+  }
+
+  /**
+   * Helper method to get the position of a company in the arrays, adding it if needed.
+   */
+  private int position(int symbol) {
+    Integer position = index.get(symbol);
+    if (position == null) {
+      position = index.size();
+      index.put(symbol, position);
+    }
+    return position;
+  }
+
+  /**
+   * Helper method to record a change to the number of shares held of a company.
+   */
+  private void addChange(int symbol, String date, double numberOfShares) {
+    eventDays[events] = PriceSeries.toDay(date);
+    eventCompanies[events] = position(symbol);
+    eventShares[events++] = numberOfShares;
+  }
+
+  /**
+   * Method to check whether this tracker still describes the trades of a portfolio.
+   *
+   * @param current portfolio now held under the ID of the tracked one
+   * @return true if no trade was made since the tracker was built
+   */
+  synchronized boolean isCurrent(Portfolio current) {
+    if (current != portfolio) {
+      return false;
+    }
+    synchronized (current) {
+      return lotCostBasis(current) == costBasis && current.getSales().size() == sales
+              && plans(current).equals(plans);
+    }
+  }
+
+  /**
+   * Method to check whether the portfolio ever held a company.
+   *
+   * @param company ticker symbol of the company
+   * @return true if a change of the tracker is for the company
+   */
+  boolean holds(String company) {
+    return holds(SymbolTable.id(company));
+  }
+
+  /**
+   * Method to check whether the portfolio ever held a company.
+   *
+   * @param symbol ID of the ticker symbol of the company
+   * @return true if a change of the tracker is for the company
+   */
+  boolean holds(int symbol) {
+    return index.containsKey(symbol);
+  }
+
+  /**
+   * Method to value the portfolio on every day since the last one swept for which every company
+   * has a price. The portfolio is locked meanwhile, as its plans move their legs on when it is
+   * told about new bars.
+   */
+  synchronized void advance() {
+    if (series.length == 0) {
+      return;
+    }
+    synchronized (portfolio) {
+      if (lastDay == Integer.MAX_VALUE) {
+        int first = firstDay();
+        if (first == Integer.MAX_VALUE) {
+          return;
+        }
+        lastDay = first - 1;
+      }
+      sweep();
+    }
+  }
+
+  /**
+   * Helper method to get the day of the first purchase, or Integer.MAX_VALUE if there is none.
+   */
+  private int firstDay() {
+    int first = eventDays.length == 0 ? Integer.MAX_VALUE : eventDays[0];
+    for (DollarCostPlan.Leg leg : legs) {
+      if (leg.getPurchases() > 0) {
+        first = Math.min(first, leg.getPurchaseDay(0));
+      }
+    }
+    return first;
+  }
+
+  /**
+   * Helper method to value the portfolio on the days after the last one swept.
+   */
+  private void sweep() {
+    int limit = Integer.MAX_VALUE;
+    for (PriceSeries company : series) {
+      limit = Math.min(limit, company.size() == 0 ? Integer.MIN_VALUE
+              : company.getDay(company.size() - 1));
+    }
+    while (true) {
+      int day = Integer.MAX_VALUE;
+      for (int i = 0; i < series.length; i++) {
+        if (bars[i] + 1 < series[i].size()) {
+          int next = series[i].getDay(bars[i] + 1);
+          day = Math.min(day, next > lastDay ? next : nextAfter(i));
+        }
+      }
+      if (day > limit) {
+        return;
+      }
+      double flow = 0;
+      double value = 0;
+      for (int i = 0; i < series.length; i++) {
+        while (bars[i] + 1 < series[i].size() && series[i].getDay(bars[i] + 1) <= day) {
+          bars[i]++;
+        }
+        if (bars[i] >= 0) {
+          prices[i] = series[i].getLow(bars[i]);
+        }
+      }
+      while (events < eventDays.length && eventDays[events] <= day) {
+        int company = eventCompanies[events];
+        shares[company] += eventShares[events];
+        flow += eventShares[events] * prices[company];
+        events++;
+      }
+      for (int i = 0; i < legs.length; i++) {
+        flow += buy(i, day);
+      }
+      for (int i = 0; i < series.length; i++) {
+        value += shares[i] * prices[i];
+      }
+      metrics.add(value, flow);
+      lastDay = day;
+    }
+  }
+
+  /**
+   * Helper method to take in the purchases of a leg made on or before a day.
+   *
+   * @return the money put into the portfolio by the purchases
+   */
+  private double buy(int leg, int day) {
+    DollarCostPlan.Leg purchases = legs[leg];
+    int company = legCompanies[leg];
+    double flow = 0;
+    for (; legPurchases[leg] < purchases.getPurchases()
+            && purchases.getPurchaseDay(legPurchases[leg]) <= day; legPurchases[leg]++) {
+      if (purchases.isSkipped(legPurchases[leg])) {
+        continue;
+      }
+      PriceSeries prices = purchases.getSeries();
+      double bought = purchases.getAmount()
+              / prices.getLow(prices.indexOf(purchases.getPurchaseDay(legPurchases[leg])));
+      shares[company] += bought;
+      flow += bought * this.prices[company];
+    }
+    return flow;
+  }
+
+  /**
+   * Helper method to skip the bars of a company which were before the first purchase.
+   */
+  private int nextAfter(int company) {
+    int bar = series[company].ceilingIndex(lastDay + 1);
+    bars[company] = bar - 1;
+    return bar < series[company].size() ? series[company].getDay(bar) : Integer.MAX_VALUE;
+  }
+
+  /**
+   * Method to get a copy of the metrics of the days swept so far.
+   *
+   * @return the risk metrics, which do not change with the tracker
+   */
+  synchronized RiskMetrics getMetrics() {
+    return new RiskMetrics(metrics);
+  }
+}
@@ -0,0 +1,164 @@
+package stockmarket.model;
+
+/**
+ * This class represents the shares of one purchase lot which were sold together with the cost
+ * basis relieved from the lot and the proceeds of the sale. Amounts are held as whole
+ * micro-dollars.
+ */
+public final class Sale {
+  private final String companyTicker;
+  private final String saleDate;
+  private final String purchaseDate;
+  private final double numberOfShares;
+  private final long costBasis;
+  private final long proceeds;
+  private final long commission;
+
+  /**
+   * Constructor to initialize a sale.
+   *
+   * @param companyTicker  ticker symbol of the company whose shares were sold
+   * @param saleDate       date of the sale in yyyy-MM-dd format
+   * @param purchaseDate   purchase date of the lot from which the shares were sold
+   * @param numberOfShares number of shares sold
+   * @param costBasis      cost basis relieved from the lot
+   * @param proceeds       value of the sold shares on the sale date
+   * @param commission     part of the sale commission charged to this lot
+   */
+  public Sale(String companyTicker, String saleDate, String purchaseDate, double numberOfShares,
+              double costBasis, double proceeds, double commission) {
+    this(companyTicker, saleDate, purchaseDate, numberOfShares, Money.ofDollars(costBasis),
+            Money.ofDollars(proceeds), Money.ofDollars(commission));
+  }
+
+  /**
+   * Constructor to initialize a sale with the amounts given in micro-dollars.
+   *
+   * @param companyTicker  ticker symbol of the company whose shares were sold
+   * @param saleDate       date of the sale in yyyy-MM-dd format
+   * @param purchaseDate   purchase date of the lot from which the shares were sold
+   * @param numberOfShares number of shares sold
+   * @param costBasis      cost basis relieved from the lot in micro-dollars
+   * @param proceeds       value of the sold shares on the sale date in micro-dollars
+   * @param commission     part of the sale commission charged to this lot in micro-dollars
+   */
+  Sale(String companyTicker, String saleDate, String purchaseDate, double numberOfShares,
+       long costBasis, long proceeds, long commission) {
+    this.companyTicker = companyTicker;
+    this.saleDate = saleDate;
+    this.purchaseDate = purchaseDate;
+    this.numberOfShares = numberOfShares;
+    this.costBasis = costBasis;
+    this.proceeds = proceeds;
+    this.commission = commission;
+  }
+
+  /**
+   * Method to get the ticker symbol of the company whose shares were sold.
+   *
+   * @return ticker symbol of the company
+   */
+  public String getCompanyTicker() {
+    return companyTicker;
+  }
+
+  /**
+   * Method to get the date of the sale.
+   *
+   * @return date of the sale in yyyy-MM-dd format
+   */
+  public String getSaleDate() {
+    return saleDate;
+  }
+
+  /**
+   * Method to get the purchase date of the lot from which the shares were sold.
+   *
+   * @return purchase date in yyyy-MM-dd format
+   */
+  public String getPurchaseDate() {
+    return purchaseDate;
+  }
+
+  /**
+   * Method to get the number of shares sold.
+   *
+   * @return number of shares sold
+   */
+  public double getNumberOfShares() {
+    return numberOfShares;
+  }
+
+  /**
+   * Method to get the cost basis relieved from the lot.
+   *
+   * @return cost basis of the sold shares
+   */
+  public double getCostBasis() {
+    return Money.toDollars(costBasis);
+  }
+
+  /**
+   * Method to get the cost basis relieved from the lot in micro-dollars.
+   */
+  long getCostBasisMicros() {
+    return costBasis;
+  }
+
+  /**
+   * Method to get the value of the sold shares on the sale date.
+   *
+   * @return proceeds of the sale before commission
+   */
+  public double getProceeds() {
+    return Money.toDollars(proceeds);
+  }
+
+  /**
+   * Method to get the proceeds of the sale in micro-dollars.
+   */
+  long getProceedsMicros() {
+    return proceeds;
+  }
+
+  /**
+   * Method to get the part of the sale commission charged to this lot.
+   *
+   * @return commission of the sale
+   */
+  public double getCommission() {
+    return Money.toDollars(commission);
+  }
+
+  /**
+   * Method to get the commission of the sale in micro-dollars.
+   */
+  long getCommissionMicros() {
+    return commission;
+  }
+
+  /**
+   * Method to get the gain realized by this sale after commission.
+   *
+   * @return realized gain, negative for a loss
+   */
+  public double getRealizedGain() {
+    return Money.toDollars(getRealizedGainMicros());
+  }
+
+  /**
+   * Method to get the realized gain in micro-dollars.
+   */
+  long getRealizedGainMicros() {
+    return proceeds - commission - costBasis;
+  }
+
+  @Override
+  public String toString() {
+    return "Company Ticker:" + companyTicker
+            + "\nSale Date:" + saleDate
+            + "\nPurchase Date:" + purchaseDate
+            + "\nNumber of Shares: " + numberOfShares + "\nCost Basis:" + Money.toDollars(costBasis)
+            + "\nProceeds:" + Money.toDollars(proceeds);
+  }
+}
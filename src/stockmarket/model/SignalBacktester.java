@@ -0,0 +1,192 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class runs a trading rule over the price history of a group of companies. The bars of all
+ * companies are streamed in date order from a heap holding the next bar of each company, and every
+ * bar is passed to the rule. The amount is split evenly between the companies, and each company
+ * is either fully invested or fully in cash. The state of the run is kept in primitive arrays
+ * sized once, so a bar which does not lead to a trade creates no object.
+ *
+ * <p>The rule sees every bar from the start of the history so that its indicators are ready on
+ * the start date, but trades are only made from the start date on. A position called for by a
+ * bar is taken at the lowest price of the next bar of the company, since the close which
+ * triggered it is not known before the bar ends. Purchases and sales are made as lots of a
+ * portfolio, which prices its sales from the shared price store.
+ */
+public final class SignalBacktester {
+  private static final double MIN_TRADE = 0.01;
+
+  private final PriceStore prices;
+
+  /**
+   * Constructor to initialize a backtester over a price store.
+   *
+   * @param prices price store holding the history of every company of a run
+   */
+  public SignalBacktester(PriceStore prices) {
+    this.prices = prices;
+  }
+
+  /**
+   * Method to run a rule over a group of companies.
+   *
+   * @param rule       trading rule to be run
+   * @param tickers    ticker symbols of the companies
+   * @param amount     amount split evenly between the companies on the start date
+   * @param startDate  date from which trades are made in yyyy-MM-dd format
+   * @param endDate    date at which the run stops in yyyy-MM-dd format, excluded
+   * @param commission commission of every purchase and sale
+   * @return the final value, trades and drawdown of the rule and the portfolio it traded
+   * @throws IllegalArgumentException if the amount, commission or dates are not valid, the data
+   *                                  of a company is missing or there is no trading day between
+   *                                  the dates
+   */
+  public SignalResult run(SignalRule rule, List<String> tickers, double amount, String startDate,
+                          String endDate, double commission) throws IllegalArgumentException {
+    if (tickers.isEmpty()) {
+      throw new IllegalArgumentException("At least one company is required");
+    }
+    if (amount <= 0) {
+      throw new IllegalArgumentException("amount cannot be negative");
+    }
+    if (commission < 0) {
+      throw new IllegalArgumentException("Commission cannot be negative");
+    }
+    int startDay = PriceSeries.toDay(startDate);
+    int endDay = PriceSeries.toDay(endDate);
+    int count = tickers.size();
+    PriceSeries[] series = new PriceSeries[count];
+    for (int i = 0; i < count; i++) {
+      series[i] = prices.getSeries(tickers.get(i));
+    }
+    // the heap holds the day of the next bar of a company in the high half of a key and the
+    // company in the low half, so the bars come out by day and then by company
+    long[] heap = new long[count];
+    int size = 0;
+    for (int i = 0; i < count; i++) {
+      if (series[i].size() > 0 && series[i].getDay(0) < endDay) {
+        heap[size] = (long) series[i].getDay(0) << 32 | i;
+        siftUp(heap, size++);
+      }
+    }
+    int[] bars = new int[count];
+    double[] cash = new double[count];
+    double[] shares = new double[count];
+    double[] price = new double[count];
+    double[] positions = new double[count];
+    Arrays.fill(cash, amount / count);
+    rule.reset(count);
+    Portfolio portfolio = new PortfolioImpl();
+    double total = amount;
+    double peak = amount;
+    double maxDrawdown = 0;
+    double commissions = 0;
+    int trades = 0;
+    int currentDay = Integer.MIN_VALUE;
+    while (size > 0) {
+      long key = heap[0];
+      int day = (int) (key >>> 32);
+      int company = (int) key;
+      PriceSeries companySeries = series[company];
+      int bar = bars[company];
+      if (day != currentDay) {
+        if (currentDay >= startDay) {
+          peak = Math.max(peak, total);
+          maxDrawdown = Math.max(maxDrawdown, 1 - total / peak);
+        }
+        currentDay = day;
+      }
+      double high = companySeries.getHigh(bar);
+      double low = companySeries.getLow(bar);
+      double close = companySeries.getClose(bar);
+      if (day >= startDay) {
+        total += shares[company] * (low - price[company]);
+        price[company] = low;
+        if (positions[company] > 0 && shares[company] == 0
+                && cash[company] - commission >= MIN_TRADE) {
+          Stock lot = new StockImpl(companySeries.getTicker(), cash[company] - commission,
+                  companySeries, bar, commission);
+          portfolio.addStocks(Collections.singletonList(lot));
+          shares[company] = lot.getNumberOfShares();
+          cash[company] = 0;
+          total -= commission;
+          commissions += commission;
+          trades++;
+        } else if (positions[company] == 0 && shares[company] > 0
+                && shares[company] * low - commission >= MIN_TRADE) {
+          portfolio.sellStock(companySeries.getTicker(), shares[company],
+                  PriceSeries.toDate(day), commission, LotRelief.FIFO);
+          cash[company] = shares[company] * low - commission;
+          shares[company] = 0;
+          total -= commission;
+          commissions += commission;
+          trades++;
+        }
+      }
+      double position = rule.onBar(company, high, low, close);
+      if (!Double.isNaN(position)) {
+        positions[company] = position;
+      }
+      bars[company] = ++bar;
+      if (bar < companySeries.size() && companySeries.getDay(bar) < endDay) {
+        heap[0] = (long) companySeries.getDay(bar) << 32 | company;
+      } else {
+        heap[0] = heap[--size];
+      }
+      siftDown(heap, size);
+    }
+    if (currentDay < startDay) {
+      throw new IllegalArgumentException("No trading day between " + startDate + " and "
+              + endDate);
+    }
+    peak = Math.max(peak, total);
+    maxDrawdown = Math.max(maxDrawdown, 1 - total / peak);
+    return new SignalResult(portfolio, total, amount, trades, commissions, maxDrawdown);
+  }
+
+  /**
+   * Helper method to move the key at a position of the heap up to its place.
+   */
+  private static void siftUp(long[] heap, int position) {
+    long key = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (heap[parent] <= key) {
+        break;
+      }
+      heap[position] = heap[parent];
+      position = parent;
+    }
+    heap[position] = key;
+  }
+
+  /**
+   * Helper method to move the key at the top of the heap down to its place.
+   */
+  private static void siftDown(long[] heap, int size) {
+    if (size == 0) {
+      return;
+    }
+    long key = heap[0];
+    int position = 0;
+    while (true) {
+      int child = 2 * position + 1;
+      if (child >= size) {
+        break;
+      }
+      if (child + 1 < size && heap[child + 1] < heap[child]) {
+        child++;
+      }
+      if (heap[child] >= key) {
+        break;
+      }
+      heap[position] = heap[child];
+      position = child;
+    }
+    heap[position] = key;
+  }
+}
@@ -0,0 +1,98 @@
+package stockmarket.model;
+
+/**
+ * This class represents the outcome of running a trading rule over the price history, together
+ * with the portfolio holding the lots it bought and the sales it made.
+ */
+public final class SignalResult {
+  private final Portfolio portfolio;
+  private final double finalValue;
+  private final double invested;
+  private final int trades;
+  private final double commissions;
+  private final double maxDrawdown;
+
+  /**
+   * Constructor to initialize the result of a run.
+   *
+   * @param portfolio   portfolio holding the lots and sales of the run
+   * @param finalValue  value of the holdings and the cash left on the last day
+   * @param invested    amount given to the rule on the first day
+   * @param trades      number of purchases and sales
+   * @param commissions commission paid for all trades
+   * @param maxDrawdown largest fall of the daily value from an earlier peak, as a fraction of the
+   *                    peak
+   */
+  public SignalResult(Portfolio portfolio, double finalValue, double invested, int trades,
+                      double commissions, double maxDrawdown) {
+    this.portfolio = portfolio;
+    this.finalValue = finalValue;
+    this.invested = invested;
+    this.trades = trades;
+    this.commissions = commissions;
+    this.maxDrawdown = maxDrawdown;
+  }
+
+  /**
+   * Method to get the portfolio holding the lots bought and the sales made by the rule.
+   *
+   * @return the portfolio of the run
+   */
+  public Portfolio getPortfolio() {
+    return portfolio;
+  }
+
+  /**
+   * Method to get the value of the holdings and the cash left on the last day.
+   *
+   * @return final value in dollars
+   */
+  public double getFinalValue() {
+    return finalValue;
+  }
+
+  /**
+   * Method to get the amount given to the rule on the first day.
+   *
+   * @return amount in dollars
+   */
+  public double getInvested() {
+    return invested;
+  }
+
+  /**
+   * Method to get the number of purchases and sales made by the rule.
+   *
+   * @return number of trades
+   */
+  public int getTrades() {
+    return trades;
+  }
+
+  /**
+   * Method to get the commission paid for all trades.
+   *
+   * @return commission in dollars
+   */
+  public double getCommissions() {
+    return commissions;
+  }
+
+  /**
+   * Method to get the largest fall of the daily value from an earlier peak.
+   *
+   * @return drawdown as a fraction of the peak
+   */
+  public double getMaxDrawdown() {
+    return maxDrawdown;
+  }
+
+  @Override
+  public String toString() {
+    return "Final Value:" + String.format("%.2f", finalValue) + "\n"
+            + "Invested:" + String.format("%.2f", invested) + "\n"
+            + "Trades:" + trades + "\n"
+            + "Commissions:" + String.format("%.2f", commissions) + "\n"
+            + "Max Drawdown:" + String.format("%.2f", maxDrawdown * 100) + "%";
+  }
+}
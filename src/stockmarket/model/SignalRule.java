@@ -0,0 +1,28 @@
+package stockmarket.model;
+
+/**
+ * This interface represents a trading rule which is told about every bar of every company of a
+ * signal backtest, in date order. A rule keeps its own state for every company, sized once when a
+ * run starts, so that it does not create objects while the bars are streamed. A rule is used by
+ * one run at a time.
+ */
+public interface SignalRule {
+
+  /**
+   * Method called before the first bar of a run to clear the state of the rule.
+   *
+   * @param companies number of companies of the run, which are numbered from 0
+   */
+  void reset(int companies);
+
+  /**
+   * Method called with every bar of a company to get the position it calls for after the bar.
+   *
+   * @param company number of the company
+   * @param high    highest price of the bar
+   * @param low     lowest price of the bar
+   * @param close   closing price of the bar
+   * @return 1 to hold the company, 0 to hold none of it or NaN to keep the current position
+   */
+  double onBar(int company, double high, double low, double close);
+}
@@ -0,0 +1,162 @@
+package stockmarket.model;
+
+/**
+ * This class creates the trading rules which come with the signal backtester. Every rule keeps one
+ * incremental indicator or price window per company, so each bar takes constant time.
+ */
+public final class SignalRules {
+
+  /**
+   * Constructor which is private as this class only has static methods.
+   */
+  private SignalRules() {
+  }
+
+  /**
+   * Method to create a rule which holds a company while its fast exponential average of the close
+   * is above its slow one.
+   *
+   * @param fast period of the fast average
+   * @param slow period of the slow average
+   * @return the crossover rule
+   * @throws IllegalArgumentException if a period is not positive or the fast period is not
+   *                                  shorter than the slow one
+   */
+  public static SignalRule crossover(int fast, int slow) throws IllegalArgumentException {
+    IndicatorSpec fastAverage = IndicatorSpec.ema(fast);
+    IndicatorSpec slowAverage = IndicatorSpec.ema(slow);
+    if (fast >= slow) {
+      throw new IllegalArgumentException("Fast period should be shorter than slow period");
+    }
+    return new Crossover(fastAverage, slowAverage);
+  }
+
+  /**
+   * Method to create a rule which holds a company while its close is above the close a number of
+   * bars earlier.
+   *
+   * @param lookback number of bars between the closes compared
+   * @return the momentum rule
+   * @throws IllegalArgumentException if the lookback is not positive
+   */
+  public static SignalRule momentum(int lookback) throws IllegalArgumentException {
+    if (lookback <= 0) {
+      throw new IllegalArgumentException("period should be a positive number of days");
+    }
+    return new Momentum(lookback);
+  }
+
+  /**
+   * Method to create a rule which buys a company when its close falls below the lower Bollinger
+   * band and sells it when the close gets back to the average.
+   *
+   * @param period number of bars averaged
+   * @param width  number of standard deviations between the average and the lower band
+   * @return the mean reversion rule
+   * @throws IllegalArgumentException if the period or the width is not positive
+   */
+  public static SignalRule meanReversion(int period, double width)
+          throws IllegalArgumentException {
+    return new MeanReversion(IndicatorSpec.bollinger(period, width));
+  }
+
+  /**
+   * Rule holding a company while its fast average is above its slow average.
+   */
+  private static final class Crossover implements SignalRule {
+    private final IndicatorSpec fast;
+    private final IndicatorSpec slow;
+    private Indicator[] fastAverages;
+    private Indicator[] slowAverages;
+
+    Crossover(IndicatorSpec fast, IndicatorSpec slow) {
+      this.fast = fast;
+      this.slow = slow;
+    }
+
+    @Override
+    public void reset(int companies) {
+      fastAverages = new Indicator[companies];
+      slowAverages = new Indicator[companies];
+      for (int i = 0; i < companies; i++) {
+        fastAverages[i] = Indicators.create(fast);
+        slowAverages[i] = Indicators.create(slow);
+      }
+    }
+
+    @Override
+    public double onBar(int company, double high, double low, double close) {
+      fastAverages[company].update(high, low, close);
+      slowAverages[company].update(high, low, close);
+      if (!slowAverages[company].isReady()) {
+        return Double.NaN;
+      }
+      return fastAverages[company].getValue(0) > slowAverages[company].getValue(0) ? 1 : 0;
+    }
+  }
+
+  /**
+   * Rule holding a company while its close is above an earlier close.
+   */
+  private static final class Momentum implements SignalRule {
+    private final int lookback;
+    private double[] closes;
+    private int[] counts;
+
+    Momentum(int lookback) {
+      this.lookback = lookback;
+    }
+
+    @Override
+    public void reset(int companies) {
+      closes = new double[companies * lookback];
+      counts = new int[companies];
+    }
+
+    @Override
+    public double onBar(int company, double high, double low, double close) {
+      int slot = company * lookback + counts[company] % lookback;
+      double earlier = closes[slot];
+      boolean ready = counts[company] >= lookback;
+      closes[slot] = close;
+      counts[company]++;
+      if (!ready) {
+        return Double.NaN;
+      }
+      return close > earlier ? 1 : 0;
+    }
+  }
+
+  /**
+   * Rule buying a company below its lower band and selling it back at its average.
+   */
+  private static final class MeanReversion implements SignalRule {
+    private final IndicatorSpec bands;
+    private Indicator[] companyBands;
+
+    MeanReversion(IndicatorSpec bands) {
+      this.bands = bands;
+    }
+
+    @Override
+    public void reset(int companies) {
+      companyBands = new Indicator[companies];
+      for (int i = 0; i < companies; i++) {
+        companyBands[i] = Indicators.create(bands);
+      }
+    }
+
+    @Override
+    public double onBar(int company, double high, double low, double close) {
+      Indicator indicator = companyBands[company];
+      indicator.update(high, low, close);
+      if (!indicator.isReady()) {
+        return Double.NaN;
+      }
+      if (close < indicator.getValue(2)) {
+        return 1;
+      }
+      return close >= indicator.getValue(0) ? 0 : Double.NaN;
+    }
+  }
+}
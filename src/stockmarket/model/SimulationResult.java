@@ -0,0 +1,111 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class represents the terminal values of the simulated paths of a Monte Carlo run. The
+ * values are kept sorted in a primitive array so any percentile is a single lookup.
+ */
+public final class SimulationResult {
+  private static final double[] BANDS = {5, 25, 50, 75, 95};
+
+  private final double[] terminalValues;
+  private final double startValue;
+  private final double invested;
+  private final int horizon;
+
+  /**
+   * Constructor to initialize the result from the terminal value of every path.
+   *
+   * @param terminalValues terminal value of every path, which is sorted in place
+   * @param startValue     value held when the simulation starts
+   * @param invested       amount added along every path including commission
+   * @param horizon        number of trading days simulated
+   */
+  SimulationResult(double[] terminalValues, double startValue, double invested, int horizon) {
+    Arrays.sort(terminalValues);
+    this.terminalValues = terminalValues;
+    this.startValue = startValue;
+    this.invested = invested;
+    this.horizon = horizon;
+  }
+
+  /**
+   * Method to get the number of simulated paths.
+   *
+   * @return number of paths
+   */
+  public int getPaths() {
+    return terminalValues.length;
+  }
+
+  /**
+   * Method to get the number of trading days simulated.
+   *
+   * @return horizon in trading days
+   */
+  public int getHorizon() {
+    return horizon;
+  }
+
+  /**
+   * Method to get the value held when the simulation starts.
+   *
+   * @return start value in dollars
+   */
+  public double getStartValue() {
+    return startValue;
+  }
+
+  /**
+   * Method to get the amount added along every path by dollar cost purchases.
+   *
+   * @return amount invested including commission
+   */
+  public double getInvested() {
+    return invested;
+  }
+
+  /**
+   * Method to get a percentile of the terminal values, using the nearest rank.
+   *
+   * @param percentile percentile between 0 and 100
+   * @return terminal value at the percentile
+   * @throws IllegalArgumentException if the percentile is not between 0 and 100
+   */
+  public double getPercentile(double percentile) throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile should be between 0 and 100");
+    }
+    int rank = (int) Math.ceil(percentile / 100 * terminalValues.length);
+    return terminalValues[Math.max(0, rank - 1)];
+  }
+
+  /**
+   * Method to get the mean of the terminal values.
+   *
+   * @return mean terminal value
+   */
+  public double getMean() {
+    double sum = 0;
+    for (double value : terminalValues) {
+      sum += value;
+    }
+    return sum / terminalValues.length;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder result = new StringBuilder();
+    result.append("Paths:").append(terminalValues.length).append("\n");
+    result.append("Horizon:").append(horizon).append(" trading days\n");
+    result.append("Start Value:").append(String.format("%.2f", startValue)).append("\n");
+    result.append("Invested:").append(String.format("%.2f", invested)).append("\n");
+    result.append("Mean:").append(String.format("%.2f", getMean()));
+    for (double band : BANDS) {
+      result.append("\n").append((int) band).append("th Percentile:")
+              .append(String.format("%.2f", getPercentile(band)));
+    }
+    return result.toString();
+  }
+}
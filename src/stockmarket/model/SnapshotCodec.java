@@ -0,0 +1,392 @@
+package stockmarket.model;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class reads and writes the versioned binary snapshot format used to persist portfolios and
+ * dollar cost strategies. A snapshot starts with a magic number, a format version and a record
+ * kind. Counts, indices and dates (as epoch days) are written as varints and amounts as raw
+ * doubles, so a snapshot can be decoded in a single pass without any text parsing. Version 2
+ * appends the sales of a portfolio and version 3 its dollar cost plans, whose purchases are not
+ * written as lots. Version 4 allows a strategy without an end date. Snapshots of older versions
+ * are still read.
+ */
+final class SnapshotCodec {
+  static final int MAGIC = 0x56475350; // "VGSP"
+  static final byte VERSION = 4;
+  static final byte KIND_PORTFOLIO = 1;
+  static final byte KIND_STRATEGY = 2;
+
+  private SnapshotCodec() {
+  }
+
+  /**
+   * Method to encode a portfolio with all its lots, companies and dollar cost parameters. The
+   * portfolio is read under its lock, which the methods of PortfolioImpl hold, so a trade made
+   * while it is encoded cannot show up in some parts of the snapshot and not in others.
+   *
+   * @param portfolio portfolio to be encoded
+   * @return buffer ready to be written to a channel
+   */
+  static ByteBuffer encodePortfolio(Portfolio portfolio) {
+    synchronized (portfolio) {
+      return encodeLocked(portfolio);
+    }
+  }
+
+  /**
+   * Helper method to encode a portfolio whose lock is held.
+   */
+  private static ByteBuffer encodeLocked(Portfolio portfolio) {
+    Encoder out = new Encoder(256);
+    out.header(KIND_PORTFOLIO);
+    List<Stock> stocks = portfolio.getStockListWithoutPlans();
+    List<Sale> sales = portfolio.getSales();
+    List<DollarCostAverage> plans = portfolio.getDollarCostPlans();
+    Map<String, Integer> companyIndex = new LinkedHashMap<>();
+    for (String company : portfolio.getCompanyList()) {
+      companyIndex.put(company, companyIndex.size());
+    }
+    for (Stock stock : stocks) {
+      if (!companyIndex.containsKey(stock.getCompanyTicker())) {
+        companyIndex.put(stock.getCompanyTicker(), companyIndex.size());
+      }
+    }
+    for (Sale sale : sales) {
+      if (!companyIndex.containsKey(sale.getCompanyTicker())) {
+        companyIndex.put(sale.getCompanyTicker(), companyIndex.size());
+      }
+    }
+    out.varint(companyIndex.size());
+    for (String company : companyIndex.keySet()) {
+      out.string(company);
+    }
+    out.varint(stocks.size());
+    for (Stock stock : stocks) {
+      out.varint(companyIndex.get(stock.getCompanyTicker()));
+      out.date(stock.getPurchaseDate());
+      out.raw(stock.getCostBasis());
+      out.raw(stock.getNumberOfShares());
+      out.raw(stock.getCommission());
+    }
+    if (portfolio.getDollarCostAveraged() && portfolio.getDollarCostAverage() != null) {
+      out.put((byte) 1);
+      out.strategy(portfolio.getDollarCostAverage());
+    } else {
+      out.put((byte) 0);
+    }
+    out.varint(sales.size());
+    for (Sale sale : sales) {
+      out.varint(companyIndex.get(sale.getCompanyTicker()));
+      out.date(sale.getSaleDate());
+      out.date(sale.getPurchaseDate());
+      out.raw(sale.getNumberOfShares());
+      out.raw(sale.getCostBasis());
+      out.raw(sale.getProceeds());
+      out.raw(sale.getCommission());
+    }
+    out.varint(plans.size());
+    for (DollarCostAverage plan : plans) {
+      out.strategy(plan);
+    }
+    return out.finish();
+  }
+
+  /**
+   * Method to decode a portfolio snapshot.
+   *
+   * @param buffer buffer holding a complete portfolio snapshot
+   * @return the restored portfolio
+   * @throws IllegalArgumentException if the snapshot is corrupt or of an unknown version
+   */
+  static PortfolioImpl decodePortfolio(ByteBuffer buffer) throws IllegalArgumentException {
+    try {
+      Decoder in = new Decoder(buffer);
+      byte version = in.header(KIND_PORTFOLIO);
+      PortfolioImpl portfolio = new PortfolioImpl();
+      String[] companies = new String[in.varint()];
+      for (int i = 0; i < companies.length; i++) {
+        companies[i] = in.string();
+        portfolio.addStockData(companies[i]);
+      }
+      int lotCount = in.varint();
+      List<Stock> stocks = new ArrayList<>(lotCount);
+      for (int i = 0; i < lotCount; i++) {
+        String company = companies[in.varint()];
+        String purchaseDate = in.date();
+        double costBasis = in.raw();
+        double numberOfShares = in.raw();
+        double commission = in.raw();
+        stocks.add(new StockImpl(company, purchaseDate, costBasis, numberOfShares, commission));
+      }
+      portfolio.addStocks(stocks);
+      if (in.get() == 1) {
+        portfolio.setDollarCostAveraged(true);
+        portfolio.setDollarCostAverage(in.strategy());
+      }
+      if (version >= 2) {
+        int saleCount = in.varint();
+        List<Sale> sales = new ArrayList<>(saleCount);
+        for (int i = 0; i < saleCount; i++) {
+          String company = companies[in.varint()];
+          String saleDate = in.date();
+          String purchaseDate = in.date();
+          sales.add(new Sale(company, saleDate, purchaseDate, in.raw(), in.raw(), in.raw(),
+                  in.raw()));
+        }
+        portfolio.restoreSales(sales);
+      }
+      if (version >= 3) {
+        int planCount = in.varint();
+        for (int i = 0; i < planCount; i++) {
+          portfolio.restoreDollarCostPlan(in.strategy());
+        }
+      }
+      return portfolio;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("The saved portfolio snapshot is corrupt");
+    }
+  }
+
+  /**
+   * Method to encode the parameters of a dollar cost strategy.
+   *
+   * @param strategy strategy to be encoded
+   * @return buffer ready to be written to a channel
+   */
+  static ByteBuffer encodeStrategy(DollarCostAverage strategy) {
+    Encoder out = new Encoder(64);
+    out.header(KIND_STRATEGY);
+    out.strategy(strategy);
+    return out.finish();
+  }
+
+  /**
+   * Method to decode a strategy snapshot.
+   *
+   * @param buffer buffer holding a complete strategy snapshot
+   * @return the restored strategy parameters
+   * @throws IllegalArgumentException if the snapshot is corrupt or of an unknown version
+   */
+  static DollarCostAverage decodeStrategy(ByteBuffer buffer) throws IllegalArgumentException {
+    try {
+      Decoder in = new Decoder(buffer);
+      in.header(KIND_STRATEGY);
+      return in.strategy();
+    } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("The saved strategy snapshot is corrupt");
+    }
+  }
+
+  /**
+   * Method to write a snapshot to a file. The data is first written to a sibling temporary file
+   * which then replaces the target, so a crash never leaves a half written snapshot behind.
+   *
+   * @param path   file to be written
+   * @param buffer encoded snapshot
+   * @throws IOException if the file write fails
+   */
+  static void write(Path path, ByteBuffer buffer) throws IOException {
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  /**
+   * Method to read a complete snapshot file into a buffer.
+   *
+   * @param path file to be read
+   * @return buffer positioned at the start of the snapshot
+   * @throws IOException if the file read fails
+   */
+  static ByteBuffer read(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+      while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+        // keep reading until the buffer is full
+      }
+      buffer.flip();
+      return buffer;
+    }
+  }
+
+  /**
+   * Growable buffer with the primitive encodings used by the snapshot format.
+   */
+  private static final class Encoder {
+    private ByteBuffer buffer;
+
+    Encoder(int capacity) {
+      buffer = ByteBuffer.allocate(capacity);
+    }
+
+    void header(byte kind) {
+      ensure(6);
+      buffer.putInt(MAGIC);
+      buffer.put(VERSION);
+      buffer.put(kind);
+    }
+
+    void put(byte b) {
+      ensure(1);
+      buffer.put(b);
+    }
+
+    void varint(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        buffer.put((byte) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      buffer.put((byte) value);
+    }
+
+    void raw(double value) {
+      ensure(8);
+      buffer.putDouble(value);
+    }
+
+    void string(String value) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      varint(bytes.length);
+      ensure(bytes.length);
+      buffer.put(bytes);
+    }
+
+    void date(String date) {
+      long day = LocalDate.parse(date).toEpochDay();
+      varint((day << 1) ^ (day >> 63));
+    }
+
+    void strategy(DollarCostAverage strategy) {
+      date(strategy.getStartDate());
+      if (strategy.isOngoing()) {
+        put((byte) 0);
+      } else {
+        put((byte) 1);
+        date(strategy.getEndDate());
+      }
+      raw(strategy.getAmount());
+      varint(strategy.getPeriodInDays());
+      raw(strategy.getCommission());
+      Map<String, Double> weights = strategy.getWeights();
+      varint(weights.size());
+      for (Map.Entry<String, Double> entry : weights.entrySet()) {
+        string(entry.getKey());
+        raw(entry.getValue());
+      }
+    }
+
+    ByteBuffer finish() {
+      buffer.flip();
+      return buffer;
+    }
+
+    private void ensure(int bytes) {
+      if (buffer.remaining() < bytes) {
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2,
+                buffer.position() + bytes));
+        buffer.flip();
+        bigger.put(buffer);
+        buffer = bigger;
+      }
+    }
+  }
+
+  /**
+   * Reader for the primitive encodings used by the snapshot format.
+   */
+  private static final class Decoder {
+    private final ByteBuffer buffer;
+    private byte version;
+
+    Decoder(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    byte header(byte kind) {
+      if (buffer.getInt() != MAGIC) {
+        throw new IllegalArgumentException("The file is not a Virtual Gamble snapshot");
+      }
+      version = buffer.get();
+      if (version < 1 || version > VERSION) {
+        throw new IllegalArgumentException("Unsupported snapshot version " + version);
+      }
+      if (buffer.get() != kind) {
+        throw new IllegalArgumentException("The snapshot holds a different kind of record");
+      }
+      return version;
+    }
+
+    byte get() {
+      return buffer.get();
+    }
+
+    int varint() {
+      return (int) varlong();
+    }
+
+    long varlong() {
+      long value = 0;
+      int shift = 0;
+      byte b;
+      do {
+        b = buffer.get();
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      return value;
+    }
+
+    double raw() {
+      return buffer.getDouble();
+    }
+
+    String string() {
+      int length = varint();
+      String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+              StandardCharsets.UTF_8);
+      buffer.position(buffer.position() + length);
+      return value;
+    }
+
+    String date() {
+      long zigzag = varlong();
+      return LocalDate.ofEpochDay((zigzag >>> 1) ^ -(zigzag & 1)).toString();
+    }
+
+    DollarCostAverage strategy() {
+      String startDate = date();
+      String endDate = version < 4 || get() == 1 ? date() : null;
+      double amount = raw();
+      int period = varint();
+      double commission = raw();
+      int weightCount = varint();
+      Map<String, Double> weights = new HashMap<>();
+      for (int i = 0; i < weightCount; i++) {
+        String company = string();
+        weights.put(company, raw());
+      }
+      return new DollarCostAverage(startDate, endDate, amount, period, weights, commission);
+    }
+  }
+}
@@ -1,128 +1,180 @@
-package stockmarket.model;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
-
-
-/**
- * This class is an implementation of Stock interface and defines all the methods mandated by this
- * interface.
- */
-public class StockImpl implements Stock {
-  private final String purchaseDate;
-  private final String companyTicker;
-  private final double costBasis;
-  private final double numberOfShares;
-  private final double commission;
-
-
-  @Override
-  public double getCommission() {
-    return commission;
-  }
-
-  /**
-   * Construct a stock with given CompanyTicker, amount and purchase date.
-   *
-   * @param companyTicker ticker symbol of the company of which stock is to be constructed
-   * @param amount        amount of the stock in dollars
-   * @param purchaseDate  purchase date of the stock
-   */
-  public StockImpl(String companyTicker, double amount, String purchaseDate, double commission) {
-
-    String fullDataForCompany = getStockData(companyTicker);
-    if (!fullDataForCompany.contains(purchaseDate)) {
-      throw new IllegalArgumentException("Stock is not available for date " + purchaseDate
-              + " for company " + companyTicker);
-    }
-    String[] dataRequired = fullDataForCompany.split(purchaseDate)[1].split(
-            "\\n")[0].split(",");
-    int i = 0;
-    double lowestPrice = Double.parseDouble(dataRequired[3]);
-    Long volume = Long.parseLong(dataRequired[5].trim());
-    this.costBasis = amount + commission;
-    this.numberOfShares = amount / lowestPrice;
-    if (numberOfShares >= volume) {
-      throw new IllegalArgumentException("The number of shares is less than required");
-    }
-    this.companyTicker = companyTicker;
-    this.purchaseDate = purchaseDate;
-    this.commission = commission;
-  }
-
-  @Override
-  public double getCostBasis() {
-    return costBasis;
-  }
-
-  @Override
-  public double getCostBasis(String date) throws ParseException {
-    Date today = new Date();
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-    Date requiredDate = sdf.parse(date);
-    Date purchaseDate = sdf.parse(this.purchaseDate);
-    if (purchaseDate.equals(requiredDate) || purchaseDate.before(requiredDate)) {
-      return this.costBasis;
-    } else {
-      return 0;
-    }
-  }
-
-  /**
-   * private helper method to get the stock data for given company.
-   *
-   * @param stockSymbol ticker symbol of the company for which stock data is to be obtained
-   * @return the complete stock data available till date
-   */
-  private static String getStockData(String stockSymbol) {
-    String data = "";
-    try {
-      data = new String(Files.readAllBytes(Paths.get("data/" + stockSymbol.toLowerCase()
-              + ".csv")));
-    } catch (IOException e) {
-      throw new IllegalArgumentException("Stock data not available for company");
-    }
-    return data;
-  }
-
-  @Override
-  public double getNumberOfShares() {
-    return numberOfShares;
-  }
-
-  @Override
-  public double getValueOnDate(String date) {
-    String fullDataForCompany = getStockData(companyTicker);
-    if (!fullDataForCompany.contains(date)) {
-      throw new IllegalArgumentException("Data for given date" + date
-              + " is not available for company " + companyTicker);
-    }
-    String[] dataRequired = fullDataForCompany.split(date)[1].split(
-            "\\n")[0].split(",");
-    return numberOfShares * Double.parseDouble(dataRequired[3]);
-  }
-
-  @Override
-  public String toString() {
-    String stockState = "Company Ticker:" + this.companyTicker
-            + "\nPurchase Date:" + this.purchaseDate
-            + "\nNumber of Shares: " + this.numberOfShares + "\nCost Basis:" + this.costBasis;
-    return stockState;
-  }
-
-  @Override
-  public String getPurchaseDate() {
-    return purchaseDate;
-  }
-
-  @Override
-  public String getCompanyTicker() {
-    return companyTicker;
-  }
-
-
-}
+package stockmarket.model;
+
+import java.text.ParseException;
+
+
+/**
+ * This class is an implementation of Stock interface and defines all the methods mandated by this
+ * interface. The cost basis and commission are held as whole micro-dollars, and the ID of the
+ * ticker symbol is kept so that valuing the stock finds its prices without a string lookup.
+ */
+public class StockImpl implements Stock {
+  private final String purchaseDate;
+  private final int purchaseDay;
+  private final String companyTicker;
+  private final int symbol;
+  private final long costBasis;
+  private final double numberOfShares;
+  private final long commission;
+
+
+  @Override
+  public double getCommission() {
+    return Money.toDollars(commission);
+  }
+
+  @Override
+  public long getCommissionMicros() {
+    return commission;
+  }
+
+  /**
+   * Construct a stock with given CompanyTicker, amount and purchase date.
+   *
+   * @param companyTicker ticker symbol of the company of which stock is to be constructed
+   * @param amount        amount of the stock in dollars
+   * @param purchaseDate  purchase date of the stock
+   */
+  public StockImpl(String companyTicker, double amount, String purchaseDate, double commission) {
+    this(companyTicker, amount, PriceStore.getDefault().getSeries(companyTicker),
+            barIndex(companyTicker, purchaseDate), commission);
+  }
+
+  /**
+   * Construct a stock bought at the lowest price of a bar of a price series.
+   *
+   * @param companyTicker ticker symbol of the company of which stock is to be constructed
+   * @param amount        amount of the stock in dollars
+   * @param series        price history of the company
+   * @param index         index of the bar of the purchase date
+   * @param commission    commission paid for this stock
+   */
+  StockImpl(String companyTicker, double amount, PriceSeries series, int index,
+            double commission) {
+    double lowestPrice = series.getLow(index);
+    long volume = series.getVolume(index);
+    this.costBasis = Money.ofDollars(amount) + Money.ofDollars(commission);
+    this.numberOfShares = amount / lowestPrice;
+    if (numberOfShares >= volume) {
+      throw new IllegalArgumentException("The number of shares is less than required");
+    }
+    this.companyTicker = companyTicker;
+    this.symbol = series.getSymbol();
+    this.purchaseDay = series.getDay(index);
+    this.purchaseDate = PriceSeries.toDate(purchaseDay);
+    this.commission = Money.ofDollars(commission);
+  }
+
+  /**
+   * Helper method to find the bar of a purchase date.
+   *
+   * @return index of the bar in the price series of the company
+   * @throws IllegalArgumentException if there is no data for the date
+   */
+  private static int barIndex(String companyTicker, String purchaseDate)
+          throws IllegalArgumentException {
+    int index = PriceStore.getDefault().getSeries(companyTicker)
+            .indexOf(PriceSeries.toDay(purchaseDate));
+    if (index < 0) {
+      throw new IllegalArgumentException("Stock is not available for date " + purchaseDate
+              + " for company " + companyTicker);
+    }
+    return index;
+  }
+
+  /**
+   * Construct a stock from previously persisted lot details without looking up the price data.
+   *
+   * @param companyTicker  ticker symbol of the company of which stock is to be constructed
+   * @param purchaseDate   purchase date of the stock
+   * @param costBasis      cost basis of the stock including commission
+   * @param numberOfShares number of shares in this stock
+   * @param commission     commission paid for this stock
+   */
+  StockImpl(String companyTicker, String purchaseDate, double costBasis, double numberOfShares,
+            double commission) {
+    this(companyTicker, purchaseDate, Money.ofDollars(costBasis), numberOfShares,
+            Money.ofDollars(commission));
+  }
+
+  /**
+   * Construct a stock from lot details with the amounts given in micro-dollars.
+   *
+   * @param companyTicker  ticker symbol of the company of which stock is to be constructed
+   * @param purchaseDate   purchase date of the stock
+   * @param costBasis      cost basis of the stock including commission in micro-dollars
+   * @param numberOfShares number of shares in this stock
+   * @param commission     commission paid for this stock in micro-dollars
+   */
+  StockImpl(String companyTicker, String purchaseDate, long costBasis, double numberOfShares,
+            long commission) {
+    this.companyTicker = companyTicker;
+    this.symbol = SymbolTable.id(companyTicker);
+    this.purchaseDate = purchaseDate;
+    this.purchaseDay = PriceSeries.toDay(purchaseDate);
+    this.costBasis = costBasis;
+    this.numberOfShares = numberOfShares;
+    this.commission = commission;
+  }
+
+  @Override
+  public double getCostBasis() {
+    return Money.toDollars(costBasis);
+  }
+
+  @Override
+  public long getCostBasisMicros() {
+    return costBasis;
+  }
+
+  @Override
+  public double getCostBasis(String date) throws ParseException {
+    return purchaseDay <= PriceSeries.toDay(date) ? Money.toDollars(costBasis) : 0;
+  }
+
+  @Override
+  public double getNumberOfShares() {
+    return numberOfShares;
+  }
+
+  @Override
+  public double getValueOnDate(String date) {
+    return Money.toDollars(getValueOnDateMicros(date));
+  }
+
+  @Override
+  public long getValueOnDateMicros(String date) {
+    return Money.ofDollars(numberOfShares * PriceStore.getDefault().getSeries(symbol)
+            .getPrice(PriceSeries.toDay(date)));
+  }
+
+  @Override
+  public String toString() {
+    String stockState = "Company Ticker:" + this.companyTicker
+            + "\nPurchase Date:" + this.purchaseDate
+            + "\nNumber of Shares: " + this.numberOfShares + "\nCost Basis:"
+            + Money.toDollars(this.costBasis);
+    return stockState;
+  }
+
+  @Override
+  public String getPurchaseDate() {
+    return purchaseDate;
+  }
+
+  @Override
+  public String getCompanyTicker() {
+    return companyTicker;
+  }
+
+  /**
+   * Method to get the ID of the ticker symbol of this stock in the symbol table.
+   *
+   * @return ID of the symbol
+   */
+  int getSymbol() {
+    return symbol;
+  }
+
+
+}
@@ -0,0 +1,40 @@
+package stockmarket.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * This interface represents a store in which dollar cost strategies are persisted between runs of
+ * the application. Strategy names are stored in lower case.
+ */
+public interface StrategyRepository extends Closeable {
+
+  /**
+   * Method to persist the parameters of a strategy, replacing any previously saved parameters.
+   *
+   * @param strategyName name of the strategy
+   * @param strategy     parameters of the strategy
+   * @throws IOException if the strategy could not be written
+   */
+  void saveStrategy(String strategyName, DollarCostAverage strategy) throws IOException;
+
+  /**
+   * Method to load previously persisted strategy parameters.
+   *
+   * @param strategyName name of the strategy
+   * @return the parameters of the strategy or null if no strategy is saved with this name
+   * @throws IOException              if the strategy could not be read
+   * @throws IllegalArgumentException if the saved data is corrupt
+   */
+  DollarCostAverage loadStrategy(String strategyName) throws IOException,
+          IllegalArgumentException;
+
+  /**
+   * Method to get the names of all persisted strategies.
+   *
+   * @return names of all persisted strategies in sorted order
+   * @throws IOException if the store could not be read
+   */
+  Set<String> listStrategies() throws IOException;
+}
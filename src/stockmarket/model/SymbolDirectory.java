@@ -0,0 +1,316 @@
+package stockmarket.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class is a directory of the ticker symbols which can be traded, read from a listing such
+ * as the LISTING_STATUS report of AlphaVantage. The symbols are indexed in a trie held in a few
+ * parallel arrays, one slot per node, so looking up a symbol, completing a prefix or finding the
+ * symbols a few edits away from a misspelt one walks only the nodes the answer needs. Symbols are
+ * matched without regard to case.
+ */
+public final class SymbolDirectory {
+  private static final SymbolDirectory EMPTY = new SymbolDirectory(new String[0], new String[0]);
+
+  private final String[] symbols;
+  private final String[] names;
+  // node 0 is the root; a node is entered through the character in label
+  private final char[] label;
+  private final int[] firstChild;
+  private final int[] nextSibling;
+  // index of the symbol spelt out by the path to a node, or -1
+  private final int[] symbol;
+  private final int longest;
+
+  /**
+   * Constructor to index symbols sorted in ascending order.
+   *
+   * @param symbols distinct upper case symbols in ascending order
+   * @param names   names of the companies of the symbols
+   */
+  private SymbolDirectory(String[] symbols, String[] names) {
+    this.symbols = symbols;
+    this.names = names;
+    int capacity = 1;
+    for (String s : symbols) {
+      capacity += s.length();
+    }
+    char[] label = new char[capacity];
+    int[] firstChild = new int[capacity];
+    int[] nextSibling = new int[capacity];
+    int[] lastChild = new int[capacity];
+    int[] symbol = new int[capacity];
+    Arrays.fill(firstChild, -1);
+    Arrays.fill(nextSibling, -1);
+    Arrays.fill(lastChild, -1);
+    Arrays.fill(symbol, -1);
+    int nodes = 1;
+    // path[d] is the node reached by the first d characters of the previous symbol
+    int[] path = new int[capacity];
+    String previous = "";
+    for (int i = 0; i < symbols.length; i++) {
+      String s = symbols[i];
+      int common = 0;
+      while (common < s.length() && common < previous.length()
+              && s.charAt(common) == previous.charAt(common)) {
+        common++;
+      }
+      // sorted input means every new node is the last child of its parent
+      for (int d = common; d < s.length(); d++) {
+        int parent = path[d];
+        int node = nodes++;
+        label[node] = s.charAt(d);
+        if (lastChild[parent] < 0) {
+          firstChild[parent] = node;
+        } else {
+          nextSibling[lastChild[parent]] = node;
+        }
+        lastChild[parent] = node;
+        path[d + 1] = node;
+      }
+      symbol[path[s.length()]] = i;
+      previous = s;
+    }
+    this.label = Arrays.copyOf(label, nodes);
+    this.firstChild = Arrays.copyOf(firstChild, nodes);
+    this.nextSibling = Arrays.copyOf(nextSibling, nodes);
+    this.symbol = Arrays.copyOf(symbol, nodes);
+    int longest = 0;
+    for (String s : symbols) {
+      longest = Math.max(longest, s.length());
+    }
+    this.longest = longest;
+  }
+
+  /**
+   * Method to get a directory holding no symbols.
+   *
+   * @return the empty directory
+   */
+  public static SymbolDirectory empty() {
+    return EMPTY;
+  }
+
+  /**
+   * Method to read a directory from a listing file, or to get the empty directory if there is no
+   * such file.
+   *
+   * @param file listing file in the format of the LISTING_STATUS report
+   * @return the directory of the symbols listed
+   * @throws IOException              if the file could not be read
+   * @throws IllegalArgumentException if the file has no symbol column
+   */
+  public static SymbolDirectory load(Path file) throws IOException, IllegalArgumentException {
+    if (!Files.exists(file)) {
+      return EMPTY;
+    }
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return read(reader);
+    }
+  }
+
+  /**
+   * Method to read a directory from a listing with a header line. The listing needs a symbol
+   * column and may have a name column, as in
+   * symbol,name,exchange,assetType,ipoDate,delistingDate,status.
+   *
+   * @param listing listing of the symbols
+   * @return the directory of the symbols listed
+   * @throws IOException              if the listing could not be read
+   * @throws IllegalArgumentException if the listing has no symbol column
+   */
+  public static SymbolDirectory read(Reader listing) throws IOException,
+          IllegalArgumentException {
+    BufferedReader reader = new BufferedReader(listing);
+    String header = reader.readLine();
+    if (header == null) {
+      return EMPTY;
+    }
+    String[] columns = header.replace("\uFEFF", "").split(",", -1);
+    int symbolColumn = -1;
+    int nameColumn = -1;
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].trim().equalsIgnoreCase("symbol")) {
+        symbolColumn = i;
+      } else if (columns[i].trim().equalsIgnoreCase("name")) {
+        nameColumn = i;
+      }
+    }
+    if (symbolColumn < 0) {
+      throw new IllegalArgumentException("Listing has no symbol column");
+    }
+    List<String[]> rows = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      String[] fields = line.split(",", -1);
+      if (fields.length <= symbolColumn) {
+        continue;
+      }
+      String s = fields[symbolColumn].trim().toUpperCase(Locale.ROOT);
+      if (s.isEmpty()) {
+        continue;
+      }
+      // names with commas are cut short, which only affects what is shown to the user
+      rows.add(new String[]{s, nameColumn >= 0 && nameColumn < fields.length
+              ? fields[nameColumn].trim() : ""});
+    }
+    rows.sort((a, b) -> a[0].compareTo(b[0]));
+    List<String> symbols = new ArrayList<>(rows.size());
+    List<String> names = new ArrayList<>(rows.size());
+    for (String[] row : rows) {
+      // a symbol listed again after being delisted keeps its first name
+      if (symbols.isEmpty() || !symbols.get(symbols.size() - 1).equals(row[0])) {
+        symbols.add(row[0]);
+        names.add(row[1]);
+      }
+    }
+    return new SymbolDirectory(symbols.toArray(new String[0]), names.toArray(new String[0]));
+  }
+
+  /**
+   * Method to get the number of symbols in the directory.
+   *
+   * @return number of symbols
+   */
+  public int size() {
+    return symbols.length;
+  }
+
+  /**
+   * Method to check whether the directory holds no symbols.
+   *
+   * @return true if no symbols are listed
+   */
+  public boolean isEmpty() {
+    return symbols.length == 0;
+  }
+
+  /**
+   * Method to check whether a symbol is listed.
+   *
+   * @param ticker symbol to be looked up in any case
+   * @return true if the symbol is listed
+   */
+  public boolean contains(String ticker) {
+    int node = find(ticker);
+    return node >= 0 && symbol[node] >= 0;
+  }
+
+  /**
+   * Method to get the name of the company of a symbol.
+   *
+   * @param ticker symbol to be looked up in any case
+   * @return name of the company, or null if the symbol is not listed
+   */
+  public String getName(String ticker) {
+    int node = find(ticker);
+    return node >= 0 && symbol[node] >= 0 ? names[symbol[node]] : null;
+  }
+
+  /**
+   * Method to get the symbols starting with a prefix in ascending order.
+   *
+   * @param prefix start of the symbols in any case
+   * @param limit  largest number of symbols returned
+   * @return the symbols starting with the prefix
+   */
+  public List<String> complete(String prefix, int limit) {
+    int node = find(prefix);
+    if (node < 0 || limit <= 0 || symbols.length == 0) {
+      return Collections.emptyList();
+    }
+    List<String> result = new ArrayList<>();
+    // symbols below a node are consecutive in sorted order, so the first one found by walking
+    // down the first children is followed by the rest in the array
+    int first = node;
+    while (symbol[first] < 0) {
+      first = firstChild[first];
+    }
+    String start = prefix.toUpperCase(Locale.ROOT);
+    for (int i = symbol[first]; i < symbols.length && result.size() < limit
+            && symbols[i].startsWith(start); i++) {
+      result.add(symbols[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Method to get the symbols within a number of single character insertions, deletions or
+   * substitutions of a text, nearest first and in ascending order among equally near ones.
+   *
+   * @param text     text to be matched in any case
+   * @param maxEdits largest number of edits between the text and a symbol returned
+   * @param limit    largest number of symbols returned
+   * @return the symbols near the text
+   */
+  public List<String> suggest(String text, int maxEdits, int limit) {
+    String query = text.toUpperCase(Locale.ROOT);
+    int width = query.length() + 1;
+    // one row of the edit distance table per depth of the trie
+    int[][] rows = new int[longest + 1][width];
+    for (int j = 0; j < width; j++) {
+      rows[0][j] = j;
+    }
+    List<long[]> found = new ArrayList<>();
+    walk(firstChild[0], 1, query, maxEdits, rows, found);
+    found.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+    List<String> result = new ArrayList<>();
+    for (int i = 0; i < found.size() && i < limit; i++) {
+      result.add(symbols[(int) found.get(i)[1]]);
+    }
+    return result;
+  }
+
+  /**
+   * Helper method to visit the nodes whose prefix is still within the edit budget of the text.
+   */
+  private void walk(int node, int depth, String query, int maxEdits, int[][] rows,
+                    List<long[]> found) {
+    for (; node >= 0; node = nextSibling[node]) {
+      int[] above = rows[depth - 1];
+      int[] row = rows[depth];
+      row[0] = depth;
+      int best = row[0];
+      for (int j = 1; j < row.length; j++) {
+        int cost = query.charAt(j - 1) == label[node] ? 0 : 1;
+        row[j] = Math.min(Math.min(row[j - 1] + 1, above[j] + 1), above[j - 1] + cost);
+        best = Math.min(best, row[j]);
+      }
+      if (symbol[node] >= 0 && row[row.length - 1] <= maxEdits) {
+        found.add(new long[]{row[row.length - 1], symbol[node]});
+      }
+      // no longer symbol below this node can come back within the budget
+      if (best <= maxEdits) {
+        walk(firstChild[node], depth + 1, query, maxEdits, rows, found);
+      }
+    }
+  }
+
+  /**
+   * Helper method to find the node reached by spelling out a text.
+   *
+   * @return the node, or -1 if no symbol starts with the text
+   */
+  private int find(String text) {
+    int node = 0;
+    for (int i = 0; i < text.length() && node >= 0; i++) {
+      char c = Character.toUpperCase(text.charAt(i));
+      int child = firstChild[node];
+      while (child >= 0 && label[child] < c) {
+        child = nextSibling[child];
+      }
+      node = child >= 0 && label[child] == c ? child : -1;
+    }
+    return node;
+  }
+}
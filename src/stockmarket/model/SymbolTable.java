@@ -0,0 +1,91 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class gives every ticker symbol a small int ID, the same for every spelling of the symbol
+ * in upper or lower case. IDs are handed out densely from 0 and never reused, so a table over all
+ * companies can be an array indexed by ID and a table over the companies of one portfolio can be
+ * an int keyed map. A ticker is lower cased only the first time a spelling of it is seen; later
+ * lookups of the same string cost one hash map probe, since a string caches its hash.
+ */
+final class SymbolTable {
+  private static final Map<String, Integer> IDS = new ConcurrentHashMap<>();
+  // lower case key of every ID, guarded by the class lock
+  private static final Map<String, Integer> BY_KEY = new HashMap<>();
+  private static volatile String[] keys = new String[256];
+  private static volatile String[] names = new String[256];
+  private static int count;
+
+  private SymbolTable() {
+  }
+
+  /**
+   * Method to get the ID of a ticker symbol, giving it the next free one if it is new.
+   *
+   * @param ticker ticker symbol in any case
+   * @return ID of the symbol
+   */
+  static int id(String ticker) {
+    Integer id = IDS.get(ticker);
+    return id != null ? id : register(ticker);
+  }
+
+  /**
+   * Method to get the ID of the ticker symbol of a stock, which a stock of this model already
+   * knows.
+   *
+   * @param stock stock whose symbol is looked up
+   * @return ID of the symbol
+   */
+  static int id(Stock stock) {
+    return stock instanceof StockImpl ? ((StockImpl) stock).getSymbol()
+            : id(stock.getCompanyTicker());
+  }
+
+  /**
+   * Helper method to give a spelling of a symbol its ID.
+   */
+  private static synchronized int register(String ticker) {
+    String key = ticker.toLowerCase(Locale.ROOT);
+    Integer id = BY_KEY.get(key);
+    if (id == null) {
+      id = count++;
+      if (id == keys.length) {
+        // the arrays are replaced before the ID is published, so a reader holding an ID always
+        // finds it in the arrays it reads next
+        keys = Arrays.copyOf(keys, id * 2);
+        names = Arrays.copyOf(names, id * 2);
+      }
+      keys[id] = key;
+      names[id] = ticker;
+      BY_KEY.put(key, id);
+    }
+    IDS.put(ticker, id);
+    return id;
+  }
+
+  /**
+   * Method to get the lower case key of a symbol, under which its data file is cached.
+   *
+   * @param id ID of the symbol
+   * @return the symbol in lower case
+   */
+  static String key(int id) {
+    return keys[id];
+  }
+
+  /**
+   * Method to get a symbol as it was first spelt.
+   *
+   * @param id ID of the symbol
+   * @return the symbol
+   */
+  static String name(int id) {
+    return names[id];
+  }
+}
@@ -0,0 +1,141 @@
+package stockmarket.model;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents the layout of a trade history exported by a broker: the header of the
+ * column holding each field of a trade, the format of its dates and the character between its
+ * columns. Headers are matched ignoring case and surrounding spaces.
+ *
+ * <p>The fields are "date" and "ticker", which are required, "action" which tells buys from
+ * sells, "quantity" and "price" of the shares traded, "amount" spent on a buy and "commission".
+ * A layout is written as fields and headers separated by semicolons, such as
+ * "date=Trade Date;ticker=Symbol;quantity=Qty;dateFormat=MM/dd/yyyy;delimiter=,", and any field
+ * left out keeps its default header from {@link #DEFAULT}.
+ */
+public final class TradeColumns {
+  private static final List<String> FIELDS = Arrays.asList("date", "ticker", "action",
+          "quantity", "price", "amount", "commission", "dateFormat", "delimiter");
+
+  /**
+   * Layout with the headers Date, Symbol, Action, Quantity, Price, Amount and Commission, dates
+   * in the format yyyy-MM-dd and columns separated by commas.
+   */
+  public static final TradeColumns DEFAULT = new TradeColumns(new LinkedHashMap<>());
+
+  private final Map<String, String> headers;
+  private final String dateFormat;
+  private final DateTimeFormatter dateFormatter;
+  private final char delimiter;
+
+  /**
+   * Constructor to initialize a layout from the headers of its fields.
+   *
+   * @param mapping header of the column of each field, or the pattern of the dates for
+   *                "dateFormat" and the separating character for "delimiter"
+   * @throws IllegalArgumentException if a field is unknown, the date format is not a valid
+   *                                  pattern or the delimiter is not a single character
+   */
+  public TradeColumns(Map<String, String> mapping) throws IllegalArgumentException {
+    for (String field : mapping.keySet()) {
+      if (!FIELDS.contains(field)) {
+        throw new IllegalArgumentException("Unknown trade field " + field);
+      }
+    }
+    this.headers = new LinkedHashMap<>();
+    headers.put("date", mapping.getOrDefault("date", "Date"));
+    headers.put("ticker", mapping.getOrDefault("ticker", "Symbol"));
+    headers.put("action", mapping.getOrDefault("action", "Action"));
+    headers.put("quantity", mapping.getOrDefault("quantity", "Quantity"));
+    headers.put("price", mapping.getOrDefault("price", "Price"));
+    headers.put("amount", mapping.getOrDefault("amount", "Amount"));
+    headers.put("commission", mapping.getOrDefault("commission", "Commission"));
+    this.dateFormat = mapping.getOrDefault("dateFormat", "yyyy-MM-dd");
+    try {
+      this.dateFormatter = DateTimeFormatter.ofPattern(dateFormat);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid date format " + dateFormat);
+    }
+    String delimiter = mapping.getOrDefault("delimiter", ",");
+    if (delimiter.length() != 1 || delimiter.charAt(0) == '"') {
+      throw new IllegalArgumentException("Delimiter should be a single character");
+    }
+    this.delimiter = delimiter.charAt(0);
+  }
+
+  /**
+   * Method to read a layout written as fields and headers separated by semicolons.
+   *
+   * @param layout layout such as "date=Trade Date;ticker=Symbol"
+   * @return the layout
+   * @throws IllegalArgumentException if a part is not a field and a header or the layout is not
+   *                                  valid
+   */
+  public static TradeColumns parse(String layout) throws IllegalArgumentException {
+    Map<String, String> mapping = new LinkedHashMap<>();
+    for (String part : layout.split(";")) {
+      if (part.trim().isEmpty()) {
+        continue;
+      }
+      int equals = part.indexOf('=');
+      if (equals <= 0) {
+        throw new IllegalArgumentException("Expected field=header but found " + part);
+      }
+      String field = part.substring(0, equals).trim();
+      String value = part.substring(equals + 1);
+      mapping.put(field, field.equals("delimiter") ? value : value.trim());
+    }
+    return new TradeColumns(mapping);
+  }
+
+  /**
+   * Method to get the header of the column of a field.
+   *
+   * @param field one of date, ticker, action, quantity, price, amount or commission
+   * @return header of the column
+   */
+  public String getHeader(String field) {
+    return headers.get(field);
+  }
+
+  /**
+   * Method to get the pattern of the dates.
+   *
+   * @return date pattern such as MM/dd/yyyy
+   */
+  public String getDateFormat() {
+    return dateFormat;
+  }
+
+  /**
+   * Method to get the formatter reading the dates.
+   *
+   * @return formatter of the date pattern
+   */
+  DateTimeFormatter getDateFormatter() {
+    return dateFormatter;
+  }
+
+  /**
+   * Method to get the character between two columns.
+   *
+   * @return the delimiter
+   */
+  public char getDelimiter() {
+    return delimiter;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder layout = new StringBuilder();
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      layout.append(header.getKey()).append('=').append(header.getValue()).append(';');
+    }
+    return layout.append("dateFormat=").append(dateFormat).append(";delimiter=")
+            .append(delimiter).toString();
+  }
+}
@@ -0,0 +1,425 @@
+package stockmarket.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class imports a trade history exported by a broker into a portfolio. The file is read one
+ * block of trades at a time, so its size does not matter. The prices of the companies first seen
+ * in a block are fetched side by side, after which the buys of the block are added to the
+ * portfolio together and its sells are made in the order of the file.
+ *
+ * <p>A buy with a quantity and a price keeps the cost the broker reported. A buy with only an
+ * amount is bought at the lowest price of its day, as any other purchase. A sell gives up the
+ * oldest lots first and is priced at the lowest price of its day. A trade which cannot be imported
+ * is recorded in the report and the import carries on with the next one.
+ */
+class TradeImporter {
+  static final int BLOCK = 4096;
+  private static final int FETCH_THREADS = 4;
+
+  /**
+   * This interface represents the operation that checks a company and makes its prices
+   * available.
+   */
+  interface Fetcher {
+    /**
+     * Method to make sure the ticker symbol of a company is known and its prices are stored.
+     *
+     * @param company ticker symbol of the company
+     * @throws IOException              if the prices could not be downloaded or stored
+     * @throws IllegalArgumentException if the ticker symbol is not known
+     */
+    void fetch(String company) throws IOException, IllegalArgumentException;
+  }
+
+  private final Portfolio portfolio;
+  private final TradeColumns columns;
+  private final Fetcher fetcher;
+  private final ImportListener listener;
+  private final ImportReport report;
+  private final Set<String> fetched;
+  private final Map<String, String> unavailable;
+  private final List<Trade> block;
+  private final List<Stock> buys;
+  private ExecutorService executor;
+  private int dateColumn;
+  private int tickerColumn;
+  private int actionColumn;
+  private int quantityColumn;
+  private int priceColumn;
+  private int amountColumn;
+  private int commissionColumn;
+
+  /**
+   * Constructor to initialize an importer into a portfolio.
+   *
+   * @param portfolio portfolio receiving the trades
+   * @param columns   layout of the trade history
+   * @param fetcher   operation used to make the prices of a company available
+   * @param listener  listener told about the progress, or null
+   */
+  TradeImporter(Portfolio portfolio, TradeColumns columns, Fetcher fetcher,
+                ImportListener listener) {
+    this.portfolio = portfolio;
+    this.columns = columns;
+    this.fetcher = fetcher;
+    this.listener = listener;
+    this.report = new ImportReport();
+    this.fetched = new HashSet<>();
+    this.unavailable = new HashMap<>();
+    this.block = new ArrayList<>(BLOCK);
+    this.buys = new ArrayList<>(BLOCK);
+  }
+
+  /**
+   * Method to import every trade of a trade history.
+   *
+   * @param in source of the trade history, starting with its header
+   * @return counts of the trades imported and the reasons of the failures
+   * @throws IllegalArgumentException if the header lacks a date, ticker or quantity and amount
+   *                                  column
+   * @throws IOException              if the trade history could not be read
+   */
+  ImportReport run(Reader in) throws IllegalArgumentException, IOException {
+    long start = System.currentTimeMillis();
+    BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in
+            : new BufferedReader(in);
+    List<String> fields = new ArrayList<>();
+    long lineNumber = 0;
+    String line;
+    try {
+      do {
+        line = reader.readLine();
+        lineNumber++;
+      } while (line != null && line.trim().isEmpty());
+      if (line == null) {
+        throw new IllegalArgumentException("The trade history is empty");
+      }
+      // a file saved by a spreadsheet may start with a byte order mark
+      readHeader(split(line.startsWith("\uFEFF") ? line.substring(1) : line, fields));
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        report.addRow();
+        try {
+          Trade trade = parse(split(line, fields), lineNumber);
+          if (trade != null) {
+            block.add(trade);
+          }
+        } catch (IllegalArgumentException e) {
+          report.addFailure(lineNumber, e.getMessage());
+        }
+        if (block.size() == BLOCK) {
+          flush();
+        }
+      }
+      flush();
+    } finally {
+      if (executor != null) {
+        executor.shutdown();
+      }
+    }
+    report.setElapsedMillis(System.currentTimeMillis() - start);
+    return report;
+  }
+
+  /**
+   * Helper method to find the column of every field in the header.
+   */
+  private void readHeader(List<String> header) throws IllegalArgumentException {
+    dateColumn = column(header, "date");
+    tickerColumn = column(header, "ticker");
+    actionColumn = column(header, "action");
+    quantityColumn = column(header, "quantity");
+    priceColumn = column(header, "price");
+    amountColumn = column(header, "amount");
+    commissionColumn = column(header, "commission");
+    if (dateColumn < 0 || tickerColumn < 0) {
+      throw new IllegalArgumentException("The header should have the columns "
+              + columns.getHeader("date") + " and " + columns.getHeader("ticker"));
+    }
+    if (quantityColumn < 0 && amountColumn < 0) {
+      throw new IllegalArgumentException("The header should have the column "
+              + columns.getHeader("quantity") + " or " + columns.getHeader("amount"));
+    }
+  }
+
+  /**
+   * Helper method to find the column of a field in the header, or -1 if it has none.
+   */
+  private int column(List<String> header, String field) {
+    String name = columns.getHeader(field).trim();
+    for (int i = 0; i < header.size(); i++) {
+      if (header.get(i).trim().equalsIgnoreCase(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Helper method to split a line into its fields. A field in double quotes may hold the
+   * delimiter, and two double quotes inside it stand for one.
+   */
+  private List<String> split(String line, List<String> fields) {
+    fields.clear();
+    char delimiter = columns.getDelimiter();
+    StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          field.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          field.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == delimiter) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+
+  /**
+   * Helper method to read a trade from the fields of a line, or null if it is neither a buy nor a
+   * sell.
+   */
+  private Trade parse(List<String> fields, long lineNumber) throws IllegalArgumentException {
+    String company = field(fields, tickerColumn);
+    if (company.isEmpty()) {
+      throw new IllegalArgumentException("No ticker");
+    }
+    String date = field(fields, dateColumn);
+    try {
+      date = LocalDate.parse(date, columns.getDateFormatter()).toString();
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("Date " + date + " is not in the format "
+              + columns.getDateFormat());
+    }
+    double quantity = number(fields, quantityColumn);
+    String action = field(fields, actionColumn).toLowerCase(Locale.ROOT);
+    boolean sell;
+    if (action.isEmpty()) {
+      sell = quantity < 0;
+    } else if (action.startsWith("buy") || action.equals("bought")) {
+      sell = false;
+    } else if (action.startsWith("sell") || action.equals("sold")) {
+      sell = true;
+    } else {
+      report.addSkipped();
+      return null;
+    }
+    // brokers write sells and money spent with a minus sign or in parentheses
+    quantity = Math.abs(quantity);
+    double price = Math.abs(number(fields, priceColumn));
+    double amount = Math.abs(number(fields, amountColumn));
+    double commission = Math.abs(number(fields, commissionColumn));
+    if (Double.isNaN(commission)) {
+      commission = 0;
+    }
+    if (sell && !(quantity > 0)) {
+      throw new IllegalArgumentException("A sell should have a quantity");
+    }
+    if (!sell && !(quantity > 0 && price > 0) && !(amount > 0)) {
+      throw new IllegalArgumentException("A buy should have a quantity and a price or an amount");
+    }
+    return new Trade(lineNumber, company, date, sell, quantity, price, amount, commission);
+  }
+
+  /**
+   * Helper method to get a field of a line, or an empty string if the line has no such column.
+   */
+  private static String field(List<String> fields, int column) {
+    return column >= 0 && column < fields.size() ? fields.get(column).trim() : "";
+  }
+
+  /**
+   * Helper method to read a number written with a currency sign, thousands separators or in
+   * parentheses, or NaN if the field is empty.
+   */
+  private static double number(List<String> fields, int column) throws IllegalArgumentException {
+    String text = field(fields, column);
+    if (text.isEmpty()) {
+      return Double.NaN;
+    }
+    boolean negative = text.startsWith("(") && text.endsWith(")");
+    StringBuilder digits = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c != '$' && c != ',' && c != '(' && c != ')' && c != ' ') {
+        digits.append(c);
+      }
+    }
+    try {
+      double value = Double.parseDouble(digits.toString());
+      return negative ? -value : value;
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(text + " is not a number");
+    }
+  }
+
+  /**
+   * Helper method to fetch the companies first seen in the block, add its trades to the portfolio
+   * and tell the listener.
+   */
+  private void flush() {
+    Map<String, Future<?>> fetches = new LinkedHashMap<>();
+    for (Trade trade : block) {
+      String company = trade.company;
+      if (!fetched.contains(company) && !unavailable.containsKey(company)
+              && !fetches.containsKey(company)) {
+        fetches.put(company, executor().submit(() -> {
+          fetcher.fetch(trade.company);
+          return PriceStore.getDefault().getSeries(trade.company);
+        }));
+      }
+    }
+    for (Map.Entry<String, Future<?>> fetch : fetches.entrySet()) {
+      try {
+        fetch.getValue().get();
+        fetched.add(fetch.getKey());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        unavailable.put(fetch.getKey(), "The import was interrupted");
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        // an unknown symbol is reported as it is, with the symbols it may have been meant as
+        unavailable.put(fetch.getKey(), cause instanceof IllegalArgumentException
+                ? cause.getMessage() : "No price data for " + fetch.getKey() + ": "
+                + (cause.getMessage() == null ? cause.toString() : cause.getMessage()));
+      }
+    }
+    for (Trade trade : block) {
+      String reason = unavailable.get(trade.company);
+      if (reason != null) {
+        report.addFailure(trade.line, reason);
+        continue;
+      }
+      try {
+        if (trade.sell) {
+          addBuys();
+          portfolio.sellStock(trade.company, trade.quantity, trade.date, trade.commission,
+                  LotRelief.FIFO);
+          report.addSold();
+        } else {
+          buys.add(trade.lot());
+        }
+      } catch (IllegalArgumentException e) {
+        report.addFailure(trade.line, e.getMessage());
+      }
+    }
+    addBuys();
+    block.clear();
+    if (listener != null) {
+      listener.onProgress(report);
+    }
+  }
+
+  /**
+   * Helper method to add the buys waiting since the last sell to the portfolio together.
+   */
+  private void addBuys() {
+    if (buys.isEmpty()) {
+      return;
+    }
+    Set<String> companies = portfolio.getCompanyList();
+    for (Stock stock : buys) {
+      if (!companies.contains(stock.getCompanyTicker())) {
+        portfolio.addStockData(stock.getCompanyTicker());
+        companies.add(stock.getCompanyTicker());
+      }
+    }
+    portfolio.addStocks(buys);
+    report.addBought(buys.size());
+    buys.clear();
+  }
+
+  /**
+   * Helper method to get the threads fetching prices, which are only started when needed.
+   */
+  private ExecutorService executor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(FETCH_THREADS, task -> {
+        Thread thread = new Thread(task, "trade-import");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+    return executor;
+  }
+
+  /**
+   * This class represents one buy or sell read from the trade history.
+   */
+  private static class Trade {
+    private final long line;
+    private final String company;
+    private final String date;
+    private final boolean sell;
+    private final double quantity;
+    private final double price;
+    private final double amount;
+    private final double commission;
+
+    private Trade(long line, String company, String date, boolean sell, double quantity,
+                  double price, double amount, double commission) {
+      this.line = line;
+      this.company = company;
+      this.date = date;
+      this.sell = sell;
+      this.quantity = quantity;
+      this.price = price;
+      this.amount = amount;
+      this.commission = commission;
+    }
+
+    /**
+     * Method to create the lot of a buy.
+     *
+     * @return the lot bought
+     * @throws IllegalArgumentException if the buy has only an amount and no prices on its date
+     */
+    private Stock lot() throws IllegalArgumentException {
+      long commissionMicros = Money.ofDollars(commission);
+      if (quantity > 0 && price > 0) {
+        return new StockImpl(company, date, Money.ofDollars(quantity * price) + commissionMicros,
+                quantity, commissionMicros);
+      }
+      PriceSeries series = PriceStore.getDefault().getSeries(company);
+      int index = series.indexOf(PriceSeries.toDay(date));
+      if (index < 0) {
+        throw new IllegalArgumentException("Stock is not available for date " + date
+                + " for company " + company);
+      }
+      return new StockImpl(company, amount, series, index, commission);
+    }
+  }
+}
@@ -1,187 +1,544 @@
-package stockmarket.model;
-
-import java.io.IOException;
-import java.text.ParseException;
-import java.util.Map;
-import java.util.NoSuchElementException;
-
-/**
- * This interface represents a virtual gamble which that helps users who are new to investing to
- * learn about how money could grow. It will allow the user to create investment portfolios, try out
- * buying and selling of stock, and various investment strategies to see how they can grow (or
- * shrink) their money with time.
- */
-public interface VirtualGamble {
-
-  /**
-   * Method to create new Portfolio which is a combination of one or more shares of different
-   * companies.
-   *
-   * @param portfolioID unique identity of a portfolio like retirement, collegeSavings etc
-   * @throws IllegalArgumentException if portfolio with given ID already exists
-   */
-  void createPortfolio(String portfolioID) throws IllegalArgumentException;
-
-
-  /**
-   * Method to buy shares of some stock in a portfolio worth a certain amount at a certain date.It
-   * is assumed that stock is purchased at lowest price of share on a particular day.
-   *
-   * @param portfolioID unique ID of portfolio in which share is to be added
-   * @param company     ticker symbol of the company for which share is to be added
-   * @param amount      amount of the share to be bought
-   * @param date        date on which share is to be bought
-   * @param commission  commission for this transaction
-   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
-   * @throws IllegalArgumentException thrown when stock is not available at given date or amount is
-   *                                  negative or format of date is invalid.
-   */
-  void buyShare(String portfolioID, String company, double amount, String date, double commission)
-          throws NoSuchElementException, IllegalArgumentException,
-          IOException;
-
-
-  /**
-   * Method to get the total cost basis of all the shares for a particular portfolio on a certain
-   * date.
-   *
-   * @param portfolioID unique ID of portfolio for which total cost basis is to be calculated
-   * @return the total cost basis of portfolio on the given date rounded to two decimal places
-   * @throws IllegalArgumentException if the portfolioID does not exist or the number of available
-   *                                  shares is less than required
-   */
-  double getTotalCostBasis(String portfolioID) throws IllegalArgumentException;
-
-  double getTotalCostBasis(String portfolioID, String date) throws ParseException;
-
-  /**
-   * Method to get the total value of all the shares for a particular portfolio on a certain date.
-   *
-   * @param portfolioID unique ID of portfolio for which total value is to be calculated
-   * @param date        date on which total value is to be calculated
-   * @return the total value of portfolio on the given date rounded to two decimal places
-   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
-   * @throws IllegalArgumentException thrown when the date is invalid or date is in invalid format
-   *                                  or stock is not available at given date
-   */
-  double getTotalValue(String portfolioID, String date) throws NoSuchElementException,
-          IllegalArgumentException;
-
-  /**
-   * Method to get the total value of all the shares for a particular portfolio on a today's date.
-   *
-   * @param portfolioID unique ID of portfolio for which total value is to be calculated
-   * @return the total value of portfolio on the given date rounded to two decimal places
-   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
-   * @throws IllegalArgumentException thrown when the date is invalid or date is in invalid format
-   *                                  or stock is not available at given date
-   */
-  double getTotalValue(String portfolioID) throws NoSuchElementException, IllegalArgumentException;
-
-  /**
-   * Get list of all stocks of a particular Portfolio ID.
-   *
-   * @return te list of all stocks of a particular Portfolio ID
-   */
-  Map<String, Portfolio> getStockDetails();
-
-  /**
-   * Method to add company to portfolio without buying share.
-   *
-   * @param portfolioID unique ID of portfolio
-   * @param company     ticker symbol of the company
-   * @throws NoSuchElementException when portfolio ID does not exist
-   */
-  void addStockPortfolio(String portfolioID, String company)
-          throws NoSuchElementException, IOException;
-
-  /**
-   * Method to invest fixed amount equally between  all companies.
-   *
-   * @param portfolioID unique id of portfolio
-   * @param amount      amount to be invested
-   * @param date        date of investment
-   * @param commission  commission of investment
-   * @throws IOException when file read/write fails
-   */
-  void investFixedAmountEqually(String portfolioID, double amount, String date, double commission)
-          throws IOException;
-
-  /**
-   * Method to invest fixed amount divided into companies based on given weights.
-   *
-   * @param portfolioID unique ID of portfolio
-   * @param amount      amount to be invested
-   * @param date        date of investment
-   * @param weights     weight for investments
-   * @param commission  commission for this investment
-   * @throws IOException when file read/write fails
-   */
-  void investFixedAmountWeighted(String portfolioID, double amount, String date, Map<String,
-          Double> weights, double commission) throws IOException;
-
-  /**
-   * Method to apply DollarCostAveraging Technique to portfolio.
-   *
-   * @param portfolioID unique ID of portfolio
-   * @param startDate   date to start investment
-   * @param endDate     date to end investment
-   * @param amount      amount to be invested for each cycle
-   * @param period      period to repeat investment
-   * @param weights     weights for investment
-   * @param commission  commission for this investment
-   */
-  void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
-                                double amount, int period,
-                                Map<String, Double> weights, double commission) throws
-          ParseException, IOException;
-
-
-  /**
-   * Method to save the state of a portfolio.
-   *
-   * @param portfolioID unique ID of portfolio whose state is to be saved
-   * @throws IllegalArgumentException if the portfolioID does not exist
-   * @throws IOException              if the File read or write operation fails
-   */
-  void save(String portfolioID) throws IllegalArgumentException, IOException;
-
-  /**
-   * Method to retrieve a previously saved portfolio state.
-   *
-   * @param portfolioID unique ID of portfolio to be retrieved
-   * @throws IllegalArgumentException if the portfolioID already exists
-   */
-  void retrieve(String portfolioID) throws IllegalArgumentException;
-
-  /**
-   * Method to save the parameters of a Dollar cost strategy.
-   *
-   * @param portfolioID  unique ID on which the dollar cost strategy to be saved is applied
-   * @param strategyName name with which the strategy is to be saved
-   * @throws IOException              if file read or write operation fails
-   * @throws IllegalArgumentException if the portfolio does not exist
-   */
-  void saveStrategy(String portfolioID, String strategyName) throws IOException,
-          IllegalArgumentException;
-
-
-  /**
-   * Method to retrieve a saved Dollar cost strategy and apply it to a given portfolio.
-   *
-   * @param strategyName name of the strategy to be retrieved
-   * @param portfolioID  unique ID of portfolio on which this strategy is to be applied
-   * @throws IllegalArgumentException thrown if portfolio does not exist
-   */
-  void retrieveStrategy(String strategyName, String portfolioID) throws IllegalArgumentException;
-
-  /**
-   * Method to update the values to be used for plotting the graph with the latest values of
-   * portfolio.
-   *
-   * @param portfolioiID unique ID of the portfolio to update the file data
-   * @throws ParseException if the date parsing fails
-   * @throws IOException    if file read write operation
-   */
-  void getValuesForGraph(String portfolioiID) throws ParseException, IOException;
-}
+package stockmarket.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.text.ParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * This interface represents a virtual gamble which that helps users who are new to investing to
+ * learn about how money could grow. It will allow the user to create investment portfolios, try out
+ * buying and selling of stock, and various investment strategies to see how they can grow (or
+ * shrink) their money with time. Closing it writes every portfolio changed since it was last
+ * written.
+ */
+public interface VirtualGamble extends Closeable {
+
+  /**
+   * Method to create new Portfolio which is a combination of one or more shares of different
+   * companies.
+   *
+   * @param portfolioID unique identity of a portfolio like retirement, collegeSavings etc
+   * @throws IllegalArgumentException if portfolio with given ID already exists
+   */
+  void createPortfolio(String portfolioID) throws IllegalArgumentException;
+
+
+  /**
+   * Method to buy shares of some stock in a portfolio worth a certain amount at a certain date.It
+   * is assumed that stock is purchased at lowest price of share on a particular day.
+   *
+   * @param portfolioID unique ID of portfolio in which share is to be added
+   * @param company     ticker symbol of the company for which share is to be added
+   * @param amount      amount of the share to be bought
+   * @param date        date on which share is to be bought
+   * @param commission  commission for this transaction
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when stock is not available at given date or amount is
+   *                                  negative or format of date is invalid.
+   */
+  void buyShare(String portfolioID, String company, double amount, String date, double commission)
+          throws NoSuchElementException, IllegalArgumentException,
+          IOException;
+
+  /**
+   * Method to buy shares of many companies and dates in a portfolio in one step. Every order is
+   * checked and priced before any is bought, so either all orders are bought or none is, and
+   * companies not yet in the portfolio are added to it.
+   *
+   * @param portfolioID unique ID of portfolio in which the shares are bought
+   * @param orders      orders to be bought, in the order the lots are added
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when a date is invalid, an amount is not positive or
+   *                                  a stock is not available at the date of its order
+   * @throws IOException              if the data of a company could not be downloaded
+   */
+  void buyShares(String portfolioID, List<Order> orders) throws NoSuchElementException,
+          IllegalArgumentException, IOException;
+
+  /**
+   * Method to import a trade history exported by a broker into a portfolio. The history is read a
+   * block of trades at a time and the prices of new companies are fetched side by side. A trade
+   * which cannot be imported is recorded in the report and does not stop the import.
+   *
+   * @param portfolioID unique ID of portfolio receiving the trades
+   * @param trades      source of the trade history, starting with its header
+   * @param columns     layout of the trade history
+   * @param listener    listener told about the progress after every block, or null
+   * @return counts of the trades imported and the reasons of the failures
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when the header lacks a column needed by the layout
+   * @throws IOException              if the trade history could not be read
+   */
+  ImportReport importTrades(String portfolioID, Reader trades, TradeColumns columns,
+                            ImportListener listener) throws NoSuchElementException,
+          IllegalArgumentException, IOException;
+
+  /**
+   * Method to sell shares of some stock in a portfolio at a certain date. It is assumed that stock
+   * is sold at lowest price of share on a particular day. The purchase lots from which the shares
+   * are taken are chosen by the given lot relief method.
+   *
+   * @param portfolioID    unique ID of portfolio from which share is to be sold
+   * @param company        ticker symbol of the company whose share is to be sold
+   * @param numberOfShares number of shares to be sold
+   * @param date           date on which share is to be sold
+   * @param commission     commission for this transaction
+   * @param relief         method by which the sold shares are matched to purchase lots
+   * @return the shares sold from each lot
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when the portfolio does not hold enough shares bought
+   *                                  on or before the date or the format of date is invalid
+   */
+  List<Sale> sellShare(String portfolioID, String company, double numberOfShares, String date,
+                       double commission, LotRelief relief)
+          throws NoSuchElementException, IllegalArgumentException;
+
+  /**
+   * Method to sell shares of some stock in a portfolio from the lots bought on a specific date.
+   *
+   * @param portfolioID     unique ID of portfolio from which share is to be sold
+   * @param company         ticker symbol of the company whose share is to be sold
+   * @param lotPurchaseDate purchase date of the lots to be sold
+   * @param numberOfShares  number of shares to be sold
+   * @param date            date on which share is to be sold
+   * @param commission      commission for this transaction
+   * @return the shares sold from each lot
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when the lots do not hold enough shares or the format
+   *                                  of a date is invalid
+   */
+  List<Sale> sellLot(String portfolioID, String company, String lotPurchaseDate,
+                     double numberOfShares, String date, double commission)
+          throws NoSuchElementException, IllegalArgumentException;
+
+
+  /**
+   * Method to get the total cost basis of all the shares for a particular portfolio on a certain
+   * date.
+   *
+   * @param portfolioID unique ID of portfolio for which total cost basis is to be calculated
+   * @return the total cost basis of portfolio on the given date rounded to two decimal places
+   * @throws IllegalArgumentException if the portfolioID does not exist or the number of available
+   *                                  shares is less than required
+   */
+  double getTotalCostBasis(String portfolioID) throws IllegalArgumentException;
+
+  double getTotalCostBasis(String portfolioID, String date) throws ParseException;
+
+  /**
+   * Method to get the total value of all the shares for a particular portfolio on a certain date.
+   *
+   * @param portfolioID unique ID of portfolio for which total value is to be calculated
+   * @param date        date on which total value is to be calculated
+   * @return the total value of portfolio on the given date rounded to two decimal places
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when the date is invalid or date is in invalid format
+   *                                  or stock is not available at given date
+   */
+  double getTotalValue(String portfolioID, String date) throws NoSuchElementException,
+          IllegalArgumentException;
+
+  /**
+   * Method to get the total value of all the shares for a particular portfolio on a today's date.
+   *
+   * @param portfolioID unique ID of portfolio for which total value is to be calculated
+   * @return the total value of portfolio on the given date rounded to two decimal places
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when the date is invalid or date is in invalid format
+   *                                  or stock is not available at given date
+   */
+  double getTotalValue(String portfolioID) throws NoSuchElementException, IllegalArgumentException;
+
+  /**
+   * Method to get the realized and unrealized gain and the total return of a portfolio. Shares
+   * still held are valued at the latest price available for their company.
+   *
+   * @param portfolioID unique ID of portfolio for which profit and loss is required
+   * @return the current profit and loss of the portfolio
+   * @throws NoSuchElementException thrown when the given Portfolio ID does not exist
+   */
+  ProfitAndLoss getProfitAndLoss(String portfolioID) throws NoSuchElementException;
+
+  /**
+   * Method to get the risk of a portfolio over its daily value from its first purchase up to the
+   * latest day for which every company it held has a price. The metrics are kept between calls
+   * and only the days added since are valued again, unless the portfolio was traded.
+   *
+   * @param portfolioID unique ID of portfolio whose risk is required
+   * @return drawdown, volatility, Sharpe and Sortino ratios and value at risk of the portfolio
+   * @throws NoSuchElementException thrown when the given Portfolio ID does not exist
+   */
+  RiskMetrics getRiskMetrics(String portfolioID) throws NoSuchElementException;
+
+  /**
+   * Method to get how far the holdings of a portfolio have drifted from target weights, using the
+   * latest price of every company.
+   *
+   * @param portfolioID unique ID of portfolio to be checked
+   * @param weights     map from company ticker to target percentage
+   * @return the largest distance of any company from its target in percentage points
+   * @throws NoSuchElementException thrown when the given Portfolio ID does not exist
+   */
+  double getDrift(String portfolioID, Map<String, Double> weights) throws NoSuchElementException;
+
+  /**
+   * Method to get the portfolios holding shares of a company, found through the index of holdings
+   * that price updates are passed on by.
+   *
+   * @param company ticker symbol of the company in any case
+   * @return map from unique ID of portfolio to number of shares held, in order of portfolio ID
+   */
+  Map<String, Double> getHolders(String company);
+
+  /**
+   * Method to rebalance a portfolio back to the target weights of a strategy on a date, selling
+   * the companies above their weight and buying the ones below it with the proceeds. A threshold
+   * strategy only trades when the holdings drifted by at least its threshold at the prices of the
+   * date, while a calendar strategy always trades as the caller decides when its period has
+   * passed.
+   *
+   * @param portfolioID unique ID of portfolio to be rebalanced
+   * @param strategy    target weights, rule and commission of the rebalance
+   * @param date        date of the trades in yyyy-MM-dd format
+   * @return the shares sold from each lot, empty if no trade was needed
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the portfolio holds no shares, a company has no price
+   *                                  on the date or a trade cannot be made, in which case no
+   *                                  trade is made
+   */
+  List<Sale> rebalance(String portfolioID, RebalanceStrategy strategy, String date)
+          throws NoSuchElementException, IOException, IllegalArgumentException;
+
+  /**
+   * Method to run a rebalancing strategy over the price history without applying it to any
+   * portfolio.
+   *
+   * @param strategy  rebalancing strategy to be run
+   * @param amount    amount invested on the start date including commission
+   * @param startDate date of the first investment in yyyy-MM-dd format
+   * @param endDate   date at which the run stops in yyyy-MM-dd format, excluded
+   * @return the value, number of rebalances and trading cost of the strategy
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the dates are not valid or the data of a company is
+   *                                  missing
+   */
+  RebalanceResult backtestRebalancing(RebalanceStrategy strategy, double amount,
+                                      String startDate, String endDate)
+          throws IOException, IllegalArgumentException;
+
+  /**
+   * Method to compute the weights of the companies of a portfolio which meet an optimization goal
+   * over the history of their daily returns since a date. The weights can be passed as they are
+   * to applyDollarCostAveraging.
+   *
+   * @param portfolioID unique ID of portfolio whose companies are weighted
+   * @param goal        goal of the optimization
+   * @param startDate   first date of the history used, in yyyy-MM-dd format
+   * @return map from company ticker to percentage, adding up to 100
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the portfolio has no companies, they do not share enough
+   *                                  history or none of them can meet the goal
+   */
+  Map<String, Double> optimizeWeights(String portfolioID, OptimizationGoal goal, String startDate)
+          throws NoSuchElementException, IOException, IllegalArgumentException;
+
+  /**
+   * Method to get a technical indicator over the whole price history of a company. Indicators are
+   * kept between calls, and only the bars added since the last call are computed.
+   *
+   * @param company ticker symbol of the company
+   * @param spec    indicator and its parameters
+   * @return the values of the indicator for every bar of the company
+   * @throws IOException              if the data of the company could not be downloaded
+   * @throws IllegalArgumentException if no data is available for the company
+   */
+  IndicatorSeries getIndicator(String company, IndicatorSpec spec) throws IOException,
+          IllegalArgumentException;
+
+  /**
+   * Method to backtest a trading rule over a group of companies. The amount is split evenly between
+   * the companies, and each one is bought or sold in full whenever the rule calls for it.
+   *
+   * @param rule       trading rule to be run, such as one of SignalRules
+   * @param companies  ticker symbols of the companies
+   * @param amount     amount invested on the start date
+   * @param startDate  date from which trades are made in yyyy-MM-dd format
+   * @param endDate    date at which the test stops in yyyy-MM-dd format, excluded
+   * @param commission commission of every purchase and sale
+   * @return the final value, trades and drawdown of the rule and the portfolio it traded
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the parameters are not valid or there is no trading day
+   *                                  between the dates
+   */
+  SignalResult backtestSignals(SignalRule rule, List<String> companies, double amount,
+                               String startDate, String endDate, double commission)
+          throws IOException, IllegalArgumentException;
+
+  /**
+   * Method to run a grid of dollar cost strategies over the price history without applying them
+   * to any portfolio, and rank them by their compound annual growth rate.
+   *
+   * @param grid strategies to be compared
+   * @return one result per strategy, best first
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if a strategy is not valid or the data of a company is
+   *                                  missing
+   */
+  List<BacktestResult> backtest(List<DollarCostAverage> grid) throws IOException,
+          IllegalArgumentException;
+
+  /**
+   * Method to simulate future values of the shares held in a portfolio by bootstrapping the daily
+   * returns of its companies over their whole shared history.
+   *
+   * @param portfolioID unique ID of portfolio to be simulated
+   * @param horizon     number of trading days to be simulated
+   * @param paths       number of paths to be simulated
+   * @param blockLength number of consecutive historical days drawn at a time, 1 for a plain
+   *                    bootstrap
+   * @return the percentile bands of the terminal value
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException if the portfolio holds no shares or a count is not valid
+   */
+  SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength)
+          throws NoSuchElementException, IllegalArgumentException;
+
+  /**
+   * Method to simulate future values of the shares held in a portfolio as above, drawing the
+   * returns from a generator with the given seed so that the result can be reproduced.
+   *
+   * @param portfolioID unique ID of portfolio to be simulated
+   * @param horizon     number of trading days to be simulated
+   * @param paths       number of paths to be simulated
+   * @param blockLength number of consecutive historical days drawn at a time, 1 for a plain
+   *                    bootstrap
+   * @param seed        seed of the random generator
+   * @return the percentile bands of the terminal value
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException if the portfolio holds no shares or a count is not valid
+   */
+  SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength,
+                            long seed) throws NoSuchElementException, IllegalArgumentException;
+
+  /**
+   * Method to simulate future values of a dollar cost plan started today, by bootstrapping the
+   * daily returns of its companies over their whole shared history. The period of the plan is
+   * converted to trading days.
+   *
+   * @param plan        parameters of the plan, whose dates are not used
+   * @param horizon     number of trading days to be simulated
+   * @param paths       number of paths to be simulated
+   * @param blockLength number of consecutive historical days drawn at a time, 1 for a plain
+   *                    bootstrap
+   * @return the percentile bands of the terminal value
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the plan buys no company or a count is not valid
+   */
+  SimulationResult simulate(DollarCostAverage plan, int horizon, int paths, int blockLength)
+          throws IOException, IllegalArgumentException;
+
+  /**
+   * Method to simulate future values of a dollar cost plan started today as above, drawing the
+   * returns from a generator with the given seed so that the result can be reproduced.
+   *
+   * @param plan        parameters of the plan, whose dates are not used
+   * @param horizon     number of trading days to be simulated
+   * @param paths       number of paths to be simulated
+   * @param blockLength number of consecutive historical days drawn at a time, 1 for a plain
+   *                    bootstrap
+   * @param seed        seed of the random generator
+   * @return the percentile bands of the terminal value
+   * @throws IOException              if the data of a company could not be downloaded
+   * @throws IllegalArgumentException if the plan buys no company or a count is not valid
+   */
+  SimulationResult simulate(DollarCostAverage plan, int horizon, int paths, int blockLength,
+                            long seed) throws IOException, IllegalArgumentException;
+
+  /**
+   * Get list of all stocks of a particular Portfolio ID.
+   *
+   * @return te list of all stocks of a particular Portfolio ID
+   */
+  Map<String, Portfolio> getStockDetails();
+
+  /**
+   * Method to add company to portfolio without buying share.
+   *
+   * @param portfolioID unique ID of portfolio
+   * @param company     ticker symbol of the company
+   * @throws NoSuchElementException   when portfolio ID does not exist
+   * @throws IllegalArgumentException when a listing of symbols is available and does not list
+   *                                  the company
+   */
+  void addStockPortfolio(String portfolioID, String company)
+          throws NoSuchElementException, IOException;
+
+  /**
+   * Method to get the listed ticker symbols a text may stand for, to be offered while the user
+   * types a ticker. Symbols starting with the text come first, followed by those one letter away
+   * from it.
+   *
+   * @param text  ticker symbol typed so far
+   * @param limit largest number of symbols returned
+   * @return the symbols, or an empty list if no listing of symbols is available
+   */
+  List<String> suggestSymbols(String text, int limit);
+
+  /**
+   * Method to invest fixed amount equally between  all companies.
+   *
+   * @param portfolioID unique id of portfolio
+   * @param amount      amount to be invested
+   * @param date        date of investment
+   * @param commission  commission of investment
+   * @throws IOException when file read/write fails
+   */
+  void investFixedAmountEqually(String portfolioID, double amount, String date, double commission)
+          throws IOException;
+
+  /**
+   * Method to invest fixed amount divided into companies based on given weights.
+   *
+   * @param portfolioID unique ID of portfolio
+   * @param amount      amount to be invested
+   * @param date        date of investment
+   * @param weights     weight for investments
+   * @param commission  commission for this investment
+   * @throws IOException when file read/write fails
+   */
+  void investFixedAmountWeighted(String portfolioID, double amount, String date, Map<String,
+          Double> weights, double commission) throws IOException;
+
+  /**
+   * Method to apply DollarCostAveraging Technique to portfolio.
+   *
+   * @param portfolioID unique ID of portfolio
+   * @param startDate   date to start investment
+   * @param endDate     date to end investment, excluded, or null for an investment which goes on
+   *                    and buys the purchases that become due as new prices arrive
+   * @param amount      amount to be invested for each cycle
+   * @param period      period to repeat investment
+   * @param weights     weights for investment
+   * @param commission  commission for this investment
+   */
+  void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
+                                double amount, int period,
+                                Map<String, Double> weights, double commission) throws
+          ParseException, IOException;
+
+
+  /**
+   * Method to save the state of a portfolio as a binary snapshot. The snapshot is written before
+   * this call returns, together with every other portfolio changed since the last autosave, so a
+   * failed write is reported to the caller.
+   *
+   * @param portfolioID unique ID of portfolio whose state is to be saved
+   * @throws IllegalArgumentException if the portfolioID does not exist
+   * @throws IOException              if the File read or write operation fails
+   */
+  void save(String portfolioID) throws IllegalArgumentException, IOException;
+
+  /**
+   * Method to write every portfolio changed since it was last written and stop the background
+   * autosave. Changing a portfolio after the model is closed throws IllegalStateException.
+   *
+   * @throws IOException if one or more portfolios could not be written
+   */
+  @Override
+  void close() throws IOException;
+
+  /**
+   * Method to export the state of a portfolio as a CSV file with one row per purchase.
+   *
+   * @param portfolioID unique ID of portfolio whose state is to be exported
+   * @throws IllegalArgumentException if the portfolioID does not exist
+   * @throws IOException              if the File read or write operation fails
+   */
+  void exportPortfolio(String portfolioID) throws IllegalArgumentException, IOException;
+
+  /**
+   * Method to write a report of a portfolio to an exporter. The lots are written without being
+   * copied, so a portfolio of any size is exported in constant memory.
+   *
+   * @param portfolioID unique ID of the portfolio to be reported
+   * @param type        report to be written
+   * @param startDate   first date of a report of values, or null for the first purchase
+   * @param endDate     date on which positions are valued or last date of a report of values,
+   *                    which is not used for a report of lots
+   * @param exporter    exporter writing the report
+   * @throws NoSuchElementException   thrown when the given Portfolio ID does not exist
+   * @throws IllegalArgumentException thrown when a date is invalid or a company has no price on
+   *                                  the date its position is valued
+   * @throws IOException              if the exporter fails to write
+   */
+  void exportReport(String portfolioID, ReportType type, String startDate, String endDate,
+                    ReportExporter exporter) throws NoSuchElementException,
+          IllegalArgumentException, IOException;
+
+  /**
+   * Method to retrieve a previously saved portfolio state. A binary snapshot is preferred and a
+   * CSV export is used when no snapshot exists.
+   *
+   * @param portfolioID unique ID of portfolio to be retrieved
+   * @throws IllegalArgumentException if the portfolioID already exists
+   */
+  void retrieve(String portfolioID) throws IllegalArgumentException;
+
+  /**
+   * Method to restore every portfolio and strategy saved in the workspace. The saved files are
+   * restored in parallel on a bounded pool of threads and a file that cannot be restored does not
+   * stop the others from loading. A background autosave which failed and has not succeeded since
+   * is reported as well.
+   *
+   * @return report with the time taken by each saved file and the reason of each failure
+   */
+  WorkspaceReport loadWorkspace();
+
+  /**
+   * Method to save the parameters of a Dollar cost strategy.
+   *
+   * @param portfolioID  unique ID on which the dollar cost strategy to be saved is applied
+   * @param strategyName name with which the strategy is to be saved
+   * @throws IOException              if file read or write operation fails
+   * @throws IllegalArgumentException if the portfolio does not exist
+   */
+  void saveStrategy(String portfolioID, String strategyName) throws IOException,
+          IllegalArgumentException;
+
+  /**
+   * Method to export the parameters of a Dollar cost strategy as a CSV file.
+   *
+   * @param portfolioID  unique ID on which the dollar cost strategy to be exported is applied
+   * @param strategyName name with which the strategy is to be exported
+   * @throws IOException              if file read or write operation fails
+   * @throws IllegalArgumentException if the portfolio does not exist
+   */
+  void exportStrategy(String portfolioID, String strategyName) throws IOException,
+          IllegalArgumentException;
+
+
+  /**
+   * Method to retrieve a saved Dollar cost strategy and apply it to a given portfolio.
+   *
+   * @param strategyName name of the strategy to be retrieved
+   * @param portfolioID  unique ID of portfolio on which this strategy is to be applied
+   * @throws IllegalArgumentException thrown if portfolio does not exist
+   */
+  void retrieveStrategy(String strategyName, String portfolioID) throws IllegalArgumentException;
+
+  /**
+   * Method to update the values to be used for plotting the graph with the latest values of
+   * portfolio.
+   *
+   * @param portfolioiID unique ID of the portfolio to update the file data
+   * @throws ParseException if the date parsing fails
+   * @throws IOException    if file read write operation
+   */
+  void getValuesForGraph(String portfolioiID) throws ParseException, IOException;
+}
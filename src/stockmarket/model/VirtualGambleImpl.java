@@ -1,445 +1,1106 @@
-package stockmarket.model;
-
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Paths;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
-import java.util.GregorianCalendar;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.NoSuchElementException;
-import java.util.TreeMap;
-
-/**
- * This is an implementation of VirtualGamble Interface that provides functionality of adding new
- * Portfolios, buying share and getting the total value and cost basis of particular portfolio. It
- * maintains a map-String Portfolio ID to Portfolio object to achieve this.
- */
-public class VirtualGambleImpl implements VirtualGamble {
-
-  private Map<String, Portfolio> portfolios;
-
-  /**
-   * Constructor to initialize the portfolios map to an empty Hashmap.
-   */
-  public VirtualGambleImpl() {
-    portfolios = new HashMap<>();
-  }
-
-  @Override
-  public void createPortfolio(String portfolioID) throws IllegalArgumentException {
-    checkForDuplicatePortfolioID(portfolioID);
-    portfolios.put(portfolioID, new PortfolioImpl());
-
-  }
-
-  /**
-   * Method to check that the entered portfolio ID does not already exist.
-   *
-   * @param portfolioID portfolioID to be verified for duplicate
-   * @throws IllegalArgumentException if the given portfolio  ID already exists
-   */
-  private void checkForDuplicatePortfolioID(String portfolioID) throws IllegalArgumentException {
-    if (portfolios.containsKey(portfolioID)) {
-      throw new IllegalArgumentException("The given portfolio already exist");
-    }
-  }
-
-
-  @Override
-  public void buyShare(String portfolioID, String company, double amount, String date,
-                       double commission)
-          throws NoSuchElementException, IOException {
-    validatePortfolioID(portfolioID);
-    if (!this.portfolios.get(portfolioID).getCompanyList().contains(company)) {
-      addStockPortfolio(portfolioID, company);
-    }
-    update(company);
-    validateDate(date);
-    if (amount <= 0) {
-      throw new IllegalArgumentException("amount cannot be negative");
-    }
-    portfolios.get(portfolioID).addStock(company, amount, date, commission);
-  }
-
-  /**
-   * Helper method to validate that given date is valid and is in valid format or not.
-   *
-   * @param date date in String format to be validated
-   * @throws IllegalArgumentException if date is invalid
-   */
-  private void validateDate(String date) throws IllegalArgumentException {
-    String dateFormat = "\\d{4}-\\d{2}-\\d{2}";
-    if (!date.matches(dateFormat)) {
-      throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
-    }
-    String[] dateArray = date.split("-");
-    int year = Integer.parseInt(dateArray[0]);
-    int month = Integer.parseInt(dateArray[1]);
-    int day = Integer.parseInt(dateArray[2]);
-    if (month == 2) { //February
-      if (year % 4 == 0) { //Leap Year
-        if (day > 29) {
-          throw new IllegalArgumentException("Invalid date");
-        }
-      } else {
-        if (day > 28) { //Non leap year
-          throw new IllegalArgumentException("Invalid date");
-        }
-      }
-    } else if (month == 4 || month == 6 || month == 9 || month == 11) { //Apr, Jun, Sep, Nov
-      if (day > 30) {
-        throw new IllegalArgumentException("Invalid date");
-      }
-    } else {
-      if (day > 31) {
-        throw new IllegalArgumentException("Invalid date");
-      }
-    }
-  }
-
-
-  @Override
-  public double getTotalCostBasis(String portfolioID) {
-    validatePortfolioID(portfolioID);
-    Double number = this.portfolios.get(portfolioID).getTotalCostBasis();
-    String numberAsString = String.format("%.2f", number);
-    return Double.parseDouble(numberAsString);
-  }
-
-  @Override
-  public double getTotalCostBasis(String portfolioID, String date) throws ParseException {
-    validatePortfolioID(portfolioID);
-    validateDate(date);
-    Double number = this.portfolios.get(portfolioID).getTotalCostBasis(date);
-    String numberAsString = String.format("%.2f", number);
-    return Double.parseDouble(numberAsString);
-  }
-
-  @Override
-  public double getTotalValue(String portfolioID, String date) {
-    validatePortfolioID(portfolioID);
-    validateDate(date);
-    Double number = this.portfolios.get(portfolioID).getTotalValue(date.trim());
-    String numberAsString = String.format("%.2f", number);
-
-    return Double.parseDouble(numberAsString);
-  }
-
-  @Override
-  public double getTotalValue(String portfolioID) throws NoSuchElementException,
-          IllegalArgumentException {
-    DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
-    Date date = new Date();
-    String todaysDate = dateFormat.format(date);
-    return this.getTotalValue(portfolioID, todaysDate);
-  }
-
-  @Override
-  public Map<String, Portfolio> getStockDetails() {
-
-    Map temp = new HashMap<>(portfolios);
-    return temp;
-  }
-
-  /**
-   * Helper method to check whether portfolioID exists or not.
-   *
-   * @param portfolioID portfolioID to be validated
-   * @throws NoSuchElementException if portfolioID does not exist
-   */
-  private void validatePortfolioID(String portfolioID) throws NoSuchElementException {
-    if (!portfolios.containsKey(portfolioID)) {
-      throw new NoSuchElementException("The given portfolio does not exist");
-    }
-  }
-
-
-  @Override
-  public void addStockPortfolio(String portfolioID, String company)
-          throws NoSuchElementException, IOException,
-          IllegalArgumentException {
-    validatePortfolioID(portfolioID);
-    update(company);
-    portfolios.get(portfolioID).addStockData(company);
-
-  }
-
-
-  @Override
-  public void investFixedAmountEqually(String portfolioID, double amount, String date,
-                                       double commission) throws IOException {
-    validatePortfolioID(portfolioID);
-    int companyCount = portfolios.get(portfolioID).getCompanyList().size();
-    double investment = amount / companyCount;
-    for (String company : portfolios.get(portfolioID).getCompanyList()) {
-      buyShare(portfolioID, company, investment, date, commission);
-    }
-  }
-
-  @Override
-  public void investFixedAmountWeighted(String portfolioID, double amount, String date, Map<String,
-          Double> weights, double commission) throws IOException {
-    validatePortfolioID(portfolioID);
-    double investment;
-    for (String company : portfolios.get(portfolioID).getCompanyList()) {
-      investment = (weights.get(company) / 100) * amount;
-      buyShare(portfolioID, company, investment, date, commission);
-    }
-  }
-
-  @Override
-  public void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
-                                       double amount, int period, Map<String, Double> weights,
-                                       double commission) throws ParseException, IOException {
-    validatePortfolioID(portfolioID);
-
-    portfolios.get(portfolioID).setDollarCostAveraged(true);
-    DollarCostAverage data = new DollarCostAverage(startDate, endDate, amount, period,
-            weights, commission);
-    portfolios.get(portfolioID).setDollarCostAverage(data);
-    Calendar currentCal = Calendar.getInstance();
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-    currentCal.setTime(sdf.parse(startDate));
-    Calendar endCal = Calendar.getInstance();
-    endCal.setTime(sdf.parse(endDate));
-    if (currentCal.after(endCal)) {
-      throw new IllegalArgumentException("start date cannot be after end date");
-    }
-    for (Map.Entry<String, Double> entry : weights.entrySet()) {
-      currentCal.setTime(sdf.parse(startDate));
-      String company = entry.getKey();
-      double weight = entry.getValue();
-      String fullDataForCompany = new String(Files.readAllBytes(Paths.get("data/"
-              + company.toLowerCase() + ".csv")));
-      while (currentCal.before(endCal)) {
-        String currDateString = sdf.format(currentCal.getTime());
-        if (fullDataForCompany.contains(currDateString)) {
-          buyShare(portfolioID, company, amount * (weight / 100), currDateString, commission);
-          currentCal.add(Calendar.DAY_OF_YEAR, period);
-        } else {
-          currentCal.add(Calendar.DAY_OF_YEAR, 1);
-        }
-      }
-    }
-  }
-
-
-  /**
-   * Method to find the next available date to invest.
-   *
-   * @param portfolioID unique ID of portfolio
-   * @param current     date to start investment
-   * @param weights     weight of investement for each company
-   * @return invested cost basis
-   */
-  private double investOnNextAvailableDate(String portfolioID, Date current,
-                                           Map<String, Double> weights) {
-    double costBasis = 0;
-    for (String company : portfolios.get(portfolioID).getCompanyList()) {
-      String data = "";
-      try {
-        data = new String(Files.readAllBytes(Paths.get("data/" + company.toLowerCase()
-                + ".csv")));
-      } catch (IOException e) {
-        throw new IllegalArgumentException("Stock data not available for company");
-      }
-      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-      String currDateString = sdf.format(current);
-      while (!data.contains(currDateString)) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(current);
-        calendar.add(Calendar.DAY_OF_YEAR, 1);
-        current = calendar.getTime();
-        currDateString = sdf.format(current);
-      }
-    }
-    costBasis = costBasis + portfolios.get(portfolioID).getDollarCostAverage().getAmount();
-    return costBasis;
-  }
-
-
-  /**
-   * Method to update the cached data for companies in a particular portfolio.
-   *
-   * @param company company data for which cache is to be updated
-   * @throws IOException when a file read or write fails
-   */
-  private void update(String company) throws IOException {
-    String fullDataForCompany;
-    File tmpDir = new File("data/"
-            + company.toLowerCase() + ".csv");
-    if (!tmpDir.exists()) {
-      fullDataForCompany = AlphaVantage.getStockData(company);
-      BufferedWriter writer = new BufferedWriter(new FileWriter("data/"
-              + company.toLowerCase() + ".csv", false));
-      writer.write(fullDataForCompany);
-      writer.close();
-    }
-  }
-
-
-  @Override
-  public void save(String portfolioID) throws IllegalArgumentException, IOException {
-    validatePortfolioID(portfolioID);
-    String dataToPersist = "PurchaseDate,CompanyTicker,CostBasis,NumberOfShares,Commission\n";
-    List<Stock> stocks = this.getStockDetails().get(portfolioID).getStockList();
-    if (stocks.size() <= 0) {
-      throw new IllegalArgumentException("The given portfolio has not stocks");
-    }
-    for (Stock stock : stocks) {
-      String stockData = stocks.toString();
-      dataToPersist = dataToPersist + stock.getPurchaseDate() + "," + stock.getCompanyTicker()
-              + "," + stock.getCostBasis() + "," + stock.getNumberOfShares()
-              + "," + stock.getCommission() + "\n";
-    }
-    BufferedWriter writer = new BufferedWriter(new FileWriter("portfolio/"
-            + portfolioID.toLowerCase() + ".csv", false));
-    writer.write(dataToPersist);
-    writer.close();
-  }
-
-  @Override
-  public void retrieve(String portfolioID) throws IllegalArgumentException {
-    checkForDuplicatePortfolioID(portfolioID);
-    String data;
-    try {
-      data = new String(Files.readAllBytes(Paths.get("portfolio/" + portfolioID.toLowerCase()
-              + ".csv")));
-      String[] stockData = data.split("\\n");
-      createPortfolio(portfolioID);
-      for (int i = 1; i < stockData.length; i++) {
-        String[] splittedData = stockData[i].split(",");
-        String purchaseDate = splittedData[0];
-        String company = splittedData[1];
-        double commission = Double.parseDouble(splittedData[4]);
-        double amount = Double.parseDouble(splittedData[2]) - commission;
-        buyShare(portfolioID, company, amount, purchaseDate, commission);
-      }
-    } catch (IOException e) {
-      throw new IllegalArgumentException("The given portfolio is not present in saved data");
-    }
-  }
-
-  @Override
-  public void saveStrategy(String portfolioID, String strategyName) throws IOException,
-          IllegalArgumentException {
-    validatePortfolioID(portfolioID);
-    if (!this.portfolios.get(portfolioID).getDollarCostAveraged()) {
-      throw new IllegalArgumentException("This portfolio does not posses a dollar cost strategy");
-    }
-    String dataToPersist = "StartDate,EndDate,PeriodInDays,amount,weights,commission\n";
-
-    DollarCostAverage dollarCostAverage = this.portfolios.get(portfolioID).getDollarCostAverage();
-    dataToPersist += dollarCostAverage.getStartDate() + "," + dollarCostAverage.getEndDate() + ","
-            + dollarCostAverage.getPeriodInDays() + "," + dollarCostAverage.getAmount() + ","
-            + dollarCostAverage.getWeights().toString().replaceAll(",", ";")
-            + "," + dollarCostAverage.getCommission();
-    BufferedWriter writer = new BufferedWriter(new FileWriter("strategy/"
-            + strategyName.toLowerCase() + ".csv", false));
-    writer.write(dataToPersist);
-    writer.close();
-  }
-
-  @Override
-  public void retrieveStrategy(String strategyName, String portfolioID)
-          throws IllegalArgumentException {
-    validatePortfolioID(portfolioID);
-    String data;
-    try {
-      data = new String(Files.readAllBytes(Paths.get("strategy/" + strategyName.toLowerCase()
-              + ".csv")));
-      String[] splittedData = data.split("\n")[1].split(",");
-      String companyData = splittedData[4].replaceAll("[{}]", "");
-      String[] companiesDetails = companyData.split("; ");
-      Map<String, Double> map = new HashMap();
-      for (String company : companiesDetails) {
-        String name = company.split("=")[0];
-        double weight = Double.parseDouble(company.split("=")[1]);
-        map.put(name, weight);
-      }
-      int periodInDays = Integer.parseInt(splittedData[2]);
-      double amount = Double.parseDouble(splittedData[3]);
-      String startDate = splittedData[0];
-      String endDate = splittedData[1];
-      double commission = Double.parseDouble(splittedData[5]);
-      applyDollarCostAveraging(portfolioID, startDate, endDate, amount, periodInDays,
-              map, commission);
-
-    } catch (IOException | ParseException e) {
-      throw new IllegalArgumentException("The given strategy is not present in saved data");
-    }
-  }
-
-  @Override
-  public void getValuesForGraph(String portfolioID) throws ParseException,
-          IOException {
-
-    validatePortfolioID(portfolioID);
-    Map<String, Double> valueMap = new TreeMap<>();
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-    Calendar cal_end = new GregorianCalendar();
-    cal_end.setTime(new Date());
-    Calendar cal_start = getFirstPurchaseDate(portfolioID);
-    double value = 0;
-    int daysBetween = daysBetween(cal_start.getTime(), cal_end.getTime());
-    int counter;
-    if (daysBetween < 10) {
-      counter = 1;
-    } else {
-      counter = daysBetween / 10;
-    }
-    while (cal_start.before(cal_end)) {
-      String date = sdf.format(cal_start.getTime());
-      try {
-        value = getTotalValue(portfolioID, date);
-      } catch (IllegalArgumentException e) {
-        // value remains same for next date even if the data is not available
-      } finally {
-        valueMap.put(date, value);
-        cal_start.add(Calendar.DAY_OF_YEAR, counter);
-      }
-    }
-    String fullDataForGraph = "";
-    for (Map.Entry<String, Double> entry : valueMap.entrySet()) {
-      fullDataForGraph = fullDataForGraph + entry.getKey() + "," + entry.getValue() + "\n";
-    }
-    BufferedWriter writer = new BufferedWriter(new FileWriter("temp/graphdata.csv",
-            false));
-    writer.write(fullDataForGraph);
-    writer.close();
-    if (fullDataForGraph.isEmpty()) {
-      throw new IllegalArgumentException("The given portfolio is empty");
-    }
-  }
-
-  private Calendar getFirstPurchaseDate(String portfolioID) throws ParseException {
-    List<Stock> stocks = getStockDetails().get(portfolioID).getStockList();
-    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
-    Calendar cal = Calendar.getInstance();
-    cal.setTime(new Date());
-    for (Stock stock : stocks) {
-      Calendar cal2 = Calendar.getInstance();
-      cal2.setTime(sdf.parse(stock.getPurchaseDate()));
-      if (cal2.before(cal)) {
-        cal = cal2;
-      }
-
-    }
-    return cal;
-  }
-
-  private int daysBetween(Date d1, Date d2) {
-    return (int) ((d2.getTime() - d1.getTime()) / (1000 * 60 * 60 * 24));
-  }
-
-
+package stockmarket.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This is an implementation of VirtualGamble Interface that provides functionality of adding new
+ * Portfolios, buying share and getting the total value and cost basis of particular portfolio. It
+ * maintains a map-String Portfolio ID to Portfolio object to achieve this.
+ */
+public class VirtualGambleImpl implements VirtualGamble {
+
+  private static final long AUTOSAVE_INTERVAL_MILLIS = 2000;
+  // simulations draw from the whole history the companies share
+  private static final String SIMULATION_HISTORY = "1970-01-01";
+  private static final double TRADING_DAYS_PER_YEAR = 252;
+  // listing of the tradable symbols, such as the LISTING_STATUS report of AlphaVantage, unless
+  // the system property virtualgamble.listing names another file
+  private static final String SYMBOL_LISTING = "data/listing_status.csv";
+
+  private Map<String, Portfolio> portfolios;
+  private Map<String, DollarCostAverage> strategies;
+  private final PortfolioRepository portfolioRepository;
+  private final StrategyRepository strategyRepository;
+  private final Autosaver autosaver;
+  private final PriceListener priceListener;
+  private final Map<String, RiskTracker> riskTrackers;
+  private final IndicatorCache indicators;
+  private final SymbolDirectory symbols;
+  private final HoldingIndex holdings;
+  // portfolios of other implementations, which are told about every price
+  private final Set<String> unindexed;
+
+  /**
+   * Constructor to initialize the model with portfolios and strategies saved as files in the
+   * portfolio and strategy directories.
+   */
+  public VirtualGambleImpl() {
+    this(new FileRepository());
+  }
+
+  /**
+   * Constructor to initialize the model with a store that persists both portfolios and strategies.
+   *
+   * @param repository store in which portfolios and strategies are persisted
+   * @param <T>        type of the store
+   */
+  public <T extends PortfolioRepository & StrategyRepository> VirtualGambleImpl(T repository) {
+    this(repository, repository);
+  }
+
+  /**
+   * Constructor to initialize the portfolios and strategies maps to empty concurrent maps so that
+   * the saved workspace can be restored into them from several threads. Changed portfolios are
+   * written to the portfolio repository in the background every few seconds, and every new price
+   * added to the price store is passed on to the portfolios holding the company to keep their
+   * profit and loss current.
+   * Ticker symbols are checked against the listing in the data directory if there is one, or the
+   * one named by the system property virtualgamble.listing.
+   *
+   * @param portfolioRepository store in which portfolios are persisted
+   * @param strategyRepository  store in which strategies are persisted
+   */
+  public VirtualGambleImpl(PortfolioRepository portfolioRepository,
+                           StrategyRepository strategyRepository) {
+    portfolios = new ConcurrentHashMap<>();
+    strategies = new ConcurrentHashMap<>();
+    this.portfolioRepository = portfolioRepository;
+    this.strategyRepository = strategyRepository;
+    autosaver = new Autosaver(this::writeSnapshots, AUTOSAVE_INTERVAL_MILLIS);
+    priceListener = this::updatePrice;
+    riskTrackers = new ConcurrentHashMap<>();
+    holdings = new HoldingIndex();
+    unindexed = ConcurrentHashMap.newKeySet();
+    indicators = new IndicatorCache(PriceStore.getDefault());
+    PriceStore.getDefault().addListener(priceListener);
+    SymbolDirectory directory;
+    try {
+      directory = SymbolDirectory.load(Paths.get(System.getProperty("virtualgamble.listing",
+              SYMBOL_LISTING)));
+    } catch (IOException | IllegalArgumentException e) {
+      // without a readable listing symbols are checked by downloading them, as before
+      directory = SymbolDirectory.empty();
+    }
+    symbols = directory;
+  }
+
+  /**
+   * Helper method to mark the shares of every portfolio holding a company to a new price, and
+   * to carry the risk metrics of the portfolios which held it on to the new day. The portfolios
+   * are found through the index of holdings, so the cost of a new bar grows with the portfolios
+   * holding the company and not with all the portfolios.
+   *
+   * @param series price series to which a bar was added
+   * @param index  index of the new bar
+   */
+  private void updatePrice(PriceSeries series, int index) {
+    String date = PriceSeries.toDate(series.getDay(index));
+    int symbol = series.getSymbol();
+    for (Map.Entry<String, Portfolio> entry : holdings.get(symbol).entrySet()) {
+      updatePrice(entry.getKey(), entry.getValue(), series, symbol, date, index);
+    }
+    for (String portfolioID : unindexed) {
+      updatePrice(portfolioID, portfolios.get(portfolioID), series, symbol, date, index);
+    }
+  }
+
+  /**
+   * Helper method to pass a new bar on to one portfolio and its risk metrics.
+   */
+  private void updatePrice(String portfolioID, Portfolio portfolio, PriceSeries series,
+                           int symbol, String date, int index) {
+    portfolio.updatePrice(series.getTicker(), date, series.getLow(index));
+    RiskTracker tracker = riskTrackers.get(portfolioID);
+    if (tracker != null && tracker.holds(symbol)) {
+      tracker.advance();
+    }
+  }
+
+  @Override
+  public void createPortfolio(String portfolioID) throws IllegalArgumentException {
+    addPortfolio(portfolioID, new PortfolioImpl());
+  }
+
+  /**
+   * Helper method to add a portfolio unless one with the same ID already exists.
+   *
+   * @param portfolioID unique identity of the portfolio
+   * @param portfolio   portfolio to be added
+   * @throws IllegalArgumentException if portfolio with given ID already exists
+   */
+  private void addPortfolio(String portfolioID, Portfolio portfolio)
+          throws IllegalArgumentException {
+    if (portfolios.putIfAbsent(portfolioID, portfolio) != null) {
+      throw new IllegalArgumentException("The given portfolio already exist");
+    }
+    if (portfolio instanceof PortfolioImpl) {
+      ((PortfolioImpl) portfolio).watchHoldings(symbol -> holdings.add(symbol, portfolioID,
+              portfolio));
+    } else {
+      unindexed.add(portfolioID);
+    }
+  }
+
+  /**
+   * Method to check that the entered portfolio ID does not already exist.
+   *
+   * @param portfolioID portfolioID to be verified for duplicate
+   * @throws IllegalArgumentException if the given portfolio  ID already exists
+   */
+  private void checkForDuplicatePortfolioID(String portfolioID) throws IllegalArgumentException {
+    if (portfolios.containsKey(portfolioID)) {
+      throw new IllegalArgumentException("The given portfolio already exist");
+    }
+  }
+
+
+  @Override
+  public void buyShare(String portfolioID, String company, double amount, String date,
+                       double commission)
+          throws NoSuchElementException, IOException {
+    validatePortfolioID(portfolioID);
+    if (!this.portfolios.get(portfolioID).getCompanyList().contains(company)) {
+      addStockPortfolio(portfolioID, company);
+    }
+    update(company);
+    validateDate(date);
+    if (amount <= 0) {
+      throw new IllegalArgumentException("amount cannot be negative");
+    }
+    portfolios.get(portfolioID).addStock(company, amount, date, commission);
+    autosaver.markDirty(portfolioID);
+  }
+
+  @Override
+  public void buyShares(String portfolioID, List<Order> orders) throws NoSuchElementException,
+          IllegalArgumentException, IOException {
+    validatePortfolioID(portfolioID);
+    Portfolio portfolio = portfolios.get(portfolioID);
+    Set<String> companies = portfolio.getCompanyList();
+    Set<String> dates = new HashSet<>();
+    Map<String, List<Integer>> byCompany = new LinkedHashMap<>();
+    for (int i = 0; i < orders.size(); i++) {
+      Order order = orders.get(i);
+      if (dates.add(order.getDate())) {
+        validateDate(order.getDate());
+      }
+      if (order.getAmount() <= 0) {
+        throw new IllegalArgumentException("amount cannot be negative");
+      }
+      byCompany.computeIfAbsent(order.getCompany(), k -> new ArrayList<>()).add(i);
+    }
+    for (String company : byCompany.keySet()) {
+      checkSymbol(company);
+    }
+    Stock[] lots = new Stock[orders.size()];
+    for (Map.Entry<String, List<Integer>> entry : byCompany.entrySet()) {
+      String company = entry.getKey();
+      update(company);
+      PriceSeries series = PriceStore.getDefault().getSeries(company);
+      for (int i : entry.getValue()) {
+        Order order = orders.get(i);
+        int index = series.indexOf(PriceSeries.toDay(order.getDate()));
+        if (index < 0) {
+          throw new IllegalArgumentException("Stock is not available for date "
+                  + order.getDate() + " for company " + company);
+        }
+        lots[i] = new StockImpl(company, order.getAmount(), series, index,
+                order.getCommission());
+      }
+    }
+    for (String company : byCompany.keySet()) {
+      if (!companies.contains(company)) {
+        portfolio.addStockData(company);
+      }
+    }
+    portfolio.addStocks(Arrays.asList(lots));
+    autosaver.markDirty(portfolioID);
+  }
+
+  @Override
+  public ImportReport importTrades(String portfolioID, Reader trades, TradeColumns columns,
+                                   ImportListener listener) throws NoSuchElementException,
+          IllegalArgumentException, IOException {
+    validatePortfolioID(portfolioID);
+    TradeImporter.Fetcher fetcher = company -> {
+      checkSymbol(company);
+      update(company);
+    };
+    TradeImporter importer = new TradeImporter(portfolios.get(portfolioID), columns, fetcher,
+            listener);
+    try {
+      return importer.run(trades);
+    } finally {
+      autosaver.markDirty(portfolioID);
+    }
+  }
+
+  @Override
+  public List<Sale> sellShare(String portfolioID, String company, double numberOfShares,
+                              String date, double commission, LotRelief relief)
+          throws NoSuchElementException, IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    validateDate(date);
+    List<Sale> sales = portfolios.get(portfolioID).sellStock(company, numberOfShares, date,
+            commission, relief);
+    autosaver.markDirty(portfolioID);
+    return sales;
+  }
+
+  @Override
+  public List<Sale> sellLot(String portfolioID, String company, String lotPurchaseDate,
+                            double numberOfShares, String date, double commission)
+          throws NoSuchElementException, IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    validateDate(lotPurchaseDate);
+    validateDate(date);
+    List<Sale> sales = portfolios.get(portfolioID).sellLot(company, lotPurchaseDate,
+            numberOfShares, date, commission);
+    autosaver.markDirty(portfolioID);
+    return sales;
+  }
+
+  /**
+   * Helper method to validate that given date is valid and is in valid format or not.
+   *
+   * @param date date in String format to be validated
+   * @throws IllegalArgumentException if date is invalid
+   */
+  private void validateDate(String date) throws IllegalArgumentException {
+    String dateFormat = "\\d{4}-\\d{2}-\\d{2}";
+    if (!date.matches(dateFormat)) {
+      throw new IllegalArgumentException("Date should be in the format yyyy-MM-dd");
+    }
+    String[] dateArray = date.split("-");
+    int year = Integer.parseInt(dateArray[0]);
+    int month = Integer.parseInt(dateArray[1]);
+    int day = Integer.parseInt(dateArray[2]);
+    if (month == 2) { //February
+      if (year % 4 == 0) { //Leap Year
+        if (day > 29) {
+          throw new IllegalArgumentException("Invalid date");
+        }
+      } else {
+        if (day > 28) { //Non leap year
+          throw new IllegalArgumentException("Invalid date");
+        }
+      }
+    } else if (month == 4 || month == 6 || month == 9 || month == 11) { //Apr, Jun, Sep, Nov
+      if (day > 30) {
+        throw new IllegalArgumentException("Invalid date");
+      }
+    } else {
+      if (day > 31) {
+        throw new IllegalArgumentException("Invalid date");
+      }
+    }
+  }
+
+
+  @Override
+  public double getTotalCostBasis(String portfolioID) {
+    validatePortfolioID(portfolioID);
+    return toCents(this.portfolios.get(portfolioID).getTotalCostBasisMicros());
+  }
+
+  @Override
+  public double getTotalCostBasis(String portfolioID, String date) throws ParseException {
+    validatePortfolioID(portfolioID);
+    validateDate(date);
+    return toCents(this.portfolios.get(portfolioID).getTotalCostBasisMicros(date));
+  }
+
+  @Override
+  public double getTotalValue(String portfolioID, String date) {
+    validatePortfolioID(portfolioID);
+    validateDate(date);
+    return toCents(this.portfolios.get(portfolioID).getTotalValueMicros(date.trim()));
+  }
+
+  /**
+   * Helper method to round an amount to whole cents, rounding half up.
+   *
+   * @param micros amount in micro-dollars
+   * @return the amount in dollars rounded to two decimal places
+   */
+  private static double toCents(long micros) {
+    return Money.toDollars(Money.round(micros, 2, RoundingMode.HALF_UP));
+  }
+
+  @Override
+  public double getTotalValue(String portfolioID) throws NoSuchElementException,
+          IllegalArgumentException {
+    DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    Date date = new Date();
+    String todaysDate = dateFormat.format(date);
+    return this.getTotalValue(portfolioID, todaysDate);
+  }
+
+  @Override
+  public ProfitAndLoss getProfitAndLoss(String portfolioID) throws NoSuchElementException {
+    validatePortfolioID(portfolioID);
+    return portfolios.get(portfolioID).getProfitAndLoss();
+  }
+
+  @Override
+  public Map<String, Double> getHolders(String company) {
+    Map<String, Double> holders = new TreeMap<>();
+    Set<String> candidates = new HashSet<>(holdings.get(SymbolTable.id(company)).keySet());
+    candidates.addAll(unindexed);
+    for (String portfolioID : candidates) {
+      double shares = portfolios.get(portfolioID).getNumberOfShares(company);
+      if (shares > 0) {
+        holders.put(portfolioID, shares);
+      }
+    }
+    return holders;
+  }
+
+  @Override
+  public RiskMetrics getRiskMetrics(String portfolioID) throws NoSuchElementException {
+    validatePortfolioID(portfolioID);
+    Portfolio portfolio = portfolios.get(portfolioID);
+    RiskTracker tracker = riskTrackers.get(portfolioID);
+    if (tracker == null || !tracker.isCurrent(portfolio)) {
+      tracker = new RiskTracker(portfolio, PriceStore.getDefault());
+      riskTrackers.put(portfolioID, tracker);
+    }
+    tracker.advance();
+    return tracker.getMetrics();
+  }
+
+  @Override
+  public double getDrift(String portfolioID, Map<String, Double> weights)
+          throws NoSuchElementException {
+    validatePortfolioID(portfolioID);
+    return portfolios.get(portfolioID).getDrift(weights);
+  }
+
+  @Override
+  public List<Sale> rebalance(String portfolioID, RebalanceStrategy strategy, String date)
+          throws NoSuchElementException, IOException, IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    validateDate(date);
+    Portfolio portfolio = portfolios.get(portfolioID);
+    Set<String> companies = portfolio.getCompanyList();
+    for (String company : strategy.getWeights().keySet()) {
+      if (!companies.contains(company)) {
+        checkSymbol(company);
+      }
+      update(company);
+    }
+    if (!strategy.isCalendar()
+            && portfolio.getDrift(strategy.getWeights(), date) < strategy.getThreshold()) {
+      return new ArrayList<>();
+    }
+    for (String company : strategy.getWeights().keySet()) {
+      if (!companies.contains(company)) {
+        addStockPortfolio(portfolioID, company);
+      }
+    }
+    List<Sale> sales = portfolio.rebalance(strategy.getWeights(), date,
+            strategy.getCommission());
+    autosaver.markDirty(portfolioID);
+    return sales;
+  }
+
+  @Override
+  public RebalanceResult backtestRebalancing(RebalanceStrategy strategy, double amount,
+                                             String startDate, String endDate)
+          throws IOException, IllegalArgumentException {
+    validateDate(startDate);
+    validateDate(endDate);
+    if (PriceSeries.toDay(startDate) >= PriceSeries.toDay(endDate)) {
+      throw new IllegalArgumentException("start date should be before end date");
+    }
+    for (String company : strategy.getWeights().keySet()) {
+      update(company);
+    }
+    return new Rebalancer(PriceStore.getDefault()).backtest(strategy, amount, startDate,
+            endDate);
+  }
+
+  @Override
+  public Map<String, Double> optimizeWeights(String portfolioID, OptimizationGoal goal,
+                                             String startDate)
+          throws NoSuchElementException, IOException, IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    validateDate(startDate);
+    List<String> tickers = new ArrayList<>(portfolios.get(portfolioID).getCompanyList());
+    if (tickers.isEmpty()) {
+      throw new IllegalArgumentException("The given portfolio has no companies");
+    }
+    Collections.sort(tickers);
+    for (String company : tickers) {
+      update(company);
+    }
+    double[] weights = new WeightOptimizer(new CovarianceEngine(PriceStore.getDefault(), tickers,
+            startDate)).optimize(goal);
+    // round to hundredths and give what rounding leaves to the largest weight
+    Map<String, Double> percentages = new LinkedHashMap<>();
+    double sum = 0;
+    String largest = tickers.get(0);
+    for (int i = 0; i < weights.length; i++) {
+      double percentage = Math.round(weights[i] * 10000) / 100.0;
+      percentages.put(tickers.get(i), percentage);
+      sum += percentage;
+      if (percentage > percentages.get(largest)) {
+        largest = tickers.get(i);
+      }
+    }
+    percentages.put(largest, Math.round((percentages.get(largest) + 100 - sum) * 100) / 100.0);
+    return percentages;
+  }
+
+  @Override
+  public IndicatorSeries getIndicator(String company, IndicatorSpec spec) throws IOException,
+          IllegalArgumentException {
+    update(company);
+    return indicators.get(company, spec);
+  }
+
+  @Override
+  public SignalResult backtestSignals(SignalRule rule, List<String> companies, double amount,
+                                      String startDate, String endDate, double commission)
+          throws IOException, IllegalArgumentException {
+    validateDate(startDate);
+    validateDate(endDate);
+    if (PriceSeries.toDay(startDate) >= PriceSeries.toDay(endDate)) {
+      throw new IllegalArgumentException("start date should be before end date");
+    }
+    for (String company : companies) {
+      update(company);
+    }
+    return new SignalBacktester(PriceStore.getDefault()).run(rule, companies, amount, startDate,
+            endDate, commission);
+  }
+
+  @Override
+  public List<BacktestResult> backtest(List<DollarCostAverage> grid) throws IOException,
+          IllegalArgumentException {
+    Set<String> companies = new HashSet<>();
+    for (DollarCostAverage strategy : grid) {
+      validateDate(strategy.getStartDate());
+      if (!strategy.isOngoing()) {
+        validateDate(strategy.getEndDate());
+      }
+      companies.addAll(strategy.getWeights().keySet());
+    }
+    for (String company : companies) {
+      update(company);
+    }
+    return new DollarCostBacktester(PriceStore.getDefault()).run(grid);
+  }
+
+  @Override
+  public SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength)
+          throws NoSuchElementException, IllegalArgumentException {
+    return simulate(portfolioID, horizon, paths, blockLength,
+            ThreadLocalRandom.current().nextLong());
+  }
+
+  @Override
+  public SimulationResult simulate(String portfolioID, int horizon, int paths, int blockLength,
+                                   long seed) throws NoSuchElementException,
+          IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    Map<String, Double> holdings = portfolios.get(portfolioID).getHoldings();
+    if (holdings.isEmpty()) {
+      throw new IllegalArgumentException("The given portfolio has not stocks");
+    }
+    List<String> tickers = new ArrayList<>(holdings.keySet());
+    double[] startValues = new double[tickers.size()];
+    for (int i = 0; i < startValues.length; i++) {
+      PriceSeries series = PriceStore.getDefault().getSeries(tickers.get(i));
+      startValues[i] = holdings.get(tickers.get(i)) * series.getLow(series.size() - 1);
+    }
+    return new MonteCarloSimulator(PriceStore.getDefault(), tickers, SIMULATION_HISTORY)
+            .simulate(startValues, new double[startValues.length], 0, 1, horizon, paths,
+                    blockLength, seed);
+  }
+
+  @Override
+  public SimulationResult simulate(DollarCostAverage plan, int horizon, int paths,
+                                   int blockLength) throws IOException,
+          IllegalArgumentException {
+    return simulate(plan, horizon, paths, blockLength, ThreadLocalRandom.current().nextLong());
+  }
+
+  @Override
+  public SimulationResult simulate(DollarCostAverage plan, int horizon, int paths,
+                                   int blockLength, long seed) throws IOException,
+          IllegalArgumentException {
+    if (plan.getAmount() <= 0) {
+      throw new IllegalArgumentException("amount cannot be negative");
+    }
+    if (plan.getPeriodInDays() <= 0) {
+      throw new IllegalArgumentException("period should be a positive number of days");
+    }
+    List<String> tickers = new ArrayList<>();
+    List<Double> amounts = new ArrayList<>();
+    for (Map.Entry<String, Double> entry : plan.getWeights().entrySet()) {
+      if (entry.getValue() < 0) {
+        throw new IllegalArgumentException("weights cannot be negative");
+      }
+      if (entry.getValue() > 0) {
+        update(entry.getKey());
+        tickers.add(entry.getKey());
+        amounts.add(plan.getAmount() * entry.getValue() / 100);
+      }
+    }
+    if (tickers.isEmpty()) {
+      throw new IllegalArgumentException("The plan does not buy any company");
+    }
+    double[] contributions = new double[tickers.size()];
+    for (int i = 0; i < contributions.length; i++) {
+      contributions[i] = amounts.get(i);
+    }
+    int interval = (int) Math.max(1, Math.round(plan.getPeriodInDays() * TRADING_DAYS_PER_YEAR
+            / 365.25));
+    return new MonteCarloSimulator(PriceStore.getDefault(), tickers, SIMULATION_HISTORY)
+            .simulate(new double[contributions.length], contributions, plan.getCommission(),
+                    interval, horizon, paths, blockLength, seed);
+  }
+
+  @Override
+  public Map<String, Portfolio> getStockDetails() {
+
+    Map temp = new HashMap<>(portfolios);
+    return temp;
+  }
+
+  /**
+   * Helper method to check whether portfolioID exists or not.
+   *
+   * @param portfolioID portfolioID to be validated
+   * @throws NoSuchElementException if portfolioID does not exist
+   */
+  private void validatePortfolioID(String portfolioID) throws NoSuchElementException {
+    if (!portfolios.containsKey(portfolioID)) {
+      throw new NoSuchElementException("The given portfolio does not exist");
+    }
+  }
+
+
+  @Override
+  public void addStockPortfolio(String portfolioID, String company)
+          throws NoSuchElementException, IOException,
+          IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    checkSymbol(company);
+    update(company);
+    portfolios.get(portfolioID).addStockData(company);
+    autosaver.markDirty(portfolioID);
+
+  }
+
+
+  @Override
+  public List<String> suggestSymbols(String text, int limit) {
+    List<String> suggestions = new ArrayList<>(symbols.complete(text, limit));
+    if (suggestions.size() < limit && !text.isEmpty()) {
+      for (String symbol : symbols.suggest(text, 1, limit)) {
+        if (suggestions.size() < limit && !suggestions.contains(symbol)) {
+          suggestions.add(symbol);
+        }
+      }
+    }
+    return suggestions;
+  }
+
+  /**
+   * Helper method to check that a company is listed before any of its data is read or
+   * downloaded. Every symbol is accepted when there is no listing.
+   *
+   * @param company ticker symbol of the company
+   * @throws IllegalArgumentException if the listing does not have the symbol
+   */
+  private void checkSymbol(String company) throws IllegalArgumentException {
+    if (symbols.isEmpty() || symbols.contains(company)) {
+      return;
+    }
+    List<String> near = symbols.suggest(company, 1, 3);
+    throw new IllegalArgumentException("Unknown ticker symbol " + company
+            + (near.isEmpty() ? "" : ", did you mean " + String.join(" or ", near) + "?"));
+  }
+
+  @Override
+  public void investFixedAmountEqually(String portfolioID, double amount, String date,
+                                       double commission) throws IOException {
+    validatePortfolioID(portfolioID);
+    Set<String> companies = portfolios.get(portfolioID).getCompanyList();
+    double investment = amount / companies.size();
+    List<Order> orders = new ArrayList<>(companies.size());
+    for (String company : companies) {
+      orders.add(new Order(company, investment, date, commission));
+    }
+    buyShares(portfolioID, orders);
+  }
+
+  @Override
+  public void investFixedAmountWeighted(String portfolioID, double amount, String date, Map<String,
+          Double> weights, double commission) throws IOException {
+    validatePortfolioID(portfolioID);
+    Set<String> companies = portfolios.get(portfolioID).getCompanyList();
+    List<Order> orders = new ArrayList<>(companies.size());
+    for (String company : companies) {
+      orders.add(new Order(company, (weights.get(company) / 100) * amount, date, commission));
+    }
+    buyShares(portfolioID, orders);
+  }
+
+  @Override
+  public void applyDollarCostAveraging(String portfolioID, String startDate, String endDate,
+                                       double amount, int period, Map<String, Double> weights,
+                                       double commission) throws ParseException, IOException {
+    validatePortfolioID(portfolioID);
+    validateDate(startDate);
+    if (endDate != null) {
+      validateDate(endDate);
+      if (PriceSeries.toDay(startDate) > PriceSeries.toDay(endDate)) {
+        throw new IllegalArgumentException("start date cannot be after end date");
+      }
+    }
+    if (amount <= 0) {
+      throw new IllegalArgumentException("amount cannot be negative");
+    }
+    if (period <= 0) {
+      throw new IllegalArgumentException("period should be a positive number of days");
+    }
+    Portfolio portfolio = portfolios.get(portfolioID);
+    Set<String> companies = portfolio.getCompanyList();
+    for (Map.Entry<String, Double> entry : weights.entrySet()) {
+      if (entry.getValue() < 0) {
+        throw new IllegalArgumentException("weights cannot be negative");
+      }
+      if (!companies.contains(entry.getKey())) {
+        addStockPortfolio(portfolioID, entry.getKey());
+      } else {
+        update(entry.getKey());
+      }
+    }
+    DollarCostAverage plan = new DollarCostAverage(startDate, endDate, amount, period, weights,
+            commission);
+    portfolio.addDollarCostPlan(plan);
+    portfolio.setDollarCostAveraged(true);
+    portfolio.setDollarCostAverage(plan);
+    autosaver.markDirty(portfolioID);
+  }
+
+
+  /**
+   * Method to find the next available date to invest.
+   *
+   * @param portfolioID unique ID of portfolio
+   * @param current     date to start investment
+   * @param weights     weight of investement for each company
+   * @return invested cost basis
+   */
+  private double investOnNextAvailableDate(String portfolioID, Date current,
+                                           Map<String, Double> weights) {
+    double costBasis = 0;
+    for (String company : portfolios.get(portfolioID).getCompanyList()) {
+      String data = "";
+      try {
+        data = new String(Files.readAllBytes(Paths.get("data/" + company.toLowerCase()
+                + ".csv")));
+      } catch (IOException e) {
+        throw new IllegalArgumentException("Stock data not available for company");
+      }
+      SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+      String currDateString = sdf.format(current);
+      while (!data.contains(currDateString)) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(current);
+        calendar.add(Calendar.DAY_OF_YEAR, 1);
+        current = calendar.getTime();
+        currDateString = sdf.format(current);
+      }
+    }
+    costBasis = costBasis + portfolios.get(portfolioID).getDollarCostAverage().getAmount();
+    return costBasis;
+  }
+
+
+  /**
+   * Method to update the cached data for companies in a particular portfolio.
+   *
+   * @param company company data for which cache is to be updated
+   * @throws IOException when a file read or write fails
+   */
+  private void update(String company) throws IOException {
+    // prices in memory were read from the cached file, so it need not be looked for again
+    if (PriceStore.getDefault().isLoaded(company)) {
+      return;
+    }
+    File tmpDir = new File("data/"
+            + company.toLowerCase() + ".csv");
+    if (!tmpDir.exists()) {
+      download(company, tmpDir);
+    }
+  }
+
+  /**
+   * Helper method to download the data for a company into the cache. Downloads are serialized so
+   * that concurrent restores share the API keys and never write the same file twice.
+   *
+   * @param company company whose data is to be downloaded
+   * @param file    cache file for the company
+   * @throws IOException when a file write fails
+   */
+  private static synchronized void download(String company, File file) throws IOException {
+    if (file.exists()) {
+      return;
+    }
+    String fullDataForCompany = AlphaVantage.getStockData(company);
+    BufferedWriter writer = new BufferedWriter(new FileWriter(file, false));
+    writer.write(fullDataForCompany);
+    writer.close();
+  }
+
+
+  @Override
+  public void save(String portfolioID) throws IllegalArgumentException, IOException {
+    validatePortfolioID(portfolioID);
+    if (!holdsStocks(this.portfolios.get(portfolioID))) {
+      throw new IllegalArgumentException("The given portfolio has not stocks");
+    }
+    autosaver.markDirty(portfolioID);
+    autosaver.flush();
+  }
+
+  /**
+   * Helper method used by the autosave to write a group of portfolios to the repository in one
+   * commit. Empty portfolios are not written.
+   *
+   * @param portfolioIDs unique IDs of portfolios whose state is to be written
+   * @throws IOException if the portfolios could not be written
+   */
+  private void writeSnapshots(Collection<String> portfolioIDs) throws IOException {
+    Map<String, Portfolio> changed = new LinkedHashMap<>();
+    for (String portfolioID : portfolioIDs) {
+      Portfolio portfolio = this.portfolios.get(portfolioID);
+      if (portfolio != null && holdsStocks(portfolio)) {
+        changed.put(portfolioID, portfolio);
+      }
+    }
+    if (!changed.isEmpty()) {
+      portfolioRepository.savePortfolios(changed);
+    }
+  }
+
+  /**
+   * Helper method to check whether a portfolio holds any lot or dollar cost plan, without building
+   * the lots of its plans.
+   */
+  private static boolean holdsStocks(Portfolio portfolio) {
+    return !portfolio.getStockListWithoutPlans().isEmpty()
+            || !portfolio.getDollarCostPlans().isEmpty();
+  }
+
+  @Override
+  public void close() throws IOException {
+    PriceStore.getDefault().removeListener(priceListener);
+    autosaver.close();
+    portfolioRepository.close();
+    if (strategyRepository != portfolioRepository) {
+      strategyRepository.close();
+    }
+  }
+
+  @Override
+  public void exportPortfolio(String portfolioID) throws IllegalArgumentException, IOException {
+    validatePortfolioID(portfolioID);
+    // the lots are streamed into a temporary file, which only replaces the export if any was found
+    Path path = Paths.get("portfolio", portfolioID.toLowerCase() + ".csv");
+    Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+    long lots;
+    try (ReportExporter exporter = new ReportExporter(Files.newBufferedWriter(tmp),
+            ExportFormat.CSV)) {
+      lots = exporter.writeLots(this.portfolios.get(portfolioID));
+    } catch (IOException | RuntimeException e) {
+      Files.deleteIfExists(tmp);
+      throw e;
+    }
+    if (lots == 0) {
+      Files.delete(tmp);
+      throw new IllegalArgumentException("The given portfolio has not stocks");
+    }
+    Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+  }
+
+  @Override
+  public void exportReport(String portfolioID, ReportType type, String startDate, String endDate,
+                           ReportExporter exporter) throws NoSuchElementException,
+          IllegalArgumentException, IOException {
+    validatePortfolioID(portfolioID);
+    Portfolio portfolio = this.portfolios.get(portfolioID);
+    if (type == ReportType.LOTS) {
+      exporter.writeLots(portfolio);
+      return;
+    }
+    if (endDate == null) {
+      throw new IllegalArgumentException("End date is required");
+    }
+    validateDate(endDate);
+    if (type == ReportType.POSITIONS) {
+      exporter.writePositions(portfolio, endDate);
+      return;
+    }
+    if (startDate == null) {
+      int[] first = {Integer.MAX_VALUE};
+      portfolio.forEachLot(stock -> first[0] = Math.min(first[0],
+              PriceSeries.toDay(stock.getPurchaseDate())));
+      if (first[0] == Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The given portfolio has not stocks");
+      }
+      startDate = PriceSeries.toDate(first[0]);
+    } else {
+      validateDate(startDate);
+    }
+    exporter.writeValues(portfolio, startDate, endDate);
+  }
+
+  @Override
+  public void retrieve(String portfolioID) throws IllegalArgumentException {
+    checkForDuplicatePortfolioID(portfolioID);
+    try {
+      Portfolio portfolio = portfolioRepository.loadPortfolio(portfolioID);
+      if (portfolio == null) {
+        throw new IllegalArgumentException("The given portfolio is not present in saved data");
+      }
+      for (String company : portfolio.getCompanyList()) {
+        update(company);
+      }
+      addPortfolio(portfolioID, portfolio);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("The given portfolio is not present in saved data");
+    }
+  }
+
+  @Override
+  public WorkspaceReport loadWorkspace() {
+    long start = System.currentTimeMillis();
+    WorkspaceReport report = new WorkspaceReport();
+    Map<String, Callable<Void>> tasks = new TreeMap<>();
+    try {
+      for (String name : portfolioRepository.listPortfolios()) {
+        tasks.put("portfolio/" + name, () -> {
+          retrieve(name);
+          return null;
+        });
+      }
+      for (String name : strategyRepository.listStrategies()) {
+        tasks.put("strategy/" + name, () -> {
+          strategies.put(name, readStrategy(name));
+          return null;
+        });
+      }
+    } catch (IOException e) {
+      report.add("workspace", "listing", 0, e.getMessage());
+    }
+    Exception autosave = autosaver.getLastFailure();
+    if (autosave != null) {
+      report.add("workspace", "autosave", 0, autosave.getMessage() == null ? autosave.toString()
+              : autosave.getMessage());
+    }
+    if (tasks.isEmpty()) {
+      return report;
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(tasks.size(),
+            Runtime.getRuntime().availableProcessors()));
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (Map.Entry<String, Callable<Void>> task : tasks.entrySet()) {
+        String[] kindAndName = task.getKey().split("/");
+        futures.add(executor.submit(() -> {
+          long begin = System.nanoTime();
+          String error = null;
+          try {
+            task.getValue().call();
+          } catch (Exception e) {
+            error = e.getMessage() == null ? e.toString() : e.getMessage();
+          }
+          report.add(kindAndName[0], kindAndName[1], (System.nanoTime() - begin) / 1e6, error);
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Workspace load failed", e.getCause());
+    } finally {
+      executor.shutdown();
+    }
+    report.setElapsedMillis(System.currentTimeMillis() - start);
+    return report;
+  }
+
+  @Override
+  public void saveStrategy(String portfolioID, String strategyName) throws IOException,
+          IllegalArgumentException {
+    DollarCostAverage strategy = getStrategy(portfolioID);
+    strategyRepository.saveStrategy(strategyName, strategy);
+    strategies.put(strategyName.toLowerCase(), strategy);
+  }
+
+  @Override
+  public void exportStrategy(String portfolioID, String strategyName) throws IOException,
+          IllegalArgumentException {
+    DollarCostAverage dollarCostAverage = getStrategy(portfolioID);
+    String dataToPersist = "StartDate,EndDate,PeriodInDays,amount,weights,commission\n"
+            + dollarCostAverage.getStartDate() + "," + dollarCostAverage.getEndDate() + ","
+            + dollarCostAverage.getPeriodInDays() + "," + dollarCostAverage.getAmount() + ","
+            + dollarCostAverage.getWeights().toString().replaceAll(",", ";")
+            + "," + dollarCostAverage.getCommission();
+    BufferedWriter writer = new BufferedWriter(new FileWriter("strategy/"
+            + strategyName.toLowerCase() + ".csv", false));
+    writer.write(dataToPersist);
+    writer.close();
+  }
+
+  /**
+   * Helper method to get the dollar cost strategy applied to a portfolio.
+   *
+   * @param portfolioID unique ID of portfolio
+   * @return the dollar cost strategy of the portfolio
+   * @throws IllegalArgumentException if the portfolio does not posses a dollar cost strategy
+   */
+  private DollarCostAverage getStrategy(String portfolioID) throws IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    if (!this.portfolios.get(portfolioID).getDollarCostAveraged()) {
+      throw new IllegalArgumentException("This portfolio does not posses a dollar cost strategy");
+    }
+    return this.portfolios.get(portfolioID).getDollarCostAverage();
+  }
+
+  @Override
+  public void retrieveStrategy(String strategyName, String portfolioID)
+          throws IllegalArgumentException {
+    validatePortfolioID(portfolioID);
+    try {
+      DollarCostAverage strategy = strategies.get(strategyName.toLowerCase());
+      if (strategy == null) {
+        strategy = readStrategy(strategyName);
+      }
+      applyDollarCostAveraging(portfolioID, strategy.getStartDate(), strategy.getEndDate(),
+              strategy.getAmount(), strategy.getPeriodInDays(), strategy.getWeights(),
+              strategy.getCommission());
+    } catch (IOException | ParseException e) {
+      throw new IllegalArgumentException("The given strategy is not present in saved data");
+    }
+  }
+
+  /**
+   * Helper method to read a saved strategy from the strategy repository.
+   *
+   * @param strategyName name of the strategy to be read
+   * @return the parameters of the saved strategy
+   * @throws IOException if the file read fails
+   */
+  private DollarCostAverage readStrategy(String strategyName) throws IOException {
+    DollarCostAverage strategy = strategyRepository.loadStrategy(strategyName);
+    if (strategy == null) {
+      throw new IOException("The given strategy is not present in saved data");
+    }
+    return strategy;
+  }
+
+  @Override
+  public void getValuesForGraph(String portfolioID) throws ParseException,
+          IOException {
+
+    validatePortfolioID(portfolioID);
+    Map<String, Double> valueMap = new TreeMap<>();
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    Calendar cal_end = new GregorianCalendar();
+    cal_end.setTime(new Date());
+    Calendar cal_start = getFirstPurchaseDate(portfolioID);
+    double value = 0;
+    int daysBetween = daysBetween(cal_start.getTime(), cal_end.getTime());
+    int counter;
+    if (daysBetween < 10) {
+      counter = 1;
+    } else {
+      counter = daysBetween / 10;
+    }
+    while (cal_start.before(cal_end)) {
+      String date = sdf.format(cal_start.getTime());
+      try {
+        value = getTotalValue(portfolioID, date);
+      } catch (IllegalArgumentException e) {
+        // value remains same for next date even if the data is not available
+      } finally {
+        valueMap.put(date, value);
+        cal_start.add(Calendar.DAY_OF_YEAR, counter);
+      }
+    }
+    try (BufferedWriter writer = new BufferedWriter(new FileWriter("temp/graphdata.csv",
+            false))) {
+      for (Map.Entry<String, Double> entry : valueMap.entrySet()) {
+        writer.write(entry.getKey() + "," + entry.getValue() + "\n");
+      }
+    }
+    if (valueMap.isEmpty()) {
+      throw new IllegalArgumentException("The given portfolio is empty");
+    }
+  }
+
+  private Calendar getFirstPurchaseDate(String portfolioID) throws ParseException {
+    List<Stock> stocks = getStockDetails().get(portfolioID).getStockList();
+    SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
+    Calendar cal = Calendar.getInstance();
+    cal.setTime(new Date());
+    for (Stock stock : stocks) {
+      Calendar cal2 = Calendar.getInstance();
+      cal2.setTime(sdf.parse(stock.getPurchaseDate()));
+      if (cal2.before(cal)) {
+        cal = cal2;
+      }
+
+    }
+    return cal;
+  }
+
+  private int daysBetween(Date d1, Date d2) {
+    return (int) ((d2.getTime() - d1.getTime()) / (1000 * 60 * 60 * 24));
+  }
+
+
 }
\ No newline at end of file
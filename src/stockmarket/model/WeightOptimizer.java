@@ -0,0 +1,138 @@
+package stockmarket.model;
+
+import java.util.Arrays;
+
+/**
+ * This class finds the weights of a set of companies which best meet an optimization goal, given
+ * the mean and covariance of their daily returns. Weights cannot be negative, so the companies
+ * whose weight comes out negative are dropped and the others are solved again, until every weight
+ * left is positive. Each solve is a Cholesky factorization of the covariance of the companies left.
+ */
+public final class WeightOptimizer {
+  private static final double RIDGE = 1e-10;
+
+  private final int companies;
+  private final double[] covariance;
+  private final double[] means;
+
+  /**
+   * Constructor to initialize the optimizer from the returns of a covariance engine.
+   *
+   * @param engine engine holding the returns of the companies
+   */
+  public WeightOptimizer(CovarianceEngine engine) {
+    this(engine.getCovariance(), engine.getMeans());
+  }
+
+  /**
+   * Constructor to initialize the optimizer from a covariance matrix and mean returns.
+   *
+   * @param covariance covariance matrix in row-major order
+   * @param means      mean return of every company
+   */
+  WeightOptimizer(double[] covariance, double[] means) {
+    this.companies = means.length;
+    this.covariance = covariance;
+    this.means = means;
+  }
+
+  /**
+   * Method to get the weights which meet a goal.
+   *
+   * @param goal goal of the optimization
+   * @return weight of every company as a fraction, adding up to 1
+   * @throws IllegalArgumentException if the solved weights do not add up to a positive total, as
+   *                                  when no company has a positive mean return when maximizing
+   *                                  the Sharpe ratio, or the covariance matrix is singular
+   */
+  public double[] optimize(OptimizationGoal goal) throws IllegalArgumentException {
+    double[] target = new double[companies];
+    if (goal == OptimizationGoal.MIN_VARIANCE) {
+      Arrays.fill(target, 1);
+    } else {
+      System.arraycopy(means, 0, target, 0, companies);
+    }
+    int[] active = new int[companies];
+    for (int i = 0; i < companies; i++) {
+      active[i] = i;
+    }
+    int count = companies;
+    while (true) {
+      double[] solution = solve(active, count, target);
+      double sum = 0;
+      for (int k = 0; k < count; k++) {
+        sum += solution[k];
+      }
+      if (sum <= 0) {
+        throw new IllegalArgumentException("Optimized weights do not add up to a positive total, "
+                + "such as when no company has a positive expected return");
+      }
+      int kept = 0;
+      for (int k = 0; k < count; k++) {
+        if (solution[k] / sum > 0) {
+          solution[kept] = solution[k];
+          active[kept++] = active[k];
+        }
+      }
+      if (kept == count) {
+        double[] weights = new double[companies];
+        for (int k = 0; k < count; k++) {
+          weights[active[k]] = solution[k] / sum;
+        }
+        return weights;
+      }
+      count = kept;
+    }
+  }
+
+  /**
+   * Helper method to solve the covariance of the active companies against a target vector.
+   */
+  private double[] solve(int[] active, int count, double[] target)
+          throws IllegalArgumentException {
+    double[] matrix = new double[count * count];
+    double trace = 0;
+    for (int a = 0; a < count; a++) {
+      int row = active[a] * companies;
+      for (int b = 0; b <= a; b++) {
+        matrix[a * count + b] = covariance[row + active[b]];
+      }
+      trace += matrix[a * count + a];
+    }
+    double ridge = RIDGE * Math.max(trace / count, Double.MIN_NORMAL);
+    // Cholesky factorization in place of the lower triangle
+    for (int a = 0; a < count; a++) {
+      for (int b = 0; b <= a; b++) {
+        double sum = matrix[a * count + b];
+        for (int k = 0; k < b; k++) {
+          sum -= matrix[a * count + k] * matrix[b * count + k];
+        }
+        if (a == b) {
+          sum += ridge;
+          if (sum <= 0) {
+            throw new IllegalArgumentException("The covariance of the companies is singular");
+          }
+          matrix[a * count + a] = Math.sqrt(sum);
+        } else {
+          matrix[a * count + b] = sum / matrix[b * count + b];
+        }
+      }
+    }
+    double[] solution = new double[count];
+    for (int a = 0; a < count; a++) {
+      double sum = target[active[a]];
+      for (int k = 0; k < a; k++) {
+        sum -= matrix[a * count + k] * solution[k];
+      }
+      solution[a] = sum / matrix[a * count + a];
+    }
+    for (int a = count - 1; a >= 0; a--) {
+      double sum = solution[a];
+      for (int k = a + 1; k < count; k++) {
+        sum -= matrix[k * count + a] * solution[k];
+      }
+      solution[a] = sum / matrix[a * count + a];
+    }
+    return solution;
+  }
+}
@@ -0,0 +1,148 @@
+package stockmarket.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class represents the outcome of loading the saved workspace. It records how long each saved
+ * portfolio or strategy took to restore and why the ones that could not be restored failed.
+ */
+public class WorkspaceReport {
+  private final List<Entry> entries;
+  private long elapsedMillis;
+
+  /**
+   * Constructor to initialize an empty report.
+   */
+  public WorkspaceReport() {
+    this.entries = Collections.synchronizedList(new ArrayList<>());
+  }
+
+  /**
+   * Method to record the outcome of restoring one saved file.
+   *
+   * @param kind   either "portfolio" or "strategy"
+   * @param name   name of the restored portfolio or strategy
+   * @param millis time taken to restore it in milliseconds
+   * @param error  reason for the failure or null if it was restored successfully
+   */
+  void add(String kind, String name, double millis, String error) {
+    entries.add(new Entry(kind, name, millis, error));
+  }
+
+  /**
+   * Method to set the wall clock time taken by the whole load.
+   *
+   * @param elapsedMillis total time in milliseconds
+   */
+  void setElapsedMillis(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  /**
+   * Method to get the wall clock time taken by the whole load.
+   *
+   * @return total time in milliseconds
+   */
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  /**
+   * Method to get the outcome of every file that was restored or failed.
+   *
+   * @return list of all the entries in this report
+   */
+  public List<Entry> getEntries() {
+    synchronized (entries) {
+      return new ArrayList<>(entries);
+    }
+  }
+
+  /**
+   * Method to get the entries which could not be restored.
+   *
+   * @return list of failed entries
+   */
+  public List<Entry> getFailures() {
+    List<Entry> failures = new ArrayList<>();
+    for (Entry entry : getEntries()) {
+      if (entry.getError() != null) {
+        failures.add(entry);
+      }
+    }
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    List<Entry> all = getEntries();
+    StringBuilder report = new StringBuilder();
+    report.append("Restored ").append(all.size() - getFailures().size()).append(" of ")
+            .append(all.size()).append(" saved files in ").append(elapsedMillis).append(" ms\n");
+    for (Entry entry : all) {
+      report.append(entry).append("\n");
+    }
+    return report.toString();
+  }
+
+  /**
+   * This class represents the outcome of restoring a single saved portfolio or strategy.
+   */
+  public static class Entry {
+    private final String kind;
+    private final String name;
+    private final double millis;
+    private final String error;
+
+    private Entry(String kind, String name, double millis, String error) {
+      this.kind = kind;
+      this.name = name;
+      this.millis = millis;
+      this.error = error;
+    }
+
+    /**
+     * Method to get the kind of saved file.
+     *
+     * @return either "portfolio" or "strategy"
+     */
+    public String getKind() {
+      return kind;
+    }
+
+    /**
+     * Method to get the name of the restored portfolio or strategy.
+     *
+     * @return name of the portfolio or strategy
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * Method to get the time taken to restore this file.
+     *
+     * @return time in milliseconds
+     */
+    public double getMillis() {
+      return millis;
+    }
+
+    /**
+     * Method to get the reason this file could not be restored.
+     *
+     * @return reason of the failure or null if it was restored successfully
+     */
+    public String getError() {
+      return error;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s %s: %.2f ms%s", kind, name, millis,
+              error == null ? "" : " FAILED (" + error + ")");
+    }
+  }
+}
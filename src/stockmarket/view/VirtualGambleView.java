@@ -1,10 +1,10 @@
-package stockmarket.view;
-
-/**
- * This interface represents the View for the Virtual Gamble Application. The view is responsible
- * for showing the system response to the user.
- */
-public interface VirtualGambleView {
-
-  void print(Appendable ap,String buffer);
-}
+package stockmarket.view;
+
+/**
+ * This interface represents the View for the Virtual Gamble Application. The view is responsible
+ * for showing the system response to the user.
+ */
+public interface VirtualGambleView {
+
+  void print(Appendable ap,String buffer);
+}